@@ -0,0 +1,96 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmark;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+
+/**
+ * Builds the shared in-memory H2 database used by the benchmarks.
+ * <p>
+ * Data is generated deterministically so that results are comparable between runs.
+ */
+public final class BenchmarkDatabase {
+
+  public static final String CONFIG_RESOURCE = "org/apache/ibatis/benchmark/mybatis-config.xml";
+  public static final int AUTHOR_COUNT = 1000;
+  public static final int POSTS_PER_AUTHOR = 5;
+
+  private BenchmarkDatabase() {
+    // Prevent Instantiation
+  }
+
+  public static SqlSessionFactory createSqlSessionFactory() throws IOException, SQLException {
+    SqlSessionFactory sqlSessionFactory;
+    try (Reader reader = Resources.getResourceAsReader(CONFIG_RESOURCE)) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    populate(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource());
+    return sqlSessionFactory;
+  }
+
+  public static void populate(DataSource dataSource) throws SQLException {
+    try (Connection conn = dataSource.getConnection()) {
+      conn.setAutoCommit(false);
+      try (Statement stmt = conn.createStatement()) {
+        stmt.execute("drop table post if exists");
+        stmt.execute("drop table author if exists");
+        stmt.execute("create table author (id int primary key, username varchar(64), email varchar(128),"
+            + " bio varchar(512), rating double, active boolean)");
+        stmt.execute("create table post (id int primary key, author_id int, subject varchar(128),"
+            + " body varchar(1024), created_on timestamp)");
+      }
+      try (PreparedStatement author = conn
+          .prepareStatement("insert into author (id, username, email, bio, rating, active) values (?, ?, ?, ?, ?, ?)");
+          PreparedStatement post = conn
+              .prepareStatement("insert into post (id, author_id, subject, body, created_on) values (?, ?, ?, ?, ?)")) {
+        int postId = 0;
+        for (int i = 1; i <= AUTHOR_COUNT; i++) {
+          author.setInt(1, i);
+          author.setString(2, "user" + i);
+          author.setString(3, "user" + i + "@example.com");
+          author.setString(4, "Biography of author number " + i);
+          author.setDouble(5, (i % 50) / 10.0);
+          author.setBoolean(6, i % 3 != 0);
+          author.addBatch();
+          for (int j = 0; j < POSTS_PER_AUTHOR; j++) {
+            post.setInt(1, ++postId);
+            post.setInt(2, i);
+            post.setString(3, "Subject " + postId);
+            post.setString(4, "Body of post " + postId + " written by author " + i);
+            post.setTimestamp(5, new Timestamp(1_600_000_000_000L + postId * 60_000L));
+            post.addBatch();
+          }
+        }
+        author.executeBatch();
+        post.executeBatch();
+      }
+      conn.commit();
+    }
+  }
+
+}
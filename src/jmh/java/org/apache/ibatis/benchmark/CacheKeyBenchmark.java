@@ -0,0 +1,90 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link CacheKey} construction, hashing and equality for keys shaped like the ones built by
+ * {@code BaseExecutor#createCacheKey}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheKeyBenchmark {
+
+  private static final String STATEMENT_ID = "org.apache.ibatis.benchmark.BenchmarkMapper.selectAuthorsByIds";
+  private static final String SQL = "select id, username, email, bio, rating, active from author where id in (?, ?, ?)"
+      + " and active = ? and rating >= ? order by id";
+
+  @Param({ "1", "10", "100" })
+  public int parameters;
+
+  private CacheKey key;
+  private CacheKey equalKey;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    key = createKey();
+    equalKey = createKey();
+  }
+
+  @Benchmark
+  public CacheKey create() {
+    return createKey();
+  }
+
+  @Benchmark
+  public int createAndHash() {
+    return createKey().hashCode();
+  }
+
+  @Benchmark
+  public boolean equalsSameContent() {
+    return key.equals(equalKey);
+  }
+
+  private CacheKey createKey() {
+    CacheKey cacheKey = new CacheKey();
+    cacheKey.update(STATEMENT_ID);
+    cacheKey.update(0);
+    cacheKey.update(Integer.MAX_VALUE);
+    cacheKey.update(SQL);
+    for (int i = 0; i < parameters; i++) {
+      cacheKey.update(i);
+    }
+    cacheKey.update("benchmark");
+    return cacheKey;
+  }
+
+}
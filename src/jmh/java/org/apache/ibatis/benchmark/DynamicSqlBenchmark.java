@@ -0,0 +1,88 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures dynamic SQL generation for a statement built from {@code <where>}, {@code <if>} and {@code <foreach>}, both
+ * in isolation ({@link MappedStatement#getBoundSql(Object)}) and end to end.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DynamicSqlBenchmark {
+
+  private static final String STATEMENT = "org.apache.ibatis.benchmark.BenchmarkMapper.selectAuthorsByIds";
+
+  @Param({ "1", "10", "100" })
+  public int size;
+
+  private SqlSessionFactory sqlSessionFactory;
+  private MappedStatement mappedStatement;
+  private Map<String, Object> parameter;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    sqlSessionFactory = BenchmarkDatabase.createSqlSessionFactory();
+    mappedStatement = sqlSessionFactory.getConfiguration().getMappedStatement(STATEMENT);
+    List<Integer> ids = new ArrayList<>(size);
+    for (int i = 1; i <= size; i++) {
+      ids.add(i * 7 % BenchmarkDatabase.AUTHOR_COUNT + 1);
+    }
+    parameter = new HashMap<>();
+    parameter.put("ids", ids);
+    parameter.put("active", Boolean.TRUE);
+    parameter.put("minRating", 1.0);
+  }
+
+  @Benchmark
+  public BoundSql getBoundSql() {
+    return mappedStatement.getBoundSql(parameter);
+  }
+
+  @Benchmark
+  public List<Author> selectList() {
+    try (SqlSession session = sqlSessionFactory.openSession()) {
+      return session.selectList(STATEMENT, parameter);
+    }
+  }
+
+}
@@ -0,0 +1,89 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmark;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.datasource.pooled.ConcurrentPooledDataSource;
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a borrow/return cycle on {@link PooledDataSource} (i.e. {@code popConnection} and
+ * {@code pushConnection}) and on {@link ConcurrentPooledDataSource}, single threaded and under contention.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PooledDataSourceBenchmark {
+
+  @Param({ "false", "true" })
+  public boolean concurrent;
+
+  private PooledDataSource dataSource;
+
+  @Setup(Level.Trial)
+  public void setup() throws SQLException {
+    dataSource = concurrent
+        ? new ConcurrentPooledDataSource("org.h2.Driver", "jdbc:h2:mem:pool;DB_CLOSE_DELAY=-1", "sa", "")
+        : new PooledDataSource("org.h2.Driver", "jdbc:h2:mem:pool;DB_CLOSE_DELAY=-1", "sa", "");
+    dataSource.setPoolMaximumActiveConnections(10);
+    dataSource.setPoolMaximumIdleConnections(10);
+    BenchmarkDatabase.populate(dataSource);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    dataSource.forceCloseAll();
+  }
+
+  @Benchmark
+  @Threads(1)
+  public void borrowAndReturn() throws SQLException {
+    borrow();
+  }
+
+  @Benchmark
+  @Threads(16)
+  public void borrowAndReturnContended() throws SQLException {
+    borrow();
+  }
+
+  private void borrow() throws SQLException {
+    try (Connection connection = dataSource.getConnection()) {
+      connection.getAutoCommit();
+    }
+  }
+
+}
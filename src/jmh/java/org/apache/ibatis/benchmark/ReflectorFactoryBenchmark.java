@@ -0,0 +1,95 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.reflection.DefaultReflectorFactory;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.MethodHandleReflectorFactory;
+import org.apache.ibatis.reflection.ReflectorFactory;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the reflection based and the method handle based property invokers, on the row mapping of
+ * {@code selectList} and on {@link MetaObject} property writes alone.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReflectorFactoryBenchmark {
+
+  @Param({ "default", "methodHandle" })
+  private String reflectorFactory;
+
+  private SqlSessionFactory sqlSessionFactory;
+  private Configuration configuration;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    sqlSessionFactory = BenchmarkDatabase.createSqlSessionFactory();
+    configuration = sqlSessionFactory.getConfiguration();
+    ReflectorFactory factory = "methodHandle".equals(reflectorFactory) ? new MethodHandleReflectorFactory()
+        : new DefaultReflectorFactory();
+    configuration.setReflectorFactory(factory);
+  }
+
+  @Benchmark
+  public List<Author> selectListWithResultMap() {
+    try (SqlSession session = sqlSessionFactory.openSession()) {
+      return session.selectList("org.apache.ibatis.benchmark.BenchmarkMapper.selectAuthors");
+    }
+  }
+
+  @Benchmark
+  public List<Author> selectListWithAutoMapping() {
+    try (SqlSession session = sqlSessionFactory.openSession()) {
+      return session.selectList("org.apache.ibatis.benchmark.BenchmarkMapper.selectAuthorsAutoMapped");
+    }
+  }
+
+  @Benchmark
+  public Author setProperties() {
+    Author author = new Author();
+    MetaObject metaObject = configuration.newMetaObject(author);
+    metaObject.setValue("id", 1);
+    metaObject.setValue("username", "author1");
+    metaObject.setValue("email", "author1@example.com");
+    metaObject.setValue("bio", "bio1");
+    metaObject.setValue("rating", 4.5d);
+    metaObject.setValue("active", Boolean.TRUE);
+    return author;
+  }
+
+}
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2020 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -63,4 +63,22 @@ public @interface Many {
    */
   FetchType fetchType() default FetchType.DEFAULT;
 
+  /**
+   * Returns the maximum number of keys loaded by one execution of the nested statement when the fetch type is
+   * {@link FetchType#BATCH}.
+   *
+   * @return the batch size
+   * @since 3.5.7
+   */
+  int batchSize() default 100;
+
+  /**
+   * Returns the columns of the nested statement results that contain the keys, matched against the columns of the
+   * parent when the fetch type is {@link FetchType#BATCH}.
+   *
+   * @return the foreign columns
+   * @since 3.5.7
+   */
+  String foreignColumn() default "";
+
 }
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2020 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -138,6 +138,23 @@ public @interface Options {
    */
   String resultSets() default "";
 
+  /**
+   * Returns whether map the rows of a simple result map on fork-join workers while the rows are fetched.
+   *
+   * @return {@code true} if map in parallel; {@code false} if otherwise
+   * @since 3.5.7
+   */
+  boolean parallelMapping() default false;
+
+  /**
+   * Returns how many rows a cursor maps ahead of its consumer, on a thread of its own. Other statements must not be
+   * run on the same session while such a cursor is open.
+   *
+   * @return the number of rows mapped ahead; {@code 0} maps each row when the consumer asks for it
+   * @since 3.5.7
+   */
+  int cursorPrefetchSize() default 0;
+
   /**
    * @return A database id that correspond this options
    * @since 3.5.5
@@ -1,17 +1,17 @@
 /**
- * Copyright 2009-2020 the original author or authors.
- * <p>
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- * <p>
- * http://www.apache.org/licenses/LICENSE-2.0
- * <p>
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
  */
 package org.apache.ibatis.builder;
 
@@ -47,6 +47,16 @@ public class MapperBuilderAssistant extends BaseBuilder {
     this.resource = resource;
   }
 
+  /**
+   * Gets the resource the mapper elements are read from.
+   *
+   * @return the resource
+   * @since 3.5.7
+   */
+  public String getResource() {
+    return resource;
+  }
+
   public String getCurrentNamespace() {
     return currentNamespace;
   }
@@ -128,16 +138,17 @@ public class MapperBuilderAssistant extends BaseBuilder {
                            boolean readWrite,
                            boolean blocking,
                            Properties props) {
-    Cache cache = new CacheBuilder(currentNamespace)
+    CacheBuilder cacheBuilder = new CacheBuilder(currentNamespace)
       .implementation(valueOrDefault(typeClass, PerpetualCache.class))
       .addDecorator(valueOrDefault(evictionClass, LruCache.class))
       .clearInterval(flushInterval)
       .size(size)
       .readWrite(readWrite)
       .blocking(blocking)
-      .properties(props)
-      .build();
+      .properties(props);
+    Cache cache = cacheBuilder.build();
     configuration.addCache(cache);
+    configuration.addCacheBuilder(cacheBuilder);
     currentCache = cache;
     return cache;
   }
@@ -271,7 +282,9 @@ public class MapperBuilderAssistant extends BaseBuilder {
     String keyColumn,
     String databaseId,
     LanguageDriver lang,
-    String resultSets) {
+    String resultSets,
+    boolean parallelMapping,
+    int cursorPrefetchSize) {
 
     if (unresolvedCacheRef) {
       throw new IncompleteElementException("Cache-ref not yet resolved");
@@ -291,6 +304,8 @@ public class MapperBuilderAssistant extends BaseBuilder {
       .databaseId(databaseId)
       .lang(lang)
       .resultOrdered(resultOrdered)
+      .parallelMapping(parallelMapping)
+      .cursorPrefetchSize(cursorPrefetchSize)
       .resultSets(resultSets)
       .resultMaps(getStatementResultMaps(resultMap, resultType, id))
       .resultSetType(resultSetType)
@@ -308,6 +323,81 @@ public class MapperBuilderAssistant extends BaseBuilder {
     return statement;
   }
 
+  /**
+   * Backward compatibility signature 'addMappedStatement'.
+   *
+   * @param id              the id
+   * @param sqlSource       the sql source
+   * @param statementType   the statement type
+   * @param sqlCommandType  the sql command type
+   * @param fetchSize       the fetch size
+   * @param timeout         the timeout
+   * @param parameterMap    the parameter map
+   * @param parameterType   the parameter type
+   * @param resultMap       the result map
+   * @param resultType      the result type
+   * @param resultSetType   the result set type
+   * @param flushCache      the flush cache
+   * @param useCache        the use cache
+   * @param resultOrdered   the result ordered
+   * @param keyGenerator    the key generator
+   * @param keyProperty     the key property
+   * @param keyColumn       the key column
+   * @param databaseId      the database id
+   * @param lang            the lang
+   * @param resultSets      the result sets
+   * @param parallelMapping the parallel mapping
+   * @return the mapped statement
+   */
+  public MappedStatement addMappedStatement(String id, SqlSource sqlSource, StatementType statementType,
+                                            SqlCommandType sqlCommandType, Integer fetchSize, Integer timeout, String parameterMap, Class<?> parameterType,
+                                            String resultMap, Class<?> resultType, ResultSetType resultSetType, boolean flushCache, boolean useCache,
+                                            boolean resultOrdered, KeyGenerator keyGenerator, String keyProperty, String keyColumn, String databaseId,
+                                            LanguageDriver lang, String resultSets, boolean parallelMapping) {
+    return addMappedStatement(
+      id, sqlSource, statementType, sqlCommandType, fetchSize, timeout,
+      parameterMap, parameterType, resultMap, resultType, resultSetType,
+      flushCache, useCache, resultOrdered, keyGenerator, keyProperty,
+      keyColumn, databaseId, lang, resultSets, parallelMapping, 0);
+  }
+
+  /**
+   * Backward compatibility signature 'addMappedStatement'.
+   *
+   * @param id             the id
+   * @param sqlSource      the sql source
+   * @param statementType  the statement type
+   * @param sqlCommandType the sql command type
+   * @param fetchSize      the fetch size
+   * @param timeout        the timeout
+   * @param parameterMap   the parameter map
+   * @param parameterType  the parameter type
+   * @param resultMap      the result map
+   * @param resultType     the result type
+   * @param resultSetType  the result set type
+   * @param flushCache     the flush cache
+   * @param useCache       the use cache
+   * @param resultOrdered  the result ordered
+   * @param keyGenerator   the key generator
+   * @param keyProperty    the key property
+   * @param keyColumn      the key column
+   * @param databaseId     the database id
+   * @param lang           the lang
+   * @param resultSets     the result sets
+   * @return the mapped statement
+   */
+  public MappedStatement addMappedStatement(String id, SqlSource sqlSource, StatementType statementType,
+                                            SqlCommandType sqlCommandType, Integer fetchSize, Integer timeout, String parameterMap, Class<?> parameterType,
+                                            String resultMap, Class<?> resultType, ResultSetType resultSetType, boolean flushCache, boolean useCache,
+                                            boolean resultOrdered, KeyGenerator keyGenerator, String keyProperty, String keyColumn, String databaseId,
+                                            LanguageDriver lang, String resultSets) {
+    return addMappedStatement(
+      id, sqlSource, statementType, sqlCommandType, fetchSize, timeout,
+      parameterMap, parameterType, resultMap, resultType, resultSetType,
+      flushCache, useCache, resultOrdered, keyGenerator, keyProperty,
+      keyColumn, databaseId, lang, resultSets, false, 0);
+  }
+
   /**
    * Backward compatibility signature 'addMappedStatement'.
    *
@@ -341,7 +431,7 @@ public class MapperBuilderAssistant extends BaseBuilder {
       id, sqlSource, statementType, sqlCommandType, fetchSize, timeout,
       parameterMap, parameterType, resultMap, resultType, resultSetType,
       flushCache, useCache, resultOrdered, keyGenerator, keyProperty,
-      keyColumn, databaseId, lang, null);
+      keyColumn, databaseId, lang, null, false, 0);
   }
 
   private <T> T valueOrDefault(T value, T defaultValue) {
@@ -414,6 +504,26 @@ public class MapperBuilderAssistant extends BaseBuilder {
     String resultSet,
     String foreignColumn,
     boolean lazy) {
+    return buildResultMapping(resultType, property, column, javaType, jdbcType, nestedSelect, nestedResultMap, notNullColumn,
+      columnPrefix, typeHandler, flags, resultSet, foreignColumn, lazy, 0);
+  }
+
+  public ResultMapping buildResultMapping(
+    Class<?> resultType,
+    String property,
+    String column,
+    Class<?> javaType,
+    JdbcType jdbcType,
+    String nestedSelect,
+    String nestedResultMap,
+    String notNullColumn,
+    String columnPrefix,
+    Class<? extends TypeHandler<?>> typeHandler,
+    List<ResultFlag> flags,
+    String resultSet,
+    String foreignColumn,
+    boolean lazy,
+    int batchSize) {
     Class<?> javaTypeClass = resolveResultJavaType(resultType, property, javaType);
     TypeHandler<?> typeHandlerInstance = resolveTypeHandler(javaTypeClass, typeHandler);
     List<ResultMapping> composites;
@@ -434,6 +544,7 @@ public class MapperBuilderAssistant extends BaseBuilder {
       .columnPrefix(columnPrefix)
       .foreignColumn(foreignColumn)
       .lazy(lazy)
+      .batchSize(batchSize)
       .build();
   }
 
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2017 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -20,6 +20,7 @@ import java.util.List;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.scripting.defaults.ParameterBinderCache;
 import org.apache.ibatis.session.Configuration;
 
 /**
@@ -30,6 +31,7 @@ public class StaticSqlSource implements SqlSource {
   private final String sql;
   private final List<ParameterMapping> parameterMappings;
   private final Configuration configuration;
+  private final ParameterBinderCache parameterBinderCache;
 
   public StaticSqlSource(Configuration configuration, String sql) {
     this(configuration, sql, null);
@@ -39,11 +41,12 @@ public class StaticSqlSource implements SqlSource {
     this.sql = sql;
     this.parameterMappings = parameterMappings;
     this.configuration = configuration;
+    this.parameterBinderCache = configuration.getParameterBinderCache(parameterMappings);
   }
 
   @Override
   public BoundSql getBoundSql(Object parameterObject) {
-    return new BoundSql(configuration, sql, parameterMappings, parameterObject);
+    return new BoundSql(configuration, sql, parameterMappings, parameterObject, parameterBinderCache);
   }
 
 }
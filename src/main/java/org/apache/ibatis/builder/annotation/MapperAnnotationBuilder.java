@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2020 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -378,7 +378,9 @@ public class MapperAnnotationBuilder {
           statementAnnotation.getDatabaseId(),
           languageDriver,
           // ResultSets
-          options != null ? nullOrEmpty(options.resultSets()) : null);
+          options != null ? nullOrEmpty(options.resultSets()) : null,
+          options != null && options.parallelMapping(),
+          options != null ? options.cursorPrefetchSize() : 0);
     });
   }
 
@@ -487,8 +489,9 @@ public class MapperAnnotationBuilder {
           typeHandler,
           flags,
           null,
-          null,
-          isLazy(result));
+          isBatch(result) ? nullOrEmpty(findForeignColumn(result)) : null,
+          isLazy(result),
+          isBatch(result) ? findBatchSize(result) : 0);
       resultMappings.add(resultMapping);
     }
   }
@@ -540,6 +543,19 @@ public class MapperAnnotationBuilder {
     return isLazy;
   }
 
+  private boolean isBatch(Result result) {
+    return (result.one().select().length() > 0 && result.one().fetchType() == FetchType.BATCH)
+        || (result.many().select().length() > 0 && result.many().fetchType() == FetchType.BATCH);
+  }
+
+  private String findForeignColumn(Result result) {
+    return result.one().select().length() > 0 ? result.one().foreignColumn() : result.many().foreignColumn();
+  }
+
+  private int findBatchSize(Result result) {
+    return result.one().select().length() > 0 ? result.one().batchSize() : result.many().batchSize();
+  }
+
   private boolean hasNestedSelect(Result result) {
     if (result.one().select().length() > 0 && result.many().select().length() > 0) {
       throw new BuilderException("Cannot use both @One and @Many annotations in the same @Result");
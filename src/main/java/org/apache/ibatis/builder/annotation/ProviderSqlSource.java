@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2020 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -36,8 +36,10 @@ import org.apache.ibatis.session.Configuration;
 public class ProviderSqlSource implements SqlSource {
 
   private final Configuration configuration;
+  private final Annotation provider;
   private final Class<?> providerType;
   private final LanguageDriver languageDriver;
+  private final Class<?> mapperType;
   private final Method mapperMethod;
   private final Method providerMethod;
   private final String[] providerMethodArgumentNames;
@@ -97,6 +99,8 @@ public class ProviderSqlSource implements SqlSource {
     Method candidateProviderMethod = null;
     try {
       this.configuration = configuration;
+      this.provider = provider;
+      this.mapperType = mapperType;
       this.mapperMethod = mapperMethod;
       Lang lang = mapperMethod == null ? null : mapperMethod.getAnnotation(Lang.class);
       this.languageDriver = configuration.getLanguageDriver(lang == null ? null : lang.value());
@@ -151,6 +155,36 @@ public class ProviderSqlSource implements SqlSource {
     this.providerContextIndex = candidateProviderContextIndex;
   }
 
+  /**
+   * Gets the provider annotation this sql source was created from.
+   *
+   * @return the provider annotation
+   * @since 3.5.7
+   */
+  public Annotation getProvider() {
+    return provider;
+  }
+
+  /**
+   * Gets the mapper type.
+   *
+   * @return the mapper type, or {@code null} if it was not specified
+   * @since 3.5.7
+   */
+  public Class<?> getMapperType() {
+    return mapperType;
+  }
+
+  /**
+   * Gets the mapper method.
+   *
+   * @return the mapper method, or {@code null} if it was not specified
+   * @since 3.5.7
+   */
+  public Method getMapperMethod() {
+    return mapperMethod;
+  }
+
   @Override
   public BoundSql getBoundSql(Object parameterObject) {
     SqlSource sqlSource = createSqlSource(parameterObject);
@@ -0,0 +1,1043 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder.snapshot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+
+import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.builder.annotation.ProviderSqlSource;
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
+import org.apache.ibatis.executor.keygen.KeyGenerator;
+import org.apache.ibatis.executor.keygen.NoKeyGenerator;
+import org.apache.ibatis.executor.keygen.SelectKeyGenerator;
+import org.apache.ibatis.io.ResolverUtil;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.CacheBuilder;
+import org.apache.ibatis.mapping.Discriminator;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMap;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.mapping.ResultFlag;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.mapping.StatementType;
+import org.apache.ibatis.parsing.PropertyParser;
+import org.apache.ibatis.parsing.XNode;
+import org.apache.ibatis.scripting.LanguageDriver;
+import org.apache.ibatis.scripting.defaults.RawSqlSource;
+import org.apache.ibatis.scripting.xmltags.DynamicSqlSource;
+import org.apache.ibatis.scripting.xmltags.SqlNodeSnapshot;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.TypeHandler;
+import org.apache.ibatis.type.TypeHandlerRegistry;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/**
+ * A binary snapshot of the mappers of a configuration.
+ * <p>
+ * The snapshot holds the caches, parameter maps, result maps, key generators and mapped statements built from the
+ * mappers, so that they can be loaded without parsing the mapper files again. It also holds what is needed to tell
+ * that it no longer matches the configuration it is loaded into:
+ * <ul>
+ * <li>a checksum of the configuration document, without its {@code environments} element and
+ * {@code mapperSnapshot} setting,</li>
+ * <li>the database id,</li>
+ * <li>a checksum of every mapper file and mapper interface it was built from,</li>
+ * <li>the classes found in the packages listed by the {@code mappers} element,</li>
+ * <li>the values of the {@code ${}} placeholders found in the configuration document and in the mapper sources.</li>
+ * </ul>
+ * A snapshot that does not match is ignored and the mappers are parsed as usual. The SQL of a {@link RawSqlSource} is
+ * loaded as a {@link StaticSqlSource}, which it is equivalent to. Statements built by other language drivers than the
+ * XML and raw ones, custom key generators and caches not declared by a mapper cannot be stored in a snapshot.
+ *
+ * @since 3.5.7
+ * @see MapperSnapshotTool
+ */
+public final class MapperSnapshot {
+
+  private static final Log log = LogFactory.getLog(MapperSnapshot.class);
+
+  private static final int MAGIC = 0x4D425353;
+  private static final int VERSION = 2;
+
+  private static final int STATIC_SQL = 0;
+  private static final int DYNAMIC_SQL = 1;
+  private static final int PROVIDER_SQL = 2;
+
+  private static final int NO_KEY = 0;
+  private static final int JDBC3_KEY = 1;
+  private static final int SELECT_KEY = 2;
+
+  private static final String INTERFACE_PREFIX = "interface ";
+  private static final String NAMESPACE_PREFIX = "namespace:";
+
+  private MapperSnapshot() {
+    // Prevent Instantiation of Static Class
+  }
+
+  /**
+   * Writes a snapshot of the mappers of a configuration.
+   *
+   * @param configuration
+   *          the configuration, with its mappers loaded
+   * @param configRoot
+   *          the root node of the configuration document the configuration was built from
+   * @param outputStream
+   *          the stream to write to
+   * @throws IOException
+   *           if a mapper source or the stream cannot be read or written
+   */
+  public static void write(Configuration configuration, XNode configRoot, OutputStream outputStream) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    SnapshotOutput output = new SnapshotOutput(bytes);
+    output.writeInt(MAGIC);
+    output.writeInt(VERSION);
+    new Writer(configuration, output).write(configRoot);
+    output.flush();
+    byte[] data = bytes.toByteArray();
+    DataOutputStream out = new DataOutputStream(outputStream);
+    out.write(data);
+    out.writeLong(checksum(data, data.length));
+    out.flush();
+  }
+
+  /**
+   * Loads the mappers of a configuration from the snapshot set by {@link Configuration#setMapperSnapshot(String)}.
+   *
+   * @param configuration
+   *          the configuration, without mappers
+   * @param configRoot
+   *          the root node of the configuration document
+   * @return true if the mappers were loaded, false if the snapshot was not found or does not match
+   */
+  public static boolean load(Configuration configuration, XNode configRoot) {
+    String location = configuration.getMapperSnapshot();
+    byte[] data;
+    try (InputStream inputStream = location.indexOf(':') >= 0 ? Resources.getUrlAsStream(location)
+        : Resources.getResourceAsStream(location)) {
+      data = readAll(inputStream);
+    } catch (IOException e) {
+      log.debug("Mapper snapshot '" + location + "' could not be read, parsing the mappers. Cause: " + e);
+      return false;
+    }
+    try {
+      String mismatch = read(configuration, configRoot, data);
+      if (mismatch != null) {
+        log.debug("Mapper snapshot '" + location + "' is out of date (" + mismatch + "), parsing the mappers.");
+        return false;
+      }
+      return true;
+    } catch (IOException e) {
+      throw new BuilderException("Error reading mapper snapshot '" + location + "'. Cause: " + e, e);
+    }
+  }
+
+  /**
+   * Loads the mappers of a configuration from a snapshot.
+   *
+   * @param configuration
+   *          the configuration, without mappers
+   * @param configRoot
+   *          the root node of the configuration document
+   * @param inputStream
+   *          the stream to read the snapshot from
+   * @return true if the mappers were loaded, false if the snapshot does not match
+   * @throws IOException
+   *           if the snapshot cannot be read
+   */
+  public static boolean read(Configuration configuration, XNode configRoot, InputStream inputStream) throws IOException {
+    String mismatch = read(configuration, configRoot, readAll(inputStream));
+    if (mismatch != null) {
+      log.debug("Mapper snapshot is out of date (" + mismatch + ").");
+    }
+    return mismatch == null;
+  }
+
+  private static String read(Configuration configuration, XNode configRoot, byte[] data) throws IOException {
+    int length = data.length - Long.BYTES;
+    if (length < 0 || checksum(data, length) != readLong(data, length)) {
+      return "invalid checksum";
+    }
+    SnapshotInput input = new SnapshotInput(data, 0, length);
+    if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+      return "unsupported format";
+    }
+    Reader reader = new Reader(configuration, input);
+    String mismatch = reader.validate(configRoot);
+    if (mismatch == null) {
+      reader.read();
+    }
+    return mismatch;
+  }
+
+  private static class Writer {
+
+    private final Configuration configuration;
+    private final SnapshotOutput output;
+    private final Map<ResultMap, Integer> resultMapIndexes = new IdentityHashMap<>();
+    private final Map<KeyGenerator, String> keyGeneratorIds = new IdentityHashMap<>();
+
+    Writer(Configuration configuration, SnapshotOutput output) {
+      this.configuration = configuration;
+      this.output = output;
+    }
+
+    void write(XNode configRoot) throws IOException {
+      // resolves the pending elements and fails if some of them cannot be
+      configuration.getMappedStatementNames();
+      if (!configuration.getIncompleteStatements().isEmpty() || !configuration.getIncompleteResultMaps().isEmpty()
+          || !configuration.getIncompleteCacheRefs().isEmpty() || !configuration.getIncompleteMethods().isEmpty()) {
+        throw new BuilderException("A configuration with incomplete mapper elements cannot be stored in a mapper snapshot.");
+      }
+      writeValidation(configRoot);
+
+      output.writeStrings(new TreeSet<>(configuration.getLoadedResources()));
+
+      Collection<Cache> caches = distinct(configuration.getCacheNames(), configuration::getCache, Cache::getId);
+      output.writeInt(caches.size());
+      for (Cache cache : caches) {
+        CacheBuilder cacheBuilder = configuration.getCacheBuilder(cache.getId());
+        if (cacheBuilder == null) {
+          throw new BuilderException("The cache '" + cache.getId()
+              + "' was not declared by a mapper and cannot be stored in a mapper snapshot.");
+        }
+        writeCache(cacheBuilder);
+      }
+
+      Collection<ParameterMap> parameterMaps = distinct(configuration.getParameterMapNames(),
+          configuration::getParameterMap, ParameterMap::getId);
+      output.writeInt(parameterMaps.size());
+      for (ParameterMap parameterMap : parameterMaps) {
+        writeParameterMap(parameterMap);
+      }
+
+      Collection<ResultMap> registeredResultMaps = distinct(configuration.getResultMapNames(),
+          configuration::getResultMap, ResultMap::getId);
+      Collection<MappedStatement> statements = distinct(configuration.getMappedStatementNames(),
+          id -> configuration.getMappedStatement(id, false), MappedStatement::getId);
+      List<ResultMap> resultMaps = new ArrayList<>(registeredResultMaps);
+      for (MappedStatement statement : statements) {
+        for (ResultMap resultMap : statement.getResultMaps()) {
+          if (!registeredResultMaps.contains(resultMap) && !resultMaps.contains(resultMap)) {
+            resultMaps.add(resultMap);
+          }
+        }
+      }
+      output.writeInt(resultMaps.size());
+      for (int i = 0; i < resultMaps.size(); i++) {
+        ResultMap resultMap = resultMaps.get(i);
+        resultMapIndexes.put(resultMap, i);
+        output.writeBoolean(i < registeredResultMaps.size());
+        writeResultMap(resultMap);
+      }
+
+      Map<String, SelectKeyGenerator> keyGenerators = new TreeMap<>();
+      for (String id : configuration.getKeyGeneratorNames()) {
+        KeyGenerator keyGenerator = getQuietly(configuration::getKeyGenerator, id);
+        if (keyGenerator == null) {
+          continue;
+        }
+        if (!(keyGenerator instanceof SelectKeyGenerator)) {
+          throw new BuilderException("The key generator " + keyGenerator.getClass().getName()
+              + " cannot be stored in a mapper snapshot.");
+        }
+        String knownId = keyGeneratorIds.get(keyGenerator);
+        if (knownId == null || knownId.length() < id.length()) {
+          if (knownId != null) {
+            keyGenerators.remove(knownId);
+          }
+          keyGenerators.put(id, (SelectKeyGenerator) keyGenerator);
+          keyGeneratorIds.put(keyGenerator, id);
+        }
+      }
+      Set<MappedStatement> keyStatements = new LinkedHashSet<>();
+      for (SelectKeyGenerator keyGenerator : keyGenerators.values()) {
+        keyStatements.add(keyGenerator.getKeyStatement());
+      }
+      for (MappedStatement keyStatement : keyStatements) {
+        if (!statements.contains(keyStatement)) {
+          throw new BuilderException("The key statement '" + keyStatement.getId() + "' is not a mapped statement.");
+        }
+      }
+      writeStatements(keyStatements);
+      output.writeInt(keyGenerators.size());
+      for (Map.Entry<String, SelectKeyGenerator> entry : keyGenerators.entrySet()) {
+        output.writeString(entry.getKey());
+        output.writeString(entry.getValue().getKeyStatement().getId());
+        output.writeBoolean(entry.getValue().isExecuteBefore());
+      }
+      List<MappedStatement> otherStatements = new ArrayList<>(statements);
+      otherStatements.removeAll(keyStatements);
+      writeStatements(otherStatements);
+
+      Set<String> mappers = new TreeSet<>();
+      for (Class<?> mapper : configuration.getMapperRegistry().getMappers()) {
+        mappers.add(mapper.getName());
+      }
+      output.writeStrings(mappers);
+    }
+
+    private void writeValidation(XNode configRoot) throws IOException {
+      Set<String> placeholders = new TreeSet<>();
+      CRC32 configChecksum = new CRC32();
+      checksum(configRoot.getNode(), configChecksum, placeholders);
+      output.writeLong(configChecksum.getValue());
+      output.writeString(configuration.getDatabaseId());
+
+      List<String> sources = new ArrayList<>();
+      for (String resource : new TreeSet<>(configuration.getLoadedResources())) {
+        if (!resource.startsWith(NAMESPACE_PREFIX)) {
+          sources.add(resource);
+        }
+      }
+      output.writeInt(sources.size());
+      for (String source : sources) {
+        byte[] content = readSource(source);
+        output.writeString(source);
+        output.writeLong(checksum(content, content.length));
+        findPlaceholders(new String(content, StandardCharsets.ISO_8859_1), placeholders);
+      }
+
+      List<String> packages = mapperPackages(configRoot);
+      output.writeInt(packages.size());
+      for (String mapperPackage : packages) {
+        output.writeString(mapperPackage);
+        output.writeStrings(findClasses(mapperPackage));
+      }
+
+      output.writeInt(placeholders.size());
+      for (String placeholder : placeholders) {
+        output.writeString(placeholder);
+        output.writeLong(resolve(placeholder, configuration.getVariables()));
+      }
+    }
+
+    private void writeCache(CacheBuilder cacheBuilder) throws IOException {
+      output.writeString(cacheBuilder.getId());
+      output.writeClass(cacheBuilder.getImplementation());
+      List<Class<? extends Cache>> decorators = cacheBuilder.getDecorators();
+      output.writeInt(decorators.size());
+      for (Class<? extends Cache> decorator : decorators) {
+        output.writeClass(decorator);
+      }
+      output.writeNullableInt(cacheBuilder.getSize());
+      output.writeNullableLong(cacheBuilder.getClearInterval());
+      output.writeBoolean(cacheBuilder.isReadWrite());
+      output.writeBoolean(cacheBuilder.isBlocking());
+      Properties properties = cacheBuilder.getProperties();
+      if (properties == null) {
+        output.writeInt(-1);
+      } else {
+        Set<String> names = new TreeSet<>(properties.stringPropertyNames());
+        output.writeInt(names.size());
+        for (String name : names) {
+          output.writeString(name);
+          output.writeString(properties.getProperty(name));
+        }
+      }
+    }
+
+    private void writeParameterMap(ParameterMap parameterMap) throws IOException {
+      output.writeString(parameterMap.getId());
+      output.writeClass(parameterMap.getType());
+      writeParameterMappings(parameterMap.getParameterMappings());
+    }
+
+    private void writeParameterMappings(List<ParameterMapping> parameterMappings) throws IOException {
+      if (parameterMappings == null) {
+        output.writeInt(-1);
+        return;
+      }
+      output.writeInt(parameterMappings.size());
+      for (ParameterMapping parameterMapping : parameterMappings) {
+        output.writeString(parameterMapping.getProperty());
+        output.writeEnum(parameterMapping.getMode());
+        output.writeClass(parameterMapping.getJavaType());
+        output.writeEnum(parameterMapping.getJdbcType());
+        output.writeNullableInt(parameterMapping.getNumericScale());
+        writeTypeHandler(parameterMapping.getTypeHandler());
+        output.writeString(parameterMapping.getResultMapId());
+        output.writeString(parameterMapping.getJdbcTypeName());
+        output.writeString(parameterMapping.getExpression());
+      }
+    }
+
+    private void writeResultMap(ResultMap resultMap) throws IOException {
+      output.writeString(resultMap.getId());
+      output.writeClass(resultMap.getType());
+      output.writeNullableBoolean(resultMap.getAutoMapping());
+      output.writeBoolean(resultMap.hasNestedResultMaps());
+      writeResultMappings(resultMap.getResultMappings());
+      Discriminator discriminator = resultMap.getDiscriminator();
+      output.writeBoolean(discriminator != null);
+      if (discriminator != null) {
+        writeResultMapping(discriminator.getResultMapping());
+        Map<String, String> cases = new TreeMap<>(discriminator.getDiscriminatorMap());
+        output.writeInt(cases.size());
+        for (Map.Entry<String, String> entry : cases.entrySet()) {
+          output.writeString(entry.getKey());
+          output.writeString(entry.getValue());
+        }
+      }
+    }
+
+    private void writeResultMappings(List<ResultMapping> resultMappings) throws IOException {
+      output.writeInt(resultMappings.size());
+      for (ResultMapping resultMapping : resultMappings) {
+        writeResultMapping(resultMapping);
+      }
+    }
+
+    private void writeResultMapping(ResultMapping resultMapping) throws IOException {
+      output.writeString(resultMapping.getProperty());
+      output.writeString(resultMapping.getColumn());
+      output.writeClass(resultMapping.getJavaType());
+      output.writeEnum(resultMapping.getJdbcType());
+      writeTypeHandler(resultMapping.getTypeHandler());
+      output.writeString(resultMapping.getNestedResultMapId());
+      output.writeString(resultMapping.getNestedQueryId());
+      Set<String> notNullColumns = resultMapping.getNotNullColumns();
+      output.writeStrings(notNullColumns == null ? null : new TreeSet<>(notNullColumns));
+      output.writeString(resultMapping.getColumnPrefix());
+      List<ResultFlag> flags = resultMapping.getFlags();
+      output.writeInt(flags.size());
+      for (ResultFlag flag : flags) {
+        output.writeEnum(flag);
+      }
+      writeResultMappings(resultMapping.getComposites());
+      output.writeString(resultMapping.getResultSet());
+      output.writeString(resultMapping.getForeignColumn());
+      output.writeBoolean(resultMapping.isLazy());
+      output.writeInt(resultMapping.getBatchSize());
+    }
+
+    private void writeTypeHandler(TypeHandler<?> typeHandler) throws IOException {
+      output.writeClass(typeHandler == null ? null : typeHandler.getClass());
+    }
+
+    private void writeStatements(Collection<MappedStatement> statements) throws IOException {
+      output.writeInt(statements.size());
+      for (MappedStatement statement : statements) {
+        writeStatement(statement);
+      }
+    }
+
+    private void writeStatement(MappedStatement statement) throws IOException {
+      output.writeString(statement.getId());
+      output.writeString(statement.getResource());
+      output.writeEnum(statement.getSqlCommandType());
+      writeSqlSource(statement);
+      output.writeNullableInt(statement.getFetchSize());
+      output.writeNullableInt(statement.getTimeout());
+      output.writeEnum(statement.getStatementType());
+      output.writeEnum(statement.getResultSetType());
+      Cache cache = statement.getCache();
+      if (cache != null && configuration.getCache(cache.getId()) != cache) {
+        throw new BuilderException("The cache of statement '" + statement.getId()
+            + "' was not declared by a mapper and cannot be stored in a mapper snapshot.");
+      }
+      output.writeString(cache == null ? null : cache.getId());
+      ParameterMap parameterMap = statement.getParameterMap();
+      boolean registered = configuration.hasParameterMap(parameterMap.getId())
+          && configuration.getParameterMap(parameterMap.getId()) == parameterMap;
+      output.writeBoolean(registered);
+      if (registered) {
+        output.writeString(parameterMap.getId());
+      } else {
+        writeParameterMap(parameterMap);
+      }
+      output.writeInt(statement.getResultMaps().size());
+      for (ResultMap resultMap : statement.getResultMaps()) {
+        output.writeInt(resultMapIndexes.get(resultMap));
+      }
+      output.writeBoolean(statement.isFlushCacheRequired());
+      output.writeBoolean(statement.isUseCache());
+      output.writeBoolean(statement.isResultOrdered());
+      output.writeBoolean(statement.isParallelMapping());
+      output.writeInt(statement.getCursorPrefetchSize());
+      writeKeyGenerator(statement);
+      output.writeStringArray(statement.getKeyProperties());
+      output.writeStringArray(statement.getKeyColumns());
+      output.writeString(statement.getDatabaseId());
+      output.writeClass(statement.getLang().getClass());
+      output.writeStringArray(statement.getResultSets());
+    }
+
+    private void writeSqlSource(MappedStatement statement) throws IOException {
+      SqlSource sqlSource = statement.getSqlSource();
+      if (sqlSource.getClass() == StaticSqlSource.class || sqlSource.getClass() == RawSqlSource.class) {
+        // neither of them reads the parameter object
+        BoundSql boundSql = sqlSource.getBoundSql(null);
+        output.writeInt(STATIC_SQL);
+        output.writeString(boundSql.getSql());
+        writeParameterMappings(boundSql.getParameterMappings());
+      } else if (sqlSource.getClass() == DynamicSqlSource.class) {
+        output.writeInt(DYNAMIC_SQL);
+        SqlNodeSnapshot.write((DynamicSqlSource) sqlSource, output);
+      } else if (sqlSource.getClass() == ProviderSqlSource.class
+          && ((ProviderSqlSource) sqlSource).getMapperMethod() != null) {
+        ProviderSqlSource providerSqlSource = (ProviderSqlSource) sqlSource;
+        Method mapperMethod = providerSqlSource.getMapperMethod();
+        Annotation provider = providerSqlSource.getProvider();
+        output.writeInt(PROVIDER_SQL);
+        output.writeClass(providerSqlSource.getMapperType());
+        output.writeClass(mapperMethod.getDeclaringClass());
+        output.writeString(mapperMethod.getName());
+        output.writeClasses(mapperMethod.getParameterTypes());
+        output.writeClass(provider.annotationType());
+        output.writeString(databaseIdOf(provider));
+      } else {
+        throw new BuilderException("The SqlSource " + sqlSource.getClass().getName() + " of statement '"
+            + statement.getId() + "' cannot be stored in a mapper snapshot.");
+      }
+    }
+
+    private void writeKeyGenerator(MappedStatement statement) throws IOException {
+      KeyGenerator keyGenerator = statement.getKeyGenerator();
+      if (keyGenerator instanceof NoKeyGenerator) {
+        output.writeInt(NO_KEY);
+      } else if (keyGenerator instanceof Jdbc3KeyGenerator) {
+        output.writeInt(JDBC3_KEY);
+      } else if (keyGeneratorIds.containsKey(keyGenerator)) {
+        output.writeInt(SELECT_KEY);
+        output.writeString(keyGeneratorIds.get(keyGenerator));
+      } else {
+        throw new BuilderException("The key generator " + keyGenerator.getClass().getName() + " of statement '"
+            + statement.getId() + "' cannot be stored in a mapper snapshot.");
+      }
+    }
+
+  }
+
+  private static class Reader {
+
+    private final Configuration configuration;
+    private final SnapshotInput input;
+    private final List<ResultMap> resultMaps = new ArrayList<>();
+
+    Reader(Configuration configuration, SnapshotInput input) {
+      this.configuration = configuration;
+      this.input = input;
+    }
+
+    String validate(XNode configRoot) throws IOException {
+      CRC32 configChecksum = new CRC32();
+      checksum(configRoot.getNode(), configChecksum, null);
+      if (input.readLong() != configChecksum.getValue()) {
+        return "the configuration has changed";
+      }
+      String databaseId = input.readString();
+      if (databaseId == null ? configuration.getDatabaseId() != null : !databaseId.equals(configuration.getDatabaseId())) {
+        return "the database id has changed";
+      }
+      int sources = input.readInt();
+      for (int i = 0; i < sources; i++) {
+        String source = input.readString();
+        long checksum = input.readLong();
+        byte[] content;
+        try {
+          content = readSource(source);
+        } catch (IOException e) {
+          return "'" + source + "' could not be read";
+        }
+        if (checksum(content, content.length) != checksum) {
+          return "'" + source + "' has changed";
+        }
+      }
+      int packages = input.readInt();
+      for (int i = 0; i < packages; i++) {
+        String mapperPackage = input.readString();
+        if (!input.readStrings().equals(findClasses(mapperPackage))) {
+          return "the classes of package '" + mapperPackage + "' have changed";
+        }
+      }
+      int placeholders = input.readInt();
+      for (int i = 0; i < placeholders; i++) {
+        String placeholder = input.readString();
+        if (input.readLong() != resolve(placeholder, configuration.getVariables())) {
+          return "the value of '${" + placeholder + "}' has changed";
+        }
+      }
+      return null;
+    }
+
+    void read() throws IOException {
+      for (String resource : input.readStrings()) {
+        configuration.addLoadedResource(resource);
+      }
+
+      int caches = input.readInt();
+      for (int i = 0; i < caches; i++) {
+        CacheBuilder cacheBuilder = readCache();
+        configuration.addCache(cacheBuilder.build());
+        configuration.addCacheBuilder(cacheBuilder);
+      }
+
+      int parameterMaps = input.readInt();
+      for (int i = 0; i < parameterMaps; i++) {
+        configuration.addParameterMap(readParameterMap());
+      }
+
+      int resultMapCount = input.readInt();
+      for (int i = 0; i < resultMapCount; i++) {
+        boolean registered = input.readBoolean();
+        ResultMap resultMap = readResultMap();
+        resultMaps.add(resultMap);
+        if (registered) {
+          configuration.addResultMap(resultMap);
+        }
+      }
+
+      readStatements();
+      int keyGenerators = input.readInt();
+      for (int i = 0; i < keyGenerators; i++) {
+        String id = input.readString();
+        MappedStatement keyStatement = configuration.getMappedStatement(input.readString(), false);
+        configuration.addKeyGenerator(id, new SelectKeyGenerator(keyStatement, input.readBoolean()));
+      }
+      readStatements();
+
+      // the mapper resources are already loaded, so only the mapper proxies are registered
+      for (String mapper : input.readStrings()) {
+        try {
+          configuration.addMapper(Resources.classForName(mapper));
+        } catch (ClassNotFoundException e) {
+          throw new BuilderException("Error reading mapper snapshot. Cause: " + e, e);
+        }
+      }
+    }
+
+    private CacheBuilder readCache() throws IOException {
+      CacheBuilder cacheBuilder = new CacheBuilder(input.readString());
+      cacheBuilder.implementation(input.readClass());
+      int decorators = input.readInt();
+      for (int i = 0; i < decorators; i++) {
+        cacheBuilder.addDecorator(input.readClass());
+      }
+      cacheBuilder.size(input.readNullableInt());
+      cacheBuilder.clearInterval(input.readNullableLong());
+      cacheBuilder.readWrite(input.readBoolean());
+      cacheBuilder.blocking(input.readBoolean());
+      int propertyCount = input.readInt();
+      if (propertyCount >= 0) {
+        Properties properties = new Properties();
+        for (int i = 0; i < propertyCount; i++) {
+          properties.setProperty(input.readString(), input.readString());
+        }
+        cacheBuilder.properties(properties);
+      }
+      return cacheBuilder;
+    }
+
+    private ParameterMap readParameterMap() throws IOException {
+      String id = input.readString();
+      Class<?> type = input.readClass();
+      return new ParameterMap.Builder(configuration, id, type, readParameterMappings()).build();
+    }
+
+    private List<ParameterMapping> readParameterMappings() throws IOException {
+      int size = input.readInt();
+      if (size < 0) {
+        return null;
+      }
+      List<ParameterMapping> parameterMappings = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        String property = input.readString();
+        ParameterMode mode = input.readEnum(ParameterMode.class);
+        Class<?> javaType = input.readClass();
+        JdbcType jdbcType = input.readEnum(JdbcType.class);
+        parameterMappings.add(new ParameterMapping.Builder(configuration, property, javaType)
+            .mode(mode)
+            .jdbcType(jdbcType)
+            .numericScale(input.readNullableInt())
+            .typeHandler(readTypeHandler(javaType, jdbcType))
+            .resultMapId(input.readString())
+            .jdbcTypeName(input.readString())
+            .expression(input.readString())
+            .build());
+      }
+      return parameterMappings;
+    }
+
+    private ResultMap readResultMap() throws IOException {
+      String id = input.readString();
+      Class<?> type = input.readClass();
+      Boolean autoMapping = input.readNullableBoolean();
+      boolean hasNestedResultMaps = input.readBoolean();
+      List<ResultMapping> resultMappings = readResultMappings();
+      Discriminator discriminator = null;
+      if (input.readBoolean()) {
+        ResultMapping resultMapping = readResultMapping();
+        int size = input.readInt();
+        Map<String, String> discriminatorMap = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+          discriminatorMap.put(input.readString(), input.readString());
+        }
+        discriminator = new Discriminator.Builder(configuration, resultMapping, discriminatorMap).build();
+      }
+      ResultMap resultMap = new ResultMap.Builder(configuration, id, type, resultMappings, autoMapping)
+          .discriminator(discriminator)
+          .build();
+      if (hasNestedResultMaps && !resultMap.hasNestedResultMaps()) {
+        resultMap.forceNestedResultMaps();
+      }
+      return resultMap;
+    }
+
+    private List<ResultMapping> readResultMappings() throws IOException {
+      int size = input.readInt();
+      List<ResultMapping> resultMappings = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        resultMappings.add(readResultMapping());
+      }
+      return resultMappings;
+    }
+
+    private ResultMapping readResultMapping() throws IOException {
+      String property = input.readString();
+      String column = input.readString();
+      Class<?> javaType = input.readClass();
+      JdbcType jdbcType = input.readEnum(JdbcType.class);
+      TypeHandler<?> typeHandler = readTypeHandler(javaType, jdbcType);
+      String nestedResultMapId = input.readString();
+      String nestedQueryId = input.readString();
+      List<String> notNullColumnList = input.readStrings();
+      Set<String> notNullColumns = notNullColumnList == null ? null : new LinkedHashSet<>(notNullColumnList);
+      String columnPrefix = input.readString();
+      int flagCount = input.readInt();
+      List<ResultFlag> flags = new ArrayList<>(flagCount);
+      for (int i = 0; i < flagCount; i++) {
+        flags.add(input.readEnum(ResultFlag.class));
+      }
+      return new ResultMapping.Builder(configuration, property)
+          .column(column)
+          .javaType(javaType)
+          .jdbcType(jdbcType)
+          .typeHandler(typeHandler)
+          .nestedResultMapId(nestedResultMapId)
+          .nestedQueryId(nestedQueryId)
+          .notNullColumns(notNullColumns)
+          .columnPrefix(columnPrefix)
+          .flags(flags)
+          .composites(readResultMappings())
+          .resultSet(input.readString())
+          .foreignColumn(input.readString())
+          .lazy(input.readBoolean())
+          .batchSize(input.readInt())
+          .build();
+    }
+
+    private TypeHandler<?> readTypeHandler(Class<?> javaType, JdbcType jdbcType) throws IOException {
+      Class<? extends TypeHandler<?>> typeHandlerType = input.readClass();
+      if (typeHandlerType == null) {
+        return null;
+      }
+      TypeHandlerRegistry typeHandlerRegistry = configuration.getTypeHandlerRegistry();
+      if (javaType != null) {
+        // the handler resolved by default for the java type
+        TypeHandler<?> typeHandler = typeHandlerRegistry.getTypeHandler(javaType, jdbcType);
+        if (typeHandler != null && typeHandler.getClass() == typeHandlerType) {
+          return typeHandler;
+        }
+      }
+      TypeHandler<?> typeHandler = typeHandlerRegistry.getMappingTypeHandler(typeHandlerType);
+      return typeHandler != null ? typeHandler : typeHandlerRegistry.getInstance(javaType, typeHandlerType);
+    }
+
+    private void readStatements() throws IOException {
+      int size = input.readInt();
+      for (int i = 0; i < size; i++) {
+        configuration.addMappedStatement(readStatement());
+      }
+    }
+
+    private MappedStatement readStatement() throws IOException {
+      String id = input.readString();
+      String resource = input.readString();
+      SqlCommandType sqlCommandType = input.readEnum(SqlCommandType.class);
+      SqlSource sqlSource = readSqlSource();
+      MappedStatement.Builder statementBuilder = new MappedStatement.Builder(configuration, id, sqlSource, sqlCommandType)
+          .resource(resource)
+          .fetchSize(input.readNullableInt())
+          .timeout(input.readNullableInt())
+          .statementType(input.readEnum(StatementType.class))
+          .resultSetType(input.readEnum(ResultSetType.class));
+      String cacheId = input.readString();
+      statementBuilder.cache(cacheId == null ? null : configuration.getCache(cacheId));
+      statementBuilder.parameterMap(input.readBoolean() ? configuration.getParameterMap(input.readString())
+          : readParameterMap());
+      int resultMapCount = input.readInt();
+      List<ResultMap> statementResultMaps = new ArrayList<>(resultMapCount);
+      for (int i = 0; i < resultMapCount; i++) {
+        statementResultMaps.add(resultMaps.get(input.readInt()));
+      }
+      statementBuilder.resultMaps(statementResultMaps)
+          .flushCacheRequired(input.readBoolean())
+          .useCache(input.readBoolean())
+          .resultOrdered(input.readBoolean())
+          .parallelMapping(input.readBoolean())
+          .cursorPrefetchSize(input.readInt())
+          .keyGenerator(readKeyGenerator());
+      String[] keyProperties = input.readStringArray();
+      String[] keyColumns = input.readStringArray();
+      statementBuilder.keyProperty(keyProperties == null ? null : String.join(",", keyProperties))
+          .keyColumn(keyColumns == null ? null : String.join(",", keyColumns))
+          .databaseId(input.readString())
+          .lang(configuration.getLanguageDriver(input.<LanguageDriver>readClass()));
+      String[] resultSets = input.readStringArray();
+      statementBuilder.resultSets(resultSets == null ? null : String.join(",", resultSets));
+      return statementBuilder.build();
+    }
+
+    private SqlSource readSqlSource() throws IOException {
+      int type = input.readInt();
+      switch (type) {
+        case STATIC_SQL: {
+          String sql = input.readString();
+          return new StaticSqlSource(configuration, sql, readParameterMappings());
+        }
+        case DYNAMIC_SQL:
+          return SqlNodeSnapshot.read(configuration, input);
+        case PROVIDER_SQL: {
+          Class<?> mapperType = input.readClass();
+          Class<?> declaringType = input.readClass();
+          String name = input.readString();
+          Class<?>[] parameterTypes = input.readClasses().toArray(new Class<?>[0]);
+          Class<? extends Annotation> providerType = input.readClass();
+          String databaseId = input.readString();
+          Method mapperMethod;
+          try {
+            mapperMethod = declaringType.getDeclaredMethod(name, parameterTypes);
+          } catch (NoSuchMethodException e) {
+            throw new BuilderException("Error reading mapper snapshot. Cause: " + e, e);
+          }
+          Annotation provider = Arrays.stream(mapperMethod.getAnnotationsByType(providerType))
+              .filter(x -> databaseId.equals(databaseIdOf(x))).findFirst()
+              .orElseThrow(() -> new BuilderException("Error reading mapper snapshot. The provider of method '"
+                  + mapperMethod + "' was not found."));
+          return new ProviderSqlSource(configuration, provider, mapperType, mapperMethod);
+        }
+        default:
+          throw new BuilderException("Unknown SqlSource type " + type + " in mapper snapshot.");
+      }
+    }
+
+    private KeyGenerator readKeyGenerator() throws IOException {
+      int type = input.readInt();
+      switch (type) {
+        case NO_KEY:
+          return NoKeyGenerator.INSTANCE;
+        case JDBC3_KEY:
+          return Jdbc3KeyGenerator.INSTANCE;
+        case SELECT_KEY:
+          return configuration.getKeyGenerator(input.readString());
+        default:
+          throw new BuilderException("Unknown key generator type " + type + " in mapper snapshot.");
+      }
+    }
+
+  }
+
+  private static <T> Collection<T> distinct(Collection<String> names, Function<String, T> lookup,
+      Function<T, String> idOf) {
+    Map<String, T> values = new TreeMap<>();
+    for (String name : names) {
+      T value = getQuietly(lookup, name);
+      if (value != null) {
+        values.putIfAbsent(idOf.apply(value), value);
+      }
+    }
+    return values.values();
+  }
+
+  private static <T> T getQuietly(Function<String, T> lookup, String name) {
+    try {
+      return lookup.apply(name);
+    } catch (IllegalArgumentException e) {
+      // a short name shared by several namespaces
+      return null;
+    }
+  }
+
+  private static String databaseIdOf(Annotation provider) {
+    try {
+      return (String) provider.annotationType().getMethod("databaseId").invoke(provider);
+    } catch (ReflectiveOperationException e) {
+      throw new BuilderException("Could not get the database id of " + provider + ". Cause: " + e, e);
+    }
+  }
+
+  private static List<String> mapperPackages(XNode configRoot) {
+    List<String> packages = new ArrayList<>();
+    XNode mappers = configRoot.evalNode("mappers");
+    if (mappers != null) {
+      for (XNode child : mappers.getChildren()) {
+        if ("package".equals(child.getName())) {
+          packages.add(child.getStringAttribute("name"));
+        }
+      }
+    }
+    return packages;
+  }
+
+  private static List<String> findClasses(String mapperPackage) {
+    // same lookup as MapperRegistry#addMappers(String)
+    ResolverUtil<Class<?>> resolverUtil = new ResolverUtil<>();
+    resolverUtil.find(new ResolverUtil.IsA(Object.class), mapperPackage);
+    Set<String> classes = new TreeSet<>();
+    for (Class<?> type : resolverUtil.getClasses()) {
+      classes.add(type.getName());
+    }
+    return new ArrayList<>(classes);
+  }
+
+  private static byte[] readSource(String source) throws IOException {
+    InputStream inputStream;
+    if (source.startsWith(INTERFACE_PREFIX)) {
+      inputStream = Resources.getResourceAsStream(source.substring(INTERFACE_PREFIX.length()).replace('.', '/') + ".class");
+    } else if (source.indexOf(':') >= 0) {
+      inputStream = Resources.getUrlAsStream(source);
+    } else {
+      inputStream = Resources.getResourceAsStream(source);
+    }
+    try (InputStream in = inputStream) {
+      return readAll(in);
+    }
+  }
+
+  private static void checksum(Node node, CRC32 checksum, Set<String> placeholders) {
+    if (node.getNodeType() == Node.ELEMENT_NODE) {
+      if ("environments".equals(node.getNodeName()) || isSnapshotSetting(node)) {
+        return;
+      }
+      update(checksum, "<" + node.getNodeName());
+      NamedNodeMap attributes = node.getAttributes();
+      Map<String, String> sortedAttributes = new TreeMap<>();
+      for (int i = 0; i < attributes.getLength(); i++) {
+        Node attribute = attributes.item(i);
+        sortedAttributes.put(attribute.getNodeName(), attribute.getNodeValue());
+      }
+      for (Map.Entry<String, String> attribute : sortedAttributes.entrySet()) {
+        update(checksum, " " + attribute.getKey() + "=" + attribute.getValue());
+        findPlaceholders(attribute.getValue(), placeholders);
+      }
+      NodeList children = node.getChildNodes();
+      for (int i = 0; i < children.getLength(); i++) {
+        checksum(children.item(i), checksum, placeholders);
+      }
+      update(checksum, ">");
+    } else if (node.getNodeType() == Node.TEXT_NODE || node.getNodeType() == Node.CDATA_SECTION_NODE) {
+      String text = node.getNodeValue().trim();
+      if (!text.isEmpty()) {
+        update(checksum, text);
+        findPlaceholders(text, placeholders);
+      }
+    }
+  }
+
+  private static boolean isSnapshotSetting(Node node) {
+    if (!"setting".equals(node.getNodeName())) {
+      return false;
+    }
+    Node name = node.getAttributes().getNamedItem("name");
+    return name != null && "mapperSnapshot".equals(name.getNodeValue());
+  }
+
+  private static void update(CRC32 checksum, String value) {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    checksum.update(bytes, 0, bytes.length);
+  }
+
+  private static void findPlaceholders(String text, Set<String> placeholders) {
+    if (placeholders == null) {
+      return;
+    }
+    int start = text.indexOf("${");
+    while (start >= 0) {
+      int end = text.indexOf('}', start + 2);
+      if (end < 0) {
+        return;
+      }
+      placeholders.add(text.substring(start + 2, end));
+      start = text.indexOf("${", end + 1);
+    }
+  }
+
+  private static long resolve(String placeholder, Properties variables) {
+    String value = PropertyParser.parse("${" + placeholder + "}", variables);
+    CRC32 checksum = new CRC32();
+    update(checksum, value);
+    return checksum.getValue();
+  }
+
+  private static long checksum(byte[] data, int length) {
+    CRC32 checksum = new CRC32();
+    checksum.update(data, 0, length);
+    return checksum.getValue();
+  }
+
+  private static long readLong(byte[] data, int offset) {
+    long value = 0;
+    for (int i = 0; i < Long.BYTES; i++) {
+      value = (value << 8) | (data[offset + i] & 0xFF);
+    }
+    return value;
+  }
+
+  private static byte[] readAll(InputStream inputStream) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    byte[] buffer = new byte[8192];
+    int read;
+    while ((read = inputStream.read(buffer)) != -1) {
+      bytes.write(buffer, 0, read);
+    }
+    return bytes.toByteArray();
+  }
+
+}
@@ -0,0 +1,88 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder.snapshot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+import org.apache.ibatis.builder.xml.XMLConfigBuilder;
+import org.apache.ibatis.builder.xml.XMLMapperEntityResolver;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.parsing.XNode;
+import org.apache.ibatis.parsing.XPathParser;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * Writes the {@link MapperSnapshot} of a configuration file at build time.
+ * <p>
+ * Usage: {@code java org.apache.ibatis.builder.snapshot.MapperSnapshotTool <config resource> <output file> [environment]}
+ * <p>
+ * The snapshot is then loaded by setting {@code mapperSnapshot} to the resource or URL of the output file.
+ *
+ * @since 3.5.7
+ */
+public final class MapperSnapshotTool {
+
+  private static final String USAGE = "Usage: MapperSnapshotTool <config resource> <output file> [environment]";
+
+  private MapperSnapshotTool() {
+    // Prevent Instantiation of Static Class
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length < 2 || args.length > 3) {
+      throw new IllegalArgumentException(USAGE);
+    }
+    // the output file may be the snapshot the configuration loads, so it is only replaced at the end
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    write(args[0], args.length > 2 ? args[2] : null, null, outputStream);
+    Files.write(Paths.get(args[1]), outputStream.toByteArray());
+  }
+
+  /**
+   * Parses a configuration file and writes the snapshot of its mappers.
+   *
+   * @param resource
+   *          the classpath resource of the configuration file
+   * @param environment
+   *          the environment to build, or null for the default one
+   * @param properties
+   *          the properties passed to the configuration, may be null
+   * @param outputStream
+   *          the stream to write the snapshot to
+   * @throws IOException
+   *           if the configuration file cannot be read or the snapshot cannot be written
+   */
+  public static void write(String resource, String environment, Properties properties, OutputStream outputStream)
+      throws IOException {
+    Configuration configuration;
+    try (Reader reader = Resources.getResourceAsReader(resource)) {
+      configuration = new XMLConfigBuilder(reader, environment, properties).parse();
+    }
+    XNode configRoot;
+    try (Reader reader = Resources.getResourceAsReader(resource)) {
+      configRoot = new XPathParser(reader, true, configuration.getVariables(), new XMLMapperEntityResolver())
+          .evalNode("/configuration");
+    }
+    MapperSnapshot.write(configuration, configRoot, outputStream);
+  }
+
+}
@@ -0,0 +1,163 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder.snapshot;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.io.Resources;
+
+/**
+ * Reads the values written by a {@link SnapshotOutput}.
+ *
+ * @since 3.5.7
+ */
+public class SnapshotInput {
+
+  private static final Map<String, Class<?>> PRIMITIVE_TYPES = new HashMap<>();
+
+  static {
+    for (Class<?> type : new Class<?>[] { boolean.class, byte.class, char.class, short.class, int.class, long.class,
+        float.class, double.class, void.class }) {
+      PRIMITIVE_TYPES.put(type.getName(), type);
+    }
+  }
+
+  private final DataInputStream in;
+  private final List<String> strings = new ArrayList<>();
+  private final Map<String, Class<?>> classes = new HashMap<>();
+
+  public SnapshotInput(byte[] bytes, int offset, int length) {
+    this.in = new DataInputStream(new ByteArrayInputStream(bytes, offset, length));
+  }
+
+  public boolean readBoolean() throws IOException {
+    return in.readBoolean();
+  }
+
+  public int readInt() throws IOException {
+    int value = readVarInt();
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  public long readLong() throws IOException {
+    return in.readLong();
+  }
+
+  public Boolean readNullableBoolean() throws IOException {
+    byte value = in.readByte();
+    return value == 0 ? null : value == 2;
+  }
+
+  public Integer readNullableInt() throws IOException {
+    return in.readBoolean() ? readInt() : null;
+  }
+
+  public Long readNullableLong() throws IOException {
+    return in.readBoolean() ? readLong() : null;
+  }
+
+  public String readString() throws IOException {
+    int reference = readVarInt();
+    if (reference == 0) {
+      return null;
+    }
+    if (reference > 1) {
+      return strings.get(reference - 2);
+    }
+    byte[] bytes = new byte[readVarInt()];
+    in.readFully(bytes);
+    String value = new String(bytes, StandardCharsets.UTF_8);
+    strings.add(value);
+    return value;
+  }
+
+  public List<String> readStrings() throws IOException {
+    int size = readInt();
+    if (size < 0) {
+      return null;
+    }
+    List<String> values = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      values.add(readString());
+    }
+    return values;
+  }
+
+  public String[] readStringArray() throws IOException {
+    List<String> values = readStrings();
+    return values == null ? null : values.toArray(new String[0]);
+  }
+
+  public <E extends Enum<E>> E readEnum(Class<E> type) throws IOException {
+    String name = readString();
+    return name == null ? null : Enum.valueOf(type, name);
+  }
+
+  @SuppressWarnings("unchecked")
+  public <T> Class<? extends T> readClass() throws IOException {
+    String name = readString();
+    if (name == null) {
+      return null;
+    }
+    Class<?> type = classes.get(name);
+    if (type == null) {
+      type = PRIMITIVE_TYPES.get(name);
+      if (type == null) {
+        try {
+          type = Resources.classForName(name);
+        } catch (ClassNotFoundException e) {
+          throw new BuilderException("Error reading mapper snapshot. Cause: " + e, e);
+        }
+      }
+      classes.put(name, type);
+    }
+    return (Class<? extends T>) type;
+  }
+
+  public List<Class<?>> readClasses() throws IOException {
+    int size = readInt();
+    if (size == 0) {
+      return Collections.emptyList();
+    }
+    List<Class<?>> types = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      types.add(readClass());
+    }
+    return types;
+  }
+
+  private int readVarInt() throws IOException {
+    int value = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      byte b = in.readByte();
+      value |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IOException("Malformed variable-length integer in mapper snapshot");
+  }
+
+}
@@ -0,0 +1,140 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder.snapshot;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes the values of a mapper snapshot.
+ * <p>
+ * Integers are written as variable-length values and every distinct string is written once, later occurrences being
+ * written as a reference to the first one.
+ *
+ * @since 3.5.7
+ * @see SnapshotInput
+ */
+public class SnapshotOutput {
+
+  private final DataOutputStream out;
+  private final Map<String, Integer> strings = new HashMap<>();
+
+  public SnapshotOutput(OutputStream out) {
+    this.out = new DataOutputStream(out);
+  }
+
+  public void writeBoolean(boolean value) throws IOException {
+    out.writeBoolean(value);
+  }
+
+  public void writeInt(int value) throws IOException {
+    writeVarInt((value << 1) ^ (value >> 31));
+  }
+
+  public void writeLong(long value) throws IOException {
+    out.writeLong(value);
+  }
+
+  public void writeNullableBoolean(Boolean value) throws IOException {
+    out.writeByte(value == null ? 0 : value ? 2 : 1);
+  }
+
+  public void writeNullableInt(Integer value) throws IOException {
+    out.writeBoolean(value != null);
+    if (value != null) {
+      writeInt(value);
+    }
+  }
+
+  public void writeNullableLong(Long value) throws IOException {
+    out.writeBoolean(value != null);
+    if (value != null) {
+      writeLong(value);
+    }
+  }
+
+  public void writeString(String value) throws IOException {
+    if (value == null) {
+      writeVarInt(0);
+      return;
+    }
+    Integer index = strings.get(value);
+    if (index != null) {
+      writeVarInt(index + 2);
+      return;
+    }
+    strings.put(value, strings.size());
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    writeVarInt(1);
+    writeVarInt(bytes.length);
+    out.write(bytes);
+  }
+
+  public void writeStrings(Collection<String> values) throws IOException {
+    if (values == null) {
+      writeInt(-1);
+      return;
+    }
+    writeInt(values.size());
+    for (String value : values) {
+      writeString(value);
+    }
+  }
+
+  public void writeStringArray(String[] values) throws IOException {
+    if (values == null) {
+      writeInt(-1);
+      return;
+    }
+    writeInt(values.length);
+    for (String value : values) {
+      writeString(value);
+    }
+  }
+
+  public void writeEnum(Enum<?> value) throws IOException {
+    writeString(value == null ? null : value.name());
+  }
+
+  public void writeClass(Class<?> type) throws IOException {
+    writeString(type == null ? null : type.getName());
+  }
+
+  public void writeClasses(Class<?>[] types) throws IOException {
+    writeInt(types.length);
+    for (Class<?> type : types) {
+      writeClass(type);
+    }
+  }
+
+  public void flush() throws IOException {
+    out.flush();
+  }
+
+  private void writeVarInt(int value) throws IOException {
+    while ((value & ~0x7F) != 0) {
+      out.writeByte((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    out.writeByte(value);
+  }
+
+}
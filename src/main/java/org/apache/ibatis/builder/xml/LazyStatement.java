@@ -0,0 +1,150 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder.xml;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.executor.ErrorContext;
+import org.apache.ibatis.mapping.MappedStatement;
+
+/**
+ * A mapped statement of a mapper XML that is only built on first use.
+ * <p>
+ * It is registered with the id and database id of the statement node, and the node is parsed into a
+ * {@link MappedStatement} the first time the statement is looked up. The statements of all the mappers of a
+ * configuration are built one at a time, holding {@link org.apache.ibatis.session.Configuration#getLazyStatementLock()},
+ * as the mapper documents cannot be read by several threads and building a statement registers its key generator. The
+ * {@code selectKey} statement of a node is registered as a lazy statement that builds the statement it belongs to.
+ *
+ * @since 3.5.7
+ * @see org.apache.ibatis.session.Configuration#setLazyStatementCompilationEnabled(boolean)
+ */
+public final class LazyStatement {
+
+  private final String id;
+  private final String databaseId;
+  private final String resource;
+  private final XMLStatementBuilder builder;
+  private final LazyStatement owner;
+
+  private volatile boolean built;
+  private boolean building;
+  private RuntimeException failure;
+  private MappedStatement statement;
+
+  LazyStatement(String id, String databaseId, String resource, XMLStatementBuilder builder) {
+    this.id = id;
+    this.databaseId = databaseId;
+    this.resource = resource;
+    this.builder = builder;
+    this.owner = this;
+  }
+
+  LazyStatement(String id, LazyStatement owner) {
+    this.id = id;
+    this.databaseId = null;
+    this.resource = owner.resource;
+    this.builder = null;
+    this.owner = owner;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  /**
+   * Gets the database id of the statement, which is known before it is built except for {@code selectKey} statements.
+   *
+   * @return the database id
+   */
+  public String getDatabaseId() {
+    return statement != null ? statement.getDatabaseId() : databaseId;
+  }
+
+  public String getResource() {
+    return resource;
+  }
+
+  public boolean isBuilt() {
+    return owner.built;
+  }
+
+  /**
+   * Returns whether the statement exists. A {@code selectKey} statement may not, when its database id does not match.
+   *
+   * @return true if the statement exists
+   */
+  public boolean hasStatement() {
+    return owner == this || getStatement() != null;
+  }
+
+  /**
+   * Gets the statement, building it if it was not yet.
+   *
+   * @return the statement, null for a {@code selectKey} statement that does not exist
+   */
+  public MappedStatement getStatement() {
+    owner.build();
+    return statement;
+  }
+
+  /**
+   * Sets the statement built for this id. It is called by the configuration while the statement is being built.
+   *
+   * @param statement
+   *          the statement
+   */
+  public void setStatement(MappedStatement statement) {
+    if (!owner.building || this.statement != null) {
+      throw new IllegalArgumentException("Mapped Statements collection already contains value for " + id
+          + ". please check " + resource + " and " + statement.getResource());
+    }
+    this.statement = statement;
+  }
+
+  private void build() {
+    if (built) {
+      return;
+    }
+    final ReentrantLock lock = builder.getConfiguration().getLazyStatementLock();
+    lock.lock();
+    try {
+      if (built || building) {
+        return;
+      }
+      if (failure != null) {
+        throw failure;
+      }
+      building = true;
+      ErrorContext context = ErrorContext.instance().store();
+      try {
+        ErrorContext.instance().resource(resource).activity("building lazy statement " + id);
+        builder.buildStatementNode();
+        built = true;
+      } catch (RuntimeException e) {
+        failure = new BuilderException("Error building mapped statement '" + id + "' from " + resource + ". Cause: " + e, e);
+        throw failure;
+      } finally {
+        building = false;
+        context.recall();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+}
@@ -0,0 +1,248 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder.xml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.executor.ErrorContext;
+import org.apache.ibatis.io.ResolverUtil;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.parsing.XNode;
+import org.apache.ibatis.parsing.XPathParser;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * Loads the mappers of a {@code <mappers>} element in two phases.
+ * <p>
+ * The mapper XML documents are read, and the mapper interfaces with their companion XML documents are loaded, by a
+ * pool of threads. The results are then registered in the configuration by the calling thread, in the order the
+ * mappers are declared, so incomplete elements are resolved and duplicated ids are detected exactly as in a sequential
+ * build.
+ *
+ * @see Configuration#setParallelMapperParsingEnabled(boolean)
+ */
+class ParallelMapperParser {
+
+  private static final AtomicInteger POOL_NUMBER = new AtomicInteger();
+
+  private final Configuration configuration;
+
+  ParallelMapperParser(Configuration configuration) {
+    this.configuration = configuration;
+  }
+
+  void parse(XNode parent) throws Exception {
+    List<XNode> children = parent.getChildren();
+    if (children.isEmpty()) {
+      return;
+    }
+    ExecutorService executor = newExecutor(Math.min(Runtime.getRuntime().availableProcessors(), children.size()));
+    try {
+      List<Future<?>> loads = new ArrayList<>(children.size());
+      for (XNode child : children) {
+        loads.add(submit(executor, child));
+      }
+      List<List<Future<LoadedType>>> packageTypes = new ArrayList<>(children.size());
+      for (int i = 0; i < children.size(); i++) {
+        packageTypes.add(isPackage(children.get(i)) ? submitTypes(executor, (Future<?>) loads.get(i)) : null);
+      }
+      for (int i = 0; i < children.size(); i++) {
+        XNode child = children.get(i);
+        if (isPackage(child)) {
+          for (Future<LoadedType> type : packageTypes.get(i)) {
+            register(get(type));
+          }
+        } else {
+          String resource = child.getStringAttribute("resource");
+          String url = child.getStringAttribute("url");
+          String mapperClass = child.getStringAttribute("class");
+          if (resource != null && url == null && mapperClass == null) {
+            ErrorContext.instance().resource(resource);
+            XMLMapperBuilder mapperParser = new XMLMapperBuilder((XPathParser) get(loads.get(i)), configuration, resource, configuration.getSqlFragments());
+            mapperParser.parse();
+          } else if (resource == null && url != null && mapperClass == null) {
+            ErrorContext.instance().resource(url);
+            XMLMapperBuilder mapperParser = new XMLMapperBuilder((XPathParser) get(loads.get(i)), configuration, url, configuration.getSqlFragments());
+            mapperParser.parse();
+          } else if (resource == null && url == null && mapperClass != null) {
+            register((LoadedType) get(loads.get(i)));
+          } else {
+            throw new BuilderException("A mapper element may only specify a url, resource or class, but not more than one.");
+          }
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private Future<?> submit(ExecutorService executor, XNode child) {
+    if (isPackage(child)) {
+      String mapperPackage = child.getStringAttribute("name");
+      return executor.submit(() -> {
+        // same lookup as MapperRegistry#addMappers(String)
+        ResolverUtil<Class<?>> resolverUtil = new ResolverUtil<>();
+        resolverUtil.find(new ResolverUtil.IsA(Object.class), mapperPackage);
+        return resolverUtil.getClasses();
+      });
+    }
+    String resource = child.getStringAttribute("resource");
+    String url = child.getStringAttribute("url");
+    String mapperClass = child.getStringAttribute("class");
+    if (resource != null && url == null && mapperClass == null) {
+      return executor.submit(() -> {
+        try (InputStream inputStream = Resources.getResourceAsStream(resource)) {
+          return newParser(inputStream);
+        }
+      });
+    } else if (resource == null && url != null && mapperClass == null) {
+      return executor.submit(() -> {
+        try (InputStream inputStream = Resources.getUrlAsStream(url)) {
+          return newParser(inputStream);
+        }
+      });
+    } else if (resource == null && url == null && mapperClass != null) {
+      return executor.submit(() -> loadType(Resources.classForName(mapperClass)));
+    }
+    // reported in declaration order by parse
+    return null;
+  }
+
+  private List<Future<LoadedType>> submitTypes(ExecutorService executor, Future<?> packageLoad) throws Exception {
+    @SuppressWarnings("unchecked")
+    Set<Class<?>> types = (Set<Class<?>>) get(packageLoad);
+    if (types.isEmpty()) {
+      return Collections.emptyList();
+    }
+    List<Future<LoadedType>> loads = new ArrayList<>(types.size());
+    for (Class<?> type : types) {
+      loads.add(executor.submit(() -> loadType(type)));
+    }
+    return loads;
+  }
+
+  private LoadedType loadType(Class<?> type) {
+    if (!type.isInterface()) {
+      // ignored by MapperRegistry#addMapper(Class)
+      return new LoadedType(type, null, null);
+    }
+    for (Method method : type.getMethods()) {
+      method.getAnnotations();
+    }
+    // same lookup as MapperAnnotationBuilder#loadXmlResource
+    String xmlResource = type.getName().replace('.', '/') + ".xml";
+    InputStream inputStream = type.getResourceAsStream("/" + xmlResource);
+    if (inputStream == null) {
+      try {
+        inputStream = Resources.getResourceAsStream(type.getClassLoader(), xmlResource);
+      } catch (IOException e) {
+        // ignore, resource is not required
+      }
+    }
+    if (inputStream == null) {
+      return new LoadedType(type, null, null);
+    }
+    try (InputStream in = inputStream) {
+      return new LoadedType(type, xmlResource, newParser(in));
+    } catch (IOException e) {
+      throw new BuilderException("Error closing mapper resource " + xmlResource + ". Cause: " + e, e);
+    }
+  }
+
+  private void register(LoadedType loaded) {
+    Class<?> type = loaded.type;
+    if (loaded.parser != null && !configuration.hasMapper(type)
+        && !configuration.isResourceLoaded("namespace:" + type.getName())) {
+      // the companion XML is parsed first and binds its namespace, which adds the mapper like
+      // MapperAnnotationBuilder#loadXmlResource would have done
+      XMLMapperBuilder xmlParser = new XMLMapperBuilder(loaded.parser, configuration, loaded.xmlResource, configuration.getSqlFragments(), type.getName());
+      xmlParser.parse();
+      if (configuration.hasMapper(type)) {
+        return;
+      }
+    }
+    configuration.addMapper(type);
+  }
+
+  private XPathParser newParser(InputStream inputStream) {
+    return new XPathParser(inputStream, true, configuration.getVariables(), new XMLMapperEntityResolver());
+  }
+
+  private static boolean isPackage(XNode child) {
+    return "package".equals(child.getName());
+  }
+
+  private static <T> T get(Future<T> future) throws Exception {
+    if (future == null) {
+      return null;
+    }
+    try {
+      return future.get();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof Exception) {
+        throw (Exception) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw e;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw e;
+    }
+  }
+
+  private static ExecutorService newExecutor(int threads) {
+    ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+    int poolNumber = POOL_NUMBER.incrementAndGet();
+    AtomicInteger threadNumber = new AtomicInteger();
+    return Executors.newFixedThreadPool(threads, runnable -> {
+      Thread thread = new Thread(runnable, "mybatis-mapper-parser-" + poolNumber + "-" + threadNumber.incrementAndGet());
+      thread.setDaemon(true);
+      // mapper classes and resources are resolved through the context class loader of the caller
+      thread.setContextClassLoader(classLoader);
+      return thread;
+    });
+  }
+
+  private static class LoadedType {
+
+    private final Class<?> type;
+    private final String xmlResource;
+    private final XPathParser parser;
+
+    LoadedType(Class<?> type, String xmlResource, XPathParser parser) {
+      this.type = type;
+      this.xmlResource = xmlResource;
+      this.parser = parser;
+    }
+
+  }
+
+}
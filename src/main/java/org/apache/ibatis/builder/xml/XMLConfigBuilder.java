@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2020 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -23,14 +23,17 @@ import javax.sql.DataSource;
 
 import org.apache.ibatis.builder.BaseBuilder;
 import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.builder.snapshot.MapperSnapshot;
 import org.apache.ibatis.datasource.DataSourceFactory;
 import org.apache.ibatis.executor.ErrorContext;
 import org.apache.ibatis.executor.loader.ProxyFactory;
+import org.apache.ibatis.executor.pagination.PaginationDialect;
 import org.apache.ibatis.io.Resources;
 import org.apache.ibatis.io.VFS;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.mapping.DatabaseIdProvider;
 import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.metrics.MetricsCollector;
 import org.apache.ibatis.parsing.XNode;
 import org.apache.ibatis.parsing.XPathParser;
 import org.apache.ibatis.plugin.Interceptor;
@@ -41,9 +44,11 @@ import org.apache.ibatis.reflection.factory.ObjectFactory;
 import org.apache.ibatis.reflection.wrapper.ObjectWrapperFactory;
 import org.apache.ibatis.session.AutoMappingBehavior;
 import org.apache.ibatis.session.AutoMappingUnknownColumnBehavior;
+import org.apache.ibatis.session.CacheKeyMode;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ExecutorType;
 import org.apache.ibatis.session.LocalCacheScope;
+import org.apache.ibatis.session.MapResultMode;
 import org.apache.ibatis.transaction.TransactionFactory;
 import org.apache.ibatis.type.JdbcType;
 
@@ -156,7 +161,9 @@ public class XMLConfigBuilder extends BaseBuilder {
       // 自定义类型处理器
       typeHandlerElement(root.evalNode("typeHandlers"));
       // 接口sql映射器
-      mapperElement(root.evalNode("mappers"));
+      if (configuration.getMapperSnapshot() == null || !MapperSnapshot.load(configuration, root)) {
+        mapperElement(root.evalNode("mappers"));
+      }
     } catch (Exception e) {
       throw new BuilderException("Error parsing SQL Mapper Configuration. Cause: " + e, e);
     }
@@ -353,6 +360,9 @@ public class XMLConfigBuilder extends BaseBuilder {
     configuration.setMapUnderscoreToCamelCase(booleanValueOf(props.getProperty("mapUnderscoreToCamelCase"), false));
     configuration.setSafeRowBoundsEnabled(booleanValueOf(props.getProperty("safeRowBoundsEnabled"), false));
     configuration.setLocalCacheScope(LocalCacheScope.valueOf(props.getProperty("localCacheScope", "SESSION")));
+    configuration.setCacheKeyMode(CacheKeyMode.valueOf(props.getProperty("cacheKeyMode", "FULL")));
+    configuration.setMetricsCollector((MetricsCollector) createInstance(props.getProperty("metricsCollector")));
+    configuration.setPaginationDialect((PaginationDialect) createInstance(props.getProperty("paginationDialect")));
     configuration.setJdbcTypeForNull(JdbcType.valueOf(props.getProperty("jdbcTypeForNull", "OTHER")));
     configuration.setLazyLoadTriggerMethods(stringSetValueOf(props.getProperty("lazyLoadTriggerMethods"), "equals,clone,hashCode,toString"));
     configuration.setSafeResultHandlerEnabled(booleanValueOf(props.getProperty("safeResultHandlerEnabled"), true));
@@ -364,6 +374,18 @@ public class XMLConfigBuilder extends BaseBuilder {
     configuration.setLogPrefix(props.getProperty("logPrefix"));
     configuration.setConfigurationFactory(resolveClass(props.getProperty("configurationFactory")));
     configuration.setShrinkWhitespacesInSql(booleanValueOf(props.getProperty("shrinkWhitespacesInSql"), false));
+    configuration.setCompiledRowMappersEnabled(booleanValueOf(props.getProperty("compiledRowMappersEnabled"), false));
+    configuration.setDynamicSqlCacheSize(integerValueOf(props.getProperty("dynamicSqlCacheSize"), 0));
+    configuration.setCompiledExpressionsEnabled(booleanValueOf(props.getProperty("compiledExpressionsEnabled"), false));
+    configuration.setCompiledParameterBindersEnabled(booleanValueOf(props.getProperty("compiledParameterBindersEnabled"), false));
+    configuration.setParallelMapperParsingEnabled(booleanValueOf(props.getProperty("parallelMapperParsingEnabled"), false));
+    configuration.setMapperSnapshot(props.getProperty("mapperSnapshot"));
+    configuration.setLazyStatementCompilationEnabled(booleanValueOf(props.getProperty("lazyStatementCompilationEnabled"), false));
+    configuration.setLazyStatementWarmUpEnabled(booleanValueOf(props.getProperty("lazyStatementWarmUpEnabled"), false));
+    configuration.setResultSetLayoutCacheEnabled(booleanValueOf(props.getProperty("resultSetLayoutCacheEnabled"), false));
+    configuration.setMapResultMode(MapResultMode.valueOf(props.getProperty("mapResultMode", "HASH_MAP")));
+    configuration.setBatchInsertMaxRows(integerValueOf(props.getProperty("batchInsertMaxRows"), 0));
+    configuration.setBatchInsertMaxParameters(integerValueOf(props.getProperty("batchInsertMaxParameters"), 2000));
     configuration.setDefaultSqlProviderType(resolveClass(props.getProperty("defaultSqlProviderType")));
   }
 
@@ -519,7 +541,9 @@ public class XMLConfigBuilder extends BaseBuilder {
 //    </mappers>
 
   private void mapperElement(XNode parent) throws Exception {
-    if (parent != null) {
+    if (parent != null && configuration.isParallelMapperParsingEnabled()) {
+      new ParallelMapperParser(configuration).parse(parent);
+    } else if (parent != null) {
       for (XNode child : parent.getChildren()) {
         // 如果标签属性为包,扫描包下的mapper，添加到上下文configuration
         //  <mappers>
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2020 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -55,6 +55,8 @@ import org.apache.ibatis.type.TypeHandler;
  */
 public class XMLMapperBuilder extends BaseBuilder {
 
+  private static final int DEFAULT_BATCH_SIZE = 100;
+
   private final XPathParser parser;
   // mapper建造者辅助类
   private final MapperBuilderAssistant builderAssistant;
@@ -83,7 +85,40 @@ public class XMLMapperBuilder extends BaseBuilder {
         configuration, resource, sqlFragments);
   }
 
-  private XMLMapperBuilder(XPathParser parser, Configuration configuration, String resource, Map<String, XNode> sqlFragments) {
+  /**
+   * Instantiates a new XML mapper builder for a mapper document that has already been read.
+   *
+   * @param parser
+   *          the parser of the mapper document
+   * @param configuration
+   *          the configuration
+   * @param resource
+   *          the resource the document was read from
+   * @param sqlFragments
+   *          the sql fragments
+   * @param namespace
+   *          the expected namespace of the mapper
+   * @since 3.5.7
+   */
+  public XMLMapperBuilder(XPathParser parser, Configuration configuration, String resource, Map<String, XNode> sqlFragments, String namespace) {
+    this(parser, configuration, resource, sqlFragments);
+    this.builderAssistant.setCurrentNamespace(namespace);
+  }
+
+  /**
+   * Instantiates a new XML mapper builder for a mapper document that has already been read.
+   *
+   * @param parser
+   *          the parser of the mapper document
+   * @param configuration
+   *          the configuration
+   * @param resource
+   *          the resource the document was read from
+   * @param sqlFragments
+   *          the sql fragments
+   * @since 3.5.7
+   */
+  public XMLMapperBuilder(XPathParser parser, Configuration configuration, String resource, Map<String, XNode> sqlFragments) {
     super(configuration);
     this.builderAssistant = new MapperBuilderAssistant(configuration, resource);
     this.parser = parser;
@@ -574,7 +609,10 @@ public class XMLMapperBuilder extends BaseBuilder {
     String resultSet = context.getStringAttribute("resultSet");
     String foreignColumn = context.getStringAttribute("foreignColumn");
     // 判断是否进行懒加载
-    boolean lazy = "lazy".equals(context.getStringAttribute("fetchType", configuration.isLazyLoadingEnabled() ? "lazy" : "eager"));
+    String fetchType = context.getStringAttribute("fetchType", configuration.isLazyLoadingEnabled() ? "lazy" : "eager");
+    boolean lazy = "lazy".equals(fetchType);
+    // 批量加载时，按批次的外键数执行嵌套查询
+    int batchSize = "batch".equals(fetchType) ? context.getIntAttribute("batchSize", DEFAULT_BATCH_SIZE) : 0;
     // 根据别名获取javaType结果类
     Class<?> javaTypeClass = resolveClass(javaType);
     // 根据别名获取typeHandler结果类
@@ -582,7 +620,7 @@ public class XMLMapperBuilder extends BaseBuilder {
     // 根据jdbcType名称获取jdbcType
     JdbcType jdbcTypeEnum = resolveJdbcType(jdbcType);
     // 根据配置，映射建造辅助对象，创建结果映射对象
-    return builderAssistant.buildResultMapping(resultType, property, column, javaTypeClass, jdbcTypeEnum, nestedSelect, nestedResultMap, notNullColumn, columnPrefix, typeHandlerClass, flags, resultSet, foreignColumn, lazy);
+    return builderAssistant.buildResultMapping(resultType, property, column, javaTypeClass, jdbcTypeEnum, nestedSelect, nestedResultMap, notNullColumn, columnPrefix, typeHandlerClass, flags, resultSet, foreignColumn, lazy, batchSize);
   }
 
   private String processNestedResultMappings(XNode context, List<ResultMapping> resultMappings, Class<?> enclosingType) {
@@ -1,17 +1,17 @@
 /**
- * Copyright 2009-2020 the original author or authors.
- * <p>
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- * <p>
- * http://www.apache.org/licenses/LICENSE-2.0
- * <p>
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
  */
 package org.apache.ibatis.builder.xml;
 
@@ -75,12 +75,32 @@ public class XMLStatementBuilder extends BaseBuilder {
       return;
     }
 
+    if (configuration.isLazyStatementCompilationEnabled()) {
+      String statementId = builderAssistant.applyCurrentNamespace(id, false);
+      LazyStatement statement = new LazyStatement(statementId, databaseId, builderAssistant.getResource(), this);
+      configuration.addLazyStatement(statement);
+      if (!context.evalNodes("selectKey").isEmpty()) {
+        configuration.addLazyStatement(new LazyStatement(statementId + SelectKeyGenerator.SELECT_KEY_SUFFIX, statement));
+      }
+      return;
+    }
+    buildStatementNode();
+  }
+
+  /**
+   * Builds the mapped statement of the node, once its database id has been checked.
+   */
+  void buildStatementNode() {
+    String id = context.getStringAttribute("id");
+    String databaseId = context.getStringAttribute("databaseId");
     String nodeName = context.getNode().getNodeName();
     SqlCommandType sqlCommandType = SqlCommandType.valueOf(nodeName.toUpperCase(Locale.ENGLISH));
     boolean isSelect = sqlCommandType == SqlCommandType.SELECT;
     boolean flushCache = context.getBooleanAttribute("flushCache", !isSelect);
     boolean useCache = context.getBooleanAttribute("useCache", isSelect);
     boolean resultOrdered = context.getBooleanAttribute("resultOrdered", false);
+    boolean parallelMapping = context.getBooleanAttribute("parallelMapping", false);
+    int cursorPrefetchSize = context.getIntAttribute("cursorPrefetchSize", 0);
 
     // Include Fragments before parsing
     XMLIncludeTransformer includeParser = new XMLIncludeTransformer(configuration, builderAssistant);
@@ -127,7 +147,7 @@ public class XMLStatementBuilder extends BaseBuilder {
     builderAssistant.addMappedStatement(id, sqlSource, statementType, sqlCommandType,
       fetchSize, timeout, parameterMap, parameterTypeClass, resultMap, resultTypeClass,
       resultSetTypeEnum, flushCache, useCache, resultOrdered,
-      keyGenerator, keyProperty, keyColumn, databaseId, langDriver, resultSets);
+      keyGenerator, keyProperty, keyColumn, databaseId, langDriver, resultSets, parallelMapping, cursorPrefetchSize);
   }
 
   private void processSelectKeyNodes(String id, Class<?> parameterTypeClass, LanguageDriver langDriver) {
@@ -209,6 +229,10 @@ public class XMLStatementBuilder extends BaseBuilder {
       return true;
     }
     // skip this statement if there is a previous one with a not null databaseId
+    LazyStatement lazyStatement = this.configuration.getLazyStatement(id);
+    if (lazyStatement != null) {
+      return lazyStatement.getDatabaseId() == null;
+    }
     MappedStatement previous = this.configuration.getMappedStatement(id, false); // issue #2
     return previous.getDatabaseId() == null;
   }
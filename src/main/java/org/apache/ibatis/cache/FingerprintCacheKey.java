@@ -0,0 +1,313 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.time.temporal.TemporalAccessor;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.StringJoiner;
+
+import org.apache.ibatis.reflection.ArrayUtil;
+
+/**
+ * A compact {@link CacheKey} that folds its components into a 128-bit fingerprint instead of retaining them.
+ * <p>
+ * Strings, numbers, dates, enums, booleans, characters and arrays of them are hashed by content. Components of other
+ * types cannot be hashed by content, since only their 32-bit {@link Object#hashCode()} is known. Those components are
+ * retained and compared with {@code equals()} when the fingerprints match. Only the first component is also kept when
+ * it is a string (the statement id for keys built by the executors), so that the key remains readable in logs.
+ * <p>
+ * The fingerprint is seeded with a random value chosen once per JVM, so the fingerprints of the same components differ
+ * between JVMs and colliding values cannot be computed in advance. Keys built in different JVMs, for example keys
+ * serialized to a distributed cache, are therefore never equal.
+ * <p>
+ * When created in verify mode all the components are retained and compared when the fingerprints match, which makes the
+ * key collision safe. Such a key retains as much as a plain {@link CacheKey} and saves no memory, it only compares
+ * unequal keys faster.
+ *
+ * @since 3.5.7
+ * @see org.apache.ibatis.session.CacheKeyMode
+ */
+public class FingerprintCacheKey extends CacheKey {
+
+  private static final long serialVersionUID = -6287937066474931346L;
+
+  private static final long C1 = 0x87c37b91114253d5L;
+  private static final long C2 = 0x4cf5ad432745937fL;
+  private static final long NULL_TAG = 0x9e3779b97f4a7c15L;
+  private static final long SEED = new SecureRandom().nextLong();
+
+  private static final Object[] EMPTY = new Object[0];
+
+  private final boolean verify;
+  private long high;
+  private long low;
+  private int count;
+  private String label;
+  private Object[] components;
+  private Object[] retained;
+  private int retainedCount;
+
+  public FingerprintCacheKey() {
+    this(false);
+  }
+
+  public FingerprintCacheKey(boolean verify) {
+    this.verify = verify;
+    this.high = SEED;
+    this.low = SEED;
+    this.components = EMPTY;
+    this.retained = EMPTY;
+  }
+
+  public boolean isVerify() {
+    return verify;
+  }
+
+  @Override
+  public int getUpdateCount() {
+    return count;
+  }
+
+  @Override
+  public void update(Object object) {
+    if (count == 0 && object instanceof String) {
+      label = (String) object;
+    }
+    count++;
+    boolean hashedByContent = hashObject(object);
+    if (verify) {
+      if (count > components.length) {
+        components = Arrays.copyOf(components, Math.max(8, components.length << 1));
+      }
+      components[count - 1] = object;
+    } else if (!hashedByContent) {
+      if (retainedCount == retained.length) {
+        retained = Arrays.copyOf(retained, Math.max(4, retained.length << 1));
+      }
+      retained[retainedCount++] = object;
+    }
+  }
+
+  /**
+   * Folds the object into the fingerprint.
+   *
+   * @return false if the object was hashed by its {@code hashCode()} only, and must be retained to compare keys
+   */
+  private boolean hashObject(Object object) {
+    if (object == null) {
+      mix(NULL_TAG);
+      return true;
+    }
+    final Class<?> clazz = object.getClass();
+    mix(clazz.getName().hashCode());
+    if (object instanceof String) {
+      hashChars((String) object);
+    } else if (object instanceof Long || object instanceof Integer || object instanceof Short
+        || object instanceof Byte) {
+      mix(((Number) object).longValue());
+    } else if (object instanceof Double) {
+      mix(Double.doubleToLongBits((Double) object));
+    } else if (object instanceof Float) {
+      mix(Float.floatToIntBits((Float) object));
+    } else if (object instanceof BigDecimal) {
+      BigDecimal decimal = (BigDecimal) object;
+      mix(decimal.scale());
+      hashBytes(decimal.unscaledValue().toByteArray());
+    } else if (object instanceof BigInteger) {
+      hashBytes(((BigInteger) object).toByteArray());
+    } else if (object instanceof Boolean) {
+      mix((Boolean) object ? 1L : 0L);
+    } else if (object instanceof Character) {
+      mix((Character) object);
+    } else if (object instanceof Timestamp) {
+      mix(((Timestamp) object).getTime());
+      mix(((Timestamp) object).getNanos());
+    } else if (object instanceof Date) {
+      mix(((Date) object).getTime());
+    } else if (object instanceof Enum) {
+      hashChars(((Enum<?>) object).name());
+    } else if (object instanceof TemporalAccessor) {
+      hashChars(object.toString());
+    } else if (clazz.isArray()) {
+      return hashArray(object);
+    } else {
+      mix(object.hashCode());
+      return false;
+    }
+    return true;
+  }
+
+  private boolean hashArray(Object array) {
+    if (array instanceof Object[]) {
+      Object[] objects = (Object[]) array;
+      mix(objects.length);
+      boolean hashedByContent = true;
+      for (Object element : objects) {
+        hashedByContent &= hashObject(element);
+      }
+      return hashedByContent;
+    }
+    if (array instanceof byte[]) {
+      hashBytes((byte[]) array);
+    } else if (array instanceof char[]) {
+      hashChars(new String((char[]) array));
+    } else {
+      final int length = Array.getLength(array);
+      mix(length);
+      for (int i = 0; i < length; i++) {
+        hashPrimitive(Array.get(array, i));
+      }
+    }
+    return true;
+  }
+
+  private void hashPrimitive(Object value) {
+    if (value instanceof Double) {
+      mix(Double.doubleToLongBits((Double) value));
+    } else if (value instanceof Float) {
+      mix(Float.floatToIntBits((Float) value));
+    } else if (value instanceof Boolean) {
+      mix((Boolean) value ? 1L : 0L);
+    } else {
+      mix(((Number) value).longValue());
+    }
+  }
+
+  private void hashChars(String value) {
+    final int length = value.length();
+    mix(length);
+    int i = 0;
+    for (; i + 4 <= length; i += 4) {
+      mix((long) value.charAt(i) | (long) value.charAt(i + 1) << 16 | (long) value.charAt(i + 2) << 32
+          | (long) value.charAt(i + 3) << 48);
+    }
+    long tail = 0;
+    for (int shift = 0; i < length; i++, shift += 16) {
+      tail |= (long) value.charAt(i) << shift;
+    }
+    mix(tail);
+  }
+
+  private void hashBytes(byte[] value) {
+    mix(value.length);
+    long word = 0;
+    for (int i = 0; i < value.length; i++) {
+      word = word << 8 | (value[i] & 0xffL);
+      if ((i & 7) == 7) {
+        mix(word);
+        word = 0;
+      }
+    }
+    mix(word);
+  }
+
+  /**
+   * Folds a 64-bit word into both halves of the fingerprint using the MurmurHash3 x64 128 block mix.
+   */
+  private void mix(long word) {
+    long k1 = word * C1;
+    k1 = Long.rotateLeft(k1, 31) * C2;
+    high ^= k1;
+    high = Long.rotateLeft(high, 27) + low;
+    high = high * 5 + 0x52dce729;
+
+    long k2 = word * C2;
+    k2 = Long.rotateLeft(k2, 33) * C1;
+    low ^= k2;
+    low = Long.rotateLeft(low, 31) + high;
+    low = low * 5 + 0x38495ab5;
+  }
+
+  private static long finish(long h) {
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+
+  @Override
+  public boolean equals(Object object) {
+    if (this == object) {
+      return true;
+    }
+    if (!(object instanceof FingerprintCacheKey)) {
+      return false;
+    }
+
+    final FingerprintCacheKey cacheKey = (FingerprintCacheKey) object;
+
+    if (high != cacheKey.high || low != cacheKey.low || count != cacheKey.count || verify != cacheKey.verify) {
+      return false;
+    }
+    if (label == null ? cacheKey.label != null : !label.equals(cacheKey.label)) {
+      return false;
+    }
+    if (verify) {
+      for (int i = 0; i < count; i++) {
+        if (!ArrayUtil.equals(components[i], cacheKey.components[i])) {
+          return false;
+        }
+      }
+    } else {
+      if (retainedCount != cacheKey.retainedCount) {
+        return false;
+      }
+      for (int i = 0; i < retainedCount; i++) {
+        if (!ArrayUtil.equals(retained[i], cacheKey.retained[i])) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    return (int) finish(high ^ Long.rotateLeft(low, 17));
+  }
+
+  @Override
+  public String toString() {
+    StringJoiner returnValue = new StringJoiner(":");
+    returnValue.add(String.valueOf(hashCode()));
+    returnValue.add(String.format("%016x%016x", high, low));
+    if (verify) {
+      for (int i = 0; i < count; i++) {
+        returnValue.add(ArrayUtil.toString(components[i]));
+      }
+    } else if (label != null) {
+      returnValue.add(label);
+    }
+    return returnValue.toString();
+  }
+
+  @Override
+  public FingerprintCacheKey clone() throws CloneNotSupportedException {
+    FingerprintCacheKey clonedCacheKey = (FingerprintCacheKey) super.clone();
+    clonedCacheKey.components = components.clone();
+    clonedCacheKey.retained = retained.clone();
+    return clonedCacheKey;
+  }
+
+}
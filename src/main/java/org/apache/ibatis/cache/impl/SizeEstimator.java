@@ -0,0 +1,188 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.impl;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Estimates the retained heap size of a cached object graph, assuming a 64-bit JVM with compressed references.
+ * <p>
+ * The estimate walks user objects through reflection, arrays, strings, boxed values and the JDK collections and maps.
+ * MyBatis internals, like the handlers of lazy loading proxies, and enums are not counted. The walk stops after
+ * {@value #MAX_OBJECTS} objects.
+ */
+final class SizeEstimator {
+
+  private static final int MAX_OBJECTS = 100_000;
+  private static final int OBJECT_HEADER = 12;
+  private static final int REFERENCE = 4;
+
+  // a class value does not keep the classes, nor their class loaders, reachable
+  private static final ClassValue<ClassLayout> layouts = new ClassValue<ClassLayout>() {
+    @Override
+    protected ClassLayout computeValue(Class<?> type) {
+      return new ClassLayout(type);
+    }
+  };
+
+  private SizeEstimator() {
+    // Prevent Instantiation of Static Class
+  }
+
+  static long estimate(Object root) {
+    if (root == null) {
+      return 0;
+    }
+    final Map<Object, Boolean> visited = new IdentityHashMap<>();
+    final Deque<Object> pending = new ArrayDeque<>();
+    pending.push(root);
+    long size = 0;
+    while (!pending.isEmpty() && visited.size() < MAX_OBJECTS) {
+      final Object object = pending.pop();
+      if (visited.put(object, Boolean.TRUE) != null) {
+        continue;
+      }
+      size += shallowSize(object, pending);
+    }
+    return size;
+  }
+
+  private static long shallowSize(Object object, Deque<Object> pending) {
+    final Class<?> type = object.getClass();
+    if (type.isArray()) {
+      return arraySize(object, type.getComponentType(), pending);
+    } else if (object instanceof String) {
+      return align(OBJECT_HEADER + 12) + align(16 + ((String) object).length() * 2L);
+    } else if (object instanceof Number || object instanceof Boolean || object instanceof Character) {
+      return align(OBJECT_HEADER + 8);
+    } else if (object instanceof Enum || object instanceof Class || isMyBatisType(type)) {
+      return 0;
+    } else if (object instanceof Collection && isJdkType(type)) {
+      final Collection<?> collection = (Collection<?>) object;
+      for (Object element : collection) {
+        push(element, pending);
+      }
+      // backing array or nodes
+      return align(OBJECT_HEADER + 16) + align(16 + collection.size() * (long) REFERENCE) + collection.size() * 16L;
+    } else if (object instanceof Map && isJdkType(type)) {
+      final Map<?, ?> map = (Map<?, ?>) object;
+      for (Map.Entry<?, ?> entry : map.entrySet()) {
+        push(entry.getKey(), pending);
+        push(entry.getValue(), pending);
+      }
+      return align(OBJECT_HEADER + 32) + align(16 + map.size() * 2L * REFERENCE) + map.size() * 32L;
+    } else if (isJdkType(type)) {
+      // dates, big numbers and other values
+      return align(OBJECT_HEADER + 16);
+    }
+    final ClassLayout layout = layouts.get(type);
+    for (Field field : layout.references) {
+      try {
+        push(field.get(object), pending);
+      } catch (IllegalAccessException e) {
+        // not accessible, ignore
+      }
+    }
+    return layout.shallowSize;
+  }
+
+  private static long arraySize(Object array, Class<?> componentType, Deque<Object> pending) {
+    if (!componentType.isPrimitive()) {
+      final Object[] elements = (Object[]) array;
+      for (Object element : elements) {
+        push(element, pending);
+      }
+      return align(16 + elements.length * (long) REFERENCE);
+    }
+    return align(16 + java.lang.reflect.Array.getLength(array) * (long) primitiveSize(componentType));
+  }
+
+  private static void push(Object object, Deque<Object> pending) {
+    if (object != null) {
+      pending.push(object);
+    }
+  }
+
+  private static boolean isJdkType(Class<?> type) {
+    final String name = type.getName();
+    return name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("sun.") || name.startsWith("jdk.");
+  }
+
+  private static boolean isMyBatisType(Class<?> type) {
+    return type.getName().startsWith("org.apache.ibatis.");
+  }
+
+  private static int primitiveSize(Class<?> type) {
+    if (type == long.class || type == double.class) {
+      return 8;
+    } else if (type == int.class || type == float.class) {
+      return 4;
+    } else if (type == short.class || type == char.class) {
+      return 2;
+    } else {
+      return 1;
+    }
+  }
+
+  private static long align(long size) {
+    return (size + 7) & ~7L;
+  }
+
+  private static class ClassLayout {
+    private final long shallowSize;
+    private final Field[] references;
+
+    ClassLayout(Class<?> type) {
+      long size = OBJECT_HEADER;
+      final List<Field> referenceFields = new ArrayList<>();
+      for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+        for (Field field : current.getDeclaredFields()) {
+          if (Modifier.isStatic(field.getModifiers())) {
+            continue;
+          }
+          if (field.getType().isPrimitive()) {
+            size += primitiveSize(field.getType());
+          } else {
+            size += REFERENCE;
+            if (!isMyBatisType(field.getType()) && trySetAccessible(field)) {
+              referenceFields.add(field);
+            }
+          }
+        }
+      }
+      this.shallowSize = align(size);
+      this.references = referenceFields.toArray(new Field[0]);
+    }
+
+    private static boolean trySetAccessible(Field field) {
+      try {
+        field.setAccessible(true);
+        return true;
+      } catch (RuntimeException e) {
+        return false;
+      }
+    }
+  }
+
+}
@@ -0,0 +1,487 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache.impl;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.ibatis.builder.InitializingObject;
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheException;
+
+/**
+ * A bounded cache using the W-TinyLFU eviction policy.
+ * <p>
+ * New entries enter a small LRU admission window (1% of the capacity). Entries leaving the window are only admitted
+ * into the main space, a segmented LRU, if a {@link FrequencySketch} estimates that they are more popular than the
+ * entry they would evict. This keeps the hit ratio high on both recency and frequency biased workloads, and protects
+ * the cache from scans.
+ * <p>
+ * Reads are lock free: the entries are held by a {@link ConcurrentHashMap} and accesses are recorded in a lossy ring
+ * buffer that is replayed against the policy by whichever thread holds the eviction lock. Writes update the policy
+ * under that lock.
+ * <p>
+ * The cache is bounded by number of entries ({@link #setSize(int)}, 1024 by default) or, when
+ * {@link #setMaximumWeight(long)} is set, by the estimated retained size in bytes of the cached values. Override
+ * {@link #weigh(Object, Object)} to provide another weight. Hits, misses and evictions are counted per cache, that is
+ * per namespace.
+ * <p>
+ * This is a base cache implementation meant to be used as {@code <cache type="TINYLFU"/>} or
+ * {@code @CacheNamespace(implementation = TinyLfuCache.class)}. As with any custom cache, the standard decorators are
+ * not applied: the cached objects are shared, not serialized copies.
+ *
+ * @since 3.5.7
+ */
+public class TinyLfuCache implements Cache, InitializingObject {
+
+  private static final int DEFAULT_SIZE = 1024;
+  private static final int READ_BUFFER_SIZE = 128;
+  private static final int READ_BUFFER_MASK = READ_BUFFER_SIZE - 1;
+  private static final int READ_BUFFER_DRAIN_THRESHOLD = READ_BUFFER_SIZE / 4;
+  private static final int ADMIT_HASHDOS_THRESHOLD = 6;
+
+  private static final int WINDOW = 1;
+  private static final int PROBATION = 2;
+  private static final int PROTECTED = 3;
+
+  private final String id;
+  private final ConcurrentHashMap<Object, Node> data = new ConcurrentHashMap<>();
+  private final ReentrantLock evictionLock = new ReentrantLock();
+
+  private final AtomicReferenceArray<Node> readBuffer = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+  private final AtomicLong readBufferWriteCount = new AtomicLong();
+  private volatile long readBufferReadCount;
+
+  private final LongAdder hitCount = new LongAdder();
+  private final LongAdder missCount = new LongAdder();
+  private final LongAdder evictionCount = new LongAdder();
+
+  private int size = DEFAULT_SIZE;
+  private long maximumWeight;
+
+  // guarded by evictionLock
+  private FrequencySketch sketch;
+  private final Node window = Node.sentinel();
+  private final Node probation = Node.sentinel();
+  private final Node protectedSegment = Node.sentinel();
+  private long maximum;
+  private long windowMaximum;
+  private long protectedMaximum;
+  private volatile long weightedSize;
+  private long windowWeightedSize;
+  private long protectedWeightedSize;
+
+  public TinyLfuCache(String id) {
+    this.id = id;
+    initialize();
+  }
+
+  @Override
+  public String getId() {
+    return id;
+  }
+
+  /**
+   * Sets the maximum number of entries. When {@link #setMaximumWeight(long)} is set, it is the expected number of
+   * entries instead, used to size the frequency sketch.
+   *
+   * @param size
+   *          the maximum number of entries
+   */
+  public void setSize(int size) {
+    this.size = size;
+  }
+
+  /**
+   * Sets the maximum estimated size in bytes of the cached values.
+   *
+   * @param maximumWeight
+   *          the maximum weight, 0 to bound the number of entries instead
+   */
+  public void setMaximumWeight(long maximumWeight) {
+    this.maximumWeight = maximumWeight;
+  }
+
+  @Override
+  public void initialize() {
+    if (size <= 0) {
+      throw new CacheException("The size of cache '" + id + "' must be positive but was " + size + ".");
+    }
+    evictionLock.lock();
+    try {
+      clearPolicy();
+      sketch = new FrequencySketch(size);
+      maximum = maximumWeight > 0 ? maximumWeight : size;
+      windowMaximum = Math.max(1, maximum / 100);
+      protectedMaximum = (maximum - windowMaximum) * 4 / 5;
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  @Override
+  public int getSize() {
+    return data.size();
+  }
+
+  @Override
+  public void putObject(Object key, Object value) {
+    final Node node = new Node(key, value, maximumWeight > 0 ? Math.max(1, weigh(key, value)) : 1);
+    final Node prior = data.put(key, node);
+    evictionLock.lock();
+    try {
+      drainReadBuffer();
+      if (prior != null) {
+        retire(prior);
+      }
+      sketch.increment(key);
+      if (data.get(key) == node) {
+        node.queue = WINDOW;
+        node.linkLast(window);
+        windowWeightedSize += node.weight;
+        weightedSize += node.weight;
+        evict();
+      }
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  @Override
+  public Object getObject(Object key) {
+    final Node node = data.get(key);
+    if (node == null) {
+      missCount.increment();
+      return null;
+    }
+    hitCount.increment();
+    recordRead(node);
+    return node.value;
+  }
+
+  @Override
+  public Object removeObject(Object key) {
+    final Node node = data.remove(key);
+    if (node == null) {
+      return null;
+    }
+    evictionLock.lock();
+    try {
+      retire(node);
+    } finally {
+      evictionLock.unlock();
+    }
+    return node.value;
+  }
+
+  @Override
+  public void clear() {
+    evictionLock.lock();
+    try {
+      data.clear();
+      clearPolicy();
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  /**
+   * Returns the weight of an entry, used when the cache is bounded by {@link #setMaximumWeight(long) weight}. The
+   * default implementation estimates the retained size in bytes of the value.
+   *
+   * @param key
+   *          the cache key
+   * @param value
+   *          the cached value
+   * @return the weight of the entry
+   */
+  protected long weigh(Object key, Object value) {
+    return SizeEstimator.estimate(value);
+  }
+
+  public long getHitCount() {
+    return hitCount.sum();
+  }
+
+  public long getMissCount() {
+    return missCount.sum();
+  }
+
+  public long getEvictionCount() {
+    return evictionCount.sum();
+  }
+
+  /**
+   * Returns the ratio of lookups that were hits.
+   *
+   * @return the hit ratio, between 0 and 1
+   */
+  public double getHitRatio() {
+    final long hits = getHitCount();
+    final long requests = hits + getMissCount();
+    return requests == 0 ? 1.0 : (double) hits / requests;
+  }
+
+  /**
+   * Returns the sum of the weights of the entries: their number, or their estimated size in bytes when the cache is
+   * bounded by weight.
+   *
+   * @return the weighted size
+   */
+  public long getWeightedSize() {
+    return weightedSize;
+  }
+
+  private void recordRead(Node node) {
+    final long writeCount = readBufferWriteCount.get();
+    final long pending = writeCount - readBufferReadCount;
+    if (pending < READ_BUFFER_SIZE && readBufferWriteCount.compareAndSet(writeCount, writeCount + 1)) {
+      readBuffer.lazySet((int) (writeCount & READ_BUFFER_MASK), node);
+    }
+    if (pending >= READ_BUFFER_DRAIN_THRESHOLD && evictionLock.tryLock()) {
+      try {
+        drainReadBuffer();
+      } finally {
+        evictionLock.unlock();
+      }
+    }
+  }
+
+  private void drainReadBuffer() {
+    long readCount = readBufferReadCount;
+    final long writeCount = readBufferWriteCount.get();
+    for (; readCount < writeCount; readCount++) {
+      final int index = (int) (readCount & READ_BUFFER_MASK);
+      final Node node = readBuffer.get(index);
+      if (node == null) {
+        // not published yet
+        break;
+      }
+      readBuffer.lazySet(index, null);
+      onAccess(node);
+    }
+    readBufferReadCount = readCount;
+  }
+
+  private void onAccess(Node node) {
+    sketch.increment(node.key);
+    if (node.queue == WINDOW) {
+      node.moveToLast(window);
+    } else if (node.queue == PROBATION) {
+      node.unlink();
+      node.queue = PROTECTED;
+      node.linkLast(protectedSegment);
+      protectedWeightedSize += node.weight;
+      demoteFromProtected();
+    } else if (node.queue == PROTECTED) {
+      node.moveToLast(protectedSegment);
+    }
+  }
+
+  private void demoteFromProtected() {
+    while (protectedWeightedSize > protectedMaximum) {
+      final Node demoted = protectedSegment.next;
+      if (demoted == protectedSegment) {
+        return;
+      }
+      demoted.unlink();
+      protectedWeightedSize -= demoted.weight;
+      demoted.queue = PROBATION;
+      demoted.linkLast(probation);
+    }
+  }
+
+  private void evict() {
+    // move the entries overflowing the window at the end of the probation segment, as admission candidates
+    Node candidate = null;
+    int candidates = 0;
+    while (windowWeightedSize > windowMaximum && window.next != window) {
+      final Node node = window.next;
+      node.unlink();
+      windowWeightedSize -= node.weight;
+      node.queue = PROBATION;
+      node.linkLast(probation);
+      if (candidate == null) {
+        candidate = node;
+      }
+      candidates++;
+    }
+    while (weightedSize > maximum) {
+      final Node victim = firstVictim();
+      if (victim == null) {
+        return;
+      }
+      if (candidates == 0 || victim == candidate) {
+        if (victim == candidate) {
+          candidate = candidates > 1 ? candidate.next : null;
+          candidates--;
+        }
+        evictEntry(victim);
+      } else if (admit(candidate, victim)) {
+        evictEntry(victim);
+      } else {
+        final Node rejected = candidate;
+        candidate = candidates > 1 ? candidate.next : null;
+        candidates--;
+        evictEntry(rejected);
+      }
+    }
+  }
+
+  private Node firstVictim() {
+    if (probation.next != probation) {
+      return probation.next;
+    } else if (protectedSegment.next != protectedSegment) {
+      return protectedSegment.next;
+    } else if (window.next != window) {
+      return window.next;
+    }
+    return null;
+  }
+
+  private boolean admit(Node candidate, Node victim) {
+    final int candidateFrequency = sketch.frequency(candidate.key);
+    final int victimFrequency = sketch.frequency(victim.key);
+    if (candidateFrequency > victimFrequency) {
+      return true;
+    } else if (candidateFrequency < ADMIT_HASHDOS_THRESHOLD) {
+      return false;
+    }
+    // a popular candidate is sometimes admitted, so that an attacker cannot pin a victim with colliding keys
+    return (ThreadLocalRandom.current().nextInt() & 127) == 0;
+  }
+
+  private void evictEntry(Node node) {
+    retire(node);
+    if (data.remove(node.key, node)) {
+      evictionCount.increment();
+    }
+  }
+
+  private void retire(Node node) {
+    if (node.queue == 0) {
+      node.queue = -1;
+      return;
+    }
+    if (node.queue > 0) {
+      if (node.queue == WINDOW) {
+        windowWeightedSize -= node.weight;
+      } else if (node.queue == PROTECTED) {
+        protectedWeightedSize -= node.weight;
+      }
+      weightedSize -= node.weight;
+      node.unlink();
+    }
+    node.queue = -1;
+  }
+
+  private void clearPolicy() {
+    for (Node sentinel : new Node[] { window, probation, protectedSegment }) {
+      for (Node node = sentinel.next; node != sentinel; node = node.next) {
+        node.queue = -1;
+      }
+      sentinel.next = sentinel;
+      sentinel.previous = sentinel;
+    }
+    weightedSize = 0;
+    windowWeightedSize = 0;
+    protectedWeightedSize = 0;
+    readBufferReadCount = readBufferWriteCount.get();
+    for (int i = 0; i < READ_BUFFER_SIZE; i++) {
+      readBuffer.lazySet(i, null);
+    }
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (getId() == null) {
+      throw new CacheException("Cache instances require an ID.");
+    }
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof Cache)) {
+      return false;
+    }
+
+    Cache otherCache = (Cache) o;
+    return getId().equals(otherCache.getId());
+  }
+
+  @Override
+  public int hashCode() {
+    if (getId() == null) {
+      throw new CacheException("Cache instances require an ID.");
+    }
+    return getId().hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return "TinyLfuCache[" + id + ", size=" + getSize() + ", hits=" + getHitCount() + ", misses=" + getMissCount()
+        + ", evictions=" + getEvictionCount() + "]";
+  }
+
+  /**
+   * An entry of the cache, also a node of the doubly linked list of its segment. The queue is 0 until the entry is
+   * added to the policy, and -1 once it has been removed.
+   */
+  private static final class Node {
+    private final Object key;
+    private final Object value;
+    private final long weight;
+    private int queue;
+    private Node previous;
+    private Node next;
+
+    Node(Object key, Object value, long weight) {
+      this.key = key;
+      this.value = value;
+      this.weight = weight;
+    }
+
+    static Node sentinel() {
+      final Node sentinel = new Node(null, null, 0);
+      sentinel.previous = sentinel;
+      sentinel.next = sentinel;
+      return sentinel;
+    }
+
+    void linkLast(Node sentinel) {
+      previous = sentinel.previous;
+      next = sentinel;
+      sentinel.previous.next = this;
+      sentinel.previous = this;
+    }
+
+    void unlink() {
+      previous.next = next;
+      next.previous = previous;
+      previous = null;
+      next = null;
+    }
+
+    void moveToLast(Node sentinel) {
+      unlink();
+      linkLast(sentinel);
+    }
+  }
+
+}
@@ -0,0 +1,116 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.columnar;
+
+import java.io.Serializable;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.BitSet;
+
+import org.apache.ibatis.type.JdbcType;
+
+/**
+ * The values of a column of a {@link ColumnarResult}, by row.
+ *
+ * @since 3.5.7
+ */
+public abstract class Column implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  static final int INITIAL_CAPACITY = 16;
+
+  private final String name;
+  private final JdbcType jdbcType;
+  private BitSet nulls;
+
+  Column(String name, JdbcType jdbcType) {
+    this.name = name;
+    this.jdbcType = jdbcType;
+  }
+
+  /**
+   * Gets the label of the column in the result set.
+   *
+   * @return the name
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Gets the JDBC type of the column in the result set.
+   *
+   * @return the JDBC type
+   */
+  public JdbcType getJdbcType() {
+    return jdbcType;
+  }
+
+  /**
+   * Returns whether the value of a row is null. The primitive arrays hold a 0 for the null values.
+   *
+   * @param row
+   *          the index of the row, from 0
+   * @return true if the value is null
+   */
+  public boolean isNull(int row) {
+    return nulls != null && nulls.get(row);
+  }
+
+  /**
+   * Gets the value of a row, boxed.
+   *
+   * @param row
+   *          the index of the row, from 0
+   * @return the value, or null
+   */
+  public abstract Object getObject(int row);
+
+  void setNull(int row) {
+    if (nulls == null) {
+      nulls = new BitSet();
+    }
+    nulls.set(row);
+  }
+
+  /**
+   * Reads the value of the current row of a result set.
+   *
+   * @param rs
+   *          the result set
+   * @param columnIndex
+   *          the index of this column in the result set, from 1
+   * @param row
+   *          the index of the row, from 0
+   * @throws SQLException
+   *           if the value cannot be read
+   */
+  abstract void read(ResultSet rs, int columnIndex, int row) throws SQLException;
+
+  /**
+   * Shrinks the values to the number of rows read.
+   *
+   * @param rowCount
+   *          the number of rows
+   */
+  abstract void trim(int rowCount);
+
+  static int newCapacity(int length) {
+    return Math.max(INITIAL_CAPACITY, length + (length >> 1));
+  }
+
+}
@@ -0,0 +1,216 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.columnar;
+
+import java.io.Serializable;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.TypeHandler;
+
+/**
+ * The rows of a select kept by column, instead of as an object per row. Integers, long integers and floating point
+ * numbers are kept in primitive arrays, strings are dictionary encoded, and only the other types are read by their
+ * {@link TypeHandler}.
+ * <p>
+ * A statement whose result type is {@code ColumnarResult}, or its alias {@code columnar}, returns one columnar result
+ * per result set, holding all its columns by label. A mapper method returning a {@code ColumnarResult} is such a
+ * statement. It cannot be returned by a {@link org.apache.ibatis.cursor.Cursor}, nor by a nested result set or an
+ * output parameter.
+ *
+ * <pre>
+ * &#064;Select("select author_id, views from post")
+ * ColumnarResult selectPostViews();
+ *
+ * ColumnarResult result = mapper.selectPostViews();
+ * int[] views = result.getIntColumn("views").getValues();
+ * </pre>
+ * <p>
+ * A columnar result is serializable, and so can be put in a second-level cache, only if the values of its columns read
+ * by type handlers are serializable.
+ *
+ * @since 3.5.7
+ */
+public final class ColumnarResult implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private final List<Column> columns;
+  private final int rowCount;
+
+  private ColumnarResult(List<Column> columns, int rowCount) {
+    this.columns = Collections.unmodifiableList(columns);
+    this.rowCount = rowCount;
+  }
+
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  public List<Column> getColumns() {
+    return columns;
+  }
+
+  /**
+   * Gets a column by index.
+   *
+   * @param index
+   *          the index of the column, from 0
+   * @return the column
+   */
+  public Column getColumn(int index) {
+    return columns.get(index);
+  }
+
+  /**
+   * Gets a column by label, ignoring case.
+   *
+   * @param name
+   *          the label of the column
+   * @return the column
+   * @throws IllegalArgumentException
+   *           if the result has no such column
+   */
+  public Column getColumn(String name) {
+    for (Column column : columns) {
+      if (column.getName().equalsIgnoreCase(name)) {
+        return column;
+      }
+    }
+    throw new IllegalArgumentException("There is no column named '" + name + "' in this result.");
+  }
+
+  public IntColumn getIntColumn(String name) {
+    return getColumn(name, IntColumn.class);
+  }
+
+  public LongColumn getLongColumn(String name) {
+    return getColumn(name, LongColumn.class);
+  }
+
+  public DoubleColumn getDoubleColumn(String name) {
+    return getColumn(name, DoubleColumn.class);
+  }
+
+  public StringColumn getStringColumn(String name) {
+    return getColumn(name, StringColumn.class);
+  }
+
+  public ObjectColumn getObjectColumn(String name) {
+    return getColumn(name, ObjectColumn.class);
+  }
+
+  private <T extends Column> T getColumn(String name, Class<T> columnType) {
+    final Column column = getColumn(name);
+    if (!columnType.isInstance(column)) {
+      throw new IllegalArgumentException("The column '" + name + "' of JDBC type " + column.getJdbcType() + " is a "
+          + column.getClass().getSimpleName() + ", not a " + columnType.getSimpleName() + ".");
+    }
+    return columnType.cast(column);
+  }
+
+  @Override
+  public String toString() {
+    final List<String> names = new ArrayList<>(columns.size());
+    for (Column column : columns) {
+      names.add(column.getName());
+    }
+    return "ColumnarResult{rows=" + rowCount + ", columns=" + names + "}";
+  }
+
+  /**
+   * Reads the rows of a result set into a {@link ColumnarResult}.
+   */
+  public static class Builder {
+
+    private final List<Column> columns;
+    private int rowCount;
+
+    /**
+     * Creates a builder for the columns of a result set.
+     *
+     * @param columnNames
+     *          the labels of the columns
+     * @param jdbcTypes
+     *          the JDBC types of the columns
+     * @param typeHandlers
+     *          the type handlers of the columns, used for the types without a primitive representation
+     */
+    public Builder(List<String> columnNames, List<JdbcType> jdbcTypes, List<TypeHandler<?>> typeHandlers) {
+      this.columns = new ArrayList<>(columnNames.size());
+      for (int i = 0; i < columnNames.size(); i++) {
+        columns.add(createColumn(columnNames.get(i), jdbcTypes.get(i), typeHandlers.get(i)));
+      }
+    }
+
+    private static Column createColumn(String name, JdbcType jdbcType, TypeHandler<?> typeHandler) {
+      if (jdbcType != null) {
+        switch (jdbcType) {
+          case TINYINT:
+          case SMALLINT:
+          case INTEGER:
+            return new IntColumn(name, jdbcType);
+          case BIGINT:
+            return new LongColumn(name, jdbcType);
+          case REAL:
+          case FLOAT:
+          case DOUBLE:
+            return new DoubleColumn(name, jdbcType);
+          case CHAR:
+          case VARCHAR:
+          case LONGVARCHAR:
+          case NCHAR:
+          case NVARCHAR:
+            return new StringColumn(name, jdbcType);
+          default:
+            break;
+        }
+      }
+      return new ObjectColumn(name, jdbcType, typeHandler);
+    }
+
+    /**
+     * Reads the current row of a result set.
+     *
+     * @param rs
+     *          the result set, positioned on a row
+     * @throws SQLException
+     *           if a value cannot be read
+     */
+    public void addRow(ResultSet rs) throws SQLException {
+      for (int i = 0; i < columns.size(); i++) {
+        columns.get(i).read(rs, i + 1, rowCount);
+      }
+      rowCount++;
+    }
+
+    public int getRowCount() {
+      return rowCount;
+    }
+
+    public ColumnarResult build() {
+      for (Column column : columns) {
+        column.trim(rowCount);
+      }
+      return new ColumnarResult(columns, rowCount);
+    }
+  }
+
+}
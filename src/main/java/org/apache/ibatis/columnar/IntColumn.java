@@ -0,0 +1,82 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.columnar;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import org.apache.ibatis.type.JdbcType;
+
+/**
+ * A column of integers, kept in a {@code int[]}.
+ *
+ * @since 3.5.7
+ */
+public final class IntColumn extends Column {
+
+  private static final long serialVersionUID = 1L;
+
+  private int[] values = new int[0];
+
+  IntColumn(String name, JdbcType jdbcType) {
+    super(name, jdbcType);
+  }
+
+  /**
+   * Gets the value of a row.
+   *
+   * @param row
+   *          the index of the row, from 0
+   * @return the value, 0 if it is null
+   */
+  public int getInt(int row) {
+    return values[row];
+  }
+
+  /**
+   * Gets the values of all the rows. The array is the one of the column, not a copy.
+   *
+   * @return the values, 0 for the null ones
+   */
+  public int[] getValues() {
+    return values;
+  }
+
+  @Override
+  public Object getObject(int row) {
+    return isNull(row) ? null : Integer.valueOf(values[row]);
+  }
+
+  @Override
+  void read(ResultSet rs, int columnIndex, int row) throws SQLException {
+    if (row == values.length) {
+      values = Arrays.copyOf(values, newCapacity(values.length));
+    }
+    values[row] = rs.getInt(columnIndex);
+    if (rs.wasNull()) {
+      setNull(row);
+    }
+  }
+
+  @Override
+  void trim(int rowCount) {
+    if (values.length != rowCount) {
+      values = Arrays.copyOf(values, rowCount);
+    }
+  }
+
+}
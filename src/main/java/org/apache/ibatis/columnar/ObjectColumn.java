@@ -0,0 +1,92 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.columnar;
+
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.TypeHandler;
+
+/**
+ * A column of the types without a primitive representation, whose values are read by their {@link TypeHandler}.
+ * <p>
+ * The column can only be serialized, e.g. by a second-level cache that is not read-only, if all its values are
+ * serializable.
+ *
+ * @since 3.5.7
+ */
+public final class ObjectColumn extends Column {
+
+  private static final long serialVersionUID = 1L;
+
+  private Object[] values = new Object[0];
+  private final transient TypeHandler<?> typeHandler;
+
+  ObjectColumn(String name, JdbcType jdbcType, TypeHandler<?> typeHandler) {
+    super(name, jdbcType);
+    this.typeHandler = typeHandler;
+  }
+
+  /**
+   * Gets the values of all the rows. The array is the one of the column, not a copy.
+   *
+   * @return the values
+   */
+  public Object[] getValues() {
+    return values;
+  }
+
+  @Override
+  public Object getObject(int row) {
+    return values[row];
+  }
+
+  @Override
+  void read(ResultSet rs, int columnIndex, int row) throws SQLException {
+    if (row == values.length) {
+      values = Arrays.copyOf(values, newCapacity(values.length));
+    }
+    final Object value = typeHandler.getResult(rs, columnIndex);
+    values[row] = value;
+    if (value == null) {
+      setNull(row);
+    }
+  }
+
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    for (Object value : values) {
+      if (value != null && !(value instanceof Serializable)) {
+        throw new NotSerializableException("Column '" + getName() + "' holds a value of " + value.getClass().getName()
+            + ", which is not serializable");
+      }
+    }
+    out.defaultWriteObject();
+  }
+
+  @Override
+  void trim(int rowCount) {
+    if (values.length != rowCount) {
+      values = Arrays.copyOf(values, rowCount);
+    }
+  }
+
+}
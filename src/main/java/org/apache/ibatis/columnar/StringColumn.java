@@ -0,0 +1,112 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.columnar;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.type.JdbcType;
+
+/**
+ * A column of strings, dictionary encoded: each distinct string is kept once, and the rows hold its code in an
+ * {@code int[]}.
+ *
+ * @since 3.5.7
+ */
+public final class StringColumn extends Column {
+
+  private static final long serialVersionUID = 1L;
+
+  private int[] codes = new int[0];
+  private final List<String> dictionary = new ArrayList<>();
+  private transient Map<String, Integer> dictionaryCodes = new HashMap<>();
+
+  StringColumn(String name, JdbcType jdbcType) {
+    super(name, jdbcType);
+  }
+
+  /**
+   * Gets the value of a row.
+   *
+   * @param row
+   *          the index of the row, from 0
+   * @return the value, or null
+   */
+  public String getString(int row) {
+    final int code = codes[row];
+    return code < 0 ? null : dictionary.get(code);
+  }
+
+  /**
+   * Gets the codes of the values of all the rows, which are their indexes in the dictionary. The array is the one of the
+   * column, not a copy.
+   *
+   * @return the codes, -1 for the null values
+   */
+  public int[] getCodes() {
+    return codes;
+  }
+
+  /**
+   * Gets the distinct values of the column, by code.
+   *
+   * @return the dictionary
+   */
+  public List<String> getDictionary() {
+    return Collections.unmodifiableList(dictionary);
+  }
+
+  @Override
+  public Object getObject(int row) {
+    return getString(row);
+  }
+
+  @Override
+  void read(ResultSet rs, int columnIndex, int row) throws SQLException {
+    if (row == codes.length) {
+      codes = Arrays.copyOf(codes, newCapacity(codes.length));
+    }
+    final String value = rs.getString(columnIndex);
+    if (value == null) {
+      codes[row] = -1;
+      setNull(row);
+    } else {
+      Integer code = dictionaryCodes.get(value);
+      if (code == null) {
+        code = dictionary.size();
+        dictionary.add(value);
+        dictionaryCodes.put(value, code);
+      }
+      codes[row] = code;
+    }
+  }
+
+  @Override
+  void trim(int rowCount) {
+    if (codes.length != rowCount) {
+      codes = Arrays.copyOf(codes, rowCount);
+    }
+    dictionaryCodes = null;
+    ((ArrayList<String>) dictionary).trimToSize();
+  }
+
+}
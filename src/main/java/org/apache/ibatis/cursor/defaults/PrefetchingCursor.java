@@ -0,0 +1,282 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cursor.defaults;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.resultset.DefaultResultSetHandler;
+import org.apache.ibatis.executor.resultset.ResultSetWrapper;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * A cursor mapping rows on a thread of its own, ahead of its consumer.
+ * <p>
+ * The rows are mapped into a bounded buffer as soon as the first one is asked for, so fetching and mapping the next
+ * rows overlaps with the processing of the previous ones. The mapping thread stops when the buffer is full, until the
+ * consumer takes rows from it. An exception thrown while fetching or mapping rows is thrown to the consumer once it
+ * has taken the rows mapped before. Closing the cursor stops the mapping thread and waits for it before closing the
+ * result set.
+ * <p>
+ * The mapping thread only reads the result set, so a result map with nested selects, at any depth, is not mapped by
+ * this cursor. As the mapping thread reads the result set while the consumer goes on, the consumer must not run other
+ * statements on the connection of the cursor until it is closed or consumed. This implementation is not thread safe.
+ *
+ * @since 3.5.7
+ * @see org.apache.ibatis.mapping.MappedStatement#getCursorPrefetchSize()
+ */
+public class PrefetchingCursor<T> implements Cursor<T> {
+
+  private static final Object NULL = new Object();
+  private static final Object END = new Object();
+
+  private final DefaultResultSetHandler resultSetHandler;
+  private final ResultMap resultMap;
+  private final ResultSetWrapper rsw;
+  private final RowBounds rowBounds;
+  private final BlockingQueue<Object> buffer;
+  private final Prefetcher prefetcher = new Prefetcher();
+
+  private final CursorIterator cursorIterator = new CursorIterator();
+  private boolean iteratorRetrieved;
+
+  private CursorStatus status = CursorStatus.CREATED;
+  private Thread thread;
+
+  private enum CursorStatus {
+    CREATED, OPEN, CLOSED, CONSUMED
+  }
+
+  public PrefetchingCursor(DefaultResultSetHandler resultSetHandler, ResultMap resultMap, ResultSetWrapper rsw,
+      RowBounds rowBounds, int prefetchSize) {
+    if (prefetchSize < 1) {
+      throw new IllegalArgumentException("The prefetch size of a cursor must be positive but was " + prefetchSize);
+    }
+    this.resultSetHandler = resultSetHandler;
+    this.resultMap = resultMap;
+    this.rsw = rsw;
+    this.rowBounds = rowBounds;
+    this.buffer = new ArrayBlockingQueue<>(prefetchSize);
+  }
+
+  @Override
+  public boolean isOpen() {
+    return status == CursorStatus.OPEN;
+  }
+
+  @Override
+  public boolean isConsumed() {
+    return status == CursorStatus.CONSUMED;
+  }
+
+  @Override
+  public int getCurrentIndex() {
+    return rowBounds.getOffset() + cursorIterator.iteratorIndex;
+  }
+
+  @Override
+  public Iterator<T> iterator() {
+    if (iteratorRetrieved) {
+      throw new IllegalStateException("Cannot open more than one iterator on a Cursor");
+    }
+    if (isClosed()) {
+      throw new IllegalStateException("A Cursor is already closed.");
+    }
+    iteratorRetrieved = true;
+    return cursorIterator;
+  }
+
+  @Override
+  public void close() {
+    if (isClosed()) {
+      return;
+    }
+    try {
+      stopPrefetching();
+      ResultSet rs = rsw.getResultSet();
+      if (rs != null) {
+        rs.close();
+      }
+    } catch (SQLException e) {
+      // ignore
+    } finally {
+      status = CursorStatus.CLOSED;
+    }
+  }
+
+  private void stopPrefetching() {
+    if (thread == null) {
+      return;
+    }
+    prefetcher.stopped = true;
+    boolean interrupted = false;
+    while (thread.isAlive()) {
+      try {
+        thread.join();
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    buffer.clear();
+    thread = null;
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  protected boolean fetchNextObject() {
+    if (isClosed()) {
+      return false;
+    }
+    if (thread == null) {
+      status = CursorStatus.OPEN;
+      thread = new Thread(prefetcher, "mybatis-cursor-prefetch");
+      thread.setDaemon(true);
+      thread.start();
+    }
+    final Object next;
+    try {
+      next = buffer.take();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while waiting for the next row of a cursor", e);
+    }
+    if (next == END) {
+      thread = null;
+      close();
+      status = CursorStatus.CONSUMED;
+      return false;
+    }
+    if (next instanceof Failure) {
+      thread = null;
+      close();
+      Throwable cause = ((Failure) next).cause;
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new RuntimeException(cause);
+    }
+    cursorIterator.object = next == NULL ? null : (T) next;
+    return true;
+  }
+
+  private boolean isClosed() {
+    return status == CursorStatus.CLOSED || status == CursorStatus.CONSUMED;
+  }
+
+  private static class Failure {
+    private final Throwable cause;
+
+    Failure(Throwable cause) {
+      this.cause = cause;
+    }
+  }
+
+  private class Prefetcher implements Runnable, ResultHandler<T> {
+
+    private volatile boolean stopped;
+
+    @Override
+    public void run() {
+      Object last = END;
+      try {
+        if (!rsw.getResultSet().isClosed()) {
+          resultSetHandler.handleRowValues(rsw, resultMap, this, rowBounds, null);
+        }
+      } catch (Throwable t) {
+        last = new Failure(t);
+      }
+      put(last);
+    }
+
+    @Override
+    public void handleResult(ResultContext<? extends T> context) {
+      T result = context.getResultObject();
+      if (!put(result == null ? NULL : result)) {
+        context.stop();
+      }
+    }
+
+    private boolean put(Object object) {
+      try {
+        // wait for room in the buffer, but give up once the cursor is closed
+        while (!stopped) {
+          if (buffer.offer(object, 10, TimeUnit.MILLISECONDS)) {
+            return true;
+          }
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return false;
+    }
+  }
+
+  protected class CursorIterator implements Iterator<T> {
+
+    /**
+     * Holder for the next object to be returned.
+     */
+    T object;
+
+    /**
+     * Whether {@link #object} holds the next object.
+     */
+    boolean fetched;
+
+    /**
+     * Index of objects returned using next(), and as such, visible to users.
+     */
+    int iteratorIndex = -1;
+
+    @Override
+    public boolean hasNext() {
+      if (!fetched) {
+        fetched = fetchNextObject();
+      }
+      return fetched;
+    }
+
+    @Override
+    public T next() {
+      if (hasNext()) {
+        T next = object;
+        object = null;
+        fetched = false;
+        iteratorIndex++;
+        return next;
+      }
+      throw new NoSuchElementException();
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException("Cannot remove element from Cursor");
+    }
+  }
+}
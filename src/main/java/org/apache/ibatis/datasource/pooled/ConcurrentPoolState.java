@@ -0,0 +1,98 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The state of a {@link ConcurrentPooledDataSource}. Statistics are kept in striped counters so that neither checking
+ * out a connection nor reading the statistics takes a lock.
+ *
+ * @since 3.5.7
+ */
+public class ConcurrentPoolState extends PoolState {
+
+  private final ConcurrentPooledDataSource concurrentDataSource;
+
+  final LongAdder requestCounter = new LongAdder();
+  final LongAdder requestTime = new LongAdder();
+  final LongAdder checkoutTime = new LongAdder();
+  final LongAdder claimedOverdueCounter = new LongAdder();
+  final LongAdder overdueCheckoutTime = new LongAdder();
+  final LongAdder waitTime = new LongAdder();
+  final LongAdder hadToWaitCounter = new LongAdder();
+  final LongAdder badConnectionCounter = new LongAdder();
+
+  public ConcurrentPoolState(ConcurrentPooledDataSource dataSource) {
+    super(dataSource);
+    this.concurrentDataSource = dataSource;
+  }
+
+  @Override
+  public long getRequestCount() {
+    return requestCounter.sum();
+  }
+
+  @Override
+  public long getAverageRequestTime() {
+    long count = requestCounter.sum();
+    return count == 0 ? 0 : requestTime.sum() / count;
+  }
+
+  @Override
+  public long getAverageWaitTime() {
+    long count = hadToWaitCounter.sum();
+    return count == 0 ? 0 : waitTime.sum() / count;
+  }
+
+  @Override
+  public long getHadToWaitCount() {
+    return hadToWaitCounter.sum();
+  }
+
+  @Override
+  public long getBadConnectionCount() {
+    return badConnectionCounter.sum();
+  }
+
+  @Override
+  public long getClaimedOverdueConnectionCount() {
+    return claimedOverdueCounter.sum();
+  }
+
+  @Override
+  public long getAverageOverdueCheckoutTime() {
+    long count = claimedOverdueCounter.sum();
+    return count == 0 ? 0 : overdueCheckoutTime.sum() / count;
+  }
+
+  @Override
+  public long getAverageCheckoutTime() {
+    long count = requestCounter.sum();
+    return count == 0 ? 0 : checkoutTime.sum() / count;
+  }
+
+  @Override
+  public int getIdleConnectionCount() {
+    return concurrentDataSource.getIdleConnectionCount();
+  }
+
+  @Override
+  public int getActiveConnectionCount() {
+    return concurrentDataSource.getActiveConnectionCount();
+  }
+
+}
@@ -0,0 +1,530 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.ibatis.datasource.unpooled.UnpooledDataSource;
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+
+/**
+ * A {@link PooledDataSource} that does not serialize checkouts and returns on a single monitor.
+ * <p>
+ * Idle connections are kept in a concurrent bag: a lock-free deque that is shared by all threads plus a reference to the
+ * connection each thread returned last, which the thread tries to claim again before looking at the shared deque.
+ * Threads that find the pool exhausted wait in a fair (FIFO) queue for at most {@code poolTimeToWait} milliseconds
+ * before looking again, and statistics are kept in striped counters. The configuration properties, the ping query and
+ * the reclaiming of overdue connections behave like in {@link PooledDataSource}.
+ *
+ * @since 3.5.7
+ */
+public class ConcurrentPooledDataSource extends PooledDataSource {
+
+  private static final Log log = LogFactory.getLog(ConcurrentPooledDataSource.class);
+
+  private static final Object RETRY = new Object();
+  private static final Object CANCELLED = new Object();
+  private static final Object INTERRUPTED = new Object();
+
+  private final ConcurrentPoolState state = new ConcurrentPoolState(this);
+
+  private final UnpooledDataSource dataSource;
+
+  private final ConcurrentLinkedDeque<IdleConnection> idleConnections = new ConcurrentLinkedDeque<>();
+  private final ThreadLocal<IdleConnection> lastReturnedConnection = new ThreadLocal<>();
+  private final Map<Connection, PooledConnection> activeConnections = new ConcurrentHashMap<>();
+  private final AtomicInteger idleConnectionCount = new AtomicInteger();
+  private final AtomicInteger totalConnectionCount = new AtomicInteger();
+  private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+
+  private volatile int expectedConnectionTypeCode;
+
+  public ConcurrentPooledDataSource() {
+    this(new UnpooledDataSource());
+  }
+
+  public ConcurrentPooledDataSource(UnpooledDataSource dataSource) {
+    super(dataSource);
+    this.dataSource = dataSource;
+    this.expectedConnectionTypeCode = assembleConnectionTypeCode(dataSource.getUrl(), dataSource.getUsername(), dataSource.getPassword());
+  }
+
+  public ConcurrentPooledDataSource(String driver, String url, String username, String password) {
+    this(new UnpooledDataSource(driver, url, username, password));
+  }
+
+  public ConcurrentPooledDataSource(String driver, String url, Properties driverProperties) {
+    this(new UnpooledDataSource(driver, url, driverProperties));
+  }
+
+  public ConcurrentPooledDataSource(ClassLoader driverClassLoader, String driver, String url, String username, String password) {
+    this(new UnpooledDataSource(driverClassLoader, driver, url, username, password));
+  }
+
+  public ConcurrentPooledDataSource(ClassLoader driverClassLoader, String driver, String url, Properties driverProperties) {
+    this(new UnpooledDataSource(driverClassLoader, driver, url, driverProperties));
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return popConnection(dataSource.getUsername(), dataSource.getPassword()).getProxyConnection();
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return popConnection(username, password).getProxyConnection();
+  }
+
+  @Override
+  public PoolState getPoolState() {
+    return state;
+  }
+
+  int getIdleConnectionCount() {
+    return idleConnectionCount.get();
+  }
+
+  int getActiveConnectionCount() {
+    return activeConnections.size();
+  }
+
+  /**
+   * Closes all active and idle connections in the pool.
+   */
+  @Override
+  public void forceCloseAll() {
+    expectedConnectionTypeCode = assembleConnectionTypeCode(dataSource.getUrl(), dataSource.getUsername(), dataSource.getPassword());
+    for (PooledConnection conn : activeConnections.values()) {
+      if (removeActiveConnection(conn)) {
+        totalConnectionCount.decrementAndGet();
+        conn.invalidate();
+        closeQuietly(conn.getRealConnection());
+      }
+    }
+    lastReturnedConnection.remove();
+    IdleConnection idle;
+    while ((idle = idleConnections.pollFirst()) != null) {
+      PooledConnection conn = idle.claim();
+      if (conn != null) {
+        idleConnectionCount.decrementAndGet();
+        totalConnectionCount.decrementAndGet();
+        conn.invalidate();
+        closeQuietly(conn.getRealConnection());
+      }
+    }
+    for (int i = waiters.size(); i > 0 && handOff(RETRY); i--) {
+      // wake up the waiting threads
+    }
+    if (log.isDebugEnabled()) {
+      log.debug("ConcurrentPooledDataSource forcefully closed/removed all connections.");
+    }
+  }
+
+  @Override
+  protected void pushConnection(PooledConnection conn) throws SQLException {
+    if (!removeActiveConnection(conn)) {
+      // invalidated by forceCloseAll() or claimed as overdue by another thread
+      if (log.isDebugEnabled()) {
+        log.debug("A bad connection (" + conn.getRealHashCode() + ") attempted to return to the pool, discarding connection.");
+      }
+      state.badConnectionCounter.increment();
+      return;
+    }
+    if (!conn.isValid()) {
+      if (log.isDebugEnabled()) {
+        log.debug("A bad connection (" + conn.getRealHashCode() + ") attempted to return to the pool, discarding connection.");
+      }
+      state.badConnectionCounter.increment();
+      discard(conn);
+      return;
+    }
+    state.checkoutTime.add(conn.getCheckoutTime());
+    try {
+      if (!conn.getRealConnection().getAutoCommit()) {
+        conn.getRealConnection().rollback();
+      }
+    } catch (SQLException e) {
+      discard(conn);
+      throw e;
+    }
+    if (conn.getConnectionTypeCode() == expectedConnectionTypeCode) {
+      PooledConnection newConn = new PooledConnection(conn.getRealConnection(), this, conn.getStatementCache());
+      newConn.setCreatedTimestamp(conn.getCreatedTimestamp());
+      newConn.setLastUsedTimestamp(conn.getLastUsedTimestamp());
+      conn.invalidate();
+      if (handOff(newConn)) {
+        if (log.isDebugEnabled()) {
+          log.debug("Handed connection " + newConn.getRealHashCode() + " over to a waiting thread.");
+        }
+        return;
+      }
+      if (offerIdleConnection(newConn)) {
+        if (log.isDebugEnabled()) {
+          log.debug("Returned connection " + newConn.getRealHashCode() + " to pool.");
+        }
+        return;
+      }
+    }
+    totalConnectionCount.decrementAndGet();
+    conn.invalidate();
+    try {
+      conn.getRealConnection().close();
+    } finally {
+      handOff(RETRY);
+    }
+    if (log.isDebugEnabled()) {
+      log.debug("Closed connection " + conn.getRealHashCode() + ".");
+    }
+  }
+
+  private PooledConnection popConnection(String username, String password) throws SQLException {
+    final long startNanos = startConnectionAcquisition();
+    boolean countedWait = false;
+    PooledConnection conn = null;
+    long t = System.currentTimeMillis();
+    int localBadConnectionCount = 0;
+
+    while (conn == null) {
+      conn = claimIdleConnection();
+      if (conn != null) {
+        if (log.isDebugEnabled()) {
+          log.debug("Checked out connection " + conn.getRealHashCode() + " from pool.");
+        }
+      } else if (reserveNewConnectionSlot()) {
+        // Can create new connection
+        try {
+          conn = new PooledConnection(dataSource.getConnection(), this);
+        } catch (SQLException | RuntimeException e) {
+          totalConnectionCount.decrementAndGet();
+          handOff(RETRY);
+          throw e;
+        }
+        if (log.isDebugEnabled()) {
+          log.debug("Created connection " + conn.getRealHashCode() + ".");
+        }
+      } else {
+        conn = claimOverdueConnection();
+        if (conn == null) {
+          // Must wait
+          if (!countedWait) {
+            state.hadToWaitCounter.increment();
+            countedWait = true;
+          }
+          if (log.isDebugEnabled()) {
+            log.debug("Waiting as long as " + poolTimeToWait + " milliseconds for connection.");
+          }
+          long wt = System.currentTimeMillis();
+          Object handedOver = awaitConnection();
+          state.waitTime.add(System.currentTimeMillis() - wt);
+          if (handedOver == INTERRUPTED) {
+            break;
+          }
+          if (!(handedOver instanceof PooledConnection)) {
+            continue;
+          }
+          conn = (PooledConnection) handedOver;
+          if (log.isDebugEnabled()) {
+            log.debug("Checked out connection " + conn.getRealHashCode() + " from pool.");
+          }
+        }
+      }
+      // ping to server and check the connection is valid or not
+      if (conn.isValid()) {
+        try {
+          if (!conn.getRealConnection().getAutoCommit()) {
+            conn.getRealConnection().rollback();
+          }
+        } catch (SQLException e) {
+          discard(conn);
+          throw e;
+        }
+        conn.setConnectionTypeCode(assembleConnectionTypeCode(dataSource.getUrl(), username, password));
+        conn.setCheckoutTimestamp(System.currentTimeMillis());
+        conn.setLastUsedTimestamp(System.currentTimeMillis());
+        activeConnections.put(conn.getRealConnection(), conn);
+        state.requestCounter.increment();
+        state.requestTime.add(System.currentTimeMillis() - t);
+      } else {
+        if (log.isDebugEnabled()) {
+          log.debug("A bad connection (" + conn.getRealHashCode() + ") was returned from the pool, getting another connection.");
+        }
+        state.badConnectionCounter.increment();
+        discard(conn);
+        localBadConnectionCount++;
+        conn = null;
+        if (localBadConnectionCount > (poolMaximumIdleConnections + poolMaximumLocalBadConnectionTolerance)) {
+          if (log.isDebugEnabled()) {
+            log.debug("ConcurrentPooledDataSource: Could not get a good connection to the database.");
+          }
+          throw new SQLException("ConcurrentPooledDataSource: Could not get a good connection to the database.");
+        }
+      }
+    }
+
+    if (conn == null) {
+      if (log.isDebugEnabled()) {
+        log.debug("ConcurrentPooledDataSource: Unknown severe error condition.  The connection pool returned a null connection.");
+      }
+      throw new SQLException("ConcurrentPooledDataSource: Unknown severe error condition.  The connection pool returned a null connection.");
+    }
+
+    recordConnectionAcquisition(startNanos);
+    return conn;
+  }
+
+  /**
+   * Claims the connection returned last by the current thread or else the most recently returned one.
+   */
+  private PooledConnection claimIdleConnection() {
+    IdleConnection idle = lastReturnedConnection.get();
+    PooledConnection conn;
+    if (idle != null) {
+      lastReturnedConnection.remove();
+      conn = idle.claim();
+      if (conn != null) {
+        idleConnections.removeFirstOccurrence(idle);
+        idleConnectionCount.decrementAndGet();
+        return conn;
+      }
+    }
+    while ((idle = idleConnections.pollFirst()) != null) {
+      conn = idle.claim();
+      if (conn != null) {
+        idleConnectionCount.decrementAndGet();
+        return conn;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Adds the connection to the idle connections unless there are enough of them already. If a thread started waiting
+   * meanwhile, the connection is handed over to it instead.
+   */
+  private boolean offerIdleConnection(PooledConnection conn) {
+    while (reserveIdleSlot()) {
+      IdleConnection idle = new IdleConnection(conn);
+      idleConnections.offerFirst(idle);
+      lastReturnedConnection.set(idle);
+      if (waiters.isEmpty() || idle.claim() == null) {
+        return true;
+      }
+      lastReturnedConnection.remove();
+      idleConnections.removeFirstOccurrence(idle);
+      idleConnectionCount.decrementAndGet();
+      if (handOff(conn)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Waits at most {@code poolTimeToWait} milliseconds in line with the other waiting threads.
+   *
+   * @return the connection that was handed over, {@link #RETRY} if the caller should look again or
+   *         {@link #INTERRUPTED}
+   */
+  private Object awaitConnection() {
+    Waiter waiter = new Waiter();
+    waiters.offer(waiter);
+    if (!idleConnections.isEmpty() || totalConnectionCount.get() < poolMaximumActiveConnections) {
+      // a connection was returned or closed before this thread was in line
+      if (waiter.cancel()) {
+        waiters.remove(waiter);
+        return RETRY;
+      }
+      return waiter.result.get();
+    }
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(poolTimeToWait);
+    boolean interrupted = false;
+    long remaining;
+    while (waiter.result.get() == null && (remaining = deadline - System.nanoTime()) > 0) {
+      LockSupport.parkNanos(this, remaining);
+      if (Thread.interrupted()) {
+        interrupted = true;
+        break;
+      }
+    }
+    if (waiter.cancel()) {
+      waiters.remove(waiter);
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+        return INTERRUPTED;
+      }
+      return RETRY;
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+    return waiter.result.get();
+  }
+
+  /**
+   * Hands the connection, or {@link #RETRY}, over to the thread that has been waiting the longest.
+   */
+  private boolean handOff(Object connectionOrRetry) {
+    Waiter waiter;
+    while ((waiter = waiters.poll()) != null) {
+      if (waiter.offer(connectionOrRetry)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void discard(PooledConnection conn) {
+    totalConnectionCount.decrementAndGet();
+    conn.invalidate();
+    closeQuietly(conn.getRealConnection());
+    handOff(RETRY);
+  }
+
+  private PooledConnection claimOverdueConnection() {
+    PooledConnection oldestActiveConnection = null;
+    for (PooledConnection conn : activeConnections.values()) {
+      if (oldestActiveConnection == null || conn.getCheckoutTimestamp() < oldestActiveConnection.getCheckoutTimestamp()) {
+        oldestActiveConnection = conn;
+      }
+    }
+    if (oldestActiveConnection == null) {
+      return null;
+    }
+    long longestCheckoutTime = oldestActiveConnection.getCheckoutTime();
+    if (longestCheckoutTime <= poolMaximumCheckoutTime || !removeActiveConnection(oldestActiveConnection)) {
+      return null;
+    }
+    // Can claim overdue connection
+    state.claimedOverdueCounter.increment();
+    state.overdueCheckoutTime.add(longestCheckoutTime);
+    state.checkoutTime.add(longestCheckoutTime);
+    try {
+      if (!oldestActiveConnection.getRealConnection().getAutoCommit()) {
+        oldestActiveConnection.getRealConnection().rollback();
+      }
+    } catch (SQLException e) {
+      // the connection is checked by the caller, see PooledDataSource#popConnection()
+      log.debug("Bad connection. Could not roll back");
+    }
+    PooledConnection conn = new PooledConnection(oldestActiveConnection.getRealConnection(), this,
+        oldestActiveConnection.getStatementCache());
+    conn.setCreatedTimestamp(oldestActiveConnection.getCreatedTimestamp());
+    conn.setLastUsedTimestamp(oldestActiveConnection.getLastUsedTimestamp());
+    oldestActiveConnection.invalidate();
+    if (log.isDebugEnabled()) {
+      log.debug("Claimed overdue connection " + conn.getRealHashCode() + ".");
+    }
+    return conn;
+  }
+
+  private boolean reserveNewConnectionSlot() {
+    int count;
+    while ((count = totalConnectionCount.get()) < poolMaximumActiveConnections) {
+      if (totalConnectionCount.compareAndSet(count, count + 1)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean reserveIdleSlot() {
+    int count;
+    while ((count = idleConnectionCount.get()) < poolMaximumIdleConnections) {
+      if (idleConnectionCount.compareAndSet(count, count + 1)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Removes the given connection, but not another wrapper of the same real connection, from the active connections.
+   */
+  private boolean removeActiveConnection(PooledConnection conn) {
+    boolean[] removed = new boolean[1];
+    activeConnections.computeIfPresent(conn.getRealConnection(), (realConnection, active) -> {
+      if (active == conn) {
+        removed[0] = true;
+        return null;
+      }
+      return active;
+    });
+    return removed[0];
+  }
+
+  private static void closeQuietly(Connection realConn) {
+    try {
+      if (!realConn.getAutoCommit()) {
+        realConn.rollback();
+      }
+      realConn.close();
+    } catch (Exception e) {
+      // ignore
+    }
+  }
+
+  private static final class Waiter {
+    private final Thread thread = Thread.currentThread();
+    private final AtomicReference<Object> result = new AtomicReference<>();
+
+    boolean offer(Object connectionOrRetry) {
+      if (result.compareAndSet(null, connectionOrRetry)) {
+        LockSupport.unpark(thread);
+        return true;
+      }
+      return false;
+    }
+
+    boolean cancel() {
+      return result.compareAndSet(null, CANCELLED);
+    }
+  }
+
+  /**
+   * An entry of the idle connections. The connection is released when the entry is claimed, so that an entry still
+   * referenced by the thread local of the thread that returned it does not keep a connection that has since been
+   * checked out, invalidated or closed.
+   */
+  private static final class IdleConnection {
+    private final AtomicReference<PooledConnection> connection;
+
+    IdleConnection(PooledConnection connection) {
+      this.connection = new AtomicReference<>(connection);
+    }
+
+    /**
+     * Claims the connection.
+     *
+     * @return the connection, or {@code null} if it was claimed already
+     */
+    PooledConnection claim() {
+      return connection.getAndSet(null);
+    }
+  }
+
+}
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2020 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -29,12 +29,14 @@ import org.apache.ibatis.reflection.ExceptionUtil;
 class PooledConnection implements InvocationHandler {
 
   private static final String CLOSE = "close";
+  private static final String PREPARE_STATEMENT = "prepareStatement";
   private static final Class<?>[] IFACES = new Class<?>[] { Connection.class };
 
   private final int hashCode;
   private final PooledDataSource dataSource;
   private final Connection realConnection;
   private final Connection proxyConnection;
+  private final PreparedStatementCache statementCache;
   private long checkoutTimestamp;
   private long createdTimestamp;
   private long lastUsedTimestamp;
@@ -50,6 +52,21 @@ class PooledConnection implements InvocationHandler {
    *          - the dataSource that the connection is from
    */
   public PooledConnection(Connection connection, PooledDataSource dataSource) {
+    this(connection, dataSource, dataSource.newStatementCache());
+  }
+
+  /**
+   * Constructor for a pooled connection that wraps a connection returned to the pool, keeping its cached statements.
+   *
+   * @param connection
+   *          - the connection that is to be presented as a pooled connection
+   * @param dataSource
+   *          - the dataSource that the connection is from
+   * @param statementCache
+   *          - the statement cache of the connection, may be null
+   */
+  PooledConnection(Connection connection, PooledDataSource dataSource, PreparedStatementCache statementCache) {
+    this.statementCache = statementCache;
     this.hashCode = connection.hashCode();
     this.realConnection = connection;
     this.dataSource = dataSource;
@@ -93,6 +110,15 @@ class PooledConnection implements InvocationHandler {
     return proxyConnection;
   }
 
+  /**
+   * Getter for the cache of the prepared statements of the real connection.
+   *
+   * @return The statement cache, or null if statements are not cached
+   */
+  PreparedStatementCache getStatementCache() {
+    return statementCache;
+  }
+
   /**
    * Gets the hashcode of the real connection (or 0 if it is null).
    *
@@ -251,6 +277,9 @@ class PooledConnection implements InvocationHandler {
         // issue #579 toString() should never fail
         // throw an SQLException instead of a Runtime
         checkConnection();
+        if (statementCache != null && PREPARE_STATEMENT.equals(methodName)) {
+          return statementCache.prepareStatement(realConnection, method, args);
+        }
       }
       return method.invoke(realConnection, args);
     } catch (Throwable t) {
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2020 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -22,7 +22,11 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Collections;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
 import javax.sql.DataSource;
@@ -30,6 +34,7 @@ import javax.sql.DataSource;
 import org.apache.ibatis.datasource.unpooled.UnpooledDataSource;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
+import org.apache.ibatis.metrics.MetricsCollector;
 
 /**
  * This is a simple, synchronous, thread-safe database connection pool.
@@ -40,6 +45,8 @@ public class PooledDataSource implements DataSource {
 
   private static final Log log = LogFactory.getLog(PooledDataSource.class);
 
+  private static final int MAXIMUM_STATEMENT_STATISTICS = 1024;
+
   private final PoolState state = new PoolState(this);
 
   private final UnpooledDataSource dataSource;
@@ -53,6 +60,10 @@ public class PooledDataSource implements DataSource {
   protected String poolPingQuery = "NO PING QUERY SET";
   protected boolean poolPingEnabled;
   protected int poolPingConnectionsNotUsedFor;
+  protected int poolMaximumCachedStatements;
+
+  private final Map<String, StatementCacheStatistics> statementCacheStatistics = new ConcurrentHashMap<>();
+  private volatile MetricsCollector metricsCollector;
 
   private int expectedConnectionTypeCode;
 
@@ -254,6 +265,21 @@ public class PooledDataSource implements DataSource {
     forceCloseAll();
   }
 
+  /**
+   * Sets the number of prepared statements each connection keeps open for reuse, 0 (the default) to disable caching.
+   * <p>
+   * Cached statements belong to the physical connection, so they are reused by all the sessions that borrow it from
+   * the pool. This saves a round trip per statement on drivers that do not cache statements themselves.
+   *
+   * @param poolMaximumCachedStatements
+   *          the maximum number of cached statements per connection
+   * @since 3.5.7
+   */
+  public void setPoolMaximumCachedStatements(int poolMaximumCachedStatements) {
+    this.poolMaximumCachedStatements = poolMaximumCachedStatements;
+    forceCloseAll();
+  }
+
   public String getDriver() {
     return dataSource.getDriver();
   }
@@ -324,11 +350,78 @@ public class PooledDataSource implements DataSource {
     return poolPingConnectionsNotUsedFor;
   }
 
+  /**
+   * Gets the number of prepared statements each connection keeps open for reuse.
+   *
+   * @return the maximum number of cached statements per connection
+   * @since 3.5.7
+   */
+  public int getPoolMaximumCachedStatements() {
+    return poolMaximumCachedStatements;
+  }
+
+  /**
+   * Gets the hit and miss counts of the statement caches of the connections, by SQL. Counts are kept for the first
+   * 1024 distinct SQL only.
+   *
+   * @return the statistics by SQL
+   * @since 3.5.7
+   */
+  public Map<String, StatementCacheStatistics> getStatementCacheStatistics() {
+    return Collections.unmodifiableMap(statementCacheStatistics);
+  }
+
+  StatementCacheStatistics getStatementCacheStatistics(String sql) {
+    StatementCacheStatistics statistics = statementCacheStatistics.get(sql);
+    if (statistics == null && statementCacheStatistics.size() < MAXIMUM_STATEMENT_STATISTICS) {
+      statistics = statementCacheStatistics.computeIfAbsent(sql, StatementCacheStatistics::new);
+    }
+    return statistics;
+  }
+
+  /**
+   * Gets the collector that receives the time taken to hand out connections.
+   *
+   * @return the metrics collector, or null
+   * @since 3.5.7
+   */
+  public MetricsCollector getMetricsCollector() {
+    return metricsCollector;
+  }
+
+  /**
+   * Sets the collector that receives the time taken to hand out connections, including the time spent waiting for a
+   * connection to be returned. It is set by the configuration that uses this data source.
+   *
+   * @param metricsCollector
+   *          the metrics collector, null to disable metrics
+   * @since 3.5.7
+   */
+  public void setMetricsCollector(MetricsCollector metricsCollector) {
+    this.metricsCollector = metricsCollector;
+  }
+
+  long startConnectionAcquisition() {
+    return metricsCollector == null ? 0 : System.nanoTime();
+  }
+
+  void recordConnectionAcquisition(long startNanos) {
+    MetricsCollector collector = metricsCollector;
+    if (collector != null && startNanos != 0) {
+      collector.recordConnectionAcquisition(System.nanoTime() - startNanos);
+    }
+  }
+
+  PreparedStatementCache newStatementCache() {
+    return poolMaximumCachedStatements > 0 ? new PreparedStatementCache(poolMaximumCachedStatements, this) : null;
+  }
+
   /**
    * Closes all active and idle connections in the pool.
    */
   public void forceCloseAll() {
-    synchronized (state) {
+    state.lock.lock();
+    try {
       expectedConnectionTypeCode = assembleConnectionTypeCode(dataSource.getUrl(), dataSource.getUsername(), dataSource.getPassword());
       for (int i = state.activeConnections.size(); i > 0; i--) {
         try {
@@ -358,6 +451,8 @@ public class PooledDataSource implements DataSource {
           // ignore
         }
       }
+    } finally {
+      state.lock.unlock();
     }
     if (log.isDebugEnabled()) {
       log.debug("PooledDataSource forcefully closed/removed all connections.");
@@ -368,13 +463,14 @@ public class PooledDataSource implements DataSource {
     return state;
   }
 
-  private int assembleConnectionTypeCode(String url, String username, String password) {
+  int assembleConnectionTypeCode(String url, String username, String password) {
     return ("" + url + username + password).hashCode();
   }
 
   protected void pushConnection(PooledConnection conn) throws SQLException {
 
-    synchronized (state) {
+    state.lock.lock();
+    try {
       state.activeConnections.remove(conn);
       if (conn.isValid()) {
         if (state.idleConnections.size() < poolMaximumIdleConnections && conn.getConnectionTypeCode() == expectedConnectionTypeCode) {
@@ -382,7 +478,7 @@ public class PooledDataSource implements DataSource {
           if (!conn.getRealConnection().getAutoCommit()) {
             conn.getRealConnection().rollback();
           }
-          PooledConnection newConn = new PooledConnection(conn.getRealConnection(), this);
+          PooledConnection newConn = new PooledConnection(conn.getRealConnection(), this, conn.getStatementCache());
           state.idleConnections.add(newConn);
           newConn.setCreatedTimestamp(conn.getCreatedTimestamp());
           newConn.setLastUsedTimestamp(conn.getLastUsedTimestamp());
@@ -390,7 +486,7 @@ public class PooledDataSource implements DataSource {
           if (log.isDebugEnabled()) {
             log.debug("Returned connection " + newConn.getRealHashCode() + " to pool.");
           }
-          state.notifyAll();
+          state.condition.signalAll();
         } else {
           state.accumulatedCheckoutTime += conn.getCheckoutTime();
           if (!conn.getRealConnection().getAutoCommit()) {
@@ -408,17 +504,21 @@ public class PooledDataSource implements DataSource {
         }
         state.badConnectionCount++;
       }
+    } finally {
+      state.lock.unlock();
     }
   }
 
   private PooledConnection popConnection(String username, String password) throws SQLException {
+    final long startNanos = startConnectionAcquisition();
     boolean countedWait = false;
     PooledConnection conn = null;
     long t = System.currentTimeMillis();
     int localBadConnectionCount = 0;
 
     while (conn == null) {
-      synchronized (state) {
+      state.lock.lock();
+      try {
         if (!state.idleConnections.isEmpty()) {
           // Pool has available connection
           conn = state.idleConnections.remove(0);
@@ -458,7 +558,8 @@ public class PooledDataSource implements DataSource {
                   log.debug("Bad connection. Could not roll back");
                 }
               }
-              conn = new PooledConnection(oldestActiveConnection.getRealConnection(), this);
+              conn = new PooledConnection(oldestActiveConnection.getRealConnection(), this,
+                  oldestActiveConnection.getStatementCache());
               conn.setCreatedTimestamp(oldestActiveConnection.getCreatedTimestamp());
               conn.setLastUsedTimestamp(oldestActiveConnection.getLastUsedTimestamp());
               oldestActiveConnection.invalidate();
@@ -476,7 +577,7 @@ public class PooledDataSource implements DataSource {
                   log.debug("Waiting as long as " + poolTimeToWait + " milliseconds for connection.");
                 }
                 long wt = System.currentTimeMillis();
-                state.wait(poolTimeToWait);
+                state.condition.await(poolTimeToWait, TimeUnit.MILLISECONDS);
                 state.accumulatedWaitTime += System.currentTimeMillis() - wt;
               } catch (InterruptedException e) {
                 break;
@@ -511,6 +612,8 @@ public class PooledDataSource implements DataSource {
             }
           }
         }
+      } finally {
+        state.lock.unlock();
       }
 
     }
@@ -522,6 +625,7 @@ public class PooledDataSource implements DataSource {
       throw new SQLException("PooledDataSource: Unknown severe error condition.  The connection pool returned a null connection.");
     }
 
+    recordConnectionAcquisition(startNanos);
     return conn;
   }
 
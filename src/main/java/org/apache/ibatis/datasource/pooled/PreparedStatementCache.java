@@ -0,0 +1,314 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+import org.apache.ibatis.reflection.ExceptionUtil;
+
+/**
+ * A least recently used cache of the prepared statements of one physical connection.
+ * <p>
+ * The cache belongs to the real connection, so it is handed over to every {@link PooledConnection} that wraps it and
+ * statements survive across the sessions that borrow the connection from the pool. Closing a statement obtained from
+ * the cache returns it to the cache instead of closing it. A statement is lent to a single caller at a time, a
+ * concurrent request for the same SQL on the same connection prepares an uncached statement.
+ *
+ * @since 3.5.7
+ */
+final class PreparedStatementCache {
+
+  private static final Log log = LogFactory.getLog(PreparedStatementCache.class);
+
+  private static final Class<?>[] IFACES = new Class<?>[] { PreparedStatement.class };
+
+  private final int maximumSize;
+  private final PooledDataSource dataSource;
+  private final LinkedHashMap<StatementKey, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private final ReentrantLock lock = new ReentrantLock();
+
+  PreparedStatementCache(int maximumSize, PooledDataSource dataSource) {
+    this.maximumSize = maximumSize;
+    this.dataSource = dataSource;
+  }
+
+  /**
+   * Returns a cached statement for a {@code prepareStatement} call or prepares and caches a new one.
+   */
+  PreparedStatement prepareStatement(Connection realConnection, Method method, Object[] args) throws Throwable {
+    final StatementKey key = new StatementKey(args);
+    final StatementCacheStatistics statistics = dataSource.getStatementCacheStatistics(key.sql);
+    Entry entry;
+    boolean hit = false;
+    lock.lock();
+    try {
+      entry = entries.get(key);
+      if (entry != null && !entry.inUse) {
+        entry.inUse = true;
+        hit = true;
+      }
+    } finally {
+      lock.unlock();
+    }
+    if (hit) {
+      if (!entry.statement.isClosed()) {
+        if (statistics != null) {
+          statistics.recordHit();
+        }
+        return entry.newHandle();
+      }
+      // closed behind our back, e.g. through ResultSet.getStatement()
+      lock.lock();
+      try {
+        entries.remove(key, entry);
+      } finally {
+        lock.unlock();
+      }
+      entry = null;
+    }
+    if (statistics != null) {
+      statistics.recordMiss();
+    }
+    PreparedStatement statement = (PreparedStatement) method.invoke(realConnection, args);
+    if (entry != null) {
+      // lent to another caller of this connection, e.g. an enclosing query of a nested select
+      return statement;
+    }
+    Entry newEntry;
+    try {
+      newEntry = new Entry(key, statement, statistics);
+    } catch (SQLException e) {
+      closeQuietly(statement);
+      throw e;
+    }
+    List<PreparedStatement> evicted;
+    lock.lock();
+    try {
+      if (entries.containsKey(key)) {
+        return statement;
+      }
+      entries.put(key, newEntry);
+      evicted = evict();
+    } finally {
+      lock.unlock();
+    }
+    for (PreparedStatement eldest : evicted) {
+      closeQuietly(eldest);
+    }
+    return newEntry.newHandle();
+  }
+
+  /**
+   * Unlinks the eldest entries beyond the maximum size. Must be called holding the lock; the returned idle statements
+   * are to be closed after releasing it.
+   */
+  private List<PreparedStatement> evict() {
+    List<PreparedStatement> idle = new ArrayList<>();
+    Iterator<Entry> iterator = entries.values().iterator();
+    while (entries.size() > maximumSize && iterator.hasNext()) {
+      Entry eldest = iterator.next();
+      iterator.remove();
+      if (eldest.statistics != null) {
+        eldest.statistics.recordEviction();
+      }
+      if (eldest.inUse) {
+        eldest.evicted = true;
+      } else {
+        idle.add(eldest.statement);
+      }
+    }
+    return idle;
+  }
+
+  private void release(Entry entry) {
+    boolean reusable = !entry.evicted && entry.reusable;
+    if (reusable) {
+      try {
+        entry.reset();
+      } catch (SQLException e) {
+        reusable = false;
+      }
+    }
+    lock.lock();
+    try {
+      if (reusable && !entry.evicted) {
+        entry.inUse = false;
+        return;
+      }
+      entries.remove(entry.key, entry);
+    } finally {
+      lock.unlock();
+    }
+    closeQuietly(entry.statement);
+  }
+
+  int size() {
+    lock.lock();
+    try {
+      return entries.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private static void closeQuietly(PreparedStatement statement) {
+    try {
+      statement.close();
+    } catch (SQLException e) {
+      if (log.isDebugEnabled()) {
+        log.debug("Error closing a cached statement. Cause: " + e);
+      }
+    }
+  }
+
+  private static final class StatementKey {
+    private final String sql;
+    private final Object[] args;
+    private final int hashCode;
+
+    StatementKey(Object[] args) {
+      this.sql = (String) args[0];
+      this.args = args;
+      this.hashCode = Arrays.deepHashCode(args);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof StatementKey && Arrays.deepEquals(args, ((StatementKey) obj).args);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
+  private final class Entry {
+    private final StatementKey key;
+    private final PreparedStatement statement;
+    private final StatementCacheStatistics statistics;
+    private final int fetchSize;
+    private final int maxRows;
+    private final int queryTimeout;
+    private boolean inUse = true;
+    private boolean evicted;
+    private boolean reusable = true;
+    private boolean modified;
+
+    Entry(StatementKey key, PreparedStatement statement, StatementCacheStatistics statistics) throws SQLException {
+      this.key = key;
+      this.statement = statement;
+      this.statistics = statistics;
+      this.fetchSize = statement.getFetchSize();
+      this.maxRows = statement.getMaxRows();
+      this.queryTimeout = statement.getQueryTimeout();
+    }
+
+    PreparedStatement newHandle() {
+      return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(), IFACES,
+          new Handle(this));
+    }
+
+    void reset() throws SQLException {
+      statement.clearParameters();
+      statement.clearBatch();
+      statement.clearWarnings();
+      if (modified) {
+        statement.setFetchSize(fetchSize);
+        statement.setMaxRows(maxRows);
+        statement.setQueryTimeout(queryTimeout);
+        modified = false;
+      }
+    }
+  }
+
+  /**
+   * The statement lent to one caller. It stops working once closed, which returns the statement to the cache.
+   */
+  private final class Handle implements InvocationHandler {
+    private final Entry entry;
+    private boolean closed;
+
+    Handle(Entry entry) {
+      this.entry = entry;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      String methodName = method.getName();
+      if (Object.class.equals(method.getDeclaringClass())) {
+        switch (methodName) {
+          case "equals":
+            return proxy == args[0];
+          case "hashCode":
+            return System.identityHashCode(proxy);
+          default:
+            return "Cached " + entry.statement;
+        }
+      }
+      if ("close".equals(methodName)) {
+        if (!closed) {
+          closed = true;
+          release(entry);
+        }
+        return null;
+      }
+      if ("isClosed".equals(methodName)) {
+        return closed || entry.statement.isClosed();
+      }
+      if (closed) {
+        throw new SQLException("Statement is closed.");
+      }
+      switch (methodName) {
+        case "setFetchSize":
+        case "setMaxRows":
+        case "setLargeMaxRows":
+        case "setQueryTimeout":
+          entry.modified = true;
+          break;
+        case "setCursorName":
+        case "setEscapeProcessing":
+        case "setFetchDirection":
+        case "setMaxFieldSize":
+        case "setPoolable":
+        case "closeOnCompletion":
+          entry.reusable = false;
+          break;
+        default:
+          break;
+      }
+      try {
+        return method.invoke(entry.statement, args);
+      } catch (Throwable t) {
+        throw ExceptionUtil.unwrapThrowable(t);
+      }
+    }
+  }
+
+}
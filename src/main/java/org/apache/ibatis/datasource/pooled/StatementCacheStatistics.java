@@ -0,0 +1,92 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hit and miss counts of the prepared statements cached by the connections of a {@link PooledDataSource} for one SQL.
+ *
+ * @since 3.5.7
+ * @see PooledDataSource#setPoolMaximumCachedStatements(int)
+ */
+public final class StatementCacheStatistics {
+
+  private final String sql;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  StatementCacheStatistics(String sql) {
+    this.sql = sql;
+  }
+
+  public String getSql() {
+    return sql;
+  }
+
+  /**
+   * Gets the number of times a cached statement was reused.
+   *
+   * @return the hit count
+   */
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  /**
+   * Gets the number of times the statement had to be prepared.
+   *
+   * @return the miss count
+   */
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  /**
+   * Gets the number of times the statement was evicted to make room for another one.
+   *
+   * @return the eviction count
+   */
+  public long getEvictionCount() {
+    return evictions.sum();
+  }
+
+  public double getHitRatio() {
+    long hitCount = getHitCount();
+    long requestCount = hitCount + getMissCount();
+    return requestCount == 0 ? 0 : (double) hitCount / requestCount;
+  }
+
+  void recordHit() {
+    hits.increment();
+  }
+
+  void recordMiss() {
+    misses.increment();
+  }
+
+  void recordEviction() {
+    evictions.increment();
+  }
+
+  @Override
+  public String toString() {
+    return "StatementCacheStatistics[hits=" + getHitCount() + ", misses=" + getMissCount() + ", evictions="
+        + getEvictionCount() + ", sql=" + sql + "]";
+  }
+
+}
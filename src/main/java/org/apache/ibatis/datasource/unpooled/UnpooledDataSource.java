@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2020 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -26,6 +26,7 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Logger;
 
 import javax.sql.DataSource;
@@ -42,6 +43,7 @@ public class UnpooledDataSource implements DataSource {
   private Properties driverProperties;
   private static Map<String, Driver> registeredDrivers = new ConcurrentHashMap<>();
 
+  private final ReentrantLock lock = new ReentrantLock();
   private String driver;
   private String url;
   private String username;
@@ -136,12 +138,22 @@ public class UnpooledDataSource implements DataSource {
     this.driverProperties = driverProperties;
   }
 
-  public synchronized String getDriver() {
-    return driver;
+  public String getDriver() {
+    lock.lock();
+    try {
+      return driver;
+    } finally {
+      lock.unlock();
+    }
   }
 
-  public synchronized void setDriver(String driver) {
-    this.driver = driver;
+  public void setDriver(String driver) {
+    lock.lock();
+    try {
+      this.driver = driver;
+    } finally {
+      lock.unlock();
+    }
   }
 
   public String getUrl() {
@@ -226,23 +238,28 @@ public class UnpooledDataSource implements DataSource {
     return connection;
   }
 
-  private synchronized void initializeDriver() throws SQLException {
-    if (!registeredDrivers.containsKey(driver)) {
-      Class<?> driverType;
-      try {
-        if (driverClassLoader != null) {
-          driverType = Class.forName(driver, true, driverClassLoader);
-        } else {
-          driverType = Resources.classForName(driver);
+  private void initializeDriver() throws SQLException {
+    lock.lock();
+    try {
+      if (!registeredDrivers.containsKey(driver)) {
+        Class<?> driverType;
+        try {
+          if (driverClassLoader != null) {
+            driverType = Class.forName(driver, true, driverClassLoader);
+          } else {
+            driverType = Resources.classForName(driver);
+          }
+          // DriverManager requires the driver to be loaded via the system ClassLoader.
+          // http://www.kfu.com/~nsayer/Java/dyn-jdbc.html
+          Driver driverInstance = (Driver) driverType.getDeclaredConstructor().newInstance();
+          DriverManager.registerDriver(new DriverProxy(driverInstance));
+          registeredDrivers.put(driver, driverInstance);
+        } catch (Exception e) {
+          throw new SQLException("Error setting driver on UnpooledDataSource. Cause: " + e);
         }
-        // DriverManager requires the driver to be loaded via the system ClassLoader.
-        // http://www.kfu.com/~nsayer/Java/dyn-jdbc.html
-        Driver driverInstance = (Driver) driverType.getDeclaredConstructor().newInstance();
-        DriverManager.registerDriver(new DriverProxy(driverInstance));
-        registeredDrivers.put(driver, driverInstance);
-      } catch (Exception e) {
-        throw new SQLException("Error setting driver on UnpooledDataSource. Cause: " + e);
       }
+    } finally {
+      lock.unlock();
     }
   }
 
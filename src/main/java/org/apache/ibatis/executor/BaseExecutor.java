@@ -1,17 +1,17 @@
 /**
- * Copyright 2009-2020 the original author or authors.
- * <p>
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- * <p>
- * http://www.apache.org/licenses/LICENSE-2.0
- * <p>
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
  */
 package org.apache.ibatis.executor;
 
@@ -23,9 +23,12 @@ import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
 import org.apache.ibatis.logging.jdbc.ConnectionLogger;
 import org.apache.ibatis.mapping.*;
+import org.apache.ibatis.metrics.MetricsCollector;
+import org.apache.ibatis.metrics.StatementPhase;
 import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
 import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.KeysetRowBounds;
 import org.apache.ibatis.session.LocalCacheScope;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
@@ -110,7 +113,13 @@ public abstract class BaseExecutor implements Executor {
       throw new ExecutorException("Executor was closed.");
     }
     clearLocalCache();
-    return doUpdate(ms, parameter);
+    final MetricsCollector metricsCollector = configuration.getMetricsCollector();
+    final long startNanos = metricsCollector == null ? 0 : System.nanoTime();
+    int updated = doUpdate(ms, parameter);
+    if (metricsCollector != null) {
+      metricsCollector.recordLatency(ms.getId(), StatementPhase.TOTAL, System.nanoTime() - startNanos);
+    }
+    return updated;
   }
 
   @Override
@@ -142,12 +151,17 @@ public abstract class BaseExecutor implements Executor {
     if (queryStack == 0 && ms.isFlushCacheRequired()) {
       clearLocalCache();
     }
+    final MetricsCollector metricsCollector = configuration.getMetricsCollector();
+    final long startNanos = metricsCollector == null ? 0 : System.nanoTime();
     List<E> list;
     try {
       queryStack++;
       list = resultHandler == null ? (List<E>) localCache.getObject(key) : null;
       if (list != null) {
         handleLocallyCachedOutputParameters(ms, key, parameter, boundSql);
+        if (metricsCollector != null) {
+          metricsCollector.recordCacheHit(ms.getId(), false);
+        }
       } else {
         list = queryFromDatabase(ms, parameter, rowBounds, resultHandler, key, boundSql);
       }
@@ -165,6 +179,9 @@ public abstract class BaseExecutor implements Executor {
         clearLocalCache();
       }
     }
+    if (metricsCollector != null) {
+      metricsCollector.recordLatency(ms.getId(), StatementPhase.TOTAL, System.nanoTime() - startNanos);
+    }
     return list;
   }
 
@@ -192,10 +209,23 @@ public abstract class BaseExecutor implements Executor {
     if (closed) {
       throw new ExecutorException("Executor was closed.");
     }
-    CacheKey cacheKey = new CacheKey();
+    CacheKey cacheKey = configuration.newCacheKey();
     cacheKey.update(ms.getId());
     cacheKey.update(rowBounds.getOffset());
     cacheKey.update(rowBounds.getLimit());
+    if (rowBounds instanceof KeysetRowBounds) {
+      KeysetRowBounds keysetRowBounds = (KeysetRowBounds) rowBounds;
+      for (String keyColumn : keysetRowBounds.getKeyColumns()) {
+        cacheKey.update(keyColumn);
+      }
+      cacheKey.update(keysetRowBounds.isDescending());
+      Object[] lastKeys = keysetRowBounds.getLastKeys();
+      if (lastKeys != null) {
+        for (Object lastKey : lastKeys) {
+          cacheKey.update(lastKey);
+        }
+      }
+    }
     cacheKey.update(boundSql.getSql());
     List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
     TypeHandlerRegistry typeHandlerRegistry = ms.getConfiguration().getTypeHandlerRegistry();
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2020 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -17,9 +17,11 @@ package org.apache.ibatis.executor;
 
 import java.sql.BatchUpdateException;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -30,6 +32,10 @@ import org.apache.ibatis.executor.keygen.NoKeyGenerator;
 import org.apache.ibatis.executor.statement.StatementHandler;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.mapping.StatementType;
+import org.apache.ibatis.metrics.MetricsCollector;
+import org.apache.ibatis.metrics.StatementPhase;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
@@ -44,9 +50,19 @@ public class BatchExecutor extends BaseExecutor {
 
   private final List<Statement> statementList = new ArrayList<>();
   private final List<BatchResult> batchResultList = new ArrayList<>();
+  // number of rows inserted by each execution of the statement
+  private final List<Integer> batchRowsList = new ArrayList<>();
   private String currentSql;
   private MappedStatement currentStatement;
 
+  // rows waiting to be coalesced into a multi-row insert
+  private final List<Object> pendingParameterObjects = new ArrayList<>();
+  // the parameters of each pending row, recorded when the row is added
+  private final List<MultiRowInsert.RowParameters> pendingRows = new ArrayList<>();
+  private MappedStatement pendingStatement;
+  private String pendingSql;
+  private MultiRowInsert pendingInsert;
+
   public BatchExecutor(Configuration configuration, Transaction transaction) {
     super(configuration, transaction);
   }
@@ -57,6 +73,16 @@ public class BatchExecutor extends BaseExecutor {
     final StatementHandler handler = configuration.newStatementHandler(this, ms, parameterObject, RowBounds.DEFAULT, null, null);
     final BoundSql boundSql = handler.getBoundSql();
     final String sql = boundSql.getSql();
+    if (configuration.getBatchInsertMaxRows() > 1) {
+      final MultiRowInsert insert = getMultiRowInsert(ms, sql, boundSql);
+      final MultiRowInsert.RowParameters row = insert == null ? null
+          : MultiRowInsert.RowParameters.record(handler, transaction.getConnection());
+      if (row != null) {
+        addPendingRow(ms, sql, insert, parameterObject, row);
+        return BATCH_UPDATE_RETURN_VALUE;
+      }
+      flushPendingRows();
+    }
     final Statement stmt;
     if (sql.equals(currentSql) && ms.equals(currentStatement)) {
       int last = statementList.size() - 1;
@@ -73,11 +99,113 @@ public class BatchExecutor extends BaseExecutor {
       currentStatement = ms;
       statementList.add(stmt);
       batchResultList.add(new BatchResult(ms, sql, parameterObject));
+      batchRowsList.add(1);
     }
     handler.batch(stmt);
     return BATCH_UPDATE_RETURN_VALUE;
   }
 
+  private MultiRowInsert getMultiRowInsert(MappedStatement ms, String sql, BoundSql boundSql) {
+    if (!SqlCommandType.INSERT.equals(ms.getSqlCommandType()) || !StatementType.PREPARED.equals(ms.getStatementType())) {
+      return null;
+    }
+    final Class<?> keyGeneratorType = ms.getKeyGenerator().getClass();
+    if (!NoKeyGenerator.class.equals(keyGeneratorType) && !Jdbc3KeyGenerator.class.equals(keyGeneratorType)) {
+      // keys selected before or after each row
+      return null;
+    }
+    if (sql.equals(pendingSql) && ms.equals(pendingStatement)) {
+      return pendingInsert;
+    }
+    return MultiRowInsert.parse(sql, boundSql.getParameterMappings().size());
+  }
+
+  private void addPendingRow(MappedStatement ms, String sql, MultiRowInsert insert, Object parameterObject,
+      MultiRowInsert.RowParameters row) throws SQLException {
+    if (!(sql.equals(pendingSql) && ms.equals(pendingStatement))) {
+      flushPendingRows();
+      pendingStatement = ms;
+      pendingSql = sql;
+      pendingInsert = insert;
+    }
+    pendingParameterObjects.add(parameterObject);
+    pendingRows.add(row);
+    if (pendingParameterObjects.size() >= getMaxRows(insert)) {
+      flushPendingRows();
+    }
+  }
+
+  private int getMaxRows(MultiRowInsert insert) {
+    int maxRows = configuration.getBatchInsertMaxRows();
+    final int maxParameters = configuration.getBatchInsertMaxParameters();
+    if (maxParameters > 0 && insert.getParameterCount() > 0) {
+      maxRows = Math.min(maxRows, Math.max(1, maxParameters / insert.getParameterCount()));
+    }
+    return maxRows;
+  }
+
+  private void flushPendingRows() throws SQLException {
+    final int rows = pendingParameterObjects.size();
+    if (rows == 0) {
+      return;
+    }
+    try {
+      final MappedStatement ms = pendingStatement;
+      final Object firstParameterObject = pendingParameterObjects.get(0);
+      final String sql = rows == 1 ? pendingSql : pendingInsert.getSql(rows);
+      final BoundSql boundSql = new BoundSql(configuration, sql, Collections.emptyList(), firstParameterObject);
+      final StatementHandler handler = configuration.newStatementHandler(this, ms, firstParameterObject, RowBounds.DEFAULT, null, boundSql);
+      final Statement stmt;
+      final BatchResult batchResult;
+      if (sql.equals(currentSql) && ms.equals(currentStatement)) {
+        int last = statementList.size() - 1;
+        stmt = statementList.get(last);
+        applyTransactionTimeout(stmt);
+        batchResult = batchResultList.get(last);
+      } else {
+        Connection connection = getConnection(ms.getStatementLog());
+        stmt = handler.prepare(connection, transaction.getTimeout());
+        currentSql = sql;
+        currentStatement = ms;
+        statementList.add(stmt);
+        batchResult = new BatchResult(ms, sql);
+        batchResultList.add(batchResult);
+        batchRowsList.add(rows);
+      }
+      pendingInsert.setParameters((PreparedStatement) stmt, pendingRows);
+      for (Object parameterObject : pendingParameterObjects) {
+        batchResult.addParameterObject(parameterObject);
+      }
+      handler.batch(stmt);
+    } finally {
+      pendingParameterObjects.clear();
+      pendingRows.clear();
+    }
+  }
+
+  /**
+   * Expands the update counts of multi-row inserts to one count per row, so that they match the parameter objects.
+   */
+  private int[] expandUpdateCounts(int[] updateCounts, int rows) {
+    if (rows == 1) {
+      return updateCounts;
+    }
+    final int[] rowUpdateCounts = new int[updateCounts.length * rows];
+    for (int i = 0; i < updateCounts.length; i++) {
+      final int updateCount = updateCounts[i];
+      final int rowUpdateCount;
+      if (updateCount == rows) {
+        rowUpdateCount = 1;
+      } else if (updateCount == Statement.EXECUTE_FAILED) {
+        rowUpdateCount = Statement.EXECUTE_FAILED;
+      } else {
+        rowUpdateCount = Statement.SUCCESS_NO_INFO;
+      }
+      Arrays.fill(rowUpdateCounts, i * rows, (i + 1) * rows, rowUpdateCount);
+    }
+    return rowUpdateCounts;
+  }
+
   @Override
   public <E> List<E> doQuery(MappedStatement ms, Object parameterObject, RowBounds rowBounds, ResultHandler resultHandler, BoundSql boundSql)
       throws SQLException {
@@ -112,16 +240,22 @@ public class BatchExecutor extends BaseExecutor {
   public List<BatchResult> doFlushStatements(boolean isRollback) throws SQLException {
     try {
       List<BatchResult> results = new ArrayList<>();
+      final MetricsCollector metricsCollector = configuration.getMetricsCollector();
       if (isRollback) {
         return Collections.emptyList();
       }
+      flushPendingRows();
       for (int i = 0, n = statementList.size(); i < n; i++) {
         Statement stmt = statementList.get(i);
         applyTransactionTimeout(stmt);
         BatchResult batchResult = batchResultList.get(i);
         try {
-          batchResult.setUpdateCounts(stmt.executeBatch());
+          final long startNanos = metricsCollector == null ? 0 : System.nanoTime();
+          batchResult.setUpdateCounts(expandUpdateCounts(stmt.executeBatch(), batchRowsList.get(i)));
           MappedStatement ms = batchResult.getMappedStatement();
+          if (metricsCollector != null) {
+            metricsCollector.recordLatency(ms.getId(), StatementPhase.EXECUTE, System.nanoTime() - startNanos);
+          }
           List<Object> parameterObjects = batchResult.getParameterObjects();
           KeyGenerator keyGenerator = ms.getKeyGenerator();
           if (Jdbc3KeyGenerator.class.equals(keyGenerator.getClass())) {
@@ -158,6 +292,9 @@ public class BatchExecutor extends BaseExecutor {
       currentSql = null;
       statementList.clear();
       batchResultList.clear();
+      batchRowsList.clear();
+      pendingParameterObjects.clear();
+      pendingRows.clear();
     }
   }
 
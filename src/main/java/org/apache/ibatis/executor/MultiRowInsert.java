@@ -0,0 +1,298 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.reflection.ExceptionUtil;
+
+/**
+ * The single row {@code INSERT ... VALUES (...)} statement that the {@link BatchExecutor} rewrites into a multi-row
+ * {@code INSERT ... VALUES (...), (...)} statement.
+ *
+ * @see org.apache.ibatis.session.Configuration#getBatchInsertMaxRows()
+ */
+final class MultiRowInsert {
+
+  private final String head;
+  private final String values;
+  private final int parameterCount;
+
+  private MultiRowInsert(String head, String values, int parameterCount) {
+    this.head = head;
+    this.values = values;
+    this.parameterCount = parameterCount;
+  }
+
+  /**
+   * Parses an insert statement. Quoted literals and <code>--</code> or <code>/* *&#47;</code> comments are skipped.
+   *
+   * @param sql
+   *          the SQL of the statement, with its <code>?</code> placeholders
+   * @param parameterCount
+   *          the number of parameter mappings of the statement
+   * @return the rewritable statement, or null when the SQL is not an insert ending with a single values row holding all
+   *         the parameters
+   */
+  static MultiRowInsert parse(String sql, int parameterCount) {
+    final String trimmed = sql.trim();
+    if (!trimmed.regionMatches(true, 0, "insert", 0, 6)) {
+      return null;
+    }
+    final int valuesKeyword = indexOfValuesKeyword(trimmed);
+    if (valuesKeyword < 0) {
+      return null;
+    }
+    final int open = skipWhitespacesAndComments(trimmed, valuesKeyword + 6);
+    if (open < 0 || open >= trimmed.length() || trimmed.charAt(open) != '(') {
+      return null;
+    }
+    int depth = 0;
+    int placeholders = 0;
+    int close = -1;
+    for (int i = open; i < trimmed.length() && close < 0; i++) {
+      final char c = trimmed.charAt(i);
+      if (c == '\'' || c == '"') {
+        i = skipQuoted(trimmed, i);
+        if (i < 0) {
+          return null;
+        }
+      } else if (isCommentStart(trimmed, i)) {
+        i = skipComment(trimmed, i);
+        if (i < 0) {
+          return null;
+        }
+      } else if (c == '(') {
+        depth++;
+      } else if (c == ')' && --depth == 0) {
+        close = i;
+      } else if (c == '?') {
+        placeholders++;
+      }
+    }
+    if (close < 0 || placeholders != parameterCount) {
+      return null;
+    }
+    boolean semicolon = false;
+    for (int i = skipWhitespacesAndComments(trimmed, close + 1); i < trimmed.length();
+        i = skipWhitespacesAndComments(trimmed, i + 1)) {
+      if (i < 0 || semicolon || trimmed.charAt(i) != ';') {
+        // another row or a clause like ON CONFLICT, RETURNING...
+        return null;
+      }
+      semicolon = true;
+    }
+    return new MultiRowInsert(trimmed.substring(0, open), trimmed.substring(open, close + 1), parameterCount);
+  }
+
+  int getParameterCount() {
+    return parameterCount;
+  }
+
+  /**
+   * Builds the SQL inserting the given number of rows.
+   *
+   * @param rows
+   *          the number of rows
+   * @return the SQL
+   */
+  String getSql(int rows) {
+    final StringBuilder sql = new StringBuilder(head.length() + (values.length() + 2) * rows);
+    sql.append(head);
+    for (int i = 0; i < rows; i++) {
+      if (i > 0) {
+        sql.append(", ");
+      }
+      sql.append(values);
+    }
+    return sql.toString();
+  }
+
+  /**
+   * Binds the parameters recorded for each row, shifting the parameter indexes of a row after those of the previous
+   * rows.
+   *
+   * @param ps
+   *          the multi-row statement
+   * @param rows
+   *          the recorded parameters, one per row
+   * @throws SQLException
+   *           if a parameter could not be set
+   */
+  void setParameters(PreparedStatement ps, List<RowParameters> rows) throws SQLException {
+    for (int i = 0; i < rows.size(); i++) {
+      rows.get(i).apply(ps, i * parameterCount);
+    }
+  }
+
+  private static int indexOfValuesKeyword(String sql) {
+    final String upper = sql.toUpperCase(Locale.ENGLISH);
+    for (int i = 0; i < upper.length(); i++) {
+      final char c = upper.charAt(i);
+      if (c == '\'' || c == '"') {
+        i = skipQuoted(upper, i);
+        if (i < 0) {
+          return -1;
+        }
+      } else if (isCommentStart(upper, i)) {
+        i = skipComment(upper, i);
+        if (i < 0) {
+          return -1;
+        }
+      } else if (c == 'V' && upper.startsWith("VALUES", i) && isBoundary(upper, i - 1) && isBoundary(upper, i + 6)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static boolean isBoundary(String sql, int index) {
+    if (index < 0 || index >= sql.length()) {
+      return true;
+    }
+    final char c = sql.charAt(index);
+    return !Character.isLetterOrDigit(c) && c != '_';
+  }
+
+  private static int skipQuoted(String sql, int start) {
+    final char quote = sql.charAt(start);
+    for (int i = start + 1; i < sql.length(); i++) {
+      if (sql.charAt(i) == quote) {
+        if (i + 1 < sql.length() && sql.charAt(i + 1) == quote) {
+          i++;
+        } else {
+          return i;
+        }
+      }
+    }
+    return -1;
+  }
+
+  private static boolean isCommentStart(String sql, int index) {
+    return sql.startsWith("--", index) || sql.startsWith("/*", index);
+  }
+
+  /**
+   * Returns the index of the last character of the comment starting at the given index, or -1 if a block comment is not
+   * closed.
+   */
+  private static int skipComment(String sql, int start) {
+    if (sql.charAt(start) == '-') {
+      final int lineEnd = sql.indexOf('\n', start);
+      return lineEnd < 0 ? sql.length() - 1 : lineEnd;
+    }
+    final int blockEnd = sql.indexOf("*/", start + 2);
+    return blockEnd < 0 ? -1 : blockEnd + 1;
+  }
+
+  private static int skipWhitespacesAndComments(String sql, int start) {
+    int i = start;
+    while (i < sql.length()) {
+      if (Character.isWhitespace(sql.charAt(i))) {
+        i++;
+      } else if (isCommentStart(sql, i)) {
+        final int end = skipComment(sql, i);
+        if (end < 0) {
+          return -1;
+        }
+        i = end + 1;
+      } else {
+        break;
+      }
+    }
+    return i;
+  }
+
+  /**
+   * The parameters of a row, recorded when the row is added to the batch so that later changes to its parameter object
+   * do not affect the values inserted.
+   */
+  static final class RowParameters implements InvocationHandler {
+
+    private final Connection connection;
+    private final List<Method> setters = new ArrayList<>();
+    private final List<Object[]> arguments = new ArrayList<>();
+    private boolean recordable = true;
+
+    private RowParameters(Connection connection) {
+      this.connection = connection;
+    }
+
+    /**
+     * Records the parameters that the statement handler sets for a row.
+     *
+     * @param handler
+     *          the statement handler of the row
+     * @param connection
+     *          the connection returned to type handlers that create JDBC objects like arrays or LOBs
+     * @return the recorded parameters, or null when the handler calls a statement method other than a parameter setter
+     * @throws SQLException
+     *           if a parameter could not be set
+     */
+    static RowParameters record(StatementHandler handler, Connection connection) throws SQLException {
+      final RowParameters row = new RowParameters(connection);
+      final PreparedStatement recorder = (PreparedStatement) Proxy.newProxyInstance(
+          PreparedStatement.class.getClassLoader(), new Class<?>[] { PreparedStatement.class }, row);
+      try {
+        handler.parameterize(recorder);
+      } catch (UnsupportedOperationException e) {
+        if (row.recordable) {
+          throw e;
+        }
+      }
+      return row.recordable ? row : null;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      if (args != null && args.length > 1 && args[0] instanceof Integer && method.getName().startsWith("set")) {
+        setters.add(method);
+        arguments.add(args.clone());
+        return null;
+      } else if ("getConnection".equals(method.getName()) && args == null) {
+        return connection;
+      }
+      recordable = false;
+      throw new UnsupportedOperationException(method.getName());
+    }
+
+    void apply(PreparedStatement ps, int offset) throws SQLException {
+      for (int i = 0; i < setters.size(); i++) {
+        final Object[] args = arguments.get(i).clone();
+        args[0] = (Integer) args[0] + offset;
+        try {
+          setters.get(i).invoke(ps, args);
+        } catch (Exception e) {
+          final Throwable cause = ExceptionUtil.unwrapThrowable(e);
+          if (cause instanceof SQLException) {
+            throw (SQLException) cause;
+          }
+          throw new ExecutorException("Error setting the parameters of a multi-row insert.  Cause: " + cause, cause);
+        }
+      }
+    }
+  }
+
+}
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -41,6 +41,26 @@ public class SelectKeyGenerator implements KeyGenerator {
     this.keyStatement = keyStatement;
   }
 
+  /**
+   * Gets the statement that selects the key.
+   *
+   * @return the key statement
+   * @since 3.5.7
+   */
+  public MappedStatement getKeyStatement() {
+    return keyStatement;
+  }
+
+  /**
+   * Gets whether the key is selected before the statement is executed.
+   *
+   * @return true if the key is selected before the statement
+   * @since 3.5.7
+   */
+  public boolean isExecuteBefore() {
+    return executeBefore;
+  }
+
   @Override
   public void processBefore(Executor executor, MappedStatement ms, Statement stmt, Object parameter) {
     if (executeBefore) {
@@ -0,0 +1,50 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.pagination;
+
+import java.util.List;
+
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * Pages with {@code LIMIT ? OFFSET ?}, as understood by MySQL, MariaDB, PostgreSQL, H2, HSQLDB and SQLite.
+ * <p>
+ * Selects that end with a comment or a semicolon, have a {@code FOR UPDATE} or similar clause, or already limit their
+ * rows are left to MyBatis.
+ *
+ * @since 3.5.7
+ */
+public class LimitOffsetDialect implements PaginationDialect {
+
+  @Override
+  public String getPageSql(MappedStatement ms, String sql, int offset, int limit, List<Object> parameters) {
+    SelectClauses clauses = SelectClauses.parse(sql);
+    if (clauses.isClosed() || clauses.has("FOR") || clauses.has("LIMIT") || clauses.has("OFFSET")
+        || clauses.has("FETCH")) {
+      return null;
+    }
+    // MySQL and SQLite do not accept an OFFSET without a LIMIT
+    StringBuilder pageSql = new StringBuilder(sql.length() + 20).append(sql).append(" LIMIT ?");
+    parameters.add(limit);
+    if (offset > RowBounds.NO_ROW_OFFSET) {
+      pageSql.append(" OFFSET ?");
+      parameters.add(offset);
+    }
+    return pageSql.toString();
+  }
+
+}
@@ -0,0 +1,66 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.pagination;
+
+import java.util.List;
+
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * Pages with the standard {@code OFFSET ? ROWS FETCH NEXT ? ROWS ONLY}, as understood by Oracle 12c, DB2, Derby,
+ * PostgreSQL, H2 and SQL Server 2012. SQL Server only accepts it after an {@code ORDER BY}.
+ * <p>
+ * Selects that end with a comment or a semicolon, have a {@code FOR UPDATE} or similar clause, or already limit their
+ * rows are left to MyBatis, as well as selects without an {@code ORDER BY} when it is required.
+ *
+ * @since 3.5.7
+ */
+public class OffsetFetchDialect implements PaginationDialect {
+
+  private final boolean orderByRequired;
+
+  public OffsetFetchDialect() {
+    this(false);
+  }
+
+  /**
+   * Creates the dialect.
+   *
+   * @param orderByRequired
+   *          true to leave selects without an {@code ORDER BY} to MyBatis, as SQL Server requires
+   */
+  public OffsetFetchDialect(boolean orderByRequired) {
+    this.orderByRequired = orderByRequired;
+  }
+
+  @Override
+  public String getPageSql(MappedStatement ms, String sql, int offset, int limit, List<Object> parameters) {
+    SelectClauses clauses = SelectClauses.parse(sql);
+    if (clauses.isClosed() || clauses.has("FOR") || clauses.has("LIMIT") || clauses.has("OFFSET")
+        || clauses.has("FETCH") || clauses.has("TOP") || (orderByRequired && !clauses.has("ORDER"))) {
+      return null;
+    }
+    StringBuilder pageSql = new StringBuilder(sql.length() + 40).append(sql).append(" OFFSET ? ROWS");
+    parameters.add(offset);
+    if (limit != RowBounds.NO_ROW_LIMIT) {
+      pageSql.append(" FETCH NEXT ? ROWS ONLY");
+      parameters.add(limit);
+    }
+    return pageSql.toString();
+  }
+
+}
@@ -0,0 +1,158 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.pagination;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.StatementType;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.KeysetRowBounds;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.type.TypeHandler;
+
+/**
+ * The SQL of a select paged by the database, and the bounds left for MyBatis to apply to its rows.
+ *
+ * @since 3.5.7
+ */
+public final class Pagination {
+
+  private static final String PARAMETER_PREFIX = "_page_";
+  private static final String KEYSET_ALIAS = "KEYSET_PAGE_";
+
+  private final BoundSql boundSql;
+  private final RowBounds rowBounds;
+
+  private Pagination(BoundSql boundSql, RowBounds rowBounds) {
+    this.boundSql = boundSql;
+    this.rowBounds = rowBounds;
+  }
+
+  /**
+   * Pages a select with the {@link PaginationDialect} of the configuration, and applies the keys of a
+   * {@link KeysetRowBounds}.
+   * <p>
+   * Selects are paged by the database unless they are callable, they map nested results, in which case the bounds count
+   * results rather than rows, or the dialect cannot page them.
+   *
+   * @param ms
+   *          the mapped statement of the select
+   * @param boundSql
+   *          the bound SQL of the select
+   * @param rowBounds
+   *          the bounds of the page
+   * @return the pagination
+   */
+  public static Pagination of(MappedStatement ms, BoundSql boundSql, RowBounds rowBounds) {
+    if (rowBounds == RowBounds.DEFAULT || ms.getStatementType() == StatementType.CALLABLE) {
+      return new Pagination(boundSql, rowBounds);
+    }
+    boolean keyset = rowBounds instanceof KeysetRowBounds;
+    if (ms.getStatementType() != StatementType.PREPARED) {
+      if (keyset) {
+        throw new ExecutorException("Keyset pagination of '" + ms.getId() + "' requires a prepared statement.");
+      }
+      return new Pagination(boundSql, rowBounds);
+    }
+    String sql = boundSql.getSql();
+    List<Object> parameters = new ArrayList<>();
+    if (keyset) {
+      sql = getKeysetSql(sql, (KeysetRowBounds) rowBounds, parameters);
+    }
+    RowBounds remainingRowBounds = rowBounds;
+    PaginationDialect dialect = ms.getConfiguration().getPaginationDialect();
+    if (dialect != null && !ms.hasNestedResultMaps()
+        && (rowBounds.getOffset() > RowBounds.NO_ROW_OFFSET || rowBounds.getLimit() != RowBounds.NO_ROW_LIMIT)) {
+      int keysetParameters = parameters.size();
+      String pageSql = dialect.getPageSql(ms, sql, rowBounds.getOffset(), rowBounds.getLimit(), parameters);
+      if (pageSql != null) {
+        sql = pageSql;
+        remainingRowBounds = RowBounds.DEFAULT;
+      } else {
+        parameters.subList(keysetParameters, parameters.size()).clear();
+      }
+    }
+    if (sql.equals(boundSql.getSql())) {
+      return new Pagination(boundSql, rowBounds);
+    }
+    return new Pagination(newBoundSql(ms.getConfiguration(), boundSql, sql, parameters), remainingRowBounds);
+  }
+
+  private static String getKeysetSql(String sql, KeysetRowBounds rowBounds, List<Object> parameters) {
+    String[] keyColumns = rowBounds.getKeyColumns();
+    Object[] lastKeys = rowBounds.getLastKeys();
+    StringBuilder keysetSql = new StringBuilder(sql.length() + 100);
+    keysetSql.append("SELECT * FROM (").append(sql).append(") ").append(KEYSET_ALIAS);
+    if (lastKeys != null) {
+      // (k1 > ?) OR (k1 = ? AND k2 > ?) ...
+      String comparison = rowBounds.isDescending() ? " < ?" : " > ?";
+      keysetSql.append(" WHERE ");
+      for (int i = 0; i < keyColumns.length; i++) {
+        keysetSql.append(i == 0 ? "(" : " OR (");
+        for (int j = 0; j < i; j++) {
+          keysetSql.append(keyColumns[j]).append(" = ? AND ");
+          parameters.add(lastKeys[j]);
+        }
+        keysetSql.append(keyColumns[i]).append(comparison).append(')');
+        parameters.add(lastKeys[i]);
+      }
+    }
+    keysetSql.append(" ORDER BY ");
+    for (int i = 0; i < keyColumns.length; i++) {
+      if (i > 0) {
+        keysetSql.append(", ");
+      }
+      keysetSql.append(keyColumns[i]);
+      if (rowBounds.isDescending()) {
+        keysetSql.append(" DESC");
+      }
+    }
+    return keysetSql.toString();
+  }
+
+  private static BoundSql newBoundSql(Configuration configuration, BoundSql boundSql, String sql, List<Object> parameters) {
+    List<ParameterMapping> parameterMappings = new ArrayList<>(boundSql.getParameterMappings().size() + parameters.size());
+    parameterMappings.addAll(boundSql.getParameterMappings());
+    for (int i = 0; i < parameters.size(); i++) {
+      Object value = parameters.get(i);
+      TypeHandler<?> typeHandler = configuration.getTypeHandlerRegistry().getTypeHandler(value.getClass());
+      parameterMappings.add(typeHandler == null
+          ? new ParameterMapping.Builder(configuration, PARAMETER_PREFIX + i, Object.class).build()
+          : new ParameterMapping.Builder(configuration, PARAMETER_PREFIX + i, typeHandler).build());
+    }
+    BoundSql pageBoundSql = new BoundSql(configuration, sql, parameterMappings, boundSql.getParameterObject(),
+        configuration.getParameterBinderCache(parameterMappings));
+    pageBoundSql.getAdditionalParameters().putAll(boundSql.getAdditionalParameters());
+    for (int i = 0; i < parameters.size(); i++) {
+      pageBoundSql.setAdditionalParameter(PARAMETER_PREFIX + i, parameters.get(i));
+    }
+    return pageBoundSql;
+  }
+
+  public BoundSql getBoundSql() {
+    return boundSql;
+  }
+
+  public RowBounds getRowBounds() {
+    return rowBounds;
+  }
+
+}
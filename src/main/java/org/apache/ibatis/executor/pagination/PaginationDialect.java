@@ -0,0 +1,52 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.pagination;
+
+import java.util.List;
+
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * Rewrites selects so that the database returns only the rows of a {@link RowBounds}, instead of MyBatis skipping the
+ * rows before the offset and discarding the ones after the limit.
+ *
+ * @since 3.5.7
+ * @see org.apache.ibatis.session.Configuration#setPaginationDialect(PaginationDialect)
+ */
+public interface PaginationDialect {
+
+  /**
+   * Rewrites a select to return only the rows of a page.
+   * <p>
+   * The placeholders added by the dialect must all come after the ones of the original SQL, and their values are added
+   * in order to {@code parameters}.
+   *
+   * @param ms
+   *          the mapped statement
+   * @param sql
+   *          the SQL of the select
+   * @param offset
+   *          the number of rows to skip, {@link RowBounds#NO_ROW_OFFSET} to skip none
+   * @param limit
+   *          the maximum number of rows, {@link RowBounds#NO_ROW_LIMIT} for no limit
+   * @param parameters
+   *          receives the values of the added placeholders
+   * @return the rewritten SQL, or null if the database cannot page this select
+   */
+  String getPageSql(MappedStatement ms, String sql, int offset, int limit, List<Object> parameters);
+
+}
@@ -0,0 +1,58 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.pagination;
+
+import java.util.List;
+
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * Pages with the {@code ROWNUM} pseudo column of Oracle, for the versions before 12c. The rows of the pages after the
+ * first have an additional {@code PAGE_RN_} column.
+ * <p>
+ * Selects that end with a comment or a semicolon, or have a {@code FOR UPDATE} clause, cannot be wrapped and are left
+ * to MyBatis.
+ *
+ * @since 3.5.7
+ */
+public class RownumDialect implements PaginationDialect {
+
+  @Override
+  public String getPageSql(MappedStatement ms, String sql, int offset, int limit, List<Object> parameters) {
+    SelectClauses clauses = SelectClauses.parse(sql);
+    if (clauses.isClosed() || clauses.has("FOR")) {
+      return null;
+    }
+    StringBuilder pageSql = new StringBuilder(sql.length() + 120);
+    if (offset > RowBounds.NO_ROW_OFFSET) {
+      pageSql.append("SELECT * FROM (SELECT PAGE_.*, ROWNUM PAGE_RN_ FROM (").append(sql).append(") PAGE_");
+    } else {
+      pageSql.append("SELECT * FROM (").append(sql).append(")");
+    }
+    if (limit != RowBounds.NO_ROW_LIMIT) {
+      pageSql.append(" WHERE ROWNUM <= ?");
+      // offset + limit can overflow an int
+      parameters.add((long) offset + limit);
+    }
+    if (offset > RowBounds.NO_ROW_OFFSET) {
+      pageSql.append(") WHERE PAGE_RN_ > ?");
+      parameters.add(offset);
+    }
+    return pageSql.toString();
+  }
+
+}
@@ -0,0 +1,111 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.pagination;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * The top level of a select, as far as the dialects need to know it to append a clause: the words used outside
+ * parentheses, quoted literals and identifiers and comments, and whether the SQL ends with a comment or a semicolon.
+ *
+ * @since 3.5.7
+ */
+final class SelectClauses {
+
+  private final Set<String> words;
+  private final boolean closed;
+
+  private SelectClauses(Set<String> words, boolean closed) {
+    this.words = words;
+    this.closed = closed;
+  }
+
+  static SelectClauses parse(String sql) {
+    final Set<String> words = new HashSet<>();
+    boolean closed = false;
+    int depth = 0;
+    for (int i = 0; i < sql.length(); i++) {
+      final char c = sql.charAt(i);
+      if (Character.isWhitespace(c)) {
+        continue;
+      }
+      closed = false;
+      if (c == '\'' || c == '"' || c == '`') {
+        i = sql.indexOf(c, i + 1);
+        if (i < 0) {
+          break;
+        }
+      } else if (sql.startsWith("--", i)) {
+        final int lineEnd = sql.indexOf('\n', i);
+        closed = true;
+        if (lineEnd < 0) {
+          break;
+        }
+        i = lineEnd;
+      } else if (sql.startsWith("/*", i)) {
+        final int commentEnd = sql.indexOf("*/", i + 2);
+        closed = true;
+        if (commentEnd < 0) {
+          break;
+        }
+        i = commentEnd + 1;
+      } else if (c == ';') {
+        closed = true;
+      } else if (c == '(') {
+        depth++;
+      } else if (c == ')') {
+        depth--;
+      } else if (Character.isLetter(c)) {
+        final int start = i;
+        while (i + 1 < sql.length() && isWordPart(sql.charAt(i + 1))) {
+          i++;
+        }
+        if (depth == 0 && (start == 0 || sql.charAt(start - 1) != '.')) {
+          words.add(sql.substring(start, i + 1).toUpperCase(Locale.ENGLISH));
+        }
+      }
+    }
+    return new SelectClauses(words, closed);
+  }
+
+  private static boolean isWordPart(char c) {
+    return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+  }
+
+  /**
+   * Returns whether the select uses a keyword at its top level.
+   *
+   * @param keyword
+   *          the keyword, in upper case
+   * @return true if the keyword is used outside parentheses, literals and comments
+   */
+  boolean has(String keyword) {
+    return words.contains(keyword);
+  }
+
+  /**
+   * Returns whether the select ends with a comment or a semicolon, so that a clause appended to it would be commented out
+   * or follow the end of the statement.
+   *
+   * @return true if nothing can be appended to the select
+   */
+  boolean isClosed() {
+    return closed;
+  }
+
+}
@@ -0,0 +1,69 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.pagination;
+
+import java.util.List;
+import java.util.Locale;
+
+import org.apache.ibatis.mapping.MappedStatement;
+
+/**
+ * Pages with the dialect of the database identified by the database id of the configuration, as provided by a
+ * {@link org.apache.ibatis.mapping.VendorDatabaseIdProvider}. The database id may be the product name of the database
+ * or an alias containing it, such as {@code mysql} or {@code oracle}. Selects of other databases, and SQL Server
+ * selects without an {@code ORDER BY}, are paged by MyBatis.
+ *
+ * @since 3.5.7
+ */
+public class VendorPaginationDialect implements PaginationDialect {
+
+  private static final PaginationDialect LIMIT_OFFSET = new LimitOffsetDialect();
+  private static final PaginationDialect OFFSET_FETCH = new OffsetFetchDialect();
+  private static final PaginationDialect SQL_SERVER = new OffsetFetchDialect(true);
+  private static final PaginationDialect ROWNUM = new RownumDialect();
+
+  @Override
+  public String getPageSql(MappedStatement ms, String sql, int offset, int limit, List<Object> parameters) {
+    PaginationDialect dialect = getDialect(ms.getConfiguration().getDatabaseId());
+    return dialect == null ? null : dialect.getPageSql(ms, sql, offset, limit, parameters);
+  }
+
+  /**
+   * Gets the dialect of a database.
+   *
+   * @param databaseId
+   *          the database id
+   * @return the dialect, or null if the database is unknown
+   */
+  protected PaginationDialect getDialect(String databaseId) {
+    if (databaseId == null) {
+      return null;
+    }
+    String id = databaseId.toLowerCase(Locale.ENGLISH);
+    if (id.contains("mysql") || id.contains("mariadb") || id.contains("postgres") || id.contains("h2")
+        || id.contains("hsql") || id.contains("sqlite")) {
+      return LIMIT_OFFSET;
+    } else if (id.contains("oracle")) {
+      return ROWNUM;
+    } else if (id.contains("db2") || id.contains("derby")) {
+      return OFFSET_FETCH;
+    } else if (id.contains("sql server") || id.contains("sqlserver")) {
+      return SQL_SERVER;
+    }
+    return null;
+  }
+
+}
@@ -0,0 +1,353 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * A map of the values of a row, kept in an array indexed by the columns of the result set. The columns and the index
+ * of their keys are shared by all the rows of the result set, so that a row costs little more than its values, where a
+ * {@link HashMap} allocates an entry per column and a table.
+ * <p>
+ * Keys that are not columns of the result set can be added too. The entries iterate in the order of the columns, then
+ * in the order of the other keys.
+ *
+ * @since 3.5.7
+ * @see org.apache.ibatis.session.MapResultMode
+ */
+public final class CompactRowMap extends AbstractMap<String, Object> implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  // the value of a column mapped to null, as null marks the absent columns
+  private static final Object NULL = new Object();
+
+  private final Columns columns;
+  private Map<String, Object> otherValues;
+  private transient Object[] values;
+  private transient int columnCount;
+  private transient Set<Entry<String, Object>> entrySet;
+
+  CompactRowMap(Columns columns) {
+    this.columns = columns;
+    this.values = new Object[columns.names.length];
+  }
+
+  Columns getColumns() {
+    return columns;
+  }
+
+  void setValue(int slot, Object value) {
+    if (values[slot] == null) {
+      columnCount++;
+    }
+    values[slot] = value == null ? NULL : value;
+  }
+
+  @Override
+  public int size() {
+    return columnCount + (otherValues == null ? 0 : otherValues.size());
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    final int slot = columns.slotOf(key);
+    if (slot >= 0) {
+      return values[slot] != null;
+    }
+    return otherValues != null && otherValues.containsKey(key);
+  }
+
+  @Override
+  public Object get(Object key) {
+    final int slot = columns.slotOf(key);
+    if (slot >= 0) {
+      return unmask(values[slot]);
+    }
+    return otherValues == null ? null : otherValues.get(key);
+  }
+
+  @Override
+  public Object put(String key, Object value) {
+    final int slot = columns.slotOf(key);
+    if (slot >= 0) {
+      final Object previous = values[slot];
+      setValue(slot, value);
+      return unmask(previous);
+    }
+    if (otherValues == null) {
+      otherValues = columns.caseInsensitive ? new TreeMap<>(String.CASE_INSENSITIVE_ORDER) : new LinkedHashMap<>();
+    }
+    return otherValues.put(key, value);
+  }
+
+  @Override
+  public Object remove(Object key) {
+    final int slot = columns.slotOf(key);
+    if (slot >= 0) {
+      final Object previous = values[slot];
+      removeValue(slot);
+      return unmask(previous);
+    }
+    return otherValues == null ? null : otherValues.remove(key);
+  }
+
+  @Override
+  public void clear() {
+    Arrays.fill(values, null);
+    columnCount = 0;
+    otherValues = null;
+  }
+
+  @Override
+  public Set<Entry<String, Object>> entrySet() {
+    if (entrySet == null) {
+      entrySet = new AbstractSet<Entry<String, Object>>() {
+        @Override
+        public Iterator<Entry<String, Object>> iterator() {
+          return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+          return CompactRowMap.this.size();
+        }
+
+        @Override
+        public void clear() {
+          CompactRowMap.this.clear();
+        }
+      };
+    }
+    return entrySet;
+  }
+
+  private void removeValue(int slot) {
+    if (values[slot] != null) {
+      values[slot] = null;
+      columnCount--;
+    }
+  }
+
+  private static Object unmask(Object value) {
+    return value == NULL ? null : value;
+  }
+
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    out.defaultWriteObject();
+    for (Object value : values) {
+      out.writeBoolean(value != null);
+      if (value != null) {
+        out.writeObject(unmask(value));
+      }
+    }
+  }
+
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    values = new Object[columns.names.length];
+    for (int slot = 0; slot < values.length; slot++) {
+      if (in.readBoolean()) {
+        setValue(slot, in.readObject());
+      }
+    }
+  }
+
+  private final class EntryIterator implements Iterator<Entry<String, Object>> {
+
+    private int nextSlot = nextSlot(0);
+    private int lastSlot = -1;
+    private Iterator<Entry<String, Object>> otherIterator;
+
+    private int nextSlot(int from) {
+      int slot = from;
+      while (slot < values.length && values[slot] == null) {
+        slot++;
+      }
+      return slot;
+    }
+
+    private Iterator<Entry<String, Object>> otherIterator() {
+      if (otherIterator == null) {
+        otherIterator = otherValues == null ? Collections.emptyIterator() : otherValues.entrySet().iterator();
+      }
+      return otherIterator;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return nextSlot < values.length || otherIterator().hasNext();
+    }
+
+    @Override
+    public Entry<String, Object> next() {
+      if (nextSlot < values.length) {
+        lastSlot = nextSlot;
+        nextSlot = nextSlot(nextSlot + 1);
+        return new ColumnEntry(lastSlot);
+      }
+      if (!otherIterator().hasNext()) {
+        throw new NoSuchElementException();
+      }
+      lastSlot = -1;
+      return otherIterator.next();
+    }
+
+    @Override
+    public void remove() {
+      if (lastSlot >= 0) {
+        removeValue(lastSlot);
+        lastSlot = -1;
+      } else if (otherIterator != null) {
+        otherIterator.remove();
+      } else {
+        throw new IllegalStateException();
+      }
+    }
+  }
+
+  private final class ColumnEntry implements Entry<String, Object> {
+
+    private final int slot;
+
+    ColumnEntry(int slot) {
+      this.slot = slot;
+    }
+
+    @Override
+    public String getKey() {
+      return columns.names[slot];
+    }
+
+    @Override
+    public Object getValue() {
+      return unmask(values[slot]);
+    }
+
+    @Override
+    public Object setValue(Object value) {
+      final Object previous = values[slot];
+      CompactRowMap.this.setValue(slot, value);
+      return unmask(previous);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof Entry)) {
+        return false;
+      }
+      final Entry<?, ?> entry = (Entry<?, ?>) o;
+      return Objects.equals(getKey(), entry.getKey()) && Objects.equals(getValue(), entry.getValue());
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+    }
+
+    @Override
+    public String toString() {
+      return getKey() + "=" + getValue();
+    }
+  }
+
+  /**
+   * The keys of the columns of a result set, and how the automatic mappings fill them.
+   */
+  static final class Columns implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String[] names;
+    private final Map<String, Integer> slots;
+    private final boolean caseInsensitive;
+    final transient int[] autoMappingSlots;
+    final transient int[] autoMappingColumns;
+
+    /**
+     * Creates the keys of a result set.
+     *
+     * @param autoMappingKeys
+     *          the keys filled by the automatic mappings, in the order of the mappings
+     * @param autoMappingColumns
+     *          the indexes of the columns of the automatic mappings
+     * @param otherKeys
+     *          the keys of the other mappings
+     * @param caseInsensitive
+     *          whether keys are case insensitive
+     */
+    Columns(List<String> autoMappingKeys, int[] autoMappingColumns, List<String> otherKeys, boolean caseInsensitive) {
+      this.caseInsensitive = caseInsensitive;
+      this.slots = new HashMap<>();
+      final String[] keys = new String[autoMappingKeys.size() + otherKeys.size()];
+      this.autoMappingSlots = new int[autoMappingKeys.size()];
+      this.autoMappingColumns = autoMappingColumns;
+      int count = 0;
+      for (int i = 0; i < autoMappingKeys.size(); i++) {
+        // a duplicated key keeps one value, as in a HashMap
+        autoMappingSlots[i] = slotOf(autoMappingKeys.get(i), keys, count);
+        if (autoMappingSlots[i] == count) {
+          count++;
+        }
+      }
+      for (String key : otherKeys) {
+        if (slotOf(key, keys, count) == count) {
+          count++;
+        }
+      }
+      this.names = Arrays.copyOf(keys, count);
+    }
+
+    private int slotOf(String key, String[] keys, int count) {
+      final Integer slot = slots.putIfAbsent(normalize(key), count);
+      if (slot != null) {
+        return slot;
+      }
+      keys[count] = key;
+      return count;
+    }
+
+    int slotOf(Object key) {
+      if (!(key instanceof String)) {
+        return -1;
+      }
+      final Integer slot = slots.get(normalize((String) key));
+      return slot == null ? -1 : slot;
+    }
+
+    private String normalize(String key) {
+      return caseInsensitive ? key.toUpperCase(Locale.ENGLISH) : key;
+    }
+  }
+
+}
@@ -0,0 +1,83 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.apache.ibatis.reflection.ExceptionUtil;
+import org.apache.ibatis.reflection.ReflectionException;
+import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.type.TypeHandler;
+
+/**
+ * Base class of the row mappers generated by {@link RowMapperCompiler}.
+ * <p>
+ * A generated subclass maps the columns of the current row straight into a result object of {@link #getTargetType()},
+ * reading each column by index and calling the setter directly. This replaces {@code applyAutomaticMappings} and
+ * {@code applyPropertyMappings}; it does not use {@code MetaObject}.
+ *
+ * @see RowMapperCompiler
+ */
+public abstract class CompiledRowMapper {
+
+  protected TypeHandler<?>[] typeHandlers;
+  protected Invoker[] setters;
+  protected String[] properties;
+  private Class<?> targetType;
+
+  final void initialize(Class<?> targetType, TypeHandler<?>[] typeHandlers, Invoker[] setters, String[] properties) {
+    this.targetType = targetType;
+    this.typeHandlers = typeHandlers;
+    this.setters = setters;
+    this.properties = properties;
+  }
+
+  public Class<?> getTargetType() {
+    return targetType;
+  }
+
+  /**
+   * Maps the current row of the result set into the target object.
+   *
+   * @param rs
+   *          the result set positioned on the row to map
+   * @param target
+   *          the result object, an instance of {@link #getTargetType()}
+   * @return true if at least one non null value was found
+   * @throws SQLException
+   *           if a column could not be read
+   */
+  public abstract boolean map(ResultSet rs, Object target) throws SQLException;
+
+  /**
+   * Sets a property through its reflective {@link Invoker}. Generated code falls back to this when the setter cannot be
+   * called directly or when the value does not match the setter type. Errors are reported the same way as
+   * {@code BeanWrapper} reports them.
+   */
+  protected final void setProperty(int index, Object target, Object value) {
+    try {
+      try {
+        setters[index].invoke(target, new Object[] { value });
+      } catch (Throwable t) {
+        throw ExceptionUtil.unwrapThrowable(t);
+      }
+    } catch (Throwable t) {
+      throw new ReflectionException("Could not set property '" + properties[index] + "' of '" + target.getClass() + "' with value '" + value + "' Cause: " + t.toString(), t);
+    }
+  }
+
+}
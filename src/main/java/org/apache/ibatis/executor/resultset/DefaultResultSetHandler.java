@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2020 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -20,19 +20,27 @@ import java.sql.CallableStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import org.apache.ibatis.annotations.AutomapConstructor;
 import org.apache.ibatis.binding.MapperMethod.ParamMap;
 import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.columnar.ColumnarResult;
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.cursor.defaults.DefaultCursor;
+import org.apache.ibatis.cursor.defaults.PrefetchingCursor;
 import org.apache.ibatis.executor.ErrorContext;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.ExecutorException;
@@ -49,12 +57,16 @@ import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.ParameterMode;
 import org.apache.ibatis.mapping.ResultMap;
 import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.metrics.MetricsCollector;
+import org.apache.ibatis.metrics.StatementPhase;
 import org.apache.ibatis.reflection.MetaClass;
 import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.reflection.ReflectorFactory;
+import org.apache.ibatis.reflection.factory.DefaultObjectFactory;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
 import org.apache.ibatis.session.AutoMappingBehavior;
 import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.MapResultMode;
 import org.apache.ibatis.session.ResultContext;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
@@ -72,6 +84,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
 
   private static final Object DEFERRED = new Object();
 
+  private static final int PARALLEL_MAPPING_CHUNK_SIZE = 256;
+
   private final Executor executor;
   private final Configuration configuration;
   private final MappedStatement mappedStatement;
@@ -92,9 +106,24 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   private final Map<String, ResultMapping> nextResultMaps = new HashMap<>();
   private final Map<CacheKey, List<PendingRelation>> pendingRelations = new HashMap<>();
 
+  // nested selects loaded in batches
+  private final List<NestedQueryBatch> nestedQueryBatches = new ArrayList<>();
+  private boolean batchNestedQueries;
+
   // Cached Automappings
   private final Map<String, List<UnMappedColumnAutoMapping>> autoMappingsCache = new HashMap<>();
 
+  // Compiled row mappers of the current result set
+  private final Map<String, CompiledRowMapper> compiledRowMappers = new HashMap<>();
+  private ResultSetWrapper compiledRowMappersResultSet;
+
+  // Columns of the compact row maps of the current result set
+  private final Map<String, CompactRowMap.Columns> rowMapColumns = new HashMap<>();
+  private ResultSetWrapper rowMapColumnsResultSet;
+
+  // top level rows mapped, for metrics
+  private int mappedRowCount;
+
   // temporary marking flag that indicate using constructor mapping (use field to reduce memory usage)
   private boolean useConstructorMappings;
 
@@ -180,6 +209,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   @Override
   public List<Object> handleResultSets(Statement stmt) throws SQLException {
     ErrorContext.instance().activity("handling results").object(mappedStatement.getId());
+    final MetricsCollector metricsCollector = configuration.getMetricsCollector();
+    final long startNanos = metricsCollector == null ? 0 : System.nanoTime();
 
     final List<Object> multipleResults = new ArrayList<>();
 
@@ -212,6 +243,10 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       }
     }
 
+    if (metricsCollector != null) {
+      metricsCollector.recordLatency(mappedStatement.getId(), StatementPhase.MAPPING, System.nanoTime() - startNanos);
+      metricsCollector.recordRowsMapped(mappedStatement.getId(), mappedRowCount);
+    }
     return collapseSingleResultList(multipleResults);
   }
 
@@ -230,9 +265,40 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     }
 
     ResultMap resultMap = resultMaps.get(0);
+    if (resultMap.getType() == ColumnarResult.class) {
+      throw new ExecutorException("A ColumnarResult cannot be returned by a Cursor");
+    }
+    if (mappedStatement.getCursorPrefetchSize() > 0 && !hasNestedQueries(resultMap, new HashSet<>())) {
+      return new PrefetchingCursor<>(this, resultMap, rsw, rowBounds, mappedStatement.getCursorPrefetchSize());
+    }
     return new DefaultCursor<>(this, resultMap, rsw, rowBounds);
   }
 
+  // nested queries run on the connection of the cursor, so they must not be run by the prefetching thread
+  private boolean hasNestedQueries(ResultMap resultMap, Set<String> visitedResultMapIds) {
+    if (!visitedResultMapIds.add(resultMap.getId())) {
+      return false;
+    }
+    if (resultMap.hasNestedQueries()) {
+      return true;
+    }
+    for (ResultMapping resultMapping : resultMap.getResultMappings()) {
+      String nestedResultMapId = resultMapping.getNestedResultMapId();
+      if (nestedResultMapId != null && hasNestedQueries(configuration.getResultMap(nestedResultMapId), visitedResultMapIds)) {
+        return true;
+      }
+    }
+    Discriminator discriminator = resultMap.getDiscriminator();
+    if (discriminator != null) {
+      for (String caseResultMapId : discriminator.getDiscriminatorMap().values()) {
+        if (hasNestedQueries(configuration.getResultMap(caseResultMapId), visitedResultMapIds)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
   private ResultSetWrapper getFirstResultSet(Statement stmt) throws SQLException {
     ResultSet rs = stmt.getResultSet();
     while (rs == null) {
@@ -247,7 +313,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         }
       }
     }
-    return rs != null ? new ResultSetWrapper(rs, configuration) : null;
+    return rs != null ? new ResultSetWrapper(rs, configuration, mappedStatement) : null;
   }
 
   private ResultSetWrapper getNextResultSet(Statement stmt) {
@@ -260,7 +326,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
           if (rs == null) {
             return getNextResultSet(stmt);
           } else {
-            return new ResultSetWrapper(rs, configuration);
+            return new ResultSetWrapper(rs, configuration, mappedStatement);
           }
         }
       }
@@ -292,22 +358,26 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   }
 
   private void handleResultSet(ResultSetWrapper rsw, ResultMap resultMap, List<Object> multipleResults, ResultMapping parentMapping) throws SQLException {
+    // the rows given to a result handler must be complete, so batches are only collected for the returned lists
+    batchNestedQueries = parentMapping != null || resultHandler == null;
     try {
       if (parentMapping != null) {
         handleRowValues(rsw, resultMap, null, RowBounds.DEFAULT, parentMapping);
       } else {
         if (resultHandler == null) {
           DefaultResultHandler defaultResultHandler = new DefaultResultHandler(objectFactory);
-          handleRowValues(rsw, resultMap, defaultResultHandler, rowBounds, null);
+          handleRowValuesForStatement(rsw, resultMap, defaultResultHandler);
           multipleResults.add(defaultResultHandler.getResultList());
         } else {
-          handleRowValues(rsw, resultMap, resultHandler, rowBounds, null);
+          handleRowValuesForStatement(rsw, resultMap, resultHandler);
         }
       }
     } finally {
       // issue #228 (close resultsets)
       closeResultSet(rsw.getResultSet());
+      batchNestedQueries = false;
     }
+    loadNestedQueryBatches();
   }
 
   @SuppressWarnings("unchecked")
@@ -320,6 +390,11 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   //
 
   public void handleRowValues(ResultSetWrapper rsw, ResultMap resultMap, ResultHandler<?> resultHandler, RowBounds rowBounds, ResultMapping parentMapping) throws SQLException {
+    if (resultMap.getType() == ColumnarResult.class) {
+      // only the result sets of the statement itself are read by column, see handleRowValuesForStatement
+      throw new ExecutorException("A ColumnarResult can only be the result of a statement, not of a cursor, "
+          + "of a nested result set or of an output parameter. Check the result map " + resultMap.getId());
+    }
     if (resultMap.hasNestedResultMaps()) {
       ensureNoRowBounds();
       checkResultHandler();
@@ -356,6 +431,126 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     }
   }
 
+  //
+  // HANDLE ROWS FOR COLUMNAR RESULT
+  //
+
+  @SuppressWarnings("unchecked" /* because ResultHandler<?> is always ResultHandler<Object>*/)
+  private void handleColumnarResult(ResultSetWrapper rsw, ResultHandler<?> resultHandler, RowBounds rowBounds) throws SQLException {
+    final List<String> columnNames = rsw.getColumnNames();
+    final List<TypeHandler<?>> typeHandlers = new ArrayList<>(columnNames.size());
+    for (String columnName : columnNames) {
+      typeHandlers.add(rsw.getTypeHandler(Object.class, columnName));
+    }
+    final ColumnarResult.Builder builder = new ColumnarResult.Builder(columnNames, rsw.getJdbcTypes(), typeHandlers);
+    final ResultSet resultSet = rsw.getResultSet();
+    skipRows(resultSet, rowBounds);
+    while (builder.getRowCount() < rowBounds.getLimit() && !resultSet.isClosed() && resultSet.next()) {
+      builder.addRow(resultSet);
+    }
+    mappedRowCount += builder.getRowCount();
+    final DefaultResultContext<Object> resultContext = new DefaultResultContext<>();
+    resultContext.nextResultObject(builder.build());
+    ((ResultHandler<Object>) resultHandler).handleResult(resultContext);
+  }
+
+  //
+  // HANDLE ROWS FOR SIMPLE RESULTMAP IN PARALLEL
+  //
+
+  private void handleRowValuesForStatement(ResultSetWrapper rsw, ResultMap resultMap, ResultHandler<?> resultHandler) throws SQLException {
+    if (resultMap.getType() == ColumnarResult.class) {
+      handleColumnarResult(rsw, resultHandler, rowBounds);
+      return;
+    }
+    if (mappedStatement.isParallelMapping() && !resultMap.hasNestedResultMaps()) {
+      final ParallelRowMapper rowMapper = createParallelRowMapper(rsw, resultMap);
+      if (rowMapper != null) {
+        handleRowValuesInParallel(rsw, rowMapper, resultHandler, rowBounds);
+        return;
+      }
+    }
+    handleRowValues(rsw, resultMap, resultHandler, rowBounds, null);
+  }
+
+  private void handleRowValuesInParallel(ResultSetWrapper rsw, ParallelRowMapper rowMapper, ResultHandler<?> resultHandler, RowBounds rowBounds)
+      throws SQLException {
+    final DefaultResultContext<Object> resultContext = new DefaultResultContext<>();
+    final ResultSet resultSet = rsw.getResultSet();
+    final ForkJoinPool pool = ForkJoinPool.commonPool();
+    final int maxPendingChunks = Math.max(2, pool.getParallelism() * 2);
+    final Deque<ForkJoinTask<Object[]>> pendingChunks = new ArrayDeque<>();
+    try {
+      skipRows(resultSet, rowBounds);
+      Object[][] rows = new Object[PARALLEL_MAPPING_CHUNK_SIZE][];
+      int rowCount = 0;
+      int fetchedRows = 0;
+      while (!resultContext.isStopped() && fetchedRows < rowBounds.getLimit() && !resultSet.isClosed() && resultSet.next()) {
+        rows[rowCount++] = rowMapper.read(resultSet);
+        fetchedRows++;
+        if (rowCount == PARALLEL_MAPPING_CHUNK_SIZE) {
+          final Object[][] chunk = rows;
+          pendingChunks.add(pool.submit(() -> rowMapper.map(chunk, PARALLEL_MAPPING_CHUNK_SIZE)));
+          rows = new Object[PARALLEL_MAPPING_CHUNK_SIZE][];
+          rowCount = 0;
+          if (pendingChunks.size() >= maxPendingChunks) {
+            callResultHandlers(resultHandler, resultContext, pendingChunks.poll().join());
+          }
+        }
+      }
+      while (!resultContext.isStopped() && !pendingChunks.isEmpty()) {
+        callResultHandlers(resultHandler, resultContext, pendingChunks.poll().join());
+      }
+      // the last chunk is not worth a task
+      if (!resultContext.isStopped() && rowCount > 0) {
+        callResultHandlers(resultHandler, resultContext, rowMapper.map(rows, rowCount));
+      }
+    } finally {
+      for (ForkJoinTask<Object[]> pendingChunk : pendingChunks) {
+        pendingChunk.cancel(false);
+      }
+    }
+  }
+
+  private void callResultHandlers(ResultHandler<?> resultHandler, DefaultResultContext<Object> resultContext, Object[] rowValues) {
+    for (Object rowValue : rowValues) {
+      if (resultContext.isStopped()) {
+        break;
+      }
+      callResultHandler(resultHandler, resultContext, rowValue);
+    }
+  }
+
+  private ParallelRowMapper createParallelRowMapper(ResultSetWrapper rsw, ResultMap resultMap) throws SQLException {
+    final Class<?> resultType = resultMap.getType();
+    if (resultMap.getDiscriminator() != null || resultMap.hasNestedQueries()
+        || !resultMap.getConstructorResultMappings().isEmpty() || hasTypeHandlerForResultObject(rsw, resultType)
+        || !(resultType.isInterface() || MetaClass.forClass(resultType, reflectorFactory).hasDefaultConstructor())) {
+      return null;
+    }
+    final MetaObject metaObject = configuration.newMetaObject(objectFactory.create(resultType));
+    final boolean callSettersOnNulls = configuration.isCallSettersOnNulls();
+    final List<ParallelRowMapper.Column> columns = new ArrayList<>();
+    if (shouldApplyAutomaticMappings(resultMap, false)) {
+      for (UnMappedColumnAutoMapping mapping : createAutomaticMappings(rsw, resultMap, metaObject, null)) {
+        columns.add(new ParallelRowMapper.Column(mapping.column, mapping.typeHandler, mapping.property, callSettersOnNulls && !mapping.primitive));
+      }
+    }
+    final List<String> mappedColumnNames = rsw.getMappedColumnNames(resultMap, null);
+    for (ResultMapping propertyMapping : resultMap.getPropertyResultMappings()) {
+      if (propertyMapping.getResultSet() != null) {
+        return null;
+      }
+      final String column = propertyMapping.getColumn();
+      final String property = propertyMapping.getProperty();
+      if (column != null && property != null && mappedColumnNames.contains(column.toUpperCase(Locale.ENGLISH))) {
+        columns.add(new ParallelRowMapper.Column(column, propertyMapping.getTypeHandler(), property,
+            callSettersOnNulls && !metaObject.getSetterType(property).isPrimitive()));
+      }
+    }
+    return new ParallelRowMapper(configuration, resultType, columns);
+  }
+
   private void storeObject(ResultHandler<?> resultHandler, DefaultResultContext<Object> resultContext, Object rowValue, ResultMapping parentMapping, ResultSet rs) throws SQLException {
     if (parentMapping != null) {
       linkToParents(rs, parentMapping, rowValue);
@@ -366,6 +561,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
 
   @SuppressWarnings("unchecked" /* because ResultHandler<?> is always ResultHandler<Object>*/)
   private void callResultHandler(ResultHandler<?> resultHandler, DefaultResultContext<Object> resultContext, Object rowValue) {
+    mappedRowCount++;
     resultContext.nextResultObject(rowValue);
     ((ResultHandler<Object>) resultHandler).handleResult(resultContext);
   }
@@ -396,18 +592,92 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     final ResultLoaderMap lazyLoader = new ResultLoaderMap();
     Object rowValue = createResultObject(rsw, resultMap, lazyLoader, columnPrefix);
     if (rowValue != null && !hasTypeHandlerForResultObject(rsw, resultMap.getType())) {
-      final MetaObject metaObject = configuration.newMetaObject(rowValue);
       boolean foundValues = this.useConstructorMappings;
-      if (shouldApplyAutomaticMappings(resultMap, false)) {
-        foundValues = applyAutomaticMappings(rsw, resultMap, metaObject, columnPrefix) || foundValues;
+      final CompiledRowMapper rowMapper = configuration.isCompiledRowMappersEnabled()
+          ? getCompiledRowMapper(rsw, resultMap, rowValue, columnPrefix) : null;
+      if (rowMapper != null) {
+        foundValues = rowMapper.map(rsw.getResultSet(), rowValue) || foundValues;
+      } else {
+        final MetaObject metaObject = configuration.newMetaObject(rowValue);
+        if (shouldApplyAutomaticMappings(resultMap, false)) {
+          foundValues = applyAutomaticMappings(rsw, resultMap, metaObject, columnPrefix) || foundValues;
+        }
+        foundValues = applyPropertyMappings(rsw, resultMap, metaObject, lazyLoader, columnPrefix) || foundValues;
       }
-      foundValues = applyPropertyMappings(rsw, resultMap, metaObject, lazyLoader, columnPrefix) || foundValues;
       foundValues = lazyLoader.size() > 0 || foundValues;
       rowValue = foundValues || configuration.isReturnInstanceForEmptyRow() ? rowValue : null;
     }
     return rowValue;
   }
 
+  //
+  // COMPILED ROW MAPPERS
+  //
+
+  private CompiledRowMapper getCompiledRowMapper(ResultSetWrapper rsw, ResultMap resultMap, Object rowValue, String columnPrefix) throws SQLException {
+    if (compiledRowMappersResultSet != rsw) {
+      compiledRowMappers.clear();
+      compiledRowMappersResultSet = rsw;
+    }
+    final String mapKey = resultMap.getId() + ":" + columnPrefix;
+    CompiledRowMapper rowMapper = compiledRowMappers.get(mapKey);
+    if (rowMapper == null && !compiledRowMappers.containsKey(mapKey)) {
+      rowMapper = compileRowMapper(rsw, resultMap, rowValue, columnPrefix);
+      compiledRowMappers.put(mapKey, rowMapper);
+    }
+    return rowMapper != null && rowMapper.getTargetType() == rowValue.getClass() ? rowMapper : null;
+  }
+
+  private CompiledRowMapper compileRowMapper(ResultSetWrapper rsw, ResultMap resultMap, Object rowValue, String columnPrefix) throws SQLException {
+    if (!configuration.isUseColumnLabel() || rowValue instanceof Map || rowValue instanceof Collection
+        || configuration.getObjectWrapperFactory().hasWrapperFor(rowValue)) {
+      return null;
+    }
+    final List<RowMapperCompiler.ColumnMapping> columnMappings = new ArrayList<>();
+    if (shouldApplyAutomaticMappings(resultMap, false)) {
+      final MetaObject metaObject = configuration.newMetaObject(rowValue);
+      for (UnMappedColumnAutoMapping mapping : createAutomaticMappings(rsw, resultMap, metaObject, columnPrefix)) {
+        if (!isSimpleProperty(mapping.property)) {
+          return null;
+        }
+        columnMappings.add(new RowMapperCompiler.ColumnMapping(columnIndex(rsw, mapping.column), mapping.property, mapping.typeHandler));
+      }
+    }
+    final List<String> mappedColumnNames = rsw.getMappedColumnNames(resultMap, columnPrefix);
+    for (ResultMapping propertyMapping : resultMap.getPropertyResultMappings()) {
+      if (propertyMapping.getNestedQueryId() != null || propertyMapping.getResultSet() != null) {
+        return null;
+      }
+      final String column = prependPrefix(propertyMapping.getColumn(), columnPrefix);
+      final String property = propertyMapping.getProperty();
+      if (propertyMapping.getNestedResultMapId() != null || column == null || property == null
+          || !mappedColumnNames.contains(column.toUpperCase(Locale.ENGLISH))) {
+        continue;
+      }
+      if (!isSimpleProperty(property)) {
+        return null;
+      }
+      columnMappings.add(new RowMapperCompiler.ColumnMapping(columnIndex(rsw, column), property, propertyMapping.getTypeHandler()));
+    }
+    final Class<?> targetType = rowValue.getClass();
+    return configuration.getRowMapperCompiler().compile(targetType, reflectorFactory.findForClass(targetType),
+        columnMappings, configuration.isCallSettersOnNulls());
+  }
+
+  private boolean isSimpleProperty(String property) {
+    return property.indexOf('.') < 0 && property.indexOf('[') < 0;
+  }
+
+  private int columnIndex(ResultSetWrapper rsw, String column) {
+    final List<String> columnNames = rsw.getColumnNames();
+    for (int i = 0; i < columnNames.size(); i++) {
+      if (columnNames.get(i).equalsIgnoreCase(column)) {
+        return i + 1;
+      }
+    }
+    throw new ExecutorException("Column '" + column + "' was not found in the result set.");
+  }
+
   //
   // GET VALUE FROM ROW FOR NESTED RESULT MAP
   //
@@ -516,6 +786,11 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     final String mapKey = resultMap.getId() + ":" + columnPrefix;
     List<UnMappedColumnAutoMapping> autoMapping = autoMappingsCache.get(mapKey);
     if (autoMapping == null) {
+      autoMapping = getSharedAutomaticMappings(rsw, mapKey, metaObject);
+      if (autoMapping != null) {
+        autoMappingsCache.put(mapKey, autoMapping);
+        return autoMapping;
+      }
       autoMapping = new ArrayList<>();
       final List<String> unmappedColumnNames = rsw.getUnmappedColumnNames(resultMap, columnPrefix);
       for (String columnName : unmappedColumnNames) {
@@ -548,12 +823,31 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         }
       }
       autoMappingsCache.put(mapKey, autoMapping);
+      if (rsw.getLayout().isShared()) {
+        rsw.getLayout().autoMappings.put(sharedAutomaticMappingsKey(mapKey, metaObject), autoMapping);
+      }
     }
     return autoMapping;
   }
 
+  @SuppressWarnings("unchecked")
+  private List<UnMappedColumnAutoMapping> getSharedAutomaticMappings(ResultSetWrapper rsw, String mapKey, MetaObject metaObject) {
+    if (!rsw.getLayout().isShared()) {
+      return null;
+    }
+    return (List<UnMappedColumnAutoMapping>) rsw.getLayout().autoMappings.get(sharedAutomaticMappingsKey(mapKey, metaObject));
+  }
+
+  private String sharedAutomaticMappingsKey(String mapKey, MetaObject metaObject) {
+    // the mappings depend on the properties of the result object, which an object factory may pick per row
+    return mapKey + ":" + metaObject.getOriginalObject().getClass().getName();
+  }
+
   private boolean applyAutomaticMappings(ResultSetWrapper rsw, ResultMap resultMap, MetaObject metaObject, String columnPrefix) throws SQLException {
     List<UnMappedColumnAutoMapping> autoMapping = createAutomaticMappings(rsw, resultMap, metaObject, columnPrefix);
+    if (metaObject.getOriginalObject() instanceof CompactRowMap) {
+      return applyAutomaticMappings(rsw, autoMapping, (CompactRowMap) metaObject.getOriginalObject());
+    }
     boolean foundValues = false;
     if (!autoMapping.isEmpty()) {
       for (UnMappedColumnAutoMapping mapping : autoMapping) {
@@ -570,6 +864,53 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return foundValues;
   }
 
+  private boolean applyAutomaticMappings(ResultSetWrapper rsw, List<UnMappedColumnAutoMapping> autoMapping, CompactRowMap rowMap) throws SQLException {
+    final CompactRowMap.Columns columns = rowMap.getColumns();
+    final ResultSet rs = rsw.getResultSet();
+    boolean foundValues = false;
+    for (int i = 0; i < autoMapping.size(); i++) {
+      final UnMappedColumnAutoMapping mapping = autoMapping.get(i);
+      final Object value = mapping.typeHandler.getResult(rs, columns.autoMappingColumns[i]);
+      if (value != null) {
+        foundValues = true;
+      }
+      if (value != null || configuration.isCallSettersOnNulls()) {
+        rowMap.setValue(columns.autoMappingSlots[i], value);
+      }
+    }
+    return foundValues;
+  }
+
+  private CompactRowMap.Columns getRowMapColumns(ResultSetWrapper rsw, ResultMap resultMap, String columnPrefix) throws SQLException {
+    if (rowMapColumnsResultSet != rsw) {
+      rowMapColumns.clear();
+      rowMapColumnsResultSet = rsw;
+    }
+    final String mapKey = resultMap.getId() + ":" + columnPrefix;
+    CompactRowMap.Columns columns = rowMapColumns.get(mapKey);
+    if (columns == null) {
+      // the columns are indexed by the automatic mappings, which are the same for any map
+      final List<UnMappedColumnAutoMapping> autoMapping = createAutomaticMappings(rsw, resultMap,
+          configuration.newMetaObject(new HashMap<String, Object>()), columnPrefix);
+      final List<String> autoMappingKeys = new ArrayList<>(autoMapping.size());
+      final int[] autoMappingColumns = new int[autoMapping.size()];
+      for (int i = 0; i < autoMapping.size(); i++) {
+        autoMappingKeys.add(autoMapping.get(i).property);
+        autoMappingColumns[i] = columnIndex(rsw, autoMapping.get(i).column);
+      }
+      final List<String> otherKeys = new ArrayList<>();
+      for (ResultMapping propertyMapping : resultMap.getPropertyResultMappings()) {
+        if (propertyMapping.getProperty() != null && isSimpleProperty(propertyMapping.getProperty())) {
+          otherKeys.add(propertyMapping.getProperty());
+        }
+      }
+      columns = new CompactRowMap.Columns(autoMappingKeys, autoMappingColumns, otherKeys,
+          configuration.getMapResultMode() == MapResultMode.COMPACT_CASE_INSENSITIVE);
+      rowMapColumns.put(mapKey, columns);
+    }
+    return columns;
+  }
+
   // MULTIPLE RESULT SETS
 
   private void linkToParents(ResultSet rs, ResultMapping parentMapping, Object rowValue) throws SQLException {
@@ -651,6 +992,9 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       return createPrimitiveResultObject(rsw, resultMap, columnPrefix);
     } else if (!constructorMappings.isEmpty()) {
       return createParameterizedResultObject(rsw, resultType, constructorMappings, constructorArgTypes, constructorArgs, columnPrefix);
+    } else if (resultType == Map.class && configuration.getMapResultMode() != MapResultMode.HASH_MAP
+        && objectFactory.getClass() == DefaultObjectFactory.class) {
+      return new CompactRowMap(getRowMapColumns(rsw, resultMap, columnPrefix));
     } else if (resultType.isInterface() || metaType.hasDefaultConstructor()) {
       return objectFactory.create(resultType);
     } else if (shouldApplyAutomaticMappings(resultMap, false)) {
@@ -763,7 +1107,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     final String nestedQueryId = constructorMapping.getNestedQueryId();
     final MappedStatement nestedQuery = configuration.getMappedStatement(nestedQueryId);
     final Class<?> nestedQueryParameterType = nestedQuery.getParameterMap().getType();
-    final Object nestedQueryParameterObject = prepareParameterForNestedQuery(rs, constructorMapping, nestedQueryParameterType, columnPrefix);
+    final Object nestedQueryParameterObject = batchedParameter(constructorMapping,
+        prepareParameterForNestedQuery(rs, constructorMapping, nestedQueryParameterType, columnPrefix));
     Object value = null;
     if (nestedQueryParameterObject != null) {
       final BoundSql nestedBoundSql = nestedQuery.getBoundSql(nestedQueryParameterObject);
@@ -783,15 +1128,19 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     final Class<?> nestedQueryParameterType = nestedQuery.getParameterMap().getType();
     final Object nestedQueryParameterObject = prepareParameterForNestedQuery(rs, propertyMapping, nestedQueryParameterType, columnPrefix);
     Object value = null;
-    if (nestedQueryParameterObject != null) {
-      final BoundSql nestedBoundSql = nestedQuery.getBoundSql(nestedQueryParameterObject);
-      final CacheKey key = executor.createCacheKey(nestedQuery, nestedQueryParameterObject, RowBounds.DEFAULT, nestedBoundSql);
+    if (nestedQueryParameterObject != null && batchNestedQueries && propertyMapping.getBatchSize() > 0) {
+      getNestedQueryBatch(nestedQuery, propertyMapping).add(metaResultObject, nestedQueryParameterObject);
+      value = DEFERRED;
+    } else if (nestedQueryParameterObject != null) {
+      final Object parameterObject = batchedParameter(propertyMapping, nestedQueryParameterObject);
+      final BoundSql nestedBoundSql = nestedQuery.getBoundSql(parameterObject);
+      final CacheKey key = executor.createCacheKey(nestedQuery, parameterObject, RowBounds.DEFAULT, nestedBoundSql);
       final Class<?> targetType = propertyMapping.getJavaType();
       if (executor.isCached(nestedQuery, key)) {
         executor.deferLoad(nestedQuery, metaResultObject, property, key, targetType);
         value = DEFERRED;
       } else {
-        final ResultLoader resultLoader = new ResultLoader(configuration, executor, nestedQuery, nestedQueryParameterObject, targetType, key, nestedBoundSql);
+        final ResultLoader resultLoader = new ResultLoader(configuration, executor, nestedQuery, parameterObject, targetType, key, nestedBoundSql);
         if (propertyMapping.isLazy()) {
           lazyLoader.addLoader(property, metaResultObject, resultLoader);
           value = DEFERRED;
@@ -803,6 +1152,39 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return value;
   }
 
+  /**
+   * Rows given to a result handler or a cursor are not batched, but a select declared for batch fetching still expects
+   * a list of keys.
+   */
+  private static Object batchedParameter(ResultMapping mapping, Object parameterObject) {
+    if (parameterObject == null || mapping.getBatchSize() <= 0) {
+      return parameterObject;
+    }
+    return NestedQueryBatch.keysParameter(Collections.singletonList(parameterObject));
+  }
+
+  private NestedQueryBatch getNestedQueryBatch(MappedStatement nestedQuery, ResultMapping propertyMapping) {
+    for (NestedQueryBatch batch : nestedQueryBatches) {
+      if (batch.getPropertyMapping() == propertyMapping) {
+        return batch;
+      }
+    }
+    final NestedQueryBatch batch = new NestedQueryBatch(configuration, executor, nestedQuery, propertyMapping);
+    nestedQueryBatches.add(batch);
+    return batch;
+  }
+
+  private void loadNestedQueryBatches() throws SQLException {
+    if (nestedQueryBatches.isEmpty()) {
+      return;
+    }
+    final List<NestedQueryBatch> batches = new ArrayList<>(nestedQueryBatches);
+    nestedQueryBatches.clear();
+    for (NestedQueryBatch batch : batches) {
+      batch.load();
+    }
+  }
+
   private Object prepareParameterForNestedQuery(ResultSet rs, ResultMapping resultMapping, Class<?> parameterType, String columnPrefix) throws SQLException {
     if (resultMapping.isCompositeResult()) {
       return prepareCompositeKeyParameter(rs, resultMapping, parameterType, columnPrefix);
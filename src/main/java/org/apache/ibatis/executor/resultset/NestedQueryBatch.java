@@ -0,0 +1,246 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.executor.ResultExtractor;
+import org.apache.ibatis.executor.loader.ResultLoader;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.reflection.MetaClass;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.ParamNameResolver;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * Collects the rows of a result set that need the same nested select with <code>fetchType="batch"</code>, and loads
+ * them with one execution of the nested select per <code>batchSize</code> distinct keys.
+ * <p>
+ * The nested select receives the keys as a list (<code>list</code> or <code>collection</code> parameter) and must
+ * return the key of each row in the <code>foreignColumn</code> columns, so that the rows can be distributed back to
+ * their parents.
+ */
+class NestedQueryBatch {
+
+  private final Configuration configuration;
+  private final Executor executor;
+  private final MappedStatement nestedQuery;
+  private final ResultMapping propertyMapping;
+  private final ResultExtractor resultExtractor;
+  private final Map<Object, Object> parameters = new LinkedHashMap<>();
+  private final List<PendingProperty> pendingProperties = new ArrayList<>();
+  private String[] keyProperties;
+
+  NestedQueryBatch(Configuration configuration, Executor executor, MappedStatement nestedQuery, ResultMapping propertyMapping) {
+    this.configuration = configuration;
+    this.executor = executor;
+    this.nestedQuery = nestedQuery;
+    this.propertyMapping = propertyMapping;
+    this.resultExtractor = new ResultExtractor(configuration, configuration.getObjectFactory());
+  }
+
+  ResultMapping getPropertyMapping() {
+    return propertyMapping;
+  }
+
+  void add(MetaObject metaResultObject, Object parameterObject) {
+    final Object key = parameterKey(parameterObject);
+    parameters.putIfAbsent(key, parameterObject);
+    pendingProperties.add(new PendingProperty(metaResultObject, parameterObject, key));
+  }
+
+  void load() throws SQLException {
+    final int batchSize = propertyMapping.getBatchSize();
+    final List<Object> allParameters = new ArrayList<>(parameters.values());
+    final Map<Object, List<Object>> rowsByKey = new HashMap<>();
+    final Map<Object, Object> unbatchedParameters = new HashMap<>();
+    for (int from = 0; from < allParameters.size(); from += batchSize) {
+      final List<Object> batch = allParameters.subList(from, Math.min(from + batchSize, allParameters.size()));
+      final Object batchParameterObject = keysParameter(new ArrayList<>(batch));
+      final BoundSql boundSql = nestedQuery.getBoundSql(batchParameterObject);
+      final CacheKey cacheKey = executor.createCacheKey(nestedQuery, batchParameterObject, RowBounds.DEFAULT, boundSql);
+      final List<Object> rows;
+      if (!executor.isCached(nestedQuery, cacheKey)) {
+        rows = executor.query(nestedQuery, batchParameterObject, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER, cacheKey, boundSql);
+      } else {
+        rows = cachedRows(cacheKey);
+        if (rows == null) {
+          // the same batch is being loaded up the stack (circular references), fall back to one select per row
+          for (Object parameterObject : batch) {
+            unbatchedParameters.put(parameterKey(parameterObject), parameterObject);
+          }
+          continue;
+        }
+      }
+      for (Object row : rows) {
+        rowsByKey.computeIfAbsent(rowKey(row), k -> new ArrayList<>()).add(row);
+      }
+    }
+    final Class<?> targetType = propertyMapping.getJavaType();
+    final String property = propertyMapping.getProperty();
+    for (PendingProperty pending : pendingProperties) {
+      if (unbatchedParameters.containsKey(pending.key)) {
+        loadUnbatched(pending, targetType, property);
+        continue;
+      }
+      final List<Object> rows = rowsByKey.get(pending.key);
+      final Object value = resultExtractor.extractObjectFromList(rows == null ? new ArrayList<>() : new ArrayList<>(rows), targetType);
+      if (value != null || (configuration.isCallSettersOnNulls() && !pending.metaResultObject.getSetterType(property).isPrimitive())) {
+        pending.metaResultObject.setValue(property, value);
+      }
+    }
+  }
+
+  /**
+   * Returns the rows of a batch found in the local cache, or null when the cache only holds the placeholder of a batch
+   * being loaded up the stack. The executor runs a deferred load at once when the rows are already cached, and defers
+   * it otherwise.
+   */
+  @SuppressWarnings("unchecked")
+  private List<Object> cachedRows(CacheKey cacheKey) {
+    final MetaObject holder = configuration.newMetaObject(new HashMap<String, Object>());
+    executor.deferLoad(nestedQuery, holder, "rows", cacheKey, List.class);
+    return (List<Object>) holder.getValue("rows");
+  }
+
+  private void loadUnbatched(PendingProperty pending, Class<?> targetType, String property) throws SQLException {
+    final Object parameterObject = keysParameter(Collections.singletonList(pending.parameterObject));
+    final BoundSql boundSql = nestedQuery.getBoundSql(parameterObject);
+    final CacheKey cacheKey = executor.createCacheKey(nestedQuery, parameterObject, RowBounds.DEFAULT, boundSql);
+    if (executor.isCached(nestedQuery, cacheKey)) {
+      executor.deferLoad(nestedQuery, pending.metaResultObject, property, cacheKey, targetType);
+    } else {
+      final Object value = new ResultLoader(configuration, executor, nestedQuery, parameterObject, targetType, cacheKey, boundSql).loadResult();
+      if (value != null || (configuration.isCallSettersOnNulls() && !pending.metaResultObject.getSetterType(property).isPrimitive())) {
+        pending.metaResultObject.setValue(property, value);
+      }
+    }
+  }
+
+  /**
+   * Wraps keys into the parameter object of a batched nested select. A batched select always takes a list, also when it
+   * is executed for a single row.
+   */
+  static Object keysParameter(List<Object> keys) {
+    return ParamNameResolver.wrapToMapIfCollection(keys, null);
+  }
+
+  private Object parameterKey(Object parameterObject) {
+    final List<ResultMapping> composites = propertyMapping.getComposites();
+    if (composites.isEmpty()) {
+      return normalize(parameterObject);
+    }
+    final MetaObject metaParameter = configuration.newMetaObject(parameterObject);
+    final List<Object> key = new ArrayList<>(composites.size());
+    for (ResultMapping composite : composites) {
+      key.add(normalize(metaParameter.getValue(composite.getProperty())));
+    }
+    return key;
+  }
+
+  private Object rowKey(Object row) {
+    if (keyProperties == null) {
+      keyProperties = resolveKeyProperties(row);
+    }
+    if (keyProperties.length == 1) {
+      return normalize(keyValue(row, keyProperties[0]));
+    }
+    final List<Object> key = new ArrayList<>(keyProperties.length);
+    for (String keyProperty : keyProperties) {
+      key.add(normalize(keyValue(row, keyProperty)));
+    }
+    return key;
+  }
+
+  private Object keyValue(Object row, String keyProperty) {
+    if (row instanceof Map) {
+      for (Map.Entry<?, ?> entry : ((Map<?, ?>) row).entrySet()) {
+        if (keyProperty.equalsIgnoreCase(String.valueOf(entry.getKey()))) {
+          return entry.getValue();
+        }
+      }
+      return null;
+    }
+    return configuration.newMetaObject(row).getValue(keyProperty);
+  }
+
+  private String[] resolveKeyProperties(Object row) {
+    final String[] foreignColumns = propertyMapping.getForeignColumn().split(",");
+    final String[] properties = new String[foreignColumns.length];
+    final ResultMap resultMap = nestedQuery.getResultMaps().get(0);
+    for (int i = 0; i < foreignColumns.length; i++) {
+      final String foreignColumn = foreignColumns[i].trim();
+      properties[i] = findProperty(resultMap, row, foreignColumn);
+      if (properties[i] == null) {
+        throw new ExecutorException("Could not find a property for the foreign column '" + foreignColumn + "' in the results of '"
+            + nestedQuery.getId() + "'. The column must be mapped to read the key of the rows batched for property '"
+            + propertyMapping.getProperty() + "'.");
+      }
+    }
+    return properties;
+  }
+
+  private String findProperty(ResultMap resultMap, Object row, String column) {
+    for (ResultMapping resultMapping : resultMap.getResultMappings()) {
+      if (column.equalsIgnoreCase(resultMapping.getColumn()) && resultMapping.getProperty() != null) {
+        return resultMapping.getProperty();
+      }
+    }
+    if (row instanceof Map) {
+      return column;
+    }
+    final MetaClass metaClass = MetaClass.forClass(row.getClass(), configuration.getReflectorFactory());
+    final String property = metaClass.findProperty(column, configuration.isMapUnderscoreToCamelCase());
+    return property != null && metaClass.hasGetter(property) ? property : null;
+  }
+
+  private static Object normalize(Object value) {
+    // keys read from the parent and from the nested rows may not have the same numeric type
+    if (value instanceof Number && !(value instanceof BigDecimal)) {
+      return new BigDecimal(value.toString()).stripTrailingZeros();
+    } else if (value instanceof BigDecimal) {
+      return ((BigDecimal) value).stripTrailingZeros();
+    }
+    return value;
+  }
+
+  private static class PendingProperty {
+    private final MetaObject metaResultObject;
+    private final Object parameterObject;
+    private final Object key;
+
+    PendingProperty(MetaObject metaResultObject, Object parameterObject, Object key) {
+      this.metaResultObject = metaResultObject;
+      this.parameterObject = parameterObject;
+      this.key = key;
+    }
+  }
+
+}
@@ -0,0 +1,129 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.factory.ObjectFactory;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.TypeHandler;
+
+/**
+ * Splits the mapping of a simple result map in two steps so that the rows can be mapped in parallel.
+ * <p>
+ * {@link #read(ResultSet)} runs on the fetching thread and copies the column values of the current row, as returned by
+ * the type handlers, into a compact buffer. {@link #map(Object[][], int)} only touches these buffers and can run on any
+ * thread: it creates the result objects and populates them, following the same rules as the sequential mapping.
+ *
+ * @see DefaultResultSetHandler
+ */
+final class ParallelRowMapper {
+
+  private final Configuration configuration;
+  private final ObjectFactory objectFactory;
+  private final Class<?> resultType;
+  private final String[] columns;
+  private final TypeHandler<?>[] typeHandlers;
+  private final String[] properties;
+  private final boolean[] setNulls;
+
+  ParallelRowMapper(Configuration configuration, Class<?> resultType, List<Column> columns) {
+    this.configuration = configuration;
+    this.objectFactory = configuration.getObjectFactory();
+    this.resultType = resultType;
+    final int size = columns.size();
+    this.columns = new String[size];
+    this.typeHandlers = new TypeHandler<?>[size];
+    this.properties = new String[size];
+    this.setNulls = new boolean[size];
+    for (int i = 0; i < size; i++) {
+      final Column column = columns.get(i);
+      this.columns[i] = column.name;
+      this.typeHandlers[i] = column.typeHandler;
+      this.properties[i] = column.property;
+      this.setNulls[i] = column.setNull;
+    }
+  }
+
+  /**
+   * Reads the mapped columns of the current row.
+   *
+   * @param rs
+   *          the result set positioned on the row to read
+   * @return the row buffer
+   * @throws SQLException
+   *           if a column could not be read
+   */
+  Object[] read(ResultSet rs) throws SQLException {
+    final Object[] row = new Object[columns.length];
+    for (int i = 0; i < row.length; i++) {
+      row[i] = typeHandlers[i].getResult(rs, columns[i]);
+    }
+    return row;
+  }
+
+  /**
+   * Maps row buffers into result objects.
+   *
+   * @param rows
+   *          the row buffers
+   * @param count
+   *          the number of rows to map
+   * @return the result objects, in the order of the rows. An element is null when the row had no value and
+   *         {@code returnInstanceForEmptyRow} is disabled.
+   */
+  Object[] map(Object[][] rows, int count) {
+    final Object[] rowValues = new Object[count];
+    for (int i = 0; i < count; i++) {
+      rowValues[i] = map(rows[i]);
+    }
+    return rowValues;
+  }
+
+  private Object map(Object[] row) {
+    final Object rowValue = objectFactory.create(resultType);
+    final MetaObject metaObject = configuration.newMetaObject(rowValue);
+    boolean foundValues = false;
+    for (int i = 0; i < row.length; i++) {
+      final Object value = row[i];
+      if (value != null) {
+        foundValues = true;
+      }
+      if (value != null || setNulls[i]) {
+        metaObject.setValue(properties[i], value);
+      }
+    }
+    return foundValues || configuration.isReturnInstanceForEmptyRow() ? rowValue : null;
+  }
+
+  static class Column {
+    private final String name;
+    private final TypeHandler<?> typeHandler;
+    private final String property;
+    private final boolean setNull;
+
+    Column(String name, TypeHandler<?> typeHandler, String property, boolean setNull) {
+      this.name = name;
+      this.typeHandler = typeHandler;
+      this.property = property;
+      this.setNull = setNull;
+    }
+  }
+
+}
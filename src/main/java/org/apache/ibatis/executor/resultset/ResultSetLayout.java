@@ -0,0 +1,132 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.TypeHandler;
+
+/**
+ * The columns of a result set, and what was resolved from them while mapping its rows: the type handlers of the
+ * columns, the columns mapped and not mapped by each result map, and the automatic mappings.
+ * <p>
+ * A layout is created for each result set, unless the layouts of a statement are cached (see
+ * {@link ResultSetLayoutCache}), in which case result sets with the same columns share one and their metadata is not
+ * read again.
+ *
+ * @since 3.5.7
+ */
+public final class ResultSetLayout {
+
+  private final String[] columnLabels;
+  private final int[] columnTypes;
+  private final List<String> columnNames;
+  private final List<String> classNames;
+  private final List<JdbcType> jdbcTypes;
+  final Map<String, Map<Class<?>, TypeHandler<?>>> typeHandlerMap;
+  final Map<String, List<String>> mappedColumnNamesMap;
+  final Map<String, List<String>> unMappedColumnNamesMap;
+  final Map<String, List<?>> autoMappings;
+  private final boolean shared;
+
+  private ResultSetLayout(String[] columnLabels, int[] columnTypes, String[] classNames, boolean shared) {
+    this.columnLabels = columnLabels;
+    this.columnTypes = columnTypes;
+    List<JdbcType> jdbcTypes = new ArrayList<>(columnTypes.length);
+    for (int columnType : columnTypes) {
+      jdbcTypes.add(JdbcType.forCode(columnType));
+    }
+    this.columnNames = Collections.unmodifiableList(Arrays.asList(columnLabels));
+    this.classNames = Collections.unmodifiableList(Arrays.asList(classNames));
+    this.jdbcTypes = Collections.unmodifiableList(jdbcTypes);
+    this.shared = shared;
+    this.typeHandlerMap = shared ? new ConcurrentHashMap<>() : new HashMap<>();
+    this.mappedColumnNamesMap = shared ? new ConcurrentHashMap<>() : new HashMap<>();
+    this.unMappedColumnNamesMap = shared ? new ConcurrentHashMap<>() : new HashMap<>();
+    this.autoMappings = shared ? new ConcurrentHashMap<>() : null;
+  }
+
+  /**
+   * Reads the layout of a result set.
+   *
+   * @param metaData
+   *          the metadata of the result set
+   * @param useColumnLabel
+   *          whether columns are named by their label rather than their name
+   * @return the layout, used by one result set only
+   * @throws SQLException
+   *           if the metadata cannot be read
+   */
+  static ResultSetLayout read(ResultSetMetaData metaData, boolean useColumnLabel) throws SQLException {
+    final int columnCount = metaData.getColumnCount();
+    final String[] columnLabels = new String[columnCount];
+    final int[] columnTypes = new int[columnCount];
+    readFingerprint(metaData, useColumnLabel, columnLabels, columnTypes);
+    return create(metaData, columnLabels, columnTypes, false);
+  }
+
+  static void readFingerprint(ResultSetMetaData metaData, boolean useColumnLabel, String[] columnLabels,
+      int[] columnTypes) throws SQLException {
+    for (int i = 0; i < columnLabels.length; i++) {
+      columnLabels[i] = useColumnLabel ? metaData.getColumnLabel(i + 1) : metaData.getColumnName(i + 1);
+      columnTypes[i] = metaData.getColumnType(i + 1);
+    }
+  }
+
+  static ResultSetLayout create(ResultSetMetaData metaData, String[] columnLabels, int[] columnTypes, boolean shared)
+      throws SQLException {
+    final String[] classNames = new String[columnLabels.length];
+    for (int i = 0; i < classNames.length; i++) {
+      classNames[i] = metaData.getColumnClassName(i + 1);
+    }
+    return new ResultSetLayout(columnLabels, columnTypes, classNames, shared);
+  }
+
+  boolean matches(String[] columnLabels, int[] columnTypes) {
+    return Arrays.equals(this.columnTypes, columnTypes) && Arrays.equals(this.columnLabels, columnLabels);
+  }
+
+  /**
+   * Returns whether this layout is shared by the result sets of a statement.
+   *
+   * @return true if shared
+   */
+  public boolean isShared() {
+    return shared;
+  }
+
+  public List<String> getColumnNames() {
+    return columnNames;
+  }
+
+  public List<String> getClassNames() {
+    return classNames;
+  }
+
+  public List<JdbcType> getJdbcTypes() {
+    return jdbcTypes;
+  }
+
+}
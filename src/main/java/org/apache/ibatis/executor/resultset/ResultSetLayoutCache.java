@@ -0,0 +1,107 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The layouts of the result sets a statement returned, so that the next result sets with the same columns reuse
+ * what was resolved for them.
+ * <p>
+ * A result set matches a layout when it has the same column labels and JDBC types, which are read from the metadata
+ * for every result set. Up to {@value #MAX_LAYOUTS} layouts are kept; result sets of a statement whose columns vary
+ * more than that, or that have unnamed columns, get a layout of their own.
+ *
+ * @since 3.5.7
+ * @see org.apache.ibatis.session.Configuration#isResultSetLayoutCacheEnabled()
+ */
+public final class ResultSetLayoutCache {
+
+  static final int MAX_LAYOUTS = 8;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private volatile ResultSetLayout[] layouts = new ResultSetLayout[0];
+
+  /**
+   * Gets the layout of a result set, creating it if none matches.
+   *
+   * @param metaData
+   *          the metadata of the result set
+   * @param useColumnLabel
+   *          whether columns are named by their label rather than their name
+   * @return the layout
+   * @throws SQLException
+   *           if the metadata cannot be read
+   */
+  public ResultSetLayout getLayout(ResultSetMetaData metaData, boolean useColumnLabel) throws SQLException {
+    final int columnCount = metaData.getColumnCount();
+    final String[] columnLabels = new String[columnCount];
+    final int[] columnTypes = new int[columnCount];
+    ResultSetLayout.readFingerprint(metaData, useColumnLabel, columnLabels, columnTypes);
+    ResultSetLayout layout = find(layouts, columnLabels, columnTypes);
+    if (layout != null) {
+      return layout;
+    }
+    lock.lock();
+    try {
+      ResultSetLayout[] current = layouts;
+      layout = find(current, columnLabels, columnTypes);
+      if (layout == null) {
+        // columns are looked up by name in concurrent maps, which cannot hold a null one
+        boolean shareable = current.length < MAX_LAYOUTS && !Arrays.asList(columnLabels).contains(null);
+        layout = ResultSetLayout.create(metaData, columnLabels, columnTypes, shareable);
+        if (shareable) {
+          ResultSetLayout[] added = new ResultSetLayout[current.length + 1];
+          System.arraycopy(current, 0, added, 0, current.length);
+          added[current.length] = layout;
+          layouts = added;
+        }
+      }
+      return layout;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Removes the cached layouts.
+   */
+  public void clear() {
+    lock.lock();
+    try {
+      layouts = new ResultSetLayout[0];
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  int size() {
+    return layouts.length;
+  }
+
+  private static ResultSetLayout find(ResultSetLayout[] layouts, String[] columnLabels, int[] columnTypes) {
+    for (ResultSetLayout layout : layouts) {
+      if (layout.matches(columnLabels, columnTypes)) {
+        return layout;
+      }
+    }
+    return null;
+  }
+
+}
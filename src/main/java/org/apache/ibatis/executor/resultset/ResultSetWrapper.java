@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2020 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -19,15 +19,16 @@ import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.ResultMap;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.type.JdbcType;
@@ -43,36 +44,62 @@ public class ResultSetWrapper {
 
   private final ResultSet resultSet;
   private final TypeHandlerRegistry typeHandlerRegistry;
-  private final List<String> columnNames = new ArrayList<>();
-  private final List<String> classNames = new ArrayList<>();
-  private final List<JdbcType> jdbcTypes = new ArrayList<>();
-  private final Map<String, Map<Class<?>, TypeHandler<?>>> typeHandlerMap = new HashMap<>();
-  private final Map<String, List<String>> mappedColumnNamesMap = new HashMap<>();
-  private final Map<String, List<String>> unMappedColumnNamesMap = new HashMap<>();
+  private final ResultSetLayout layout;
+  private final List<String> columnNames;
+  private final List<JdbcType> jdbcTypes;
 
   public ResultSetWrapper(ResultSet rs, Configuration configuration) throws SQLException {
+    this(rs, configuration, null);
+  }
+
+  /**
+   * Creates a wrapper sharing the layout of the previous result sets of a statement with the same columns, when
+   * {@link Configuration#isResultSetLayoutCacheEnabled()} is set.
+   *
+   * @param rs
+   *          the result set
+   * @param configuration
+   *          the configuration
+   * @param mappedStatement
+   *          the statement that returned the result set, may be null
+   * @throws SQLException
+   *           if the metadata of the result set cannot be read
+   * @since 3.5.7
+   */
+  public ResultSetWrapper(ResultSet rs, Configuration configuration, MappedStatement mappedStatement) throws SQLException {
     super();
     this.typeHandlerRegistry = configuration.getTypeHandlerRegistry();
     this.resultSet = rs;
     final ResultSetMetaData metaData = rs.getMetaData();
-    final int columnCount = metaData.getColumnCount();
-    for (int i = 1; i <= columnCount; i++) {
-      columnNames.add(configuration.isUseColumnLabel() ? metaData.getColumnLabel(i) : metaData.getColumnName(i));
-      jdbcTypes.add(JdbcType.forCode(metaData.getColumnType(i)));
-      classNames.add(metaData.getColumnClassName(i));
+    if (mappedStatement != null && configuration.isResultSetLayoutCacheEnabled()) {
+      this.layout = mappedStatement.getResultSetLayoutCache().getLayout(metaData, configuration.isUseColumnLabel());
+    } else {
+      this.layout = ResultSetLayout.read(metaData, configuration.isUseColumnLabel());
     }
+    this.columnNames = layout.getColumnNames();
+    this.jdbcTypes = layout.getJdbcTypes();
   }
 
   public ResultSet getResultSet() {
     return resultSet;
   }
 
+  /**
+   * Gets the layout of the result set.
+   *
+   * @return the layout
+   * @since 3.5.7
+   */
+  public ResultSetLayout getLayout() {
+    return layout;
+  }
+
   public List<String> getColumnNames() {
     return this.columnNames;
   }
 
   public List<String> getClassNames() {
-    return Collections.unmodifiableList(classNames);
+    return layout.getClassNames();
   }
 
   public List<JdbcType> getJdbcTypes() {
@@ -101,11 +128,12 @@ public class ResultSetWrapper {
    */
   public TypeHandler<?> getTypeHandler(Class<?> propertyType, String columnName) {
     TypeHandler<?> handler = null;
-    Map<Class<?>, TypeHandler<?>> columnHandlers = typeHandlerMap.get(columnName);
+    final boolean cacheable = propertyType != null || !layout.isShared();
+    Map<Class<?>, TypeHandler<?>> columnHandlers = layout.typeHandlerMap.get(columnName);
     if (columnHandlers == null) {
-      columnHandlers = new HashMap<>();
-      typeHandlerMap.put(columnName, columnHandlers);
-    } else {
+      columnHandlers = layout.isShared() ? new ConcurrentHashMap<>() : new HashMap<>();
+      layout.typeHandlerMap.put(columnName, columnHandlers);
+    } else if (cacheable) {
       handler = columnHandlers.get(propertyType);
     }
     if (handler == null) {
@@ -115,7 +143,7 @@ public class ResultSetWrapper {
       // See issue #59 comment 10
       if (handler == null || handler instanceof UnknownTypeHandler) {
         final int index = columnNames.indexOf(columnName);
-        final Class<?> javaType = resolveClass(classNames.get(index));
+        final Class<?> javaType = resolveClass(layout.getClassNames().get(index));
         if (javaType != null && jdbcType != null) {
           handler = typeHandlerRegistry.getTypeHandler(javaType, jdbcType);
         } else if (javaType != null) {
@@ -127,7 +155,9 @@ public class ResultSetWrapper {
       if (handler == null || handler instanceof UnknownTypeHandler) {
         handler = new ObjectTypeHandler();
       }
-      columnHandlers.put(propertyType, handler);
+      if (cacheable) {
+        columnHandlers.put(propertyType, handler);
+      }
     }
     return handler;
   }
@@ -157,24 +187,24 @@ public class ResultSetWrapper {
         unmappedColumnNames.add(columnName);
       }
     }
-    mappedColumnNamesMap.put(getMapKey(resultMap, columnPrefix), mappedColumnNames);
-    unMappedColumnNamesMap.put(getMapKey(resultMap, columnPrefix), unmappedColumnNames);
+    layout.mappedColumnNamesMap.put(getMapKey(resultMap, columnPrefix), mappedColumnNames);
+    layout.unMappedColumnNamesMap.put(getMapKey(resultMap, columnPrefix), unmappedColumnNames);
   }
 
   public List<String> getMappedColumnNames(ResultMap resultMap, String columnPrefix) throws SQLException {
-    List<String> mappedColumnNames = mappedColumnNamesMap.get(getMapKey(resultMap, columnPrefix));
+    List<String> mappedColumnNames = layout.mappedColumnNamesMap.get(getMapKey(resultMap, columnPrefix));
     if (mappedColumnNames == null) {
       loadMappedAndUnmappedColumnNames(resultMap, columnPrefix);
-      mappedColumnNames = mappedColumnNamesMap.get(getMapKey(resultMap, columnPrefix));
+      mappedColumnNames = layout.mappedColumnNamesMap.get(getMapKey(resultMap, columnPrefix));
     }
     return mappedColumnNames;
   }
 
   public List<String> getUnmappedColumnNames(ResultMap resultMap, String columnPrefix) throws SQLException {
-    List<String> unMappedColumnNames = unMappedColumnNamesMap.get(getMapKey(resultMap, columnPrefix));
+    List<String> unMappedColumnNames = layout.unMappedColumnNamesMap.get(getMapKey(resultMap, columnPrefix));
     if (unMappedColumnNames == null) {
       loadMappedAndUnmappedColumnNames(resultMap, columnPrefix);
-      unMappedColumnNames = unMappedColumnNamesMap.get(getMapKey(resultMap, columnPrefix));
+      unMappedColumnNames = layout.unMappedColumnNamesMap.get(getMapKey(resultMap, columnPrefix));
     }
     return unMappedColumnNames;
   }
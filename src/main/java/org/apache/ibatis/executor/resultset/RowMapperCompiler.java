@@ -0,0 +1,354 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javassist.ClassClassPath;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtNewConstructor;
+import javassist.CtNewMethod;
+import javassist.LoaderClassPath;
+
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+import org.apache.ibatis.reflection.Reflector;
+import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.reflection.property.PropertyNamer;
+import org.apache.ibatis.type.BigDecimalTypeHandler;
+import org.apache.ibatis.type.BooleanTypeHandler;
+import org.apache.ibatis.type.ByteTypeHandler;
+import org.apache.ibatis.type.DoubleTypeHandler;
+import org.apache.ibatis.type.FloatTypeHandler;
+import org.apache.ibatis.type.IntegerTypeHandler;
+import org.apache.ibatis.type.LongTypeHandler;
+import org.apache.ibatis.type.ShortTypeHandler;
+import org.apache.ibatis.type.StringTypeHandler;
+import org.apache.ibatis.type.TypeHandler;
+
+/**
+ * Generates {@link CompiledRowMapper} classes with Javassist.
+ * <p>
+ * One class is generated per result object type and column layout (column index, property, setter and type handler
+ * kind of every mapped column) and is reused by every statement that shares that layout. Columns handled by the
+ * built-in type handlers of the JDBC primitive types, {@code String} and {@code BigDecimal} are read with the typed
+ * {@code ResultSet.getXxx(int)} methods; other columns go through {@link TypeHandler#getResult(java.sql.ResultSet, int)}.
+ * Setters are called directly when they are accessible from the generated class, otherwise through the
+ * {@link Reflector} invoker.
+ * <p>
+ * A layout that cannot be compiled (e.g. Javassist is not on the classpath or the class cannot be defined in the
+ * class loader of the result type) is remembered and {@link #compile} returns {@code null}, so the caller falls back to
+ * the reflective mapping.
+ */
+public class RowMapperCompiler {
+
+  private static final Log log = LogFactory.getLog(RowMapperCompiler.class);
+
+  private static final AtomicInteger CLASS_SEQUENCE = new AtomicInteger();
+  private static final Class<?> NOT_COMPILABLE = CompiledRowMapper.class;
+  private static final Map<Class<?>, InlineColumn> INLINE_COLUMNS = new HashMap<>();
+
+  static {
+    INLINE_COLUMNS.put(BooleanTypeHandler.class, new InlineColumn("getBoolean", boolean.class, Boolean.class));
+    INLINE_COLUMNS.put(ByteTypeHandler.class, new InlineColumn("getByte", byte.class, Byte.class));
+    INLINE_COLUMNS.put(ShortTypeHandler.class, new InlineColumn("getShort", short.class, Short.class));
+    INLINE_COLUMNS.put(IntegerTypeHandler.class, new InlineColumn("getInt", int.class, Integer.class));
+    INLINE_COLUMNS.put(LongTypeHandler.class, new InlineColumn("getLong", long.class, Long.class));
+    INLINE_COLUMNS.put(FloatTypeHandler.class, new InlineColumn("getFloat", float.class, Float.class));
+    INLINE_COLUMNS.put(DoubleTypeHandler.class, new InlineColumn("getDouble", double.class, Double.class));
+    INLINE_COLUMNS.put(StringTypeHandler.class, new InlineColumn("getString", null, String.class));
+    INLINE_COLUMNS.put(BigDecimalTypeHandler.class, new InlineColumn("getBigDecimal", null, BigDecimal.class));
+  }
+
+  private final Map<List<Object>, Class<?>> mapperClasses = new ConcurrentHashMap<>();
+
+  /**
+   * Returns a row mapper for the given layout, generating its class on first use.
+   *
+   * @param targetType
+   *          the exact type of the result objects
+   * @param reflector
+   *          the reflector of {@code targetType}
+   * @param columnMappings
+   *          the columns to map, in the order they are applied
+   * @param callSettersOnNulls
+   *          whether setters of non primitive properties are called for null values
+   * @return the row mapper or {@code null} if the layout cannot be compiled
+   */
+  public CompiledRowMapper compile(Class<?> targetType, Reflector reflector, List<ColumnMapping> columnMappings,
+      boolean callSettersOnNulls) {
+    if (targetType.getClassLoader() == null || targetType.isInterface() || targetType.isArray()) {
+      return null;
+    }
+    final int size = columnMappings.size();
+    final Slot[] slots = new Slot[size];
+    final TypeHandler<?>[] typeHandlers = new TypeHandler<?>[size];
+    final Invoker[] setters = new Invoker[size];
+    final String[] properties = new String[size];
+    final List<Object> key = new ArrayList<>(size * 4 + 2);
+    key.add(targetType);
+    key.add(callSettersOnNulls);
+    for (int i = 0; i < size; i++) {
+      ColumnMapping columnMapping = columnMappings.get(i);
+      String property = columnMapping.getProperty();
+      Class<?> setterType = reflector.getSetterType(property);
+      Method setter = findSetter(targetType, property, setterType);
+      InlineColumn inline = setter == null ? null : INLINE_COLUMNS.get(columnMapping.getTypeHandler().getClass());
+      if (inline != null && !inline.accepts(setterType)) {
+        inline = null;
+      }
+      slots[i] = new Slot(columnMapping.getColumnIndex(), setterType, setter, inline);
+      typeHandlers[i] = columnMapping.getTypeHandler();
+      setters[i] = reflector.getSetInvoker(property);
+      properties[i] = property;
+      key.add(columnMapping.getColumnIndex());
+      key.add(setterType);
+      key.add(setter == null ? property : setter);
+      key.add(inline == null ? Boolean.FALSE : columnMapping.getTypeHandler().getClass());
+    }
+    Class<?> mapperClass = mapperClasses.computeIfAbsent(key, k -> generate(targetType, slots, callSettersOnNulls));
+    if (mapperClass == NOT_COMPILABLE) {
+      return null;
+    }
+    try {
+      CompiledRowMapper rowMapper = (CompiledRowMapper) mapperClass.getDeclaredConstructor().newInstance();
+      rowMapper.initialize(targetType, typeHandlers, setters, properties);
+      return rowMapper;
+    } catch (ReflectiveOperationException e) {
+      log.debug("Could not instantiate row mapper " + mapperClass.getName() + ". Cause: " + e);
+      return null;
+    }
+  }
+
+  private Class<?> generate(Class<?> targetType, Slot[] slots, boolean callSettersOnNulls) {
+    try {
+      return JavassistSupport.defineClass(targetType, mapMethodSource(targetType, slots, callSettersOnNulls));
+    } catch (Exception | LinkageError e) {
+      if (log.isDebugEnabled()) {
+        log.debug("Could not compile a row mapper for " + targetType.getName() + ", falling back to reflection. Cause: " + e);
+      }
+      return NOT_COMPILABLE;
+    }
+  }
+
+  private String mapMethodSource(Class<?> targetType, Slot[] slots, boolean callSettersOnNulls) {
+    StringBuilder src = new StringBuilder();
+    src.append("public boolean map(java.sql.ResultSet rs, Object target) throws java.sql.SQLException {\n");
+    src.append(typeName(targetType)).append(" t = (").append(typeName(targetType)).append(") target;\n");
+    src.append("boolean found = false;\n");
+    for (int i = 0; i < slots.length; i++) {
+      Slot slot = slots[i];
+      String v = "v" + i;
+      boolean setNulls = callSettersOnNulls && !slot.setterType.isPrimitive();
+      if (slot.inline != null) {
+        InlineColumn inline = slot.inline;
+        String setter = "t." + slot.setter.getName();
+        if (inline.primitiveType != null) {
+          String primitive = inline.primitiveType.getName();
+          src.append(primitive).append(' ').append(v).append(" = rs.").append(inline.getter).append('(').append(slot.columnIndex).append(");\n");
+          String notZero = inline.primitiveType == boolean.class ? v : v + " != 0";
+          src.append("if (").append(notZero).append(" || !rs.wasNull()) { found = true; ").append(setter).append('(');
+          if (slot.setterType.isPrimitive()) {
+            src.append(v);
+          } else {
+            src.append(typeName(inline.type)).append(".valueOf(").append(v).append(')');
+          }
+          src.append("); }");
+        } else {
+          src.append(typeName(inline.type)).append(' ').append(v).append(" = rs.").append(inline.getter).append('(').append(slot.columnIndex).append(");\n");
+          src.append("if (").append(v).append(" != null) { found = true; ").append(setter).append('(').append(v).append("); }");
+        }
+        if (setNulls) {
+          src.append(" else { ").append(setter).append("((").append(typeName(slot.setterType)).append(") null); }");
+        }
+        src.append('\n');
+      } else {
+        src.append("Object ").append(v).append(" = typeHandlers[").append(i).append("].getResult(rs, ").append(slot.columnIndex).append(");\n");
+        src.append("if (").append(v).append(" != null) { found = true; ");
+        if (slot.setter != null) {
+          Class<?> boxed = boxedType(slot.setterType);
+          src.append("if (").append(v).append(" instanceof ").append(typeName(boxed)).append(") { t.").append(slot.setter.getName()).append('(');
+          if (slot.setterType.isPrimitive()) {
+            src.append("((").append(typeName(boxed)).append(") ").append(v).append(").").append(slot.setterType.getName()).append("Value()");
+          } else {
+            src.append('(').append(typeName(slot.setterType)).append(") ").append(v);
+          }
+          src.append("); } else { setProperty(").append(i).append(", t, ").append(v).append("); } }");
+          if (setNulls) {
+            src.append(" else { t.").append(slot.setter.getName()).append("((").append(typeName(slot.setterType)).append(") null); }");
+          }
+        } else {
+          src.append("setProperty(").append(i).append(", t, ").append(v).append("); }");
+          if (setNulls) {
+            src.append(" else { setProperty(").append(i).append(", t, null); }");
+          }
+        }
+        src.append('\n');
+      }
+    }
+    src.append("return found;\n}");
+    return src.toString();
+  }
+
+  private static Method findSetter(Class<?> targetType, String property, Class<?> setterType) {
+    if (setterType == null || !isAccessible(setterType, targetType)) {
+      return null;
+    }
+    Method found = null;
+    for (Method method : targetType.getMethods()) {
+      String name = method.getName();
+      if (name.length() > 3 && PropertyNamer.isSetter(name) && method.getParameterCount() == 1 && !method.isBridge()
+          && !Modifier.isStatic(method.getModifiers()) && method.getParameterTypes()[0] == setterType
+          && property.equals(PropertyNamer.methodToProperty(name))) {
+        if (found != null) {
+          return null;
+        }
+        found = method;
+      }
+    }
+    if (found == null || !isAccessible(found.getDeclaringClass(), targetType)) {
+      return null;
+    }
+    return found;
+  }
+
+  private static boolean isAccessible(Class<?> type, Class<?> targetType) {
+    if (type.isArray()) {
+      return isAccessible(type.getComponentType(), targetType);
+    }
+    if (type.isPrimitive() || type == targetType) {
+      return true;
+    }
+    if (type.getClassLoader() == targetType.getClassLoader() && packageName(type).equals(packageName(targetType))
+        && !Modifier.isPrivate(type.getModifiers())) {
+      return true;
+    }
+    for (Class<?> c = type; c != null; c = c.getEnclosingClass()) {
+      if (!Modifier.isPublic(c.getModifiers())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static String packageName(Class<?> type) {
+    String name = type.getName();
+    int dot = name.lastIndexOf('.');
+    return dot < 0 ? "" : name.substring(0, dot);
+  }
+
+  private static String typeName(Class<?> type) {
+    return type.isArray() ? typeName(type.getComponentType()) + "[]" : type.getName();
+  }
+
+  private static Class<?> boxedType(Class<?> type) {
+    if (!type.isPrimitive()) {
+      return type;
+    }
+    for (InlineColumn inline : INLINE_COLUMNS.values()) {
+      if (inline.primitiveType == type) {
+        return inline.type;
+      }
+    }
+    return Character.class;
+  }
+
+  private static class JavassistSupport {
+
+    static Class<?> defineClass(Class<?> targetType, String mapMethodSource) throws Exception {
+      ClassPool pool = new ClassPool(true);
+      pool.insertClassPath(new LoaderClassPath(targetType.getClassLoader()));
+      pool.appendClassPath(new ClassClassPath(CompiledRowMapper.class));
+      CtClass ctClass = pool.makeClass(targetType.getName() + "$$RowMapper$" + CLASS_SEQUENCE.incrementAndGet(),
+          pool.get(CompiledRowMapper.class.getName()));
+      ctClass.addConstructor(CtNewConstructor.defaultConstructor(ctClass));
+      ctClass.addMethod(CtNewMethod.make(mapMethodSource, ctClass));
+      Class<?> mapperClass = ctClass.toClass(targetType);
+      ctClass.detach();
+      return mapperClass;
+    }
+  }
+
+  /**
+   * A column of the result set mapped to a property of the result object.
+   */
+  public static class ColumnMapping {
+
+    private final int columnIndex;
+    private final String property;
+    private final TypeHandler<?> typeHandler;
+
+    public ColumnMapping(int columnIndex, String property, TypeHandler<?> typeHandler) {
+      this.columnIndex = columnIndex;
+      this.property = property;
+      this.typeHandler = typeHandler;
+    }
+
+    public int getColumnIndex() {
+      return columnIndex;
+    }
+
+    public String getProperty() {
+      return property;
+    }
+
+    public TypeHandler<?> getTypeHandler() {
+      return typeHandler;
+    }
+  }
+
+  private static class InlineColumn {
+
+    private final String getter;
+    private final Class<?> primitiveType;
+    private final Class<?> type;
+
+    InlineColumn(String getter, Class<?> primitiveType, Class<?> type) {
+      this.getter = getter;
+      this.primitiveType = primitiveType;
+      this.type = type;
+    }
+
+    boolean accepts(Class<?> setterType) {
+      return setterType == type || (primitiveType != null && setterType == primitiveType);
+    }
+  }
+
+  private static class Slot {
+
+    private final int columnIndex;
+    private final Class<?> setterType;
+    private final Method setter;
+    private final InlineColumn inline;
+
+    Slot(int columnIndex, Class<?> setterType, Method setter, InlineColumn inline) {
+      this.columnIndex = columnIndex;
+      this.setterType = setterType;
+      this.setter = setter;
+      this.inline = inline;
+    }
+  }
+
+}
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2016 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -23,10 +23,14 @@ import org.apache.ibatis.executor.ErrorContext;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.ExecutorException;
 import org.apache.ibatis.executor.keygen.KeyGenerator;
+import org.apache.ibatis.executor.pagination.Pagination;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
 import org.apache.ibatis.executor.resultset.ResultSetHandler;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.metrics.MetricsCollector;
+import org.apache.ibatis.metrics.StatementPhase;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultHandler;
@@ -43,6 +47,7 @@ public abstract class BaseStatementHandler implements StatementHandler {
   protected final TypeHandlerRegistry typeHandlerRegistry;
   protected final ResultSetHandler resultSetHandler;
   protected final ParameterHandler parameterHandler;
+  protected final MetricsCollector metricsCollector;
 
   protected final Executor executor;
   protected final MappedStatement mappedStatement;
@@ -54,17 +59,24 @@ public abstract class BaseStatementHandler implements StatementHandler {
     this.configuration = mappedStatement.getConfiguration();
     this.executor = executor;
     this.mappedStatement = mappedStatement;
-    this.rowBounds = rowBounds;
 
     this.typeHandlerRegistry = configuration.getTypeHandlerRegistry();
     this.objectFactory = configuration.getObjectFactory();
+    this.metricsCollector = configuration.getMetricsCollector();
 
     if (boundSql == null) { // issue #435, get the key before calculating the statement
       generateKeys(parameterObject);
       boundSql = mappedStatement.getBoundSql(parameterObject);
     }
 
+    if (rowBounds != RowBounds.DEFAULT && mappedStatement.getSqlCommandType() == SqlCommandType.SELECT) {
+      Pagination pagination = Pagination.of(mappedStatement, boundSql, rowBounds);
+      boundSql = pagination.getBoundSql();
+      rowBounds = pagination.getRowBounds();
+    }
+
     this.boundSql = boundSql;
+    this.rowBounds = rowBounds;
 
     this.parameterHandler = configuration.newParameterHandler(mappedStatement, parameterObject, boundSql);
     this.resultSetHandler = configuration.newResultSetHandler(executor, mappedStatement, rowBounds, parameterHandler, resultHandler, boundSql);
@@ -83,11 +95,13 @@ public abstract class BaseStatementHandler implements StatementHandler {
   @Override
   public Statement prepare(Connection connection, Integer transactionTimeout) throws SQLException {
     ErrorContext.instance().sql(boundSql.getSql());
+    final long startNanos = startTiming();
     Statement statement = null;
     try {
       statement = instantiateStatement(connection);
       setStatementTimeout(statement, transactionTimeout);
       setFetchSize(statement);
+      recordLatency(StatementPhase.PREPARE, startNanos);
       return statement;
     } catch (SQLException e) {
       closeStatement(statement);
@@ -135,6 +149,32 @@ public abstract class BaseStatementHandler implements StatementHandler {
     }
   }
 
+  /**
+   * Returns the start time of a phase to be passed to {@link #recordLatency(StatementPhase, long)}, or 0 when no metrics
+   * are collected.
+   *
+   * @return the current time in nanoseconds
+   * @since 3.5.7
+   */
+  protected long startTiming() {
+    return metricsCollector == null ? 0 : System.nanoTime();
+  }
+
+  /**
+   * Records the duration of a phase of this statement if metrics are collected.
+   *
+   * @param phase
+   *          the phase
+   * @param startNanos
+   *          the value returned by {@link #startTiming()} when the phase started
+   * @since 3.5.7
+   */
+  protected void recordLatency(StatementPhase phase, long startNanos) {
+    if (metricsCollector != null) {
+      metricsCollector.recordLatency(mappedStatement.getId(), phase, System.nanoTime() - startNanos);
+    }
+  }
+
   protected void generateKeys(Object parameter) {
     KeyGenerator keyGenerator = mappedStatement.getKeyGenerator();
     ErrorContext.instance().store();
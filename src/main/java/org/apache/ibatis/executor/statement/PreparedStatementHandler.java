@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2018 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -29,6 +29,7 @@ import org.apache.ibatis.executor.keygen.KeyGenerator;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.metrics.StatementPhase;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
 
@@ -44,7 +45,9 @@ public class PreparedStatementHandler extends BaseStatementHandler {
   @Override
   public int update(Statement statement) throws SQLException {
     PreparedStatement ps = (PreparedStatement) statement;
+    final long startNanos = startTiming();
     ps.execute();
+    recordLatency(StatementPhase.EXECUTE, startNanos);
     int rows = ps.getUpdateCount();
     Object parameterObject = boundSql.getParameterObject();
     KeyGenerator keyGenerator = mappedStatement.getKeyGenerator();
@@ -69,7 +72,9 @@ public class PreparedStatementHandler extends BaseStatementHandler {
   @Override
   public <E> List<E> query(Statement statement, ResultHandler resultHandler) throws SQLException {
     PreparedStatement ps = (PreparedStatement) statement;
+    final long startNanos = startTiming();
     ps.execute();
+    recordLatency(StatementPhase.EXECUTE, startNanos);
     //处理结果集
     return resultSetHandler.handleResultSets(ps);
   }
@@ -77,7 +82,9 @@ public class PreparedStatementHandler extends BaseStatementHandler {
   @Override
   public <E> Cursor<E> queryCursor(Statement statement) throws SQLException {
     PreparedStatement ps = (PreparedStatement) statement;
+    final long startNanos = startTiming();
     ps.execute();
+    recordLatency(StatementPhase.EXECUTE, startNanos);
     return resultSetHandler.handleCursorResultSets(ps);
   }
 
@@ -100,7 +107,9 @@ public class PreparedStatementHandler extends BaseStatementHandler {
 
   @Override
   public void parameterize(Statement statement) throws SQLException {
+    final long startNanos = startTiming();
     parameterHandler.setParameters((PreparedStatement) statement);
+    recordLatency(StatementPhase.PARAMETERIZE, startNanos);
   }
 
 }
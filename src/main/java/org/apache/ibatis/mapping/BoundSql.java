@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -21,6 +21,7 @@ import java.util.Map;
 
 import org.apache.ibatis.reflection.MetaObject;
 import org.apache.ibatis.reflection.property.PropertyTokenizer;
+import org.apache.ibatis.scripting.defaults.ParameterBinderCache;
 import org.apache.ibatis.session.Configuration;
 
 /**
@@ -40,13 +41,35 @@ public class BoundSql {
   private final Object parameterObject;
   private final Map<String, Object> additionalParameters;
   private final MetaObject metaParameters;
+  private final ParameterBinderCache parameterBinderCache;
 
   public BoundSql(Configuration configuration, String sql, List<ParameterMapping> parameterMappings, Object parameterObject) {
+    this(configuration, sql, parameterMappings, parameterObject, null);
+  }
+
+  /**
+   * Creates a bound SQL whose parameters can be set by the binders shared by the bound SQLs of the same source.
+   *
+   * @param configuration
+   *          the configuration
+   * @param sql
+   *          the SQL
+   * @param parameterMappings
+   *          the parameter mappings
+   * @param parameterObject
+   *          the parameter object
+   * @param parameterBinderCache
+   *          the binders of the parameter mappings, or null
+   * @since 3.5.7
+   */
+  public BoundSql(Configuration configuration, String sql, List<ParameterMapping> parameterMappings, Object parameterObject,
+      ParameterBinderCache parameterBinderCache) {
     this.sql = sql;
     this.parameterMappings = parameterMappings;
     this.parameterObject = parameterObject;
     this.additionalParameters = new HashMap<>();
     this.metaParameters = configuration.newMetaObject(additionalParameters);
+    this.parameterBinderCache = parameterBinderCache;
   }
 
   public String getSql() {
@@ -73,4 +96,25 @@ public class BoundSql {
   public Object getAdditionalParameter(String name) {
     return metaParameters.getValue(name);
   }
+
+  /**
+   * Gets the additional parameters, by name.
+   *
+   * @return the additional parameters
+   * @since 3.5.7
+   */
+  public Map<String, Object> getAdditionalParameters() {
+    return additionalParameters;
+  }
+
+  /**
+   * Gets the binders of the parameter mappings.
+   *
+   * @return the binders, or null if this bound SQL was not created by a
+   *         {@link org.apache.ibatis.builder.StaticSqlSource}
+   * @since 3.5.7
+   */
+  public ParameterBinderCache getParameterBinderCache() {
+    return parameterBinderCache;
+  }
 }
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@ package org.apache.ibatis.mapping;
 
 import java.lang.reflect.Constructor;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -90,6 +91,86 @@ public class CacheBuilder {
     return this;
   }
 
+  /**
+   * Gets the cache id.
+   *
+   * @return the cache id
+   * @since 3.5.7
+   */
+  public String getId() {
+    return id;
+  }
+
+  /**
+   * Gets the cache implementation.
+   *
+   * @return the cache implementation, or {@code null} before {@link #build()} when none was specified
+   * @since 3.5.7
+   */
+  public Class<? extends Cache> getImplementation() {
+    return implementation;
+  }
+
+  /**
+   * Gets the decorators applied to the cache implementation.
+   *
+   * @return the decorators
+   * @since 3.5.7
+   */
+  public List<Class<? extends Cache>> getDecorators() {
+    return Collections.unmodifiableList(decorators);
+  }
+
+  /**
+   * Gets the cache size.
+   *
+   * @return the cache size
+   * @since 3.5.7
+   */
+  public Integer getSize() {
+    return size;
+  }
+
+  /**
+   * Gets the clear interval.
+   *
+   * @return the clear interval in milliseconds
+   * @since 3.5.7
+   */
+  public Long getClearInterval() {
+    return clearInterval;
+  }
+
+  /**
+   * Gets whether the cache returns copies of the cached objects.
+   *
+   * @return true if the cache is read-write
+   * @since 3.5.7
+   */
+  public boolean isReadWrite() {
+    return readWrite;
+  }
+
+  /**
+   * Gets whether the cache blocks concurrent loads of the same key.
+   *
+   * @return true if the cache is blocking
+   * @since 3.5.7
+   */
+  public boolean isBlocking() {
+    return blocking;
+  }
+
+  /**
+   * Gets the properties set on the cache.
+   *
+   * @return the properties
+   * @since 3.5.7
+   */
+  public Properties getProperties() {
+    return properties;
+  }
+
   public Cache build() {
     setDefaultImplementations();
     Cache cache = newBaseCacheInstance(implementation, id);
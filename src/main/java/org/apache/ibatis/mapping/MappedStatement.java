@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2020 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -23,6 +23,7 @@ import org.apache.ibatis.cache.Cache;
 import org.apache.ibatis.executor.keygen.Jdbc3KeyGenerator;
 import org.apache.ibatis.executor.keygen.KeyGenerator;
 import org.apache.ibatis.executor.keygen.NoKeyGenerator;
+import org.apache.ibatis.executor.resultset.ResultSetLayoutCache;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
 import org.apache.ibatis.scripting.LanguageDriver;
@@ -47,6 +48,8 @@ public final class MappedStatement {
   private boolean flushCacheRequired;
   private boolean useCache;
   private boolean resultOrdered;
+  private boolean parallelMapping;
+  private int cursorPrefetchSize;
   private SqlCommandType sqlCommandType;
   private KeyGenerator keyGenerator;
   private String[] keyProperties;
@@ -56,6 +59,7 @@ public final class MappedStatement {
   private Log statementLog;
   private LanguageDriver lang;
   private String[] resultSets;
+  private final ResultSetLayoutCache resultSetLayoutCache = new ResultSetLayoutCache();
 
   MappedStatement() {
     // constructor disabled
@@ -144,6 +148,16 @@ public final class MappedStatement {
       return this;
     }
 
+    public Builder parallelMapping(boolean parallelMapping) {
+      mappedStatement.parallelMapping = parallelMapping;
+      return this;
+    }
+
+    public Builder cursorPrefetchSize(int cursorPrefetchSize) {
+      mappedStatement.cursorPrefetchSize = cursorPrefetchSize;
+      return this;
+    }
+
     public Builder keyGenerator(KeyGenerator keyGenerator) {
       mappedStatement.keyGenerator = keyGenerator;
       return this;
@@ -266,6 +280,33 @@ public final class MappedStatement {
     return resultOrdered;
   }
 
+  /**
+   * Returns whether rows of simple result maps are mapped into objects by fork-join workers while the calling thread
+   * keeps fetching.
+   *
+   * @return {@code true} if parallel mapping is enabled for this statement
+   * @since 3.5.7
+   */
+  public boolean isParallelMapping() {
+    return parallelMapping;
+  }
+
+  /**
+   * Returns how many rows a cursor over this statement maps ahead of its consumer, on a thread of its own.
+   * <p>
+   * Rows are not prefetched when the result map, or any result map nested in it or selected by its discriminator, has a
+   * nested select. While a prefetching cursor is open, its thread reads the result set while the consumer's thread
+   * goes on, so the connection of the session is used by two threads. Other statements must not be run on the same
+   * session until the cursor is closed or fully consumed, unless the JDBC driver supports concurrent use of a
+   * connection.
+   *
+   * @return the number of rows mapped ahead, or {@code 0} if rows are mapped when the consumer asks for them
+   * @since 3.5.7
+   */
+  public int getCursorPrefetchSize() {
+    return cursorPrefetchSize;
+  }
+
   public String getDatabaseId() {
     return databaseId;
   }
@@ -290,6 +331,17 @@ public final class MappedStatement {
     return resultSets;
   }
 
+  /**
+   * Gets the layouts of the result sets this statement returned, used when
+   * {@link Configuration#isResultSetLayoutCacheEnabled()} is set.
+   *
+   * @return the result set layout cache
+   * @since 3.5.7
+   */
+  public ResultSetLayoutCache getResultSetLayoutCache() {
+    return resultSetLayoutCache;
+  }
+
   /**
    * Gets the resul sets.
    *
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2020 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -45,6 +45,7 @@ public class ResultMapping {
   private String resultSet;
   private String foreignColumn;
   private boolean lazy;
+  private int batchSize;
 
   ResultMapping() {
   }
@@ -132,6 +133,19 @@ public class ResultMapping {
       return this;
     }
 
+    /**
+     * Loads the nested select of the rows of a result set in batches of the given number of keys.
+     *
+     * @param batchSize
+     *          the maximum number of keys per execution of the nested select, 0 to execute it once per row
+     * @return this builder
+     * @since 3.5.7
+     */
+    public Builder batchSize(int batchSize) {
+      resultMapping.batchSize = batchSize;
+      return this;
+    }
+
     public ResultMapping build() {
       // lock down collections
       resultMapping.flags = Collections.unmodifiableList(resultMapping.flags);
@@ -167,6 +181,19 @@ public class ResultMapping {
           throw new IllegalStateException("There should be the same number of columns and foreignColumns in property " + resultMapping.property);
         }
       }
+      if (resultMapping.batchSize > 0) {
+        if (resultMapping.nestedQueryId == null) {
+          throw new IllegalStateException("Batch fetching requires a nested select in property " + resultMapping.property);
+        }
+        int numColumns = resultMapping.composites.isEmpty() ? 1 : resultMapping.composites.size();
+        int numForeignColumns = 0;
+        if (resultMapping.foreignColumn != null) {
+          numForeignColumns = resultMapping.foreignColumn.split(",").length;
+        }
+        if (numColumns != numForeignColumns) {
+          throw new IllegalStateException("Batch fetching requires the same number of columns and foreignColumns in property " + resultMapping.property);
+        }
+      }
     }
 
     private void resolveTypeHandler() {
@@ -251,6 +278,16 @@ public class ResultMapping {
     this.lazy = lazy;
   }
 
+  /**
+   * Returns the maximum number of keys loaded by one execution of the nested select.
+   *
+   * @return the batch size, 0 when the nested select is executed once per row
+   * @since 3.5.7
+   */
+  public int getBatchSize() {
+    return batchSize;
+  }
+
   public boolean isSimple() {
     return this.nestedResultMapId == null && this.nestedQueryId == null && this.resultSet == null;
   }
@@ -298,6 +335,7 @@ public class ResultMapping {
     sb.append(", resultSet='").append(resultSet).append('\'');
     sb.append(", foreignColumn='").append(foreignColumn).append('\'');
     sb.append(", lazy=").append(lazy);
+    sb.append(", batchSize=").append(batchSize);
     sb.append('}');
     return sb.toString();
   }
@@ -0,0 +1,112 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.metrics;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link MetricsCollector} that keeps a {@link LatencyHistogram} per mapped statement and phase.
+ * <p>
+ * It is registered with the {@code HISTOGRAM} alias:
+ *
+ * <pre>
+ * &lt;setting name="metricsCollector" value="HISTOGRAM"/&gt;
+ * </pre>
+ *
+ * The collected metrics can be read from {@link #getStatementMetrics()} or written periodically by a
+ * {@link MetricsReporter}.
+ *
+ * @since 3.5.7
+ */
+public class HistogramMetricsCollector implements MetricsCollector {
+
+  private final Map<String, StatementMetrics> statements = new ConcurrentHashMap<>();
+  private final LatencyHistogram connectionAcquisition = new LatencyHistogram();
+
+  @Override
+  public void recordLatency(String statementId, StatementPhase phase, long nanos) {
+    getOrCreate(statementId).recordLatency(phase, nanos);
+  }
+
+  @Override
+  public void recordRowsMapped(String statementId, int rows) {
+    getOrCreate(statementId).recordRowsMapped(rows);
+  }
+
+  @Override
+  public void recordCacheHit(String statementId, boolean secondLevel) {
+    getOrCreate(statementId).recordCacheHit(secondLevel);
+  }
+
+  @Override
+  public void recordConnectionAcquisition(long nanos) {
+    connectionAcquisition.record(nanos);
+  }
+
+  public Map<String, StatementMetrics> getStatementMetrics() {
+    return Collections.unmodifiableMap(statements);
+  }
+
+  public StatementMetrics getStatementMetrics(String statementId) {
+    return statements.get(statementId);
+  }
+
+  public LatencyHistogram getConnectionAcquisition() {
+    return connectionAcquisition;
+  }
+
+  /**
+   * Clears all the recorded values, e.g. after they have been reported.
+   */
+  public void reset() {
+    statements.values().forEach(StatementMetrics::reset);
+    connectionAcquisition.reset();
+  }
+
+  /**
+   * Returns a plain text report of the recorded metrics, one block per statement sorted by id.
+   *
+   * @return the report
+   */
+  public String report() {
+    StringBuilder report = new StringBuilder();
+    if (connectionAcquisition.getCount() > 0) {
+      appendHistogram(report.append("connection acquisition"), connectionAcquisition);
+    }
+    new TreeMap<>(statements).values().forEach(metrics -> metrics.appendTo(report));
+    return report.toString();
+  }
+
+  private StatementMetrics getOrCreate(String statementId) {
+    StatementMetrics metrics = statements.get(statementId);
+    if (metrics == null) {
+      metrics = statements.computeIfAbsent(statementId, StatementMetrics::new);
+    }
+    return metrics;
+  }
+
+  static void appendHistogram(StringBuilder report, LatencyHistogram histogram) {
+    report.append(String.format(Locale.ROOT, " count=%d mean=%.3fms p50=%.3fms p95=%.3fms p99=%.3fms max=%.3fms%n",
+        histogram.getCount(), histogram.getMeanNanos() / 1e6, histogram.getValueAtPercentile(50) / 1e6,
+        histogram.getValueAtPercentile(95) / 1e6, histogram.getValueAtPercentile(99) / 1e6,
+        histogram.getMaxNanos() / 1e6));
+  }
+
+}
@@ -0,0 +1,78 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.metrics;
+
+/**
+ * Receives the timings and counts measured while statements are executed.
+ * <p>
+ * An implementation is registered with {@code Configuration.setMetricsCollector} or with the
+ * {@code metricsCollector} setting. It is called on the threads that execute the statements, so it must be thread
+ * safe and should return quickly. All methods do nothing by default.
+ *
+ * @since 3.5.7
+ * @see HistogramMetricsCollector
+ */
+public interface MetricsCollector {
+
+  /**
+   * Records the duration of a phase of a statement execution.
+   *
+   * @param statementId
+   *          the id of the mapped statement
+   * @param phase
+   *          the phase
+   * @param nanos
+   *          the duration in nanoseconds
+   */
+  default void recordLatency(String statementId, StatementPhase phase, long nanos) {
+    // NOP
+  }
+
+  /**
+   * Records the number of rows mapped by a query.
+   *
+   * @param statementId
+   *          the id of the mapped statement
+   * @param rows
+   *          the number of top level result objects
+   */
+  default void recordRowsMapped(String statementId, int rows) {
+    // NOP
+  }
+
+  /**
+   * Records a query served by a cache instead of the database.
+   *
+   * @param statementId
+   *          the id of the mapped statement
+   * @param secondLevel
+   *          true for the second level cache, false for the local cache of the session
+   */
+  default void recordCacheHit(String statementId, boolean secondLevel) {
+    // NOP
+  }
+
+  /**
+   * Records the time a pooled data source took to hand out a connection, including the time spent waiting for one.
+   *
+   * @param nanos
+   *          the duration in nanoseconds
+   */
+  default void recordConnectionAcquisition(long nanos) {
+    // NOP
+  }
+
+}
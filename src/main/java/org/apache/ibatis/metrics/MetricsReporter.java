@@ -0,0 +1,130 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.metrics;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.apache.ibatis.logging.Log;
+import org.apache.ibatis.logging.LogFactory;
+
+/**
+ * Periodically writes the report of a {@link HistogramMetricsCollector}, by default to the debug log of this class.
+ *
+ * <pre>
+ * MetricsReporter reporter = new MetricsReporter(collector);
+ * reporter.start(1, TimeUnit.MINUTES);
+ * </pre>
+ *
+ * @since 3.5.7
+ */
+public class MetricsReporter implements AutoCloseable {
+
+  private static final Log log = LogFactory.getLog(MetricsReporter.class);
+
+  private final HistogramMetricsCollector collector;
+  private final Consumer<String> output;
+  private final boolean resetAfterReport;
+  private final ReentrantLock lock = new ReentrantLock();
+  private ScheduledExecutorService scheduler;
+
+  public MetricsReporter(HistogramMetricsCollector collector) {
+    this(collector, log::debug, false);
+  }
+
+  /**
+   * Creates a reporter.
+   *
+   * @param collector
+   *          the collector to report
+   * @param output
+   *          receives each report
+   * @param resetAfterReport
+   *          true to clear the collector after each report, so that each report covers one period only
+   */
+  public MetricsReporter(HistogramMetricsCollector collector, Consumer<String> output, boolean resetAfterReport) {
+    this.collector = collector;
+    this.output = output;
+    this.resetAfterReport = resetAfterReport;
+  }
+
+  /**
+   * Starts reporting at a fixed rate on a daemon thread.
+   *
+   * @param period
+   *          the time between two reports
+   * @param unit
+   *          the unit of the period
+   */
+  public void start(long period, TimeUnit unit) {
+    lock.lock();
+    try {
+      if (scheduler != null) {
+        throw new IllegalStateException("The reporter is already started.");
+      }
+      scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "mybatis-metrics-reporter");
+        thread.setDaemon(true);
+        return thread;
+      });
+      scheduler.scheduleAtFixedRate(this::reportQuietly, period, period, unit);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Writes a report now.
+   */
+  public void report() {
+    String report = collector.report();
+    if (resetAfterReport) {
+      collector.reset();
+    }
+    if (!report.isEmpty()) {
+      output.accept(report);
+    }
+  }
+
+  private void reportQuietly() {
+    try {
+      report();
+    } catch (RuntimeException e) {
+      // a failed report must not cancel the following ones
+      log.warn("Error writing the metrics report. Cause: " + e);
+    }
+  }
+
+  /**
+   * Stops reporting.
+   */
+  @Override
+  public void close() {
+    lock.lock();
+    try {
+      if (scheduler != null) {
+        scheduler.shutdown();
+        scheduler = null;
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+}
@@ -0,0 +1,112 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.metrics;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The metrics of one mapped statement collected by a {@link HistogramMetricsCollector}.
+ *
+ * @since 3.5.7
+ */
+public final class StatementMetrics {
+
+  private static final StatementPhase[] PHASES = StatementPhase.values();
+
+  private final String statementId;
+  private final AtomicReferenceArray<LatencyHistogram> histograms = new AtomicReferenceArray<>(PHASES.length);
+  private final LongAdder rowsMapped = new LongAdder();
+  private final LongAdder localCacheHits = new LongAdder();
+  private final LongAdder secondLevelCacheHits = new LongAdder();
+
+  StatementMetrics(String statementId) {
+    this.statementId = statementId;
+  }
+
+  public String getStatementId() {
+    return statementId;
+  }
+
+  /**
+   * Gets the histogram of a phase.
+   *
+   * @param phase
+   *          the phase
+   * @return the histogram, or null if the phase was never recorded
+   */
+  public LatencyHistogram getHistogram(StatementPhase phase) {
+    return histograms.get(phase.ordinal());
+  }
+
+  public long getRowsMapped() {
+    return rowsMapped.sum();
+  }
+
+  public long getLocalCacheHits() {
+    return localCacheHits.sum();
+  }
+
+  public long getSecondLevelCacheHits() {
+    return secondLevelCacheHits.sum();
+  }
+
+  void recordLatency(StatementPhase phase, long nanos) {
+    LatencyHistogram histogram = histograms.get(phase.ordinal());
+    if (histogram == null) {
+      // histograms are allocated lazily as most statements go through a few phases only
+      histograms.compareAndSet(phase.ordinal(), null, new LatencyHistogram());
+      histogram = histograms.get(phase.ordinal());
+    }
+    histogram.record(nanos);
+  }
+
+  void recordRowsMapped(int rows) {
+    rowsMapped.add(rows);
+  }
+
+  void recordCacheHit(boolean secondLevel) {
+    if (secondLevel) {
+      secondLevelCacheHits.increment();
+    } else {
+      localCacheHits.increment();
+    }
+  }
+
+  void reset() {
+    for (int i = 0; i < PHASES.length; i++) {
+      LatencyHistogram histogram = histograms.get(i);
+      if (histogram != null) {
+        histogram.reset();
+      }
+    }
+    rowsMapped.reset();
+    localCacheHits.reset();
+    secondLevelCacheHits.reset();
+  }
+
+  void appendTo(StringBuilder report) {
+    report.append(statementId).append(" rows=").append(getRowsMapped()).append(" localCacheHits=")
+        .append(getLocalCacheHits()).append(" secondLevelCacheHits=").append(getSecondLevelCacheHits()).append('\n');
+    for (StatementPhase phase : PHASES) {
+      LatencyHistogram histogram = histograms.get(phase.ordinal());
+      if (histogram != null && histogram.getCount() > 0) {
+        HistogramMetricsCollector.appendHistogram(report.append("  ").append(phase.name().toLowerCase()), histogram);
+      }
+    }
+  }
+
+}
@@ -0,0 +1,50 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.metrics;
+
+/**
+ * The phases of a statement execution that are timed separately.
+ *
+ * @since 3.5.7
+ */
+public enum StatementPhase {
+
+  /**
+   * Whole query or update as seen by the executor, including the local cache lookup, connection acquisition and
+   * nested queries.
+   */
+  TOTAL,
+
+  /**
+   * Creation of the JDBC statement by {@code StatementHandler.prepare}.
+   */
+  PREPARE,
+
+  /**
+   * Setting the parameters by {@code StatementHandler.parameterize}.
+   */
+  PARAMETERIZE,
+
+  /**
+   * Execution of the statement by the driver.
+   */
+  EXECUTE,
+
+  /**
+   * Mapping of the result sets by {@code ResultSetHandler.handleResultSets}.
+   */
+  MAPPING
+}
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -18,6 +18,8 @@ package org.apache.ibatis.plugin;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * @author Clinton Begin
@@ -25,8 +27,15 @@ import java.util.List;
 public class InterceptorChain {
 
   private final List<Interceptor> interceptors = new ArrayList<>();
+  private final ConcurrentMap<Class<?>, PluginDispatcher> dispatchers = new ConcurrentHashMap<>();
+  private boolean dispatchable = true;
 
   public Object pluginAll(Object target) {
+    if (dispatchable) {
+      // all the interceptors wrap with Plugin, so they can share one proxy (see PluginDispatcher)
+      return dispatchers.computeIfAbsent(target.getClass(), type -> PluginDispatcher.create(type, interceptors))
+          .wrap(target);
+    }
     for (Interceptor interceptor : interceptors) {
       target = interceptor.plugin(target);
     }
@@ -35,6 +44,16 @@ public class InterceptorChain {
 
   public void addInterceptor(Interceptor interceptor) {
     interceptors.add(interceptor);
+    dispatchable &= !overridesPlugin(interceptor);
+    dispatchers.clear();
+  }
+
+  private static boolean overridesPlugin(Interceptor interceptor) {
+    try {
+      return interceptor.getClass().getMethod("plugin", Object.class).getDeclaringClass() != Interceptor.class;
+    } catch (NoSuchMethodException e) {
+      return true;
+    }
   }
 
   public List<Interceptor> getInterceptors() {
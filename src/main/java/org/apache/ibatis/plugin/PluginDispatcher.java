@@ -0,0 +1,228 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.plugin;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.ibatis.reflection.ExceptionUtil;
+
+/**
+ * The interceptors of a chain that apply to one target class, flattened into a single proxy.
+ * <p>
+ * Wrapping a target with {@link Plugin#wrap(Object, Interceptor)} once per interceptor nests one proxy per
+ * interceptor, and every call goes through a signature lookup and a reflective call at each level. A dispatcher
+ * works out once which interceptors wrap the class and which of them intercept each method, and wraps a target in
+ * one proxy calling the intercepting interceptors in turn. Calls to methods no interceptor intercepts go straight to
+ * the target.
+ * <p>
+ * Interceptors see the same {@link Invocation}s they would see through nested proxies: {@link Invocation#proceed()}
+ * calls the next interceptor, and {@link Invocation#getTarget()} returns an object calling the interceptors below
+ * the current one.
+ *
+ * @since 3.5.7
+ */
+final class PluginDispatcher {
+
+  private static final int[] NONE = new int[0];
+
+  /** The interceptors wrapping the class, outermost first. */
+  private final Interceptor[] interceptors;
+  /** The interfaces of the proxy each interceptor would have created. */
+  private final Class<?>[][] interfaces;
+  /** The indexes of the interceptors intercepting each method, outermost first. */
+  private final Map<Method, int[]> dispatchTable;
+
+  private PluginDispatcher(Interceptor[] interceptors, Class<?>[][] interfaces, Map<Method, int[]> dispatchTable) {
+    this.interceptors = interceptors;
+    this.interfaces = interfaces;
+    this.dispatchTable = dispatchTable;
+  }
+
+  /**
+   * Creates the dispatcher of a target class.
+   *
+   * @param type
+   *          the target class
+   * @param chain
+   *          the interceptors in the order they are applied, innermost first
+   * @return the dispatcher
+   */
+  static PluginDispatcher create(Class<?> type, List<Interceptor> chain) {
+    List<Interceptor> interceptors = new ArrayList<>();
+    List<Map<Class<?>, Set<Method>>> signatureMaps = new ArrayList<>();
+    List<Class<?>[]> interfaces = new ArrayList<>();
+    Set<Class<?>> current = null;
+    for (Interceptor interceptor : chain) {
+      Map<Class<?>, Set<Method>> signatureMap = Plugin.getSignatureMap(interceptor);
+      Set<Class<?>> wrapped;
+      if (current == null) {
+        wrapped = new LinkedHashSet<>(Arrays.asList(Plugin.getAllInterfaces(type, signatureMap)));
+      } else {
+        wrapped = new LinkedHashSet<>(current);
+        wrapped.retainAll(signatureMap.keySet());
+      }
+      if (!wrapped.isEmpty()) {
+        interceptors.add(interceptor);
+        signatureMaps.add(signatureMap);
+        interfaces.add(wrapped.toArray(new Class<?>[0]));
+        current = wrapped;
+      }
+    }
+    if (interceptors.isEmpty()) {
+      return new PluginDispatcher(new Interceptor[0], new Class<?>[0][], Collections.emptyMap());
+    }
+    Collections.reverse(interceptors);
+    Collections.reverse(signatureMaps);
+    Collections.reverse(interfaces);
+    // the views returned by Invocation#getTarget() implement the interfaces of inner levels
+    Set<Class<?>> allInterfaces = new LinkedHashSet<>();
+    for (Class<?>[] levelInterfaces : interfaces) {
+      allInterfaces.addAll(Arrays.asList(levelInterfaces));
+    }
+    Map<Method, int[]> dispatchTable = new HashMap<>();
+    for (Class<?> iface : allInterfaces) {
+      for (Method method : iface.getMethods()) {
+        if (dispatchTable.containsKey(method)) {
+          continue;
+        }
+        int[] indexes = new int[interceptors.size()];
+        int count = 0;
+        for (int i = 0; i < interceptors.size(); i++) {
+          Set<Method> methods = signatureMaps.get(i).get(method.getDeclaringClass());
+          if (methods != null && methods.contains(method)) {
+            indexes[count++] = i;
+          }
+        }
+        if (count > 0) {
+          dispatchTable.put(method, Arrays.copyOf(indexes, count));
+        }
+      }
+    }
+    return new PluginDispatcher(interceptors.toArray(new Interceptor[0]), interfaces.toArray(new Class<?>[0][]),
+        dispatchTable);
+  }
+
+  /**
+   * Wraps a target in a proxy calling all the interceptors.
+   *
+   * @param target
+   *          the target
+   * @return the proxy, or the target itself if no interceptor wraps its class
+   */
+  Object wrap(Object target) {
+    if (interceptors.length == 0) {
+      return target;
+    }
+    return new Handler(this, target, 0, new Object[interceptors.length]).proxy;
+  }
+
+  private static final class Handler implements InvocationHandler {
+
+    private final PluginDispatcher dispatcher;
+    private final Object target;
+    private final int first;
+    private final Object[] views;
+    private final Object proxy;
+
+    Handler(PluginDispatcher dispatcher, Object target, int first, Object[] views) {
+      this.dispatcher = dispatcher;
+      this.target = target;
+      this.first = first;
+      this.views = views;
+      this.proxy = Proxy.newProxyInstance(target.getClass().getClassLoader(), dispatcher.interfaces[first], this);
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      try {
+        return invokeFrom(dispatcher.dispatchTable.getOrDefault(method, NONE), 0, method, args);
+      } catch (Exception e) {
+        throw ExceptionUtil.unwrapThrowable(e);
+      }
+    }
+
+    Object invokeFrom(int[] indexes, int position, Method method, Object[] args) throws Throwable {
+      int i = position;
+      while (i < indexes.length && indexes[i] < first) {
+        i++;
+      }
+      if (i == indexes.length) {
+        return method.invoke(target, args);
+      }
+      return dispatcher.interceptors[indexes[i]].intercept(new ChainedInvocation(this, indexes, i, method, args));
+    }
+
+    /**
+     * Returns what the target of the interceptor at the given index would be with nested proxies.
+     */
+    Object targetOf(int index) {
+      if (index + 1 == views.length) {
+        return target;
+      }
+      Object view = views[index + 1];
+      if (view == null) {
+        view = new Handler(dispatcher, target, index + 1, views).proxy;
+        views[index + 1] = view;
+      }
+      return view;
+    }
+
+  }
+
+  private static final class ChainedInvocation extends Invocation {
+
+    private final Handler handler;
+    private final int[] indexes;
+    private final int position;
+
+    ChainedInvocation(Handler handler, int[] indexes, int position, Method method, Object[] args) {
+      super(handler.target, method, args);
+      this.handler = handler;
+      this.indexes = indexes;
+      this.position = position;
+    }
+
+    @Override
+    public Object getTarget() {
+      return handler.targetOf(indexes[position]);
+    }
+
+    @Override
+    public Object proceed() throws InvocationTargetException, IllegalAccessException {
+      if (position + 1 == indexes.length) {
+        return super.proceed();
+      }
+      try {
+        return handler.invokeFrom(indexes, position + 1, getMethod(), getArgs());
+      } catch (Throwable t) {
+        throw new InvocationTargetException(ExceptionUtil.unwrapThrowable(t));
+      }
+    }
+
+  }
+
+}
@@ -0,0 +1,42 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reactive;
+
+/**
+ * A provider of a potentially unbounded number of sequenced elements, publishing them according to the demand received
+ * from its {@link Subscriber}s.
+ * <p>
+ * The contract is the one of {@code org.reactivestreams.Publisher} and {@code java.util.concurrent.Flow.Publisher}.
+ * The types are distinct though, so using a publisher with those libraries takes a small adapter that wraps the
+ * subscriber and the subscription of one API into the other and forwards the signals.
+ *
+ * @param <T>
+ *          the type of element signaled
+ * @since 3.5.7
+ */
+@FunctionalInterface
+public interface Publisher<T> {
+
+  /**
+   * Requests the publisher to start streaming data. This can be called many times, each call starts a new
+   * {@link Subscription}.
+   *
+   * @param subscriber
+   *          the subscriber that will consume the signals
+   */
+  void subscribe(Subscriber<? super T> subscriber);
+
+}
@@ -0,0 +1,148 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reactive;
+
+import java.io.Closeable;
+
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * The non-blocking counterpart of {@link org.apache.ibatis.session.SqlSession}.
+ * <p>
+ * Nothing is executed until a {@link Subscriber} requests data. Each subscription then runs on a bounded I/O scheduler
+ * in its own {@link org.apache.ibatis.session.SqlSession}: selects stream their rows according to the demand of the
+ * subscriber, and inserts, updates and deletes are committed before their result is signaled. The connection is
+ * released when the subscription completes, fails or is cancelled.
+ * <p>
+ * A reactive session is thread safe and meant to be shared.
+ *
+ * @since 3.5.7
+ */
+public interface ReactiveSqlSession extends Closeable {
+
+  /**
+   * Retrieve a single row mapped from the statement key. The publisher completes without a value when there is no row.
+   *
+   * @param <T>
+   *          the returned object type
+   * @param statement
+   *          the statement
+   * @return a publisher of the mapped object
+   */
+  <T> Publisher<T> selectOne(String statement);
+
+  /**
+   * Retrieve a single row mapped from the statement key and parameter. The publisher completes without a value when
+   * there is no row.
+   *
+   * @param <T>
+   *          the returned object type
+   * @param statement
+   *          Unique identifier matching the statement to use.
+   * @param parameter
+   *          A parameter object to pass to the statement.
+   * @return a publisher of the mapped object
+   */
+  <T> Publisher<T> selectOne(String statement, Object parameter);
+
+  /**
+   * Stream the rows mapped from the statement key.
+   *
+   * @param <E>
+   *          the returned list element type
+   * @param statement
+   *          Unique identifier matching the statement to use.
+   * @return a publisher of the mapped objects
+   */
+  <E> Publisher<E> selectMany(String statement);
+
+  /**
+   * Stream the rows mapped from the statement key and parameter.
+   *
+   * @param <E>
+   *          the returned list element type
+   * @param statement
+   *          Unique identifier matching the statement to use.
+   * @param parameter
+   *          A parameter object to pass to the statement.
+   * @return a publisher of the mapped objects
+   */
+  <E> Publisher<E> selectMany(String statement, Object parameter);
+
+  /**
+   * Stream the rows mapped from the statement key and parameter within the specified row bounds.
+   *
+   * @param <E>
+   *          the returned list element type
+   * @param statement
+   *          Unique identifier matching the statement to use.
+   * @param parameter
+   *          A parameter object to pass to the statement.
+   * @param rowBounds
+   *          Bounds to limit object retrieval
+   * @return a publisher of the mapped objects
+   */
+  <E> Publisher<E> selectMany(String statement, Object parameter, RowBounds rowBounds);
+
+  /**
+   * Execute an insert statement with the given parameter object. Any generated autoincrement values or selectKey
+   * entries will modify the given parameter object properties.
+   *
+   * @param statement
+   *          Unique identifier matching the statement to execute.
+   * @param parameter
+   *          A parameter object to pass to the statement.
+   * @return a publisher of the number of rows affected by the insert.
+   */
+  Publisher<Integer> insert(String statement, Object parameter);
+
+  /**
+   * Execute an update statement.
+   *
+   * @param statement
+   *          Unique identifier matching the statement to execute.
+   * @param parameter
+   *          A parameter object to pass to the statement.
+   * @return a publisher of the number of rows affected by the update.
+   */
+  Publisher<Integer> update(String statement, Object parameter);
+
+  /**
+   * Execute a delete statement.
+   *
+   * @param statement
+   *          Unique identifier matching the statement to execute.
+   * @param parameter
+   *          A parameter object to pass to the statement.
+   * @return a publisher of the number of rows affected by the delete.
+   */
+  Publisher<Integer> delete(String statement, Object parameter);
+
+  /**
+   * Retrieves current configuration.
+   *
+   * @return Configuration
+   */
+  Configuration getConfiguration();
+
+  /**
+   * Shuts the I/O scheduler down if it was created by this session. Running subscriptions are not affected.
+   */
+  @Override
+  void close();
+
+}
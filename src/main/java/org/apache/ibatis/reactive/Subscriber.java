@@ -0,0 +1,37 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reactive;
+
+/**
+ * Receives the signals of a {@link Publisher}: {@link #onSubscribe(Subscription)} once, then any number of
+ * {@link #onNext(Object)} calls as requested through the subscription, followed by either {@link #onComplete()} or
+ * {@link #onError(Throwable)} unless the subscription was cancelled. Signals are never sent concurrently.
+ *
+ * @param <T>
+ *          the type of element signaled
+ * @since 3.5.7
+ */
+public interface Subscriber<T> {
+
+  void onSubscribe(Subscription subscription);
+
+  void onNext(T item);
+
+  void onError(Throwable throwable);
+
+  void onComplete();
+
+}
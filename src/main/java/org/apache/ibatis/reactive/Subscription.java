@@ -0,0 +1,38 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reactive;
+
+/**
+ * The link between a {@link Publisher} and one of its {@link Subscriber}s.
+ *
+ * @since 3.5.7
+ */
+public interface Subscription {
+
+  /**
+   * Adds the given number of elements to the demand of the subscriber. No element is sent before it is requested.
+   *
+   * @param n
+   *          the strictly positive number of elements to request, {@link Long#MAX_VALUE} for an unbounded demand
+   */
+  void request(long n);
+
+  /**
+   * Requests the publisher to stop sending signals and to release the resources held for this subscription.
+   */
+  void cancel();
+
+}
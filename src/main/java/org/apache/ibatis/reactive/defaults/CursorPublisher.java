@@ -0,0 +1,223 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reactive.defaults;
+
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.reactive.Publisher;
+import org.apache.ibatis.reactive.Subscriber;
+import org.apache.ibatis.reactive.Subscription;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+
+/**
+ * Streams the rows of a select through a {@link Cursor}, fetching no more rows than requested.
+ * <p>
+ * Each subscription opens its own {@link SqlSession} on first demand. All the JDBC work and all the signals of a
+ * subscription are serialized in a drain loop running on the scheduler, which also closes the cursor and the session
+ * once the subscription completes, fails or is cancelled.
+ *
+ * @param <T>
+ *          the type of mapped rows
+ */
+class CursorPublisher<T> implements Publisher<T> {
+
+  private final SqlSessionFactory sqlSessionFactory;
+  private final Executor scheduler;
+  private final String statement;
+  private final Object parameter;
+  private final RowBounds rowBounds;
+
+  CursorPublisher(SqlSessionFactory sqlSessionFactory, Executor scheduler, String statement, Object parameter,
+      RowBounds rowBounds) {
+    this.sqlSessionFactory = sqlSessionFactory;
+    this.scheduler = scheduler;
+    this.statement = statement;
+    this.parameter = parameter;
+    this.rowBounds = rowBounds;
+  }
+
+  @Override
+  public void subscribe(Subscriber<? super T> subscriber) {
+    if (subscriber == null) {
+      throw new NullPointerException("subscriber");
+    }
+    subscriber.onSubscribe(new CursorSubscription(subscriber));
+  }
+
+  private class CursorSubscription implements Subscription, Runnable {
+
+    private final Subscriber<? super T> subscriber;
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicInteger wip = new AtomicInteger();
+    private volatile boolean cancelled;
+    private volatile Throwable badRequest;
+
+    // only accessed from the drain loop
+    private boolean done;
+    private SqlSession sqlSession;
+    private Cursor<T> cursor;
+    private Iterator<T> iterator;
+
+    CursorSubscription(Subscriber<? super T> subscriber) {
+      this.subscriber = subscriber;
+    }
+
+    @Override
+    public void request(long n) {
+      if (n <= 0) {
+        badRequest = new IllegalArgumentException("Requested " + n + " elements, expected a positive number.");
+      } else {
+        long current;
+        long next;
+        do {
+          current = requested.get();
+          if (current == Long.MAX_VALUE) {
+            break;
+          }
+          next = current + n;
+          if (next < 0) {
+            next = Long.MAX_VALUE;
+          }
+        } while (!requested.compareAndSet(current, next));
+      }
+      schedule();
+    }
+
+    @Override
+    public void cancel() {
+      cancelled = true;
+      schedule();
+    }
+
+    private void schedule() {
+      if (wip.getAndIncrement() == 0) {
+        try {
+          scheduler.execute(this);
+        } catch (RejectedExecutionException e) {
+          // wip stays positive, no drain loop will ever run for this subscription
+          done = true;
+          release();
+          if (!cancelled) {
+            subscriber.onError(e);
+          }
+        }
+      }
+    }
+
+    @Override
+    public void run() {
+      int missed = 1;
+      do {
+        drain();
+        missed = wip.addAndGet(-missed);
+      } while (missed != 0);
+    }
+
+    private void drain() {
+      if (done) {
+        return;
+      }
+      if (cancelled) {
+        terminate(null, false);
+        return;
+      }
+      if (badRequest != null) {
+        terminate(badRequest, true);
+        return;
+      }
+      try {
+        if (iterator == null) {
+          sqlSession = sqlSessionFactory.openSession();
+          cursor = sqlSession.selectCursor(statement, parameter, rowBounds);
+          iterator = cursor.iterator();
+        }
+        long demand = requested.get();
+        long emitted = 0;
+        while (emitted != demand) {
+          if (cancelled) {
+            terminate(null, false);
+            return;
+          }
+          if (!iterator.hasNext()) {
+            terminate(null, true);
+            return;
+          }
+          T row = iterator.next();
+          if (row != null) {
+            subscriber.onNext(row);
+            emitted++;
+          }
+        }
+        if (cancelled) {
+          terminate(null, false);
+        } else if (!iterator.hasNext()) {
+          terminate(null, true);
+        } else if (demand != Long.MAX_VALUE) {
+          requested.addAndGet(-emitted);
+        }
+      } catch (Throwable t) {
+        terminate(t, !cancelled);
+      }
+    }
+
+    private void terminate(Throwable error, boolean signal) {
+      done = true;
+      Throwable failure = error;
+      try {
+        release();
+      } catch (RuntimeException e) {
+        if (failure == null) {
+          failure = e;
+        } else {
+          failure.addSuppressed(e);
+        }
+      }
+      if (signal) {
+        if (failure == null) {
+          subscriber.onComplete();
+        } else {
+          subscriber.onError(failure);
+        }
+      }
+    }
+
+    private void release() {
+      iterator = null;
+      try {
+        if (cursor != null) {
+          cursor.close();
+        }
+      } catch (Exception e) {
+        throw new IllegalStateException("Error closing cursor.  Cause: " + e, e);
+      } finally {
+        cursor = null;
+        if (sqlSession != null) {
+          sqlSession.close();
+          sqlSession = null;
+        }
+      }
+    }
+
+  }
+
+}
@@ -0,0 +1,142 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reactive.defaults;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.reactive.Publisher;
+import org.apache.ibatis.reactive.ReactiveSqlSession;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSessionFactory;
+
+/**
+ * The default implementation for {@link ReactiveSqlSession}.
+ * <p>
+ * Blocking JDBC calls are confined to the I/O scheduler. When none is supplied, a fixed pool of daemon threads sized
+ * after the maximum number of active connections of the data source is created.
+ * <p>
+ * A subscription to {@code selectMany} keeps its session, and with it a connection, from its first demand until it
+ * completes, fails or is cancelled, also while its subscriber requests no more rows. When more of them are open than
+ * the data source has connections, a new subscription blocks a scheduler thread waiting for a connection until another
+ * one finishes. Subscribers that stop consuming rows should therefore cancel their subscription.
+ *
+ * @since 3.5.7
+ */
+public class DefaultReactiveSqlSession implements ReactiveSqlSession {
+
+  private static final AtomicInteger schedulerSequence = new AtomicInteger();
+
+  private final SqlSessionFactory sqlSessionFactory;
+  private final ExecutorService scheduler;
+  private final boolean ownScheduler;
+
+  public DefaultReactiveSqlSession(SqlSessionFactory sqlSessionFactory) {
+    this(sqlSessionFactory, createScheduler(sqlSessionFactory.getConfiguration()), true);
+  }
+
+  public DefaultReactiveSqlSession(SqlSessionFactory sqlSessionFactory, ExecutorService scheduler) {
+    this(sqlSessionFactory, scheduler, false);
+  }
+
+  private DefaultReactiveSqlSession(SqlSessionFactory sqlSessionFactory, ExecutorService scheduler,
+      boolean ownScheduler) {
+    this.sqlSessionFactory = sqlSessionFactory;
+    this.scheduler = scheduler;
+    this.ownScheduler = ownScheduler;
+  }
+
+  @Override
+  public <T> Publisher<T> selectOne(String statement) {
+    return this.selectOne(statement, null);
+  }
+
+  @Override
+  public <T> Publisher<T> selectOne(String statement, Object parameter) {
+    return new SingleResultPublisher<>(sqlSessionFactory, scheduler,
+        session -> session.<T>selectOne(statement, parameter), false);
+  }
+
+  @Override
+  public <E> Publisher<E> selectMany(String statement) {
+    return this.selectMany(statement, null);
+  }
+
+  @Override
+  public <E> Publisher<E> selectMany(String statement, Object parameter) {
+    return this.selectMany(statement, parameter, RowBounds.DEFAULT);
+  }
+
+  @Override
+  public <E> Publisher<E> selectMany(String statement, Object parameter, RowBounds rowBounds) {
+    return new CursorPublisher<>(sqlSessionFactory, scheduler, statement, parameter, rowBounds);
+  }
+
+  @Override
+  public Publisher<Integer> insert(String statement, Object parameter) {
+    return new SingleResultPublisher<>(sqlSessionFactory, scheduler, session -> session.insert(statement, parameter),
+        true);
+  }
+
+  @Override
+  public Publisher<Integer> update(String statement, Object parameter) {
+    return new SingleResultPublisher<>(sqlSessionFactory, scheduler, session -> session.update(statement, parameter),
+        true);
+  }
+
+  @Override
+  public Publisher<Integer> delete(String statement, Object parameter) {
+    return new SingleResultPublisher<>(sqlSessionFactory, scheduler, session -> session.delete(statement, parameter),
+        true);
+  }
+
+  @Override
+  public Configuration getConfiguration() {
+    return sqlSessionFactory.getConfiguration();
+  }
+
+  @Override
+  public void close() {
+    if (ownScheduler) {
+      scheduler.shutdown();
+    }
+  }
+
+  private static ExecutorService createScheduler(Configuration configuration) {
+    int threads = Runtime.getRuntime().availableProcessors();
+    Environment environment = configuration.getEnvironment();
+    DataSource dataSource = environment == null ? null : environment.getDataSource();
+    if (dataSource instanceof PooledDataSource) {
+      threads = ((PooledDataSource) dataSource).getPoolMaximumActiveConnections();
+    }
+    int id = schedulerSequence.incrementAndGet();
+    AtomicInteger threadSequence = new AtomicInteger();
+    ThreadFactory threadFactory = runnable -> {
+      Thread thread = new Thread(runnable, "mybatis-reactive-io-" + id + "-" + threadSequence.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+    return Executors.newFixedThreadPool(Math.max(1, threads), threadFactory);
+  }
+
+}
@@ -0,0 +1,118 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reactive.defaults;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import org.apache.ibatis.reactive.Publisher;
+import org.apache.ibatis.reactive.Subscriber;
+import org.apache.ibatis.reactive.Subscription;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+
+/**
+ * Runs a single operation in its own {@link SqlSession} on the scheduler once the subscriber requests data, and signals
+ * its result, if any.
+ *
+ * @param <T>
+ *          the type of the result
+ */
+class SingleResultPublisher<T> implements Publisher<T> {
+
+  private final SqlSessionFactory sqlSessionFactory;
+  private final Executor scheduler;
+  private final Function<SqlSession, T> operation;
+  private final boolean commit;
+
+  SingleResultPublisher(SqlSessionFactory sqlSessionFactory, Executor scheduler, Function<SqlSession, T> operation,
+      boolean commit) {
+    this.sqlSessionFactory = sqlSessionFactory;
+    this.scheduler = scheduler;
+    this.operation = operation;
+    this.commit = commit;
+  }
+
+  @Override
+  public void subscribe(Subscriber<? super T> subscriber) {
+    if (subscriber == null) {
+      throw new NullPointerException("subscriber");
+    }
+    subscriber.onSubscribe(new SingleResultSubscription(subscriber));
+  }
+
+  private class SingleResultSubscription implements Subscription, Runnable {
+
+    private final Subscriber<? super T> subscriber;
+    private final AtomicBoolean started = new AtomicBoolean();
+    private volatile boolean cancelled;
+
+    SingleResultSubscription(Subscriber<? super T> subscriber) {
+      this.subscriber = subscriber;
+    }
+
+    @Override
+    public void request(long n) {
+      if (!started.compareAndSet(false, true)) {
+        return;
+      }
+      if (n <= 0) {
+        subscriber.onError(new IllegalArgumentException("Requested " + n + " elements, expected a positive number."));
+        return;
+      }
+      try {
+        scheduler.execute(this);
+      } catch (RejectedExecutionException e) {
+        subscriber.onError(e);
+      }
+    }
+
+    @Override
+    public void cancel() {
+      cancelled = true;
+    }
+
+    @Override
+    public void run() {
+      if (cancelled) {
+        return;
+      }
+      T result;
+      try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+        result = operation.apply(sqlSession);
+        if (commit) {
+          sqlSession.commit();
+        }
+      } catch (Throwable t) {
+        if (!cancelled) {
+          subscriber.onError(t);
+        }
+        return;
+      }
+      if (cancelled) {
+        return;
+      }
+      if (result != null) {
+        subscriber.onNext(result);
+      }
+      subscriber.onComplete();
+    }
+
+  }
+
+}
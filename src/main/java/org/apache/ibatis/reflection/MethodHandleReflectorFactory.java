@@ -0,0 +1,34 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection;
+
+import org.apache.ibatis.reflection.invoker.MethodHandleInvokerFactory;
+
+/**
+ * A reflector factory whose reflectors read and write properties through method handles.
+ * <p>
+ * It can be set in the configuration with {@code <reflectorFactory type="org.apache.ibatis.reflection.MethodHandleReflectorFactory"/>}.
+ *
+ * @since 3.5.7
+ * @see org.apache.ibatis.reflection.invoker.MethodHandleInvoker
+ */
+public class MethodHandleReflectorFactory extends DefaultReflectorFactory {
+
+  public MethodHandleReflectorFactory() {
+    super(new MethodHandleInvokerFactory());
+  }
+
+}
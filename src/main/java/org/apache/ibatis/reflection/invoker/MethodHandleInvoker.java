@@ -0,0 +1,147 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection.invoker;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import org.apache.ibatis.reflection.Reflector;
+
+/**
+ * An invoker calling a getter, a setter or a field through a {@link MethodHandle}.
+ * <p>
+ * The handle is adapted to take and return {@code Object}s, so a call does not go through the argument checks and
+ * copies of {@link Method#invoke(Object, Object...)}. It is looked up on first use. When it cannot be, or when the
+ * target or the value is not of the exact expected type, the call is made by the reflection based invoker instead, so
+ * that conversions and errors are the same as with reflection.
+ *
+ * @since 3.5.7
+ */
+public class MethodHandleInvoker implements Invoker {
+
+  private static final MethodHandle UNAVAILABLE = MethodHandles.constant(Object.class, null);
+  private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+  private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+  private final Member member;
+  private final boolean setter;
+  private final Class<?> targetType;
+  private final Class<?> valueType;
+  private final Invoker fallback;
+  // method handles are immutable, so racing threads at worst look the handle up twice
+  private MethodHandle handle;
+
+  /**
+   * Creates an invoker.
+   *
+   * @param member
+   *          the getter, setter or field
+   * @param setter
+   *          true if the invoker sets the value of the member
+   * @param fallback
+   *          the invoker used when the method handle cannot be
+   */
+  public MethodHandleInvoker(Member member, boolean setter, Invoker fallback) {
+    this.member = member;
+    this.setter = setter;
+    this.targetType = Modifier.isStatic(member.getModifiers()) ? Object.class : member.getDeclaringClass();
+    this.valueType = box(fallback.getType());
+    this.fallback = fallback;
+  }
+
+  @Override
+  public Object invoke(Object target, Object[] args) throws IllegalAccessException, InvocationTargetException {
+    MethodHandle handle = this.handle;
+    if (handle == null) {
+      handle = lookup();
+      this.handle = handle;
+    }
+    if (handle == UNAVAILABLE || !targetType.isInstance(target)
+        || setter && (args[0] == null ? valueType != fallback.getType() : !valueType.isInstance(args[0]))) {
+      return fallback.invoke(target, args);
+    }
+    try {
+      if (setter) {
+        handle.invokeExact(target, args[0]);
+        return null;
+      }
+      return handle.invokeExact(target);
+    } catch (Throwable t) {
+      throw new InvocationTargetException(t);
+    }
+  }
+
+  @Override
+  public Class<?> getType() {
+    return fallback.getType();
+  }
+
+  /**
+   * Gets the getter, setter or field this invoker calls.
+   *
+   * @return the member
+   */
+  public Member getMember() {
+    return member;
+  }
+
+  private MethodHandle lookup() {
+    try {
+      return adapt(unreflect());
+    } catch (IllegalAccessException e) {
+      if (Reflector.canControlMemberAccessible()) {
+        try {
+          ((AccessibleObject) member).setAccessible(true);
+          return adapt(unreflect());
+        } catch (IllegalAccessException | RuntimeException e2) {
+          // not accessible in this runtime
+        }
+      }
+      return UNAVAILABLE;
+    }
+  }
+
+  private MethodHandle unreflect() throws IllegalAccessException {
+    MethodHandles.Lookup lookup = MethodHandles.lookup();
+    if (member instanceof Method) {
+      return lookup.unreflect((Method) member);
+    }
+    return setter ? lookup.unreflectSetter((Field) member) : lookup.unreflectGetter((Field) member);
+  }
+
+  private MethodHandle adapt(MethodHandle target) {
+    MethodHandle adapted = target;
+    if (Modifier.isStatic(member.getModifiers())) {
+      adapted = MethodHandles.dropArguments(adapted, 0, Object.class);
+    }
+    return adapted.asType(setter ? SETTER_TYPE : GETTER_TYPE);
+  }
+
+  private static Class<?> box(Class<?> type) {
+    if (!type.isPrimitive()) {
+      return type;
+    }
+    return MethodType.methodType(type).wrap().returnType();
+  }
+
+}
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -15,15 +15,16 @@
  */
 package org.apache.ibatis.scripting;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author Frank D. Martinez [mnesarco]
  */
 public class LanguageDriverRegistry {
 
-  private final Map<Class<? extends LanguageDriver>, LanguageDriver> LANGUAGE_DRIVER_MAP = new HashMap<>();
+  // also written at runtime when lazily compiled statements declare a lang attribute
+  private final Map<Class<? extends LanguageDriver>, LanguageDriver> LANGUAGE_DRIVER_MAP = new ConcurrentHashMap<>();
 
   private Class<? extends LanguageDriver> defaultDriverClass;
 
@@ -51,7 +52,7 @@ public class LanguageDriverRegistry {
   }
 
   public LanguageDriver getDriver(Class<? extends LanguageDriver> cls) {
-    return LANGUAGE_DRIVER_MAP.get(cls);
+    return cls == null ? null : LANGUAGE_DRIVER_MAP.get(cls);
   }
 
   public LanguageDriver getDefaultDriver() {
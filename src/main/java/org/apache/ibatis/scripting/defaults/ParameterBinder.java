@@ -0,0 +1,170 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.defaults;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.reflection.ExceptionUtil;
+import org.apache.ibatis.reflection.ReflectionException;
+import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.reflection.property.PropertyTokenizer;
+import org.apache.ibatis.reflection.wrapper.ObjectWrapper;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.TypeException;
+import org.apache.ibatis.type.TypeHandler;
+
+/**
+ * Sets the parameters of the statements of a {@link org.apache.ibatis.builder.StaticSqlSource} for one parameter type.
+ * <p>
+ * The property paths of the parameter mappings are split once, and each step caches the getter {@link Invoker} of the
+ * last class it was read from, so binding a parameter does not create a {@link org.apache.ibatis.reflection.MetaObject}
+ * or tokenize its property again. Paths with an index, and objects that are collections or have a custom
+ * {@link ObjectWrapper}, are still read through a {@code MetaObject}.
+ * <p>
+ * The invokers come from the {@link org.apache.ibatis.reflection.ReflectorFactory} of the configuration: they call the
+ * getters through reflection by default, and through method handles with a
+ * {@link org.apache.ibatis.reflection.MethodHandleReflectorFactory}. No accessor classes are generated.
+ *
+ * @see ParameterBinderCache
+ */
+final class ParameterBinder {
+
+  private static final Object[] NO_ARGUMENTS = new Object[0];
+
+  private final Configuration configuration;
+  private final ParameterMapping[] parameterMappings;
+  private final PropertyPath[] paths;
+  private final boolean simpleParameter;
+
+  ParameterBinder(Configuration configuration, List<ParameterMapping> parameterMappings, Class<?> parameterType) {
+    this.configuration = configuration;
+    this.parameterMappings = parameterMappings.toArray(new ParameterMapping[0]);
+    this.paths = new PropertyPath[this.parameterMappings.length];
+    for (int i = 0; i < paths.length; i++) {
+      if (this.parameterMappings[i].getMode() != ParameterMode.OUT) {
+        paths[i] = new PropertyPath(this.parameterMappings[i].getProperty());
+      }
+    }
+    this.simpleParameter = parameterType != null && configuration.getTypeHandlerRegistry().hasTypeHandler(parameterType);
+  }
+
+  @SuppressWarnings({ "unchecked", "rawtypes" })
+  void setParameters(PreparedStatement ps, Object parameterObject, BoundSql boundSql) {
+    final Map<String, Object> additionalParameters = boundSql.getAdditionalParameters();
+    for (int i = 0; i < parameterMappings.length; i++) {
+      final PropertyPath path = paths[i];
+      if (path == null) {
+        continue;
+      }
+      final ParameterMapping parameterMapping = parameterMappings[i];
+      Object value;
+      if (!additionalParameters.isEmpty() && additionalParameters.containsKey(path.root)) { // issue #448 ask first for additional params
+        value = path.indexed ? boundSql.getAdditionalParameter(path.property) : path.getValue(additionalParameters.get(path.root), 1);
+      } else if (parameterObject == null) {
+        value = null;
+      } else if (simpleParameter) {
+        value = parameterObject;
+      } else {
+        value = path.indexed ? configuration.newMetaObject(parameterObject).getValue(path.property) : path.getValue(parameterObject, 0);
+      }
+      TypeHandler typeHandler = parameterMapping.getTypeHandler();
+      JdbcType jdbcType = parameterMapping.getJdbcType();
+      if (value == null && jdbcType == null) {
+        jdbcType = configuration.getJdbcTypeForNull();
+      }
+      try {
+        typeHandler.setParameter(ps, i + 1, value, jdbcType);
+      } catch (TypeException | SQLException e) {
+        throw new TypeException("Could not set parameters for mapping: " + parameterMapping + ". Cause: " + e, e);
+      }
+    }
+  }
+
+  private final class PropertyPath {
+
+    private final String property;
+    private final String root;
+    private final boolean indexed;
+    private final String[] names;
+    private final Getter[] getters;
+
+    PropertyPath(String property) {
+      this.property = property;
+      this.root = new PropertyTokenizer(property).getName();
+      this.indexed = property.indexOf('[') > -1;
+      this.names = property.split("\\.");
+      this.getters = new Getter[names.length];
+    }
+
+    Object getValue(Object object, int from) {
+      Object value = object;
+      for (int i = from; i < names.length; i++) {
+        if (value == null) {
+          return null;
+        } else if (value instanceof ObjectWrapper || configuration.getObjectWrapperFactory().hasWrapperFor(value)
+            || value instanceof Collection) {
+          // same order as MetaObject, a custom wrapper takes precedence over the map and collection wrappers
+          return configuration.newMetaObject(value).getValue(String.join(".", Arrays.copyOfRange(names, i, names.length)));
+        } else if (value instanceof Map) {
+          value = ((Map<?, ?>) value).get(names[i]);
+        } else {
+          value = getProperty(i, value);
+        }
+      }
+      return value;
+    }
+
+    private Object getProperty(int index, Object object) {
+      Getter getter = getters[index];
+      if (getter == null || getter.type != object.getClass()) {
+        getter = new Getter(object.getClass(),
+            configuration.getReflectorFactory().findForClass(object.getClass()).getGetInvoker(names[index]));
+        getters[index] = getter;
+      }
+      try {
+        try {
+          return getter.invoker.invoke(object, NO_ARGUMENTS);
+        } catch (Throwable t) {
+          throw ExceptionUtil.unwrapThrowable(t);
+        }
+      } catch (RuntimeException e) {
+        throw e;
+      } catch (Throwable t) {
+        throw new ReflectionException("Could not get property '" + names[index] + "' from " + object.getClass() + ".  Cause: " + t.toString(), t);
+      }
+    }
+  }
+
+  private static final class Getter {
+    private final Class<?> type;
+    private final Invoker invoker;
+
+    Getter(Class<?> type, Invoker invoker) {
+      this.type = type;
+      this.invoker = invoker;
+    }
+  }
+
+}
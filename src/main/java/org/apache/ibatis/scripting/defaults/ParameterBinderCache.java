@@ -0,0 +1,103 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.defaults;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * The {@link ParameterBinder}s of a list of parameter mappings, one per parameter type. It is shared by all the
+ * {@link org.apache.ibatis.mapping.BoundSql}s whose parameter mappings have the same {@link Shape}, and used by
+ * {@link DefaultParameterHandler} when {@link Configuration#isCompiledParameterBindersEnabled()}.
+ *
+ * @see Configuration#getParameterBinderCache(List)
+ * @since 3.5.7
+ */
+public final class ParameterBinderCache {
+
+  private final Configuration configuration;
+  private final List<ParameterMapping> parameterMappings;
+  private final Map<Class<?>, ParameterBinder> binders = new ConcurrentHashMap<>();
+  private volatile ParameterBinder nullParameterBinder;
+
+  public ParameterBinderCache(Configuration configuration, List<ParameterMapping> parameterMappings) {
+    this.configuration = configuration;
+    this.parameterMappings = parameterMappings;
+  }
+
+  ParameterBinder getParameterBinder(Object parameterObject) {
+    if (parameterObject == null) {
+      ParameterBinder binder = nullParameterBinder;
+      if (binder == null) {
+        binder = new ParameterBinder(configuration, parameterMappings, null);
+        nullParameterBinder = binder;
+      }
+      return binder;
+    }
+    final Class<?> parameterType = parameterObject.getClass();
+    ParameterBinder binder = binders.get(parameterType);
+    if (binder == null) {
+      binder = binders.computeIfAbsent(parameterType, type -> new ParameterBinder(configuration, parameterMappings, type));
+    }
+    return binder;
+  }
+
+  /**
+   * What the binders read from a list of parameter mappings: the property, mode, type handler and JDBC type of each
+   * mapping. Lists with the same shape can share their binders.
+   */
+  public static final class Shape {
+
+    private final Object[] parts;
+    private final int hashCode;
+
+    public Shape(List<ParameterMapping> parameterMappings) {
+      this.parts = new Object[parameterMappings.size() * 4];
+      int i = 0;
+      for (ParameterMapping parameterMapping : parameterMappings) {
+        parts[i++] = parameterMapping.getProperty();
+        parts[i++] = parameterMapping.getMode();
+        parts[i++] = parameterMapping.getTypeHandler();
+        parts[i++] = parameterMapping.getJdbcType();
+      }
+      this.hashCode = Arrays.hashCode(parts);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Shape)) {
+        return false;
+      }
+      Shape other = (Shape) o;
+      // type handlers do not override equals(), so they are compared by identity
+      return hashCode == other.hashCode && Arrays.equals(parts, other.parts);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
+}
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2020 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -15,6 +15,7 @@
  */
 package org.apache.ibatis.scripting.xmltags;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.StringJoiner;
@@ -24,6 +25,7 @@ import ognl.OgnlRuntime;
 import ognl.PropertyAccessor;
 
 import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.ReflectorFactory;
 import org.apache.ibatis.session.Configuration;
 
 /**
@@ -40,20 +42,38 @@ public class DynamicContext {
 
   private final ContextMap bindings;
   private final StringJoiner sqlBuilder = new StringJoiner(" ");
+  private final boolean buildingSql;
+  private int[] branches;
+  private int branchCount;
   private int uniqueNumber = 0;
 
   public DynamicContext(Configuration configuration, Object parameterObject) {
+    this(configuration, parameterObject, false);
+  }
+
+  /**
+   * Creates a context that only evaluates the branches of the SQL nodes when {@code branchesOnly} is true. SQL text is
+   * not built in that mode; instead each branch decision is recorded in {@link #getBranches()}. Bindings are applied as
+   * usual.
+   */
+  DynamicContext(Configuration configuration, Object parameterObject, boolean branchesOnly) {
+    this.buildingSql = !branchesOnly;
+    this.branches = branchesOnly ? new int[16] : null;
     if (parameterObject != null && !(parameterObject instanceof Map)) {
       MetaObject metaObject = configuration.newMetaObject(parameterObject);
       boolean existsTypeHandler = configuration.getTypeHandlerRegistry().hasTypeHandler(parameterObject.getClass());
-      bindings = new ContextMap(metaObject, existsTypeHandler);
+      bindings = new ContextMap(metaObject, existsTypeHandler, expressionReflectorFactory(configuration));
     } else {
-      bindings = new ContextMap(null, false);
+      bindings = new ContextMap(null, false, expressionReflectorFactory(configuration));
     }
     bindings.put(PARAMETER_OBJECT_KEY, parameterObject);
     bindings.put(DATABASE_ID_KEY, configuration.getDatabaseId());
   }
 
+  private static ReflectorFactory expressionReflectorFactory(Configuration configuration) {
+    return configuration.isCompiledExpressionsEnabled() ? configuration.getReflectorFactory() : null;
+  }
+
   public Map<String, Object> getBindings() {
     return bindings;
   }
@@ -63,7 +83,9 @@ public class DynamicContext {
   }
 
   public void appendSql(String sql) {
-    sqlBuilder.add(sql);
+    if (buildingSql) {
+      sqlBuilder.add(sql);
+    }
   }
 
   public String getSql() {
@@ -74,14 +96,39 @@ public class DynamicContext {
     return uniqueNumber++;
   }
 
+  boolean isBuildingSql() {
+    return buildingSql;
+  }
+
+  void recordBranch(int branch) {
+    if (branches != null) {
+      if (branchCount == branches.length) {
+        branches = Arrays.copyOf(branches, branchCount * 2);
+      }
+      branches[branchCount++] = branch;
+    }
+  }
+
+  int[] getBranches() {
+    return branches == null ? null : Arrays.copyOf(branches, branchCount);
+  }
+
   static class ContextMap extends HashMap<String, Object> {
     private static final long serialVersionUID = 2977601501966151582L;
     private final MetaObject parameterMetaObject;
     private final boolean fallbackParameterObject;
+    // null when the test expressions are evaluated by OGNL only
+    private final ReflectorFactory expressionReflectorFactory;
 
-    public ContextMap(MetaObject parameterMetaObject, boolean fallbackParameterObject) {
+    public ContextMap(MetaObject parameterMetaObject, boolean fallbackParameterObject,
+        ReflectorFactory expressionReflectorFactory) {
       this.parameterMetaObject = parameterMetaObject;
       this.fallbackParameterObject = fallbackParameterObject;
+      this.expressionReflectorFactory = expressionReflectorFactory;
+    }
+
+    ReflectorFactory getExpressionReflectorFactory() {
+      return expressionReflectorFactory;
     }
 
     @Override
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -15,9 +15,20 @@
  */
 package org.apache.ibatis.scripting.xmltags;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.apache.ibatis.builder.SqlSourceBuilder;
+import org.apache.ibatis.builder.StaticSqlSource;
 import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
 import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.reflection.property.PropertyTokenizer;
 import org.apache.ibatis.session.Configuration;
 
 /**
@@ -25,24 +36,157 @@ import org.apache.ibatis.session.Configuration;
  */
 public class DynamicSqlSource implements SqlSource {
 
+  // marks the branch signatures whose parameter mappings depend on the content of a bound value
+  private static final SqlSource NOT_REUSABLE = parameterObject -> null;
+
   private final Configuration configuration;
   private final SqlNode rootSqlNode;
+  private final Map<BranchKey, SqlSource> sqlSourceCache = new ConcurrentHashMap<>();
+  private final boolean cacheable;
 
   public DynamicSqlSource(Configuration configuration, SqlNode rootSqlNode) {
     this.configuration = configuration;
     this.rootSqlNode = rootSqlNode;
+    this.cacheable = isCacheable(rootSqlNode);
+  }
+
+  SqlNode getRootSqlNode() {
+    return rootSqlNode;
   }
 
   @Override
   public BoundSql getBoundSql(Object parameterObject) {
+    if (cacheable && configuration.getDynamicSqlCacheSize() > 0) {
+      return getCachedBoundSql(parameterObject);
+    }
     DynamicContext context = new DynamicContext(configuration, parameterObject);
     rootSqlNode.apply(context);
+    BoundSql boundSql = parse(context, parameterObject);
+    context.getBindings().forEach(boundSql::setAdditionalParameter);
+    return boundSql;
+  }
+
+  /**
+   * Evaluates only the branches of the dynamic SQL and looks up the parsed SQL of that branch signature. The SQL text is
+   * built and parsed only on a miss. The types of the bound values are part of the key because they determine the java
+   * types of the parameter mappings.
+   */
+  private BoundSql getCachedBoundSql(Object parameterObject) {
+    DynamicContext context = new DynamicContext(configuration, parameterObject, true);
+    rootSqlNode.apply(context);
+    Map<String, Object> bindings = context.getBindings();
+    BranchKey key = new BranchKey(context.getBranches(), bindings);
+    SqlSource sqlSource = sqlSourceCache.get(key);
+    if (sqlSource == null || sqlSource == NOT_REUSABLE) {
+      DynamicContext sqlContext = new DynamicContext(configuration, parameterObject);
+      rootSqlNode.apply(sqlContext);
+      BoundSql parsed = parse(sqlContext, parameterObject);
+      if (sqlSource == NOT_REUSABLE || !isReusable(parsed.getParameterMappings(), sqlContext.getBindings())) {
+        cacheVariant(key, NOT_REUSABLE);
+        sqlContext.getBindings().forEach(parsed::setAdditionalParameter);
+        return parsed;
+      }
+      // the mappings are shared by every BoundSql of this variant
+      sqlSource = new StaticSqlSource(configuration, parsed.getSql(),
+          Collections.unmodifiableList(new ArrayList<>(parsed.getParameterMappings())));
+      cacheVariant(key, sqlSource);
+    }
+    BoundSql boundSql = sqlSource.getBoundSql(parameterObject);
+    bindings.forEach(boundSql::setAdditionalParameter);
+    return boundSql;
+  }
+
+  private BoundSql parse(DynamicContext context, Object parameterObject) {
     SqlSourceBuilder sqlSourceParser = new SqlSourceBuilder(configuration);
     Class<?> parameterType = parameterObject == null ? Object.class : parameterObject.getClass();
     SqlSource sqlSource = sqlSourceParser.parse(context.getSql(), parameterType, context.getBindings());
-    BoundSql boundSql = sqlSource.getBoundSql(parameterObject);
-    context.getBindings().forEach(boundSql::setAdditionalParameter);
-    return boundSql;
+    return sqlSource.getBoundSql(parameterObject);
+  }
+
+  private void cacheVariant(BranchKey key, SqlSource sqlSource) {
+    if (sqlSourceCache.size() < configuration.getDynamicSqlCacheSize()) {
+      sqlSourceCache.putIfAbsent(key, sqlSource);
+    }
+  }
+
+  /**
+   * Parameter mappings that navigate into a bound map, collection or array get their java type from the current content
+   * of that value, which is not covered by the cache key.
+   */
+  private static boolean isReusable(List<ParameterMapping> parameterMappings, Map<String, Object> bindings) {
+    for (ParameterMapping parameterMapping : parameterMappings) {
+      PropertyTokenizer prop = new PropertyTokenizer(parameterMapping.getProperty());
+      if (prop.getChildren() == null && prop.getIndex() == null) {
+        continue;
+      }
+      Object value = bindings.containsKey(prop.getName()) ? bindings.get(prop.getName()) : null;
+      if (prop.getIndex() != null || value instanceof Map || value instanceof Collection
+          || (value != null && value.getClass().isArray())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Only the built-in nodes are known to record all of their branch decisions. {@link TextSqlNode} (text with
+   * <code>${}</code>) depends on the parameter values themselves.
+   */
+  private static boolean isCacheable(SqlNode node) {
+    Class<?> type = node.getClass();
+    if (type == StaticTextSqlNode.class || type == VarDeclSqlNode.class) {
+      return true;
+    } else if (type == TextSqlNode.class) {
+      return !((TextSqlNode) node).isDynamic();
+    } else if (type == MixedSqlNode.class) {
+      return ((MixedSqlNode) node).getContents().stream().allMatch(DynamicSqlSource::isCacheable);
+    } else if (type == IfSqlNode.class) {
+      return isCacheable(((IfSqlNode) node).getContents());
+    } else if (type == ChooseSqlNode.class) {
+      ChooseSqlNode chooseSqlNode = (ChooseSqlNode) node;
+      return chooseSqlNode.getIfSqlNodes().stream().allMatch(DynamicSqlSource::isCacheable)
+          && (chooseSqlNode.getDefaultSqlNode() == null || isCacheable(chooseSqlNode.getDefaultSqlNode()));
+    } else if (type == ForEachSqlNode.class) {
+      return isCacheable(((ForEachSqlNode) node).getContents());
+    } else if (type == TrimSqlNode.class || type == WhereSqlNode.class || type == SetSqlNode.class) {
+      return isCacheable(((TrimSqlNode) node).getContents());
+    }
+    return false;
+  }
+
+  private static class BranchKey {
+
+    private final int[] branches;
+    private final Class<?>[] bindingTypes;
+    private final int hashCode;
+
+    BranchKey(int[] branches, Map<String, Object> bindings) {
+      this.branches = branches;
+      this.bindingTypes = new Class<?>[bindings.size()];
+      int i = 0;
+      for (Object value : bindings.values()) {
+        bindingTypes[i++] = value == null ? null : value.getClass();
+      }
+      this.hashCode = 31 * Arrays.hashCode(branches) + Arrays.hashCode(bindingTypes);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof BranchKey)) {
+        return false;
+      }
+      BranchKey other = (BranchKey) o;
+      return hashCode == other.hashCode && Arrays.equals(branches, other.branches)
+          && Arrays.equals(bindingTypes, other.bindingTypes);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
   }
 
 }
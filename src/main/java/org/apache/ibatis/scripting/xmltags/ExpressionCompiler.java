@@ -0,0 +1,503 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.xmltags;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.ibatis.reflection.Reflector;
+import org.apache.ibatis.reflection.ReflectorFactory;
+
+/**
+ * Compiles the common subset of OGNL test expressions into trees of lambdas and caches them.
+ * <p>
+ * The subset is: property paths ({@code a.b.c}), {@code size()}, {@code length()} and {@code isEmpty()} calls,
+ * {@code null}/boolean/number/string literals, comparisons ({@code == != < <= > >=} and {@code eq neq lt lte gt gte}),
+ * {@code and}/{@code or}/{@code not} ({@code && || !}) and parentheses. The result is the same as OGNL's for these
+ * expressions. An expression that does not parse, or a value that the compiled tree does not handle exactly like OGNL
+ * (e.g. comparing a string with a number), is evaluated by {@link OgnlCache} instead.
+ *
+ * @see OgnlCache
+ */
+public final class ExpressionCompiler {
+
+  private static final Map<String, Expression> expressionCache = new ConcurrentHashMap<>();
+  private static final Expression NOT_COMPILABLE = (root, reflectorFactory) -> {
+    throw Fallback.INSTANCE;
+  };
+
+  private ExpressionCompiler() {
+    // Prevent Instantiation of Static Class
+  }
+
+  /**
+   * Evaluates the expression, compiling it on first use.
+   *
+   * @param expression
+   *          the test expression
+   * @param root
+   *          the bindings of the dynamic context
+   * @param reflectorFactory
+   *          the reflector factory of the configuration, used to read the properties of beans
+   * @return the value of the expression
+   */
+  public static Object getValue(String expression, Map<String, Object> root, ReflectorFactory reflectorFactory) {
+    Expression compiled = expressionCache.computeIfAbsent(expression, ExpressionCompiler::compile);
+    if (compiled != NOT_COMPILABLE) {
+      try {
+        return compiled.evaluate(root, reflectorFactory);
+      } catch (RuntimeException e) {
+        // not supported for these values or failed, let OGNL evaluate (and report) it
+      }
+    }
+    return OgnlCache.getValue(expression, root);
+  }
+
+  static boolean isCompilable(String expression) {
+    return compile(expression) != NOT_COMPILABLE;
+  }
+
+  private static Expression compile(String expression) {
+    try {
+      Parser parser = new Parser(tokenize(expression));
+      Expression compiled = parser.parseOr();
+      return parser.hasNext() ? NOT_COMPILABLE : compiled;
+    } catch (Fallback e) {
+      return NOT_COMPILABLE;
+    }
+  }
+
+  @FunctionalInterface
+  private interface Expression {
+    Object evaluate(Map<String, Object> root, ReflectorFactory reflectorFactory);
+  }
+
+  /**
+   * Thrown when an expression or a value is outside of the supported subset.
+   */
+  private static final class Fallback extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+    private static final Fallback INSTANCE = new Fallback();
+
+    private Fallback() {
+      super(null, null, false, false);
+    }
+  }
+
+  //
+  // TOKENIZER
+  //
+
+  private enum TokenType {
+    IDENTIFIER, STRING, NUMBER, SYMBOL
+  }
+
+  private static final class Token {
+    private final TokenType type;
+    private final String text;
+    private final Object value;
+
+    Token(TokenType type, String text, Object value) {
+      this.type = type;
+      this.text = text;
+      this.value = value;
+    }
+
+    boolean is(String symbolOrKeyword) {
+      return (type == TokenType.SYMBOL || type == TokenType.IDENTIFIER) && text.equals(symbolOrKeyword);
+    }
+  }
+
+  private static List<Token> tokenize(String expression) {
+    List<Token> tokens = new ArrayList<>();
+    int length = expression.length();
+    int i = 0;
+    while (i < length) {
+      char c = expression.charAt(i);
+      if (Character.isWhitespace(c)) {
+        i++;
+      } else if (Character.isJavaIdentifierStart(c)) {
+        int start = i;
+        while (i < length && Character.isJavaIdentifierPart(expression.charAt(i))) {
+          i++;
+        }
+        String text = expression.substring(start, i);
+        tokens.add(new Token(TokenType.IDENTIFIER, text, null));
+      } else if (Character.isDigit(c)) {
+        int start = i;
+        while (i < length && (Character.isDigit(expression.charAt(i)) || expression.charAt(i) == '.')) {
+          i++;
+        }
+        if (i < length && Character.isJavaIdentifierPart(expression.charAt(i))) {
+          // suffixes (L, f, d, B, H), hex and exponents
+          throw Fallback.INSTANCE;
+        }
+        String text = expression.substring(start, i);
+        tokens.add(new Token(TokenType.NUMBER, text, parseNumber(text)));
+      } else if (c == '\'' || c == '"') {
+        int end = expression.indexOf(c, i + 1);
+        if (end < 0) {
+          throw Fallback.INSTANCE;
+        }
+        String text = expression.substring(i + 1, end);
+        if (text.indexOf('\\') >= 0 || (c == '\'' && text.length() == 1)) {
+          // escapes and character literals
+          throw Fallback.INSTANCE;
+        }
+        tokens.add(new Token(TokenType.STRING, text, text));
+        i = end + 1;
+      } else {
+        String two = i + 1 < length ? expression.substring(i, i + 2) : null;
+        if ("==".equals(two) || "!=".equals(two) || "<=".equals(two) || ">=".equals(two) || "&&".equals(two)
+            || "||".equals(two)) {
+          tokens.add(new Token(TokenType.SYMBOL, two, null));
+          i += 2;
+        } else if ("()<>!.".indexOf(c) >= 0) {
+          tokens.add(new Token(TokenType.SYMBOL, String.valueOf(c), null));
+          i++;
+        } else {
+          throw Fallback.INSTANCE;
+        }
+      }
+    }
+    return tokens;
+  }
+
+  private static Object parseNumber(String text) {
+    try {
+      if (text.indexOf('.') >= 0) {
+        if (text.endsWith(".") || text.indexOf('.') != text.lastIndexOf('.')) {
+          throw Fallback.INSTANCE;
+        }
+        return Double.valueOf(text);
+      }
+      return Integer.valueOf(text);
+    } catch (NumberFormatException e) {
+      throw Fallback.INSTANCE;
+    }
+  }
+
+  //
+  // PARSER
+  //
+
+  private static final class Parser {
+    private final List<Token> tokens;
+    private int position;
+
+    Parser(List<Token> tokens) {
+      this.tokens = tokens;
+    }
+
+    boolean hasNext() {
+      return position < tokens.size();
+    }
+
+    private Token peek() {
+      return hasNext() ? tokens.get(position) : null;
+    }
+
+    private boolean accept(String... symbols) {
+      Token token = peek();
+      if (token != null) {
+        for (String symbol : symbols) {
+          if (token.is(symbol)) {
+            position++;
+            return true;
+          }
+        }
+      }
+      return false;
+    }
+
+    private void expect(String symbol) {
+      if (!accept(symbol)) {
+        throw Fallback.INSTANCE;
+      }
+    }
+
+    Expression parseOr() {
+      Expression left = parseAnd();
+      while (accept("||", "or")) {
+        Expression l = left;
+        Expression r = parseAnd();
+        left = (root, reflectorFactory) -> {
+          Object value = l.evaluate(root, reflectorFactory);
+          return booleanValue(value) ? value : r.evaluate(root, reflectorFactory);
+        };
+      }
+      return left;
+    }
+
+    private Expression parseAnd() {
+      Expression left = parseEquality();
+      while (accept("&&", "and")) {
+        Expression l = left;
+        Expression r = parseEquality();
+        left = (root, reflectorFactory) -> {
+          Object value = l.evaluate(root, reflectorFactory);
+          return booleanValue(value) ? r.evaluate(root, reflectorFactory) : value;
+        };
+      }
+      return left;
+    }
+
+    private Expression parseEquality() {
+      Expression left = parseRelational();
+      while (true) {
+        Expression l = left;
+        if (accept("==", "eq")) {
+          Expression r = parseRelational();
+          left = (root, reflectorFactory) -> isEqual(l.evaluate(root, reflectorFactory), r.evaluate(root, reflectorFactory));
+        } else if (accept("!=", "neq")) {
+          Expression r = parseRelational();
+          left = (root, reflectorFactory) -> !isEqual(l.evaluate(root, reflectorFactory), r.evaluate(root, reflectorFactory));
+        } else {
+          return left;
+        }
+      }
+    }
+
+    private Expression parseRelational() {
+      Expression left = parseUnary();
+      while (true) {
+        Expression l = left;
+        if (accept("<", "lt")) {
+          Expression r = parseUnary();
+          left = (root, reflectorFactory) -> compare(l.evaluate(root, reflectorFactory), r.evaluate(root, reflectorFactory)) < 0;
+        } else if (accept("<=", "lte")) {
+          Expression r = parseUnary();
+          left = (root, reflectorFactory) -> compare(l.evaluate(root, reflectorFactory), r.evaluate(root, reflectorFactory)) <= 0;
+        } else if (accept(">", "gt")) {
+          Expression r = parseUnary();
+          left = (root, reflectorFactory) -> compare(l.evaluate(root, reflectorFactory), r.evaluate(root, reflectorFactory)) > 0;
+        } else if (accept(">=", "gte")) {
+          Expression r = parseUnary();
+          left = (root, reflectorFactory) -> compare(l.evaluate(root, reflectorFactory), r.evaluate(root, reflectorFactory)) >= 0;
+        } else {
+          return left;
+        }
+      }
+    }
+
+    private Expression parseUnary() {
+      if (accept("!", "not")) {
+        Expression operand = parseUnary();
+        return (root, reflectorFactory) -> !booleanValue(operand.evaluate(root, reflectorFactory));
+      }
+      return parsePrimary();
+    }
+
+    private Expression parsePrimary() {
+      Token token = peek();
+      if (token == null) {
+        throw Fallback.INSTANCE;
+      }
+      position++;
+      if (token.type == TokenType.STRING || token.type == TokenType.NUMBER) {
+        Object value = token.value;
+        return (root, reflectorFactory) -> value;
+      }
+      if (token.is("(")) {
+        Expression inner = parseOr();
+        expect(")");
+        return inner;
+      }
+      if (token.type != TokenType.IDENTIFIER) {
+        throw Fallback.INSTANCE;
+      }
+      switch (token.text) {
+        case "null":
+          return (root, reflectorFactory) -> null;
+        case "true":
+          return (root, reflectorFactory) -> Boolean.TRUE;
+        case "false":
+          return (root, reflectorFactory) -> Boolean.FALSE;
+        case "and": case "or": case "not": case "eq": case "neq": case "lt": case "lte": case "gt": case "gte":
+        case "in": case "instanceof": case "new": case "shl": case "shr": case "ushr": case "band": case "bor":
+        case "xor":
+          throw Fallback.INSTANCE;
+        default:
+          return parsePath(token.text);
+      }
+    }
+
+    private Expression parsePath(String name) {
+      Expression path = (root, reflectorFactory) -> rootProperty(root, name);
+      while (accept(".")) {
+        Token token = peek();
+        if (token == null || token.type != TokenType.IDENTIFIER) {
+          throw Fallback.INSTANCE;
+        }
+        position++;
+        Expression target = path;
+        String member = token.text;
+        if (accept("(")) {
+          expect(")");
+          path = (root, reflectorFactory) -> invoke(target.evaluate(root, reflectorFactory), member);
+        } else {
+          path = (root, reflectorFactory) -> property(target.evaluate(root, reflectorFactory), member, reflectorFactory);
+        }
+      }
+      return path;
+    }
+  }
+
+  //
+  // EVALUATION (mirrors DynamicContext.ContextAccessor and ognl.OgnlOps)
+  //
+
+  private static Object rootProperty(Map<String, Object> root, String name) {
+    Object result = root.get(name);
+    if (root.containsKey(name) || result != null) {
+      return result;
+    }
+    Object parameterObject = root.get(DynamicContext.PARAMETER_OBJECT_KEY);
+    if (parameterObject instanceof Map) {
+      return ((Map<?, ?>) parameterObject).get(name);
+    }
+    return null;
+  }
+
+  private static Object property(Object target, String name, ReflectorFactory reflectorFactory) {
+    if (target == null || target instanceof Collection || target.getClass().isArray() || target instanceof Class) {
+      throw Fallback.INSTANCE;
+    }
+    if (target instanceof Map) {
+      switch (name) {
+        case "size": case "isEmpty": case "keys": case "keySet": case "values":
+          throw Fallback.INSTANCE;
+        default:
+          return ((Map<?, ?>) target).get(name);
+      }
+    }
+    Reflector reflector = reflectorFactory.findForClass(target.getClass());
+    if (!reflector.hasGetter(name)) {
+      throw Fallback.INSTANCE;
+    }
+    try {
+      return reflector.getGetInvoker(name).invoke(target, null);
+    } catch (ReflectiveOperationException e) {
+      throw Fallback.INSTANCE;
+    }
+  }
+
+  private static Object invoke(Object target, String method) {
+    switch (method) {
+      case "size":
+        if (target instanceof Collection) {
+          return ((Collection<?>) target).size();
+        } else if (target instanceof Map) {
+          return ((Map<?, ?>) target).size();
+        }
+        break;
+      case "isEmpty":
+        if (target instanceof Collection) {
+          return ((Collection<?>) target).isEmpty();
+        } else if (target instanceof Map) {
+          return ((Map<?, ?>) target).isEmpty();
+        } else if (target instanceof String) {
+          return ((String) target).isEmpty();
+        }
+        break;
+      case "length":
+        if (target instanceof String) {
+          return ((String) target).length();
+        }
+        break;
+      default:
+        break;
+    }
+    throw Fallback.INSTANCE;
+  }
+
+  private static boolean booleanValue(Object value) {
+    if (value == null) {
+      return false;
+    }
+    Class<?> c = value.getClass();
+    if (c == Boolean.class) {
+      return (Boolean) value;
+    }
+    if (c == String.class) {
+      return Boolean.parseBoolean((String) value);
+    }
+    if (c == Character.class) {
+      return (Character) value != 0;
+    }
+    if (value instanceof Number) {
+      return ((Number) value).doubleValue() != 0;
+    }
+    return true;
+  }
+
+  private static boolean isEqual(Object v1, Object v2) {
+    if (v1 == v2) {
+      return true;
+    }
+    if (v1 == null || v2 == null) {
+      return false;
+    }
+    if (v1 instanceof String && v2 instanceof String || v1 instanceof Boolean && v2 instanceof Boolean) {
+      return v1.equals(v2);
+    }
+    if (v1 instanceof Enum && v2 instanceof Enum
+        && ((Enum<?>) v1).getDeclaringClass() == ((Enum<?>) v2).getDeclaringClass()) {
+      return false;
+    }
+    if (isPlainNumber(v1) && isPlainNumber(v2)) {
+      return compareNumbers((Number) v1, (Number) v2) == 0
+          || ((Number) v1).doubleValue() == ((Number) v2).doubleValue();
+    }
+    throw Fallback.INSTANCE;
+  }
+
+  private static int compare(Object v1, Object v2) {
+    if (v1 instanceof String && v2 instanceof String) {
+      return ((String) v1).compareTo((String) v2);
+    }
+    if (isPlainNumber(v1) && isPlainNumber(v2)) {
+      return compareNumbers((Number) v1, (Number) v2);
+    }
+    throw Fallback.INSTANCE;
+  }
+
+  private static int compareNumbers(Number v1, Number v2) {
+    if (isIntegral(v1) && isIntegral(v2)) {
+      return Long.compare(v1.longValue(), v2.longValue());
+    }
+    double d1 = v1.doubleValue();
+    double d2 = v2.doubleValue();
+    return d1 == d2 ? 0 : (d1 < d2 ? -1 : 1);
+  }
+
+  /**
+   * Numbers that OGNL compares as long or double values. {@link BigDecimal} and {@link BigInteger} are left to OGNL.
+   */
+  private static boolean isPlainNumber(Object value) {
+    return isIntegral(value) || value instanceof Double || value instanceof Float;
+  }
+
+  private static boolean isIntegral(Object value) {
+    return value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte;
+  }
+
+}
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -22,6 +22,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.reflection.ReflectorFactory;
 
 /**
  * @author Clinton Begin
@@ -29,7 +30,7 @@ import org.apache.ibatis.builder.BuilderException;
 public class ExpressionEvaluator {
 
   public boolean evaluateBoolean(String expression, Object parameterObject) {
-    Object value = OgnlCache.getValue(expression, parameterObject);
+    Object value = getValue(expression, parameterObject);
     if (value instanceof Boolean) {
       return (Boolean) value;
     }
@@ -40,7 +41,7 @@ public class ExpressionEvaluator {
   }
 
   public Iterable<?> evaluateIterable(String expression, Object parameterObject) {
-    Object value = OgnlCache.getValue(expression, parameterObject);
+    Object value = getValue(expression, parameterObject);
     if (value == null) {
       throw new BuilderException("The expression '" + expression + "' evaluated to a null value.");
     }
@@ -65,4 +66,15 @@ public class ExpressionEvaluator {
     throw new BuilderException("Error evaluating expression '" + expression + "'.  Return value (" + value + ") was not iterable.");
   }
 
+  @SuppressWarnings("unchecked")
+  private Object getValue(String expression, Object parameterObject) {
+    if (parameterObject instanceof DynamicContext.ContextMap) {
+      ReflectorFactory reflectorFactory = ((DynamicContext.ContextMap) parameterObject).getExpressionReflectorFactory();
+      if (reflectorFactory != null) {
+        return ExpressionCompiler.getValue(expression, (Map<String, Object>) parameterObject, reflectorFactory);
+      }
+    }
+    return OgnlCache.getValue(expression, parameterObject);
+  }
+
 }
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -53,12 +53,14 @@ public class ForEachSqlNode implements SqlNode {
     Map<String, Object> bindings = context.getBindings();
     final Iterable<?> iterable = evaluator.evaluateIterable(collectionExpression, bindings);
     if (!iterable.iterator().hasNext()) {
+      context.recordBranch(0);
       return true;
     }
     boolean first = true;
     applyOpen(context);
     int i = 0;
     for (Object o : iterable) {
+      context.recordBranch(1);
       DynamicContext oldContext = context;
       if (first || separator == null) {
         context = new PrefixedContext(context, "");
@@ -83,12 +85,41 @@ public class ForEachSqlNode implements SqlNode {
       context = oldContext;
       i++;
     }
+    context.recordBranch(0);
     applyClose(context);
     context.getBindings().remove(item);
     context.getBindings().remove(index);
     return true;
   }
 
+  SqlNode getContents() {
+    return contents;
+  }
+
+  String getCollectionExpression() {
+    return collectionExpression;
+  }
+
+  String getIndex() {
+    return index;
+  }
+
+  String getItem() {
+    return item;
+  }
+
+  String getOpen() {
+    return open;
+  }
+
+  String getClose() {
+    return close;
+  }
+
+  String getSeparator() {
+    return separator;
+  }
+
   private void applyIndex(DynamicContext context, Object o, int i) {
     if (index != null) {
       context.bind(index, o);
@@ -150,6 +181,9 @@ public class ForEachSqlNode implements SqlNode {
 
     @Override
     public void appendSql(String sql) {
+      if (!delegate.isBuildingSql()) {
+        return;
+      }
       GenericTokenParser parser = new GenericTokenParser("#{", "}", content -> {
         String newContent = content.replaceFirst("^\\s*" + item + "(?![^.,:\\s])", itemizeItem(item, index));
         if (itemIndex != null && newContent.equals(content)) {
@@ -166,6 +200,16 @@ public class ForEachSqlNode implements SqlNode {
       return delegate.getUniqueNumber();
     }
 
+    @Override
+    boolean isBuildingSql() {
+      return delegate.isBuildingSql();
+    }
+
+    @Override
+    void recordBranch(int branch) {
+      delegate.recordBranch(branch);
+    }
+
   }
 
 
@@ -213,6 +257,16 @@ public class ForEachSqlNode implements SqlNode {
     public int getUniqueNumber() {
       return delegate.getUniqueNumber();
     }
+
+    @Override
+    boolean isBuildingSql() {
+      return delegate.isBuildingSql();
+    }
+
+    @Override
+    void recordBranch(int branch) {
+      delegate.recordBranch(branch);
+    }
   }
 
 }
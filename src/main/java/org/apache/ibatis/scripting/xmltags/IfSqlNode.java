@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2017 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -32,10 +32,20 @@ public class IfSqlNode implements SqlNode {
   @Override
   public boolean apply(DynamicContext context) {
     if (evaluator.evaluateBoolean(test, context.getBindings())) {
+      context.recordBranch(1);
       contents.apply(context);
       return true;
     }
+    context.recordBranch(0);
     return false;
   }
 
+  SqlNode getContents() {
+    return contents;
+  }
+
+  String getTest() {
+    return test;
+  }
+
 }
@@ -0,0 +1,192 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.xmltags;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.builder.snapshot.SnapshotInput;
+import org.apache.ibatis.builder.snapshot.SnapshotOutput;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * Writes the {@link SqlNode} tree of a {@link DynamicSqlSource} to a mapper snapshot and reads it back.
+ * <p>
+ * Only the nodes created by {@link XMLScriptBuilder} are supported.
+ *
+ * @since 3.5.7
+ */
+public final class SqlNodeSnapshot {
+
+  private static final int NULL = 0;
+  private static final int STATIC_TEXT = 1;
+  private static final int TEXT = 2;
+  private static final int MIXED = 3;
+  private static final int IF = 4;
+  private static final int CHOOSE = 5;
+  private static final int FOREACH = 6;
+  private static final int TRIM = 7;
+  private static final int WHERE = 8;
+  private static final int SET = 9;
+  private static final int BIND = 10;
+
+  private SqlNodeSnapshot() {
+    // Prevent Instantiation of Static Class
+  }
+
+  public static void write(DynamicSqlSource sqlSource, SnapshotOutput output) throws IOException {
+    writeNode(sqlSource.getRootSqlNode(), output);
+  }
+
+  public static DynamicSqlSource read(Configuration configuration, SnapshotInput input) throws IOException {
+    return new DynamicSqlSource(configuration, readNode(configuration, input));
+  }
+
+  private static void writeNode(SqlNode node, SnapshotOutput output) throws IOException {
+    Class<?> type = node == null ? null : node.getClass();
+    if (type == null) {
+      output.writeInt(NULL);
+    } else if (type == StaticTextSqlNode.class) {
+      output.writeInt(STATIC_TEXT);
+      output.writeString(((StaticTextSqlNode) node).getText());
+    } else if (type == TextSqlNode.class) {
+      TextSqlNode textSqlNode = (TextSqlNode) node;
+      Pattern injectionFilter = textSqlNode.getInjectionFilter();
+      output.writeInt(TEXT);
+      output.writeString(textSqlNode.getText());
+      output.writeString(injectionFilter == null ? null : injectionFilter.pattern());
+      output.writeInt(injectionFilter == null ? 0 : injectionFilter.flags());
+    } else if (type == MixedSqlNode.class) {
+      output.writeInt(MIXED);
+      writeNodes(((MixedSqlNode) node).getContents(), output);
+    } else if (type == IfSqlNode.class) {
+      IfSqlNode ifSqlNode = (IfSqlNode) node;
+      output.writeInt(IF);
+      output.writeString(ifSqlNode.getTest());
+      writeNode(ifSqlNode.getContents(), output);
+    } else if (type == ChooseSqlNode.class) {
+      ChooseSqlNode chooseSqlNode = (ChooseSqlNode) node;
+      output.writeInt(CHOOSE);
+      writeNodes(chooseSqlNode.getIfSqlNodes(), output);
+      writeNode(chooseSqlNode.getDefaultSqlNode(), output);
+    } else if (type == ForEachSqlNode.class) {
+      ForEachSqlNode forEachSqlNode = (ForEachSqlNode) node;
+      output.writeInt(FOREACH);
+      output.writeString(forEachSqlNode.getCollectionExpression());
+      output.writeString(forEachSqlNode.getIndex());
+      output.writeString(forEachSqlNode.getItem());
+      output.writeString(forEachSqlNode.getOpen());
+      output.writeString(forEachSqlNode.getClose());
+      output.writeString(forEachSqlNode.getSeparator());
+      writeNode(forEachSqlNode.getContents(), output);
+    } else if (type == TrimSqlNode.class) {
+      TrimSqlNode trimSqlNode = (TrimSqlNode) node;
+      output.writeInt(TRIM);
+      output.writeString(trimSqlNode.getPrefix());
+      output.writeStrings(trimSqlNode.getPrefixesToOverride());
+      output.writeString(trimSqlNode.getSuffix());
+      output.writeStrings(trimSqlNode.getSuffixesToOverride());
+      writeNode(trimSqlNode.getContents(), output);
+    } else if (type == WhereSqlNode.class) {
+      output.writeInt(WHERE);
+      writeNode(((WhereSqlNode) node).getContents(), output);
+    } else if (type == SetSqlNode.class) {
+      output.writeInt(SET);
+      writeNode(((SetSqlNode) node).getContents(), output);
+    } else if (type == VarDeclSqlNode.class) {
+      VarDeclSqlNode varDeclSqlNode = (VarDeclSqlNode) node;
+      output.writeInt(BIND);
+      output.writeString(varDeclSqlNode.getName());
+      output.writeString(varDeclSqlNode.getExpression());
+    } else {
+      throw new BuilderException("The SqlNode " + type.getName() + " cannot be stored in a mapper snapshot.");
+    }
+  }
+
+  private static void writeNodes(List<SqlNode> nodes, SnapshotOutput output) throws IOException {
+    output.writeInt(nodes.size());
+    for (SqlNode node : nodes) {
+      writeNode(node, output);
+    }
+  }
+
+  private static SqlNode readNode(Configuration configuration, SnapshotInput input) throws IOException {
+    int type = input.readInt();
+    switch (type) {
+      case NULL:
+        return null;
+      case STATIC_TEXT:
+        return new StaticTextSqlNode(input.readString());
+      case TEXT: {
+        String text = input.readString();
+        String injectionFilter = input.readString();
+        int flags = input.readInt();
+        return new TextSqlNode(text, injectionFilter == null ? null : Pattern.compile(injectionFilter, flags));
+      }
+      case MIXED:
+        return new MixedSqlNode(readNodes(configuration, input));
+      case IF: {
+        String test = input.readString();
+        return new IfSqlNode(readNode(configuration, input), test);
+      }
+      case CHOOSE: {
+        List<SqlNode> ifSqlNodes = readNodes(configuration, input);
+        return new ChooseSqlNode(ifSqlNodes, readNode(configuration, input));
+      }
+      case FOREACH: {
+        String collectionExpression = input.readString();
+        String index = input.readString();
+        String item = input.readString();
+        String open = input.readString();
+        String close = input.readString();
+        String separator = input.readString();
+        return new ForEachSqlNode(configuration, readNode(configuration, input), collectionExpression, index, item,
+            open, close, separator);
+      }
+      case TRIM: {
+        String prefix = input.readString();
+        List<String> prefixesToOverride = input.readStrings();
+        String suffix = input.readString();
+        List<String> suffixesToOverride = input.readStrings();
+        return new TrimSqlNode(configuration, readNode(configuration, input), prefix, prefixesToOverride, suffix,
+            suffixesToOverride);
+      }
+      case WHERE:
+        return new WhereSqlNode(configuration, readNode(configuration, input));
+      case SET:
+        return new SetSqlNode(configuration, readNode(configuration, input));
+      case BIND: {
+        String name = input.readString();
+        return new VarDeclSqlNode(name, input.readString());
+      }
+      default:
+        throw new BuilderException("Unknown SqlNode type " + type + " in mapper snapshot.");
+    }
+  }
+
+  private static List<SqlNode> readNodes(Configuration configuration, SnapshotInput input) throws IOException {
+    int size = input.readInt();
+    List<SqlNode> nodes = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      nodes.add(readNode(configuration, input));
+    }
+    return nodes;
+  }
+
+}
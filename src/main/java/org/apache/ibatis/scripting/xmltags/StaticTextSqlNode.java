@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2017 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -31,4 +31,8 @@ public class StaticTextSqlNode implements SqlNode {
     return true;
   }
 
+  String getText() {
+    return text;
+  }
+
 }
\ No newline at end of file
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -45,6 +45,14 @@ public class TextSqlNode implements SqlNode {
     return checker.isDynamic();
   }
 
+  String getText() {
+    return text;
+  }
+
+  Pattern getInjectionFilter() {
+    return injectionFilter;
+  }
+
   @Override
   public boolean apply(DynamicContext context) {
     GenericTokenParser parser = createParser(new BindingTokenParser(context, injectionFilter));
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2018 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -57,6 +57,26 @@ public class TrimSqlNode implements SqlNode {
     return result;
   }
 
+  SqlNode getContents() {
+    return contents;
+  }
+
+  String getPrefix() {
+    return prefix;
+  }
+
+  String getSuffix() {
+    return suffix;
+  }
+
+  List<String> getPrefixesToOverride() {
+    return prefixesToOverride;
+  }
+
+  List<String> getSuffixesToOverride() {
+    return suffixesToOverride;
+  }
+
   private static List<String> parseOverrides(String overrides) {
     if (overrides != null) {
       final StringTokenizer parser = new StringTokenizer(overrides, "|", false);
@@ -84,6 +104,9 @@ public class TrimSqlNode implements SqlNode {
     }
 
     public void applyAll() {
+      if (!delegate.isBuildingSql()) {
+        return;
+      }
       sqlBuffer = new StringBuilder(sqlBuffer.toString().trim());
       String trimmedUppercaseSql = sqlBuffer.toString().toUpperCase(Locale.ENGLISH);
       if (trimmedUppercaseSql.length() > 0) {
@@ -110,7 +133,19 @@ public class TrimSqlNode implements SqlNode {
 
     @Override
     public void appendSql(String sql) {
-      sqlBuffer.append(sql);
+      if (delegate.isBuildingSql()) {
+        sqlBuffer.append(sql);
+      }
+    }
+
+    @Override
+    boolean isBuildingSql() {
+      return delegate.isBuildingSql();
+    }
+
+    @Override
+    void recordBranch(int branch) {
+      delegate.recordBranch(branch);
     }
 
     @Override
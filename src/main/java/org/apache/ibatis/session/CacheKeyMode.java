@@ -0,0 +1,41 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+/**
+ * Specifies how the keys of the local and second level caches are built.
+ *
+ * @since 3.5.7
+ */
+public enum CacheKeyMode {
+
+  /**
+   * Keeps every component of the key (statement id, row bounds, SQL, parameter values) and compares them one by one.
+   */
+  FULL,
+
+  /**
+   * Keeps a 128-bit fingerprint of the components and the statement id only, plus the components that cannot be
+   * hashed by content.
+   */
+  FINGERPRINT,
+
+  /**
+   * Like {@link #FINGERPRINT}, but also keeps the components to compare them when the fingerprints match. The key
+   * then retains as much as with {@link #FULL}, so it saves no memory; only unequal keys are compared faster.
+   */
+  VERIFIED_FINGERPRINT
+}
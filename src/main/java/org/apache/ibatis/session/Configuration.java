@@ -1,17 +1,17 @@
 /**
- * Copyright 2009-2020 the original author or authors.
- * <p>
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- * <p>
- * http://www.apache.org/licenses/LICENSE-2.0
- * <p>
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
  */
 package org.apache.ibatis.session;
 
@@ -20,24 +20,37 @@ import org.apache.ibatis.builder.CacheRefResolver;
 import org.apache.ibatis.builder.IncompleteElementException;
 import org.apache.ibatis.builder.ResultMapResolver;
 import org.apache.ibatis.builder.annotation.MethodResolver;
+import org.apache.ibatis.builder.xml.LazyStatement;
 import org.apache.ibatis.builder.xml.XMLStatementBuilder;
 import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.cache.FingerprintCacheKey;
 import org.apache.ibatis.cache.decorators.FifoCache;
 import org.apache.ibatis.cache.decorators.LruCache;
 import org.apache.ibatis.cache.decorators.SoftCache;
 import org.apache.ibatis.cache.decorators.WeakCache;
 import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.apache.ibatis.cache.impl.TinyLfuCache;
+import org.apache.ibatis.columnar.ColumnarResult;
 import org.apache.ibatis.datasource.jndi.JndiDataSourceFactory;
+import org.apache.ibatis.datasource.pooled.ConcurrentPooledDataSourceFactory;
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
 import org.apache.ibatis.datasource.pooled.PooledDataSourceFactory;
 import org.apache.ibatis.datasource.unpooled.UnpooledDataSourceFactory;
 import org.apache.ibatis.executor.*;
 import org.apache.ibatis.executor.keygen.KeyGenerator;
 import org.apache.ibatis.executor.loader.ProxyFactory;
+import org.apache.ibatis.executor.pagination.LimitOffsetDialect;
+import org.apache.ibatis.executor.pagination.OffsetFetchDialect;
+import org.apache.ibatis.executor.pagination.PaginationDialect;
+import org.apache.ibatis.executor.pagination.RownumDialect;
+import org.apache.ibatis.executor.pagination.VendorPaginationDialect;
 import org.apache.ibatis.executor.loader.cglib.CglibProxyFactory;
 import org.apache.ibatis.executor.loader.javassist.JavassistProxyFactory;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
 import org.apache.ibatis.executor.resultset.DefaultResultSetHandler;
 import org.apache.ibatis.executor.resultset.ResultSetHandler;
+import org.apache.ibatis.executor.resultset.RowMapperCompiler;
 import org.apache.ibatis.executor.statement.RoutingStatementHandler;
 import org.apache.ibatis.executor.statement.StatementHandler;
 import org.apache.ibatis.io.VFS;
@@ -51,6 +64,8 @@ import org.apache.ibatis.logging.nologging.NoLoggingImpl;
 import org.apache.ibatis.logging.slf4j.Slf4jImpl;
 import org.apache.ibatis.logging.stdout.StdOutImpl;
 import org.apache.ibatis.mapping.*;
+import org.apache.ibatis.metrics.HistogramMetricsCollector;
+import org.apache.ibatis.metrics.MetricsCollector;
 import org.apache.ibatis.parsing.XNode;
 import org.apache.ibatis.plugin.Interceptor;
 import org.apache.ibatis.plugin.InterceptorChain;
@@ -63,6 +78,7 @@ import org.apache.ibatis.reflection.wrapper.DefaultObjectWrapperFactory;
 import org.apache.ibatis.reflection.wrapper.ObjectWrapperFactory;
 import org.apache.ibatis.scripting.LanguageDriver;
 import org.apache.ibatis.scripting.LanguageDriverRegistry;
+import org.apache.ibatis.scripting.defaults.ParameterBinderCache;
 import org.apache.ibatis.scripting.defaults.RawLanguageDriver;
 import org.apache.ibatis.scripting.xmltags.XMLLanguageDriver;
 import org.apache.ibatis.transaction.Transaction;
@@ -74,6 +90,8 @@ import org.apache.ibatis.type.TypeHandler;
 import org.apache.ibatis.type.TypeHandlerRegistry;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BiFunction;
 
 /**
@@ -81,6 +99,8 @@ import java.util.function.BiFunction;
  */
 public class Configuration {
 
+  private static final int MAX_PARAMETER_BINDER_CACHES = 1024;
+
   protected Environment environment;
 
   protected boolean safeRowBoundsEnabled;
@@ -95,12 +115,27 @@ public class Configuration {
   protected boolean useActualParamName = true;
   protected boolean returnInstanceForEmptyRow;
   protected boolean shrinkWhitespacesInSql;
+  protected boolean compiledRowMappersEnabled;
+  protected int dynamicSqlCacheSize;
+  protected boolean compiledExpressionsEnabled;
+  protected boolean compiledParameterBindersEnabled;
+  protected boolean parallelMapperParsingEnabled;
+  protected String mapperSnapshot;
+  protected boolean lazyStatementCompilationEnabled;
+  protected boolean lazyStatementWarmUpEnabled;
+  protected boolean resultSetLayoutCacheEnabled;
+  protected int batchInsertMaxRows;
+  protected int batchInsertMaxParameters = 2000;
 
   protected String logPrefix;
   protected Class<? extends Log> logImpl;
   protected Class<? extends VFS> vfsImpl;
   protected Class<?> defaultSqlProviderType;
   protected LocalCacheScope localCacheScope = LocalCacheScope.SESSION;
+  protected CacheKeyMode cacheKeyMode = CacheKeyMode.FULL;
+  protected MapResultMode mapResultMode = MapResultMode.HASH_MAP;
+  protected MetricsCollector metricsCollector;
+  protected PaginationDialect paginationDialect;
   protected JdbcType jdbcTypeForNull = JdbcType.OTHER;
   protected Set<String> lazyLoadTriggerMethods = new HashSet<>(Arrays.asList("equals", "clone", "hashCode", "toString"));
   protected Integer defaultStatementTimeout;
@@ -128,6 +163,7 @@ public class Configuration {
   protected Class<?> configurationFactory;
 
   protected final MapperRegistry mapperRegistry = new MapperRegistry(this);
+  protected final RowMapperCompiler rowMapperCompiler = new RowMapperCompiler();
   protected final InterceptorChain interceptorChain = new InterceptorChain();
   protected final TypeHandlerRegistry typeHandlerRegistry = new TypeHandlerRegistry(this);
   protected final TypeAliasRegistry typeAliasRegistry = new TypeAliasRegistry();
@@ -136,10 +172,15 @@ public class Configuration {
   protected final Map<String, MappedStatement> mappedStatements = new StrictMap<MappedStatement>("Mapped Statements collection")
     .conflictMessageProducer((savedValue, targetValue) ->
       ". please check " + savedValue.getResource() + " and " + targetValue.getResource());
+  protected final Map<String, LazyStatement> lazyStatements = new StrictMap<>("Mapped Statements collection");
+  protected final ReentrantLock lazyStatementLock = new ReentrantLock();
   protected final Map<String, Cache> caches = new StrictMap<>("Caches collection");
+  protected final Map<String, CacheBuilder> cacheBuilders = new HashMap<>();
   protected final Map<String, ResultMap> resultMaps = new StrictMap<>("Result Maps collection");
   protected final Map<String, ParameterMap> parameterMaps = new StrictMap<>("Parameter Maps collection");
-  protected final Map<String, KeyGenerator> keyGenerators = new StrictMap<>("Key Generators collection");
+  // also written at runtime when lazily compiled statements register their selectKey generators
+  protected final Map<String, KeyGenerator> keyGenerators = Collections.synchronizedMap(new StrictMap<>("Key Generators collection"));
+  protected final Map<ParameterBinderCache.Shape, ParameterBinderCache> parameterBinderCaches = new ConcurrentHashMap<>();
 
   protected final Set<String> loadedResources = new HashSet<>();
   protected final Map<String, XNode> sqlFragments = new StrictMap<>("XML fragments parsed from previous mappers");
@@ -167,11 +208,13 @@ public class Configuration {
 
     typeAliasRegistry.registerAlias("JNDI", JndiDataSourceFactory.class);
     typeAliasRegistry.registerAlias("POOLED", PooledDataSourceFactory.class);
+    typeAliasRegistry.registerAlias("POOLED_CONCURRENT", ConcurrentPooledDataSourceFactory.class);
     typeAliasRegistry.registerAlias("UNPOOLED", UnpooledDataSourceFactory.class);
 
     typeAliasRegistry.registerAlias("PERPETUAL", PerpetualCache.class);
     typeAliasRegistry.registerAlias("FIFO", FifoCache.class);
     typeAliasRegistry.registerAlias("LRU", LruCache.class);
+    typeAliasRegistry.registerAlias("TINYLFU", TinyLfuCache.class);
     typeAliasRegistry.registerAlias("SOFT", SoftCache.class);
     typeAliasRegistry.registerAlias("WEAK", WeakCache.class);
 
@@ -191,6 +234,15 @@ public class Configuration {
     typeAliasRegistry.registerAlias("CGLIB", CglibProxyFactory.class);
     typeAliasRegistry.registerAlias("JAVASSIST", JavassistProxyFactory.class);
 
+    typeAliasRegistry.registerAlias("HISTOGRAM", HistogramMetricsCollector.class);
+
+    typeAliasRegistry.registerAlias("COLUMNAR", ColumnarResult.class);
+
+    typeAliasRegistry.registerAlias("LIMIT_OFFSET", LimitOffsetDialect.class);
+    typeAliasRegistry.registerAlias("OFFSET_FETCH", OffsetFetchDialect.class);
+    typeAliasRegistry.registerAlias("ROWNUM", RownumDialect.class);
+    typeAliasRegistry.registerAlias("DB_VENDOR_PAGINATION", VendorPaginationDialect.class);
+
     languageRegistry.setDefaultDriverClass(XMLLanguageDriver.class);
     languageRegistry.register(RawLanguageDriver.class);
   }
@@ -277,6 +329,337 @@ public class Configuration {
     this.shrinkWhitespacesInSql = shrinkWhitespacesInSql;
   }
 
+  /**
+   * Gets whether simple result maps are mapped by generated row mappers instead of {@code MetaObject}.
+   *
+   * @return true if compiled row mappers are enabled
+   * @since 3.5.7
+   */
+  public boolean isCompiledRowMappersEnabled() {
+    return compiledRowMappersEnabled;
+  }
+
+  /**
+   * Sets whether simple result maps are mapped by generated row mappers instead of {@code MetaObject}.
+   * <p>
+   * When enabled, a row mapper class is generated with Javassist on first use for each result map and result set column
+   * layout. It reads columns by index and calls setters directly. Result maps with nested queries, nested property
+   * paths or map/collection result types keep using the reflective mapping.
+   *
+   * @param compiledRowMappersEnabled
+   *          true to enable compiled row mappers
+   * @since 3.5.7
+   */
+  public void setCompiledRowMappersEnabled(boolean compiledRowMappersEnabled) {
+    this.compiledRowMappersEnabled = compiledRowMappersEnabled;
+  }
+
+  /**
+   * Gets the maximum number of parsed SQL variants cached per dynamic SQL source.
+   *
+   * @return the maximum number of cached variants, 0 when the cache is disabled
+   * @since 3.5.7
+   */
+  public int getDynamicSqlCacheSize() {
+    return dynamicSqlCacheSize;
+  }
+
+  /**
+   * Sets the maximum number of parsed SQL variants cached per dynamic SQL source.
+   * <p>
+   * A variant is identified by the outcome of every {@code <if>}/{@code <when>} test, the iteration counts of every
+   * {@code <foreach>} and the types of the bound values. On a hit the SQL text is not built again and the parameter
+   * mappings parsed for that variant are reused. Sources containing <code>${}</code> substitutions are never cached.
+   *
+   * @param dynamicSqlCacheSize
+   *          the maximum number of cached variants, 0 to disable the cache
+   * @since 3.5.7
+   */
+  public void setDynamicSqlCacheSize(int dynamicSqlCacheSize) {
+    this.dynamicSqlCacheSize = dynamicSqlCacheSize;
+  }
+
+  /**
+   * Gets whether the test expressions of dynamic SQL are compiled instead of being evaluated by OGNL.
+   *
+   * @return true if compiled expressions are enabled
+   * @since 3.5.7
+   */
+  public boolean isCompiledExpressionsEnabled() {
+    return compiledExpressionsEnabled;
+  }
+
+  /**
+   * Sets whether the {@code test} and {@code collection} expressions of dynamic SQL are compiled.
+   * <p>
+   * Property paths, comparisons, logical operators and the {@code size()}, {@code length()} and {@code isEmpty()} calls
+   * are compiled; any other expression is still evaluated by OGNL.
+   *
+   * @param compiledExpressionsEnabled
+   *          true to compile expressions
+   * @since 3.5.7
+   */
+  public void setCompiledExpressionsEnabled(boolean compiledExpressionsEnabled) {
+    this.compiledExpressionsEnabled = compiledExpressionsEnabled;
+  }
+
+  /**
+   * Gets whether statement parameters are set by binders prepared once per SQL and parameter type.
+   *
+   * @return true if compiled parameter binders are enabled
+   * @since 3.5.7
+   */
+  public boolean isCompiledParameterBindersEnabled() {
+    return compiledParameterBindersEnabled;
+  }
+
+  /**
+   * Sets whether statement parameters are set by binders prepared once per SQL and parameter type.
+   * <p>
+   * A binder splits the property paths of the parameter mappings once and caches the getters it resolves, instead of
+   * creating a {@code MetaObject} for each parameter. It is shared by all the SQL with the same parameter mappings, see
+   * {@link #getParameterBinderCache(List)}. Parameters with an index in their path are still read through a
+   * {@code MetaObject}. Set it before the mappers are loaded, static SQL sources get their binders when they are
+   * built.
+   *
+   * @param compiledParameterBindersEnabled
+   *          true to enable compiled parameter binders
+   * @since 3.5.7
+   */
+  public void setCompiledParameterBindersEnabled(boolean compiledParameterBindersEnabled) {
+    this.compiledParameterBindersEnabled = compiledParameterBindersEnabled;
+  }
+
+  /**
+   * Gets whether the mappers declared in the configuration XML are loaded in parallel.
+   *
+   * @return true if parallel mapper parsing is enabled
+   * @since 3.5.7
+   */
+  public boolean isParallelMapperParsingEnabled() {
+    return parallelMapperParsingEnabled;
+  }
+
+  /**
+   * Sets whether the mappers declared in the configuration XML are loaded in parallel.
+   * <p>
+   * When enabled, the mapper XML documents are read and the mapper interfaces are loaded by a pool of threads, and the
+   * results are then registered one by one in the order the mappers are declared. The registration itself, including
+   * the resolution of incomplete elements and the detection of duplicated ids, is the same as in a sequential build.
+   * This setting has no effect on mappers added through {@link #addMapper(Class)} or {@link #addMappers(String)}.
+   *
+   * @param parallelMapperParsingEnabled
+   *          true to enable parallel mapper parsing
+   * @since 3.5.7
+   */
+  public void setParallelMapperParsingEnabled(boolean parallelMapperParsingEnabled) {
+    this.parallelMapperParsingEnabled = parallelMapperParsingEnabled;
+  }
+
+  /**
+   * Gets the mapper snapshot the mappers are loaded from.
+   *
+   * @return the classpath resource or URL of the snapshot
+   * @since 3.5.7
+   */
+  public String getMapperSnapshot() {
+    return mapperSnapshot;
+  }
+
+  /**
+   * Sets the mapper snapshot the mappers are loaded from.
+   * <p>
+   * A snapshot is written at build time by {@link org.apache.ibatis.builder.snapshot.MapperSnapshotTool}. When it is
+   * found and still matches the configuration and the mapper sources it was written from, the statements, result maps,
+   * parameter maps and caches are read from it instead of parsing the {@code mappers} element. Otherwise the mappers
+   * are parsed as usual.
+   *
+   * @param mapperSnapshot
+   *          a classpath resource, or a URL when the value contains a colon
+   * @since 3.5.7
+   */
+  public void setMapperSnapshot(String mapperSnapshot) {
+    this.mapperSnapshot = mapperSnapshot;
+  }
+
+  /**
+   * Gets whether the mapped statements of mapper XML files are built on first use.
+   *
+   * @return true if lazy statement compilation is enabled
+   * @since 3.5.7
+   */
+  public boolean isLazyStatementCompilationEnabled() {
+    return lazyStatementCompilationEnabled;
+  }
+
+  /**
+   * Sets whether the mapped statements of mapper XML files are built on first use.
+   * <p>
+   * When enabled, parsing a mapper XML file only registers the id and database id of its statement nodes, and each
+   * {@link MappedStatement} with its {@link org.apache.ibatis.mapping.SqlSource} is built the first time it is looked
+   * up. Errors in a statement are then reported on first use rather than when the configuration is built, and the mapper
+   * documents are kept in memory until all their statements are built. Statements declared by annotations are always
+   * built eagerly.
+   *
+   * @param lazyStatementCompilationEnabled
+   *          true to enable lazy statement compilation
+   * @since 3.5.7
+   * @see #setLazyStatementWarmUpEnabled(boolean)
+   */
+  public void setLazyStatementCompilationEnabled(boolean lazyStatementCompilationEnabled) {
+    this.lazyStatementCompilationEnabled = lazyStatementCompilationEnabled;
+  }
+
+  /**
+   * Gets whether the lazily compiled statements are built by a background thread.
+   *
+   * @return true if the warm-up is enabled
+   * @since 3.5.7
+   */
+  public boolean isLazyStatementWarmUpEnabled() {
+    return lazyStatementWarmUpEnabled;
+  }
+
+  /**
+   * Sets whether the lazily compiled statements are built by a background thread once the
+   * {@link SqlSessionFactory} is built, so that the first use of a statement does not have to build it.
+   *
+   * @param lazyStatementWarmUpEnabled
+   *          true to enable the warm-up
+   * @since 3.5.7
+   * @see #warmUpLazyStatements()
+   */
+  public void setLazyStatementWarmUpEnabled(boolean lazyStatementWarmUpEnabled) {
+    this.lazyStatementWarmUpEnabled = lazyStatementWarmUpEnabled;
+  }
+
+  /**
+   * Gets whether the layouts of result sets are cached on their statements.
+   *
+   * @return true if the result set layout cache is enabled
+   * @since 3.5.7
+   */
+  public boolean isResultSetLayoutCacheEnabled() {
+    return resultSetLayoutCacheEnabled;
+  }
+
+  /**
+   * Sets whether the columns of the result sets of a statement, their type handlers and the automatic mappings are
+   * kept on the {@link MappedStatement}, so that the next result sets with the same column labels and types do not
+   * resolve them again.
+   *
+   * @param resultSetLayoutCacheEnabled
+   *          true to enable the result set layout cache
+   * @since 3.5.7
+   * @see MappedStatement#getResultSetLayoutCache()
+   */
+  public void setResultSetLayoutCacheEnabled(boolean resultSetLayoutCacheEnabled) {
+    this.resultSetLayoutCacheEnabled = resultSetLayoutCacheEnabled;
+  }
+
+  /**
+   * Gets the kind of maps created for the rows of selects whose result type is {@code map}.
+   *
+   * @return the map result mode
+   * @since 3.5.7
+   */
+  public MapResultMode getMapResultMode() {
+    return mapResultMode;
+  }
+
+  /**
+   * Sets the kind of maps created for the rows of selects whose result type is {@code map}. The compact modes keep the
+   * values of a row in an array and share its keys with the other rows, which takes a fraction of the memory of a
+   * {@link java.util.HashMap} per row. They do not apply to the result type {@code hashmap}, nor when a custom
+   * {@link ObjectFactory} is set.
+   *
+   * @param mapResultMode
+   *          the map result mode
+   * @since 3.5.7
+   */
+  public void setMapResultMode(MapResultMode mapResultMode) {
+    this.mapResultMode = mapResultMode;
+  }
+
+  /**
+   * Gets the dialect that pushes the {@link RowBounds} of selects down to the database.
+   *
+   * @return the pagination dialect, or null if MyBatis skips and limits the rows itself
+   * @since 3.5.7
+   */
+  public PaginationDialect getPaginationDialect() {
+    return paginationDialect;
+  }
+
+  /**
+   * Sets the dialect that rewrites the selects executed with {@link RowBounds}, so that the database returns only the
+   * rows of the page rather than MyBatis skipping the rows before the offset.
+   *
+   * @param paginationDialect
+   *          the pagination dialect, null to page the rows in MyBatis
+   * @since 3.5.7
+   * @see KeysetRowBounds
+   */
+  public void setPaginationDialect(PaginationDialect paginationDialect) {
+    this.paginationDialect = paginationDialect;
+  }
+
+  /**
+   * Gets the maximum number of rows the batch executor coalesces into a multi-row insert.
+   *
+   * @return the maximum number of rows, 0 when inserts are not rewritten
+   * @since 3.5.7
+   */
+  public int getBatchInsertMaxRows() {
+    return batchInsertMaxRows;
+  }
+
+  /**
+   * Sets the maximum number of rows the batch executor coalesces into a multi-row insert.
+   * <p>
+   * With {@link ExecutorType#BATCH}, consecutive executions of the same {@code INSERT ... VALUES (...)} statement are
+   * rewritten into {@code INSERT ... VALUES (...), (...)} statements. Inserts using a {@code selectKey} are not
+   * rewritten. Generated keys are still assigned when the driver returns the keys of all the inserted rows.
+   *
+   * @param batchInsertMaxRows
+   *          the maximum number of rows, 0 to disable the rewriting
+   * @since 3.5.7
+   */
+  public void setBatchInsertMaxRows(int batchInsertMaxRows) {
+    this.batchInsertMaxRows = batchInsertMaxRows;
+  }
+
+  /**
+   * Gets the maximum number of bind parameters of a multi-row insert.
+   *
+   * @return the maximum number of bind parameters, 0 when unlimited
+   * @since 3.5.7
+   */
+  public int getBatchInsertMaxParameters() {
+    return batchInsertMaxParameters;
+  }
+
+  /**
+   * Sets the maximum number of bind parameters of a multi-row insert, to stay under the limit of the driver.
+   *
+   * @param batchInsertMaxParameters
+   *          the maximum number of bind parameters, 0 for no limit
+   * @since 3.5.7
+   */
+  public void setBatchInsertMaxParameters(int batchInsertMaxParameters) {
+    this.batchInsertMaxParameters = batchInsertMaxParameters;
+  }
+
+  /**
+   * Gets the compiler that generates and caches the row mappers used when {@link #isCompiledRowMappersEnabled()}.
+   *
+   * @return the row mapper compiler
+   * @since 3.5.7
+   */
+  public RowMapperCompiler getRowMapperCompiler() {
+    return rowMapperCompiler;
+  }
+
   public String getDatabaseId() {
     return databaseId;
   }
@@ -325,12 +708,23 @@ public class Configuration {
     return loadedResources.contains(resource);
   }
 
+  /**
+   * Gets the resources loaded by the mapper builders.
+   *
+   * @return the loaded resources
+   * @since 3.5.7
+   */
+  public Set<String> getLoadedResources() {
+    return Collections.unmodifiableSet(loadedResources);
+  }
+
   public Environment getEnvironment() {
     return environment;
   }
 
   public void setEnvironment(Environment environment) {
     this.environment = environment;
+    bindMetricsCollector();
   }
 
   public AutoMappingBehavior getAutoMappingBehavior() {
@@ -492,6 +886,36 @@ public class Configuration {
     this.localCacheScope = localCacheScope;
   }
 
+  /**
+   * Gets how the keys of the local and second level caches are built.
+   *
+   * @return the cache key mode
+   * @since 3.5.7
+   */
+  public CacheKeyMode getCacheKeyMode() {
+    return cacheKeyMode;
+  }
+
+  /**
+   * Sets how the keys of the local and second level caches are built.
+   * <p>
+   * With {@link CacheKeyMode#FINGERPRINT} a cached entry no longer retains the SQL and the parameter values of the
+   * query that loaded it, except values of types that cannot be hashed by content (see {@link FingerprintCacheKey}).
+   * Two different queries then share a cached result if their 128-bit fingerprints collide. That does not happen by
+   * chance in practice, and the fingerprint is seeded per JVM, but it is not a cryptographic hash. Since the seed
+   * differs between JVMs, the keys cannot be shared by the nodes of a distributed second level cache.
+   * {@link CacheKeyMode#VERIFIED_FINGERPRINT} rules collisions out by keeping the components, like
+   * {@link CacheKeyMode#FULL}, so it does not lower the memory retained; use it when parameter values come from
+   * untrusted input.
+   *
+   * @param cacheKeyMode
+   *          the cache key mode
+   * @since 3.5.7
+   */
+  public void setCacheKeyMode(CacheKeyMode cacheKeyMode) {
+    this.cacheKeyMode = cacheKeyMode;
+  }
+
   public JdbcType getJdbcTypeForNull() {
     return jdbcTypeForNull;
   }
@@ -614,6 +1038,77 @@ public class Configuration {
     return getDefaultScriptingLanguageInstance();
   }
 
+  /**
+   * Gets the collector that receives the timings of statement executions.
+   *
+   * @return the metrics collector, or null if metrics are not collected
+   * @since 3.5.7
+   */
+  public MetricsCollector getMetricsCollector() {
+    return metricsCollector;
+  }
+
+  /**
+   * Sets the collector that receives the timings of statement executions, split in the phases of
+   * {@link org.apache.ibatis.metrics.StatementPhase}, the number of rows mapped and the cache hits. When the environment
+   * uses a {@link PooledDataSource}, the collector also receives the time taken to acquire connections.
+   *
+   * @param metricsCollector
+   *          the metrics collector, null to disable metrics
+   * @since 3.5.7
+   */
+  public void setMetricsCollector(MetricsCollector metricsCollector) {
+    this.metricsCollector = metricsCollector;
+    bindMetricsCollector();
+  }
+
+  private void bindMetricsCollector() {
+    if (environment != null && environment.getDataSource() instanceof PooledDataSource) {
+      ((PooledDataSource) environment.getDataSource()).setMetricsCollector(metricsCollector);
+    }
+  }
+
+  /**
+   * Creates an empty cache key of the configured {@link CacheKeyMode}.
+   *
+   * @return a new cache key
+   * @since 3.5.7
+   */
+  public CacheKey newCacheKey() {
+    switch (cacheKeyMode) {
+      case FINGERPRINT:
+        return new FingerprintCacheKey(false);
+      case VERIFIED_FINGERPRINT:
+        return new FingerprintCacheKey(true);
+      default:
+        return new CacheKey();
+    }
+  }
+
+  /**
+   * Gets the binders shared by all the SQL whose parameter mappings have the same property paths, modes, type handlers
+   * and JDBC types, so that the SQL built for each execution of a dynamic statement reuses them. At most 1024
+   * lists of parameter mappings are cached; the parameters of others are set
+   * through a {@code MetaObject}.
+   *
+   * @param parameterMappings
+   *          the parameter mappings
+   * @return the binders, or null if compiled parameter binders are disabled or too many are cached already
+   * @since 3.5.7
+   */
+  public ParameterBinderCache getParameterBinderCache(List<ParameterMapping> parameterMappings) {
+    if (!compiledParameterBindersEnabled || parameterMappings == null) {
+      return null;
+    }
+    ParameterBinderCache.Shape shape = new ParameterBinderCache.Shape(parameterMappings);
+    ParameterBinderCache parameterBinderCache = parameterBinderCaches.get(shape);
+    if (parameterBinderCache == null && parameterBinderCaches.size() < MAX_PARAMETER_BINDER_CACHES) {
+      parameterBinderCache = parameterBinderCaches.computeIfAbsent(shape,
+          k -> new ParameterBinderCache(this, parameterMappings));
+    }
+    return parameterBinderCache;
+  }
+
   public MetaObject newMetaObject(Object object) {
     return MetaObject.forObject(object, objectFactory, objectWrapperFactory, reflectorFactory);
   }
@@ -696,6 +1191,29 @@ public class Configuration {
     return caches.get(id);
   }
 
+  /**
+   * Adds the builder a mapper cache was built with, so that the cache can be stored in a mapper snapshot.
+   *
+   * @param cacheBuilder
+   *          the cache builder
+   * @since 3.5.7
+   */
+  public void addCacheBuilder(CacheBuilder cacheBuilder) {
+    cacheBuilders.put(cacheBuilder.getId(), cacheBuilder);
+  }
+
+  /**
+   * Gets the builder a mapper cache was built with.
+   *
+   * @param id
+   *          the cache id
+   * @return the cache builder, or {@code null} if the cache was not built by a mapper
+   * @since 3.5.7
+   */
+  public CacheBuilder getCacheBuilder(String id) {
+    return cacheBuilders.get(id);
+  }
+
   public boolean hasCache(String id) {
     return caches.containsKey(id);
   }
@@ -743,17 +1261,133 @@ public class Configuration {
   }
 
   public void addMappedStatement(MappedStatement ms) {
+    if (!lazyStatements.isEmpty() && lazyStatements.containsKey(ms.getId())) {
+      lazyStatements.get(ms.getId()).setStatement(ms);
+      return;
+    }
     mappedStatements.put(ms.getId(), ms);
   }
 
+  /**
+   * Registers a mapped statement that is built on first use.
+   *
+   * @param statement
+   *          the lazy statement
+   * @since 3.5.7
+   */
+  public void addLazyStatement(LazyStatement statement) {
+    if (mappedStatements.containsKey(statement.getId())) {
+      throw new IllegalArgumentException("Mapped Statements collection already contains value for "
+          + statement.getId() + ". please check " + mappedStatements.get(statement.getId()).getResource() + " and "
+          + statement.getResource());
+    }
+    lazyStatements.put(statement.getId(), statement);
+  }
+
+  /**
+   * Gets a mapped statement registered to be built on first use, without building it.
+   *
+   * @param id
+   *          the statement id
+   * @return the lazy statement, or null if the statement was not registered lazily
+   * @since 3.5.7
+   */
+  public LazyStatement getLazyStatement(String id) {
+    if (lazyStatements.isEmpty() || !lazyStatements.containsKey(id)) {
+      return null;
+    }
+    if (mappedStatements.containsKey(id)) {
+      throw new IllegalArgumentException(id + " is ambiguous in Mapped Statements collection"
+          + " (try using the full name including the namespace, or rename one of the entries)");
+    }
+    return lazyStatements.get(id);
+  }
+
+  /**
+   * Gets the lock held while a statement registered to be built on first use is built, so that the statements of this
+   * configuration are built one at a time.
+   *
+   * @return the lock of the lazy statements
+   * @since 3.5.7
+   */
+  public ReentrantLock getLazyStatementLock() {
+    return lazyStatementLock;
+  }
+
+  /**
+   * Builds all the mapped statements registered to be built on first use.
+   *
+   * @since 3.5.7
+   */
+  public void buildLazyStatements() {
+    for (LazyStatement statement : getLazyStatements()) {
+      statement.getStatement();
+    }
+  }
+
+  /**
+   * Builds the mapped statements registered to be built on first use in a daemon thread. A statement that cannot be
+   * built is skipped, and the error is thrown when it is used.
+   *
+   * @since 3.5.7
+   */
+  public void warmUpLazyStatements() {
+    List<LazyStatement> statements = getLazyStatements();
+    if (statements.isEmpty()) {
+      return;
+    }
+    Thread thread = new Thread(() -> {
+      for (LazyStatement statement : statements) {
+        try {
+          statement.getStatement();
+        } catch (RuntimeException e) {
+          // thrown again on first use
+        }
+      }
+    }, "mybatis-statement-warm-up");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  private List<LazyStatement> getLazyStatements() {
+    List<LazyStatement> statements = new ArrayList<>();
+    // the map also holds the short names, some of them ambiguous
+    for (Map.Entry<String, ?> entry : ((Map<String, ?>) lazyStatements).entrySet()) {
+      Object value = entry.getValue();
+      if (value instanceof LazyStatement && entry.getKey().equals(((LazyStatement) value).getId())) {
+        statements.add((LazyStatement) value);
+      }
+    }
+    return statements;
+  }
+
   public Collection<String> getMappedStatementNames() {
     buildAllStatements();
-    return mappedStatements.keySet();
+    if (lazyStatements.isEmpty()) {
+      return mappedStatements.keySet();
+    }
+    Set<String> names = new HashSet<>(mappedStatements.keySet());
+    for (String name : lazyStatements.keySet()) {
+      if (hasStatement(name, false)) {
+        names.add(name);
+      }
+    }
+    return names;
   }
 
   public Collection<MappedStatement> getMappedStatements() {
     buildAllStatements();
-    return mappedStatements.values();
+    if (lazyStatements.isEmpty()) {
+      return mappedStatements.values();
+    }
+    List<MappedStatement> statements = new ArrayList<>(mappedStatements.values());
+    for (Map.Entry<String, ?> entry : ((Map<String, ?>) lazyStatements).entrySet()) {
+      Object value = entry.getValue();
+      if (value instanceof LazyStatement && ((LazyStatement) value).hasStatement()) {
+        statements.add(((LazyStatement) value).getStatement());
+      }
+    }
+    return statements;
   }
 
   public Collection<XMLStatementBuilder> getIncompleteStatements() {
@@ -796,6 +1430,14 @@ public class Configuration {
     if (validateIncompleteStatements) {
       buildAllStatements();
     }
+    LazyStatement lazyStatement = getLazyStatement(id);
+    if (lazyStatement != null) {
+      MappedStatement statement = lazyStatement.getStatement();
+      if (statement == null) {
+        throw new IllegalArgumentException("Mapped Statements collection does not contain value for " + id);
+      }
+      return statement;
+    }
     return mappedStatements.get(id);
   }
 
@@ -837,7 +1479,18 @@ public class Configuration {
     if (validateIncompleteStatements) {
       buildAllStatements();
     }
-    return mappedStatements.containsKey(statementName);
+    if (mappedStatements.containsKey(statementName)) {
+      return true;
+    }
+    if (lazyStatements.isEmpty() || !lazyStatements.containsKey(statementName)) {
+      return false;
+    }
+    try {
+      return getLazyStatement(statementName).hasStatement();
+    } catch (IllegalArgumentException e) {
+      // a short name shared by several statements
+      return true;
+    }
   }
 
   public void addCacheRef(String namespace, String referencedNamespace) {
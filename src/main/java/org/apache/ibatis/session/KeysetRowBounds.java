@@ -0,0 +1,112 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+import java.util.Arrays;
+
+/**
+ * Bounds of a page that starts after the last row of the previous page, a.k.a. keyset or seek pagination.
+ * <p>
+ * The rows are ordered by the key columns, which must be unique together, and the page holds the rows whose keys come
+ * after the last keys of the previous page. Unlike with an offset, the database never reads the rows of the previous
+ * pages, as long as the key columns are indexed.
+ *
+ * <pre>
+ * KeysetRowBounds firstPage = new KeysetRowBounds(25, "id");
+ * List&lt;Blog&gt; blogs = mapper.selectBlogs(firstPage);
+ * List&lt;Blog&gt; nextBlogs = mapper.selectBlogs(firstPage.after(blogs.get(blogs.size() - 1).getId()));
+ * </pre>
+ *
+ * The key columns are column labels of the select, which is wrapped to filter and order its rows. They are written as
+ * is in the SQL, and therefore must not come from user input.
+ *
+ * @since 3.5.7
+ */
+public class KeysetRowBounds extends RowBounds {
+
+  private final String[] keyColumns;
+  private final Object[] lastKeys;
+  private final boolean descending;
+
+  /**
+   * Creates the bounds of the first page, in ascending order of the keys.
+   *
+   * @param limit
+   *          the maximum number of rows of the page
+   * @param keyColumns
+   *          the key columns, by order of precedence
+   */
+  public KeysetRowBounds(int limit, String... keyColumns) {
+    this(limit, keyColumns.clone(), null, false);
+    if (keyColumns.length == 0) {
+      throw new IllegalArgumentException("Keyset pagination requires at least one key column.");
+    }
+  }
+
+  private KeysetRowBounds(int limit, String[] keyColumns, Object[] lastKeys, boolean descending) {
+    super(NO_ROW_OFFSET, limit);
+    this.keyColumns = keyColumns;
+    this.lastKeys = lastKeys;
+    this.descending = descending;
+  }
+
+  /**
+   * Creates the bounds of the page following the row of the given keys.
+   *
+   * @param lastKeys
+   *          the values of the key columns of the last row of the previous page
+   * @return the bounds of the next page
+   */
+  public KeysetRowBounds after(Object... lastKeys) {
+    if (lastKeys.length != keyColumns.length) {
+      throw new IllegalArgumentException("Expected " + keyColumns.length + " keys for the columns "
+          + Arrays.toString(keyColumns) + " but got " + lastKeys.length + ".");
+    }
+    for (Object key : lastKeys) {
+      if (key == null) {
+        throw new IllegalArgumentException("Keys of keyset pagination cannot be null.");
+      }
+    }
+    return new KeysetRowBounds(getLimit(), keyColumns, lastKeys.clone(), descending);
+  }
+
+  /**
+   * Creates the same bounds, in descending order of the keys.
+   *
+   * @return the descending bounds
+   */
+  public KeysetRowBounds descending() {
+    return new KeysetRowBounds(getLimit(), keyColumns, lastKeys, true);
+  }
+
+  public String[] getKeyColumns() {
+    return keyColumns.clone();
+  }
+
+  /**
+   * Gets the keys of the last row of the previous page.
+   *
+   * @return the keys, or null for the first page
+   */
+  public Object[] getLastKeys() {
+    return lastKeys == null ? null : lastKeys.clone();
+  }
+
+  public boolean isDescending() {
+    return descending;
+  }
+
+}
@@ -0,0 +1,40 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+/**
+ * Specifies the maps created for the rows of selects whose result type is {@code map}.
+ *
+ * @since 3.5.7
+ */
+public enum MapResultMode {
+
+  /**
+   * Creates a {@link java.util.HashMap} per row.
+   */
+  HASH_MAP,
+
+  /**
+   * Creates a {@link org.apache.ibatis.executor.resultset.CompactRowMap} per row, which keeps the values of the columns
+   * in an array and shares the keys with the other rows of the result set.
+   */
+  COMPACT,
+
+  /**
+   * Like {@link #COMPACT}, but the keys of the columns are case insensitive.
+   */
+  COMPACT_CASE_INSENSITIVE
+}
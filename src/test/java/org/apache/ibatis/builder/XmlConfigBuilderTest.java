@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2020 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -306,6 +306,58 @@ class XmlConfigBuilderTest {
       .hasMessageContaining("The properties element cannot specify both a URL and a resource based property file reference.  Please specify one or the other.");
   }
 
+  @Test
+  void shouldLoadSameMappersWhenParsingInParallel() {
+    String mappers = "    <mapper resource=\"org/apache/ibatis/builder/BlogMapper.xml\"/>\n"
+            + "    <mapper url=\"file:./src/test/java/org/apache/ibatis/builder/NestedBlogMapper.xml\"/>\n"
+            + "    <mapper class=\"org.apache.ibatis.builder.CachedAuthorMapper\"/>\n"
+            + "    <mapper resource=\"org/apache/ibatis/builder/AuthorMapper.xml\"/>\n"
+            + "    <mapper resource=\"org/apache/ibatis/builder/PostMapper.xml\"/>\n"
+            + "    <package name=\"org.apache.ibatis.builder.mapper\"/>\n";
+
+    Configuration sequential = new XMLConfigBuilder(new StringReader(mapperConfig(false, mappers))).parse();
+    Configuration parallel = new XMLConfigBuilder(new StringReader(mapperConfig(true, mappers))).parse();
+
+    assertThat(parallel.isParallelMapperParsingEnabled()).isTrue();
+    assertThat(parallel.getMappedStatementNames()).hasSameElementsAs(sequential.getMappedStatementNames());
+    assertThat(parallel.getResultMapNames()).hasSameElementsAs(sequential.getResultMapNames());
+    assertThat(parallel.getParameterMapNames()).hasSameElementsAs(sequential.getParameterMapNames());
+    assertThat(parallel.getCacheNames()).hasSameElementsAs(sequential.getCacheNames());
+    assertThat(parallel.getMapperRegistry().getMappers()).hasSameElementsAs(sequential.getMapperRegistry().getMappers());
+    assertThat(parallel.getMappedStatement("org.apache.ibatis.builder.CachedAuthorMapper.selectAllAuthors").getCache())
+      .isSameAs(parallel.getCache("org.apache.ibatis.builder.CachedAuthorMapper"));
+    assertThat(parallel.getIncompleteStatements()).isEmpty();
+    assertThat(parallel.getIncompleteResultMaps()).isEmpty();
+  }
+
+  @Test
+  void shouldDetectDuplicatedIdsWhenParsingInParallel() {
+    String mappers = "    <mapper resource=\"org/apache/ibatis/builder/BlogMapper.xml\"/>\n"
+            + "    <mapper url=\"file:./src/test/java/org/apache/ibatis/builder/BlogMapper.xml\"/>\n";
+
+    XMLConfigBuilder builder = new XMLConfigBuilder(new StringReader(mapperConfig(true, mappers)));
+    when(builder::parse);
+    then(caughtException()).isInstanceOf(BuilderException.class)
+      .hasMessageContaining("The XML location is 'file:./src/test/java/org/apache/ibatis/builder/BlogMapper.xml'")
+      .hasMessageContaining("already contains value for org.apache.ibatis.domain.blog.mappers.BlogMapper.");
+  }
+
+  private static String mapperConfig(boolean parallel, String mappers) {
+    return "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n"
+            + "<!DOCTYPE configuration PUBLIC \"-//mybatis.org//DTD Config 3.0//EN\" \"http://mybatis.org/dtd/mybatis-3-config.dtd\">\n"
+            + "<configuration>\n"
+            + "  <settings>\n"
+            + "    <setting name=\"parallelMapperParsingEnabled\" value=\"" + parallel + "\"/>\n"
+            + "  </settings>\n"
+            + "  <typeAliases>\n"
+            + "    <package name=\"org.apache.ibatis.domain.blog\"/>\n"
+            + "  </typeAliases>\n"
+            + "  <mappers>\n"
+            + mappers
+            + "  </mappers>\n"
+            + "</configuration>\n";
+  }
+
   static class MySqlProvider {
     @SuppressWarnings("unused")
     public static String provideSql() {
@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2020 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -20,6 +20,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.BDDAssertions.then;
 
 import java.io.InputStream;
+import java.util.HashMap;
 import java.util.regex.Pattern;
 
 import org.apache.ibatis.builder.xml.XMLMapperBuilder;
@@ -221,4 +222,74 @@ class XmlMapperBuilderTest {
        assertThat(exception.getMessage()).isEqualTo(message);
      }
    }
+
+  @Test
+  void shouldBuildLazyStatementsOnFirstUse() throws Exception {
+    Configuration configuration = new Configuration();
+    configuration.setLazyStatementCompilationEnabled(true);
+    String resource = "org/apache/ibatis/builder/AuthorMapper.xml";
+    try (InputStream inputStream = Resources.getResourceAsStream(resource)) {
+      XMLMapperBuilder builder = new XMLMapperBuilder(inputStream, configuration, resource, configuration.getSqlFragments());
+      builder.parse();
+    }
+
+    String id = "org.apache.ibatis.domain.blog.mappers.AuthorMapper.selectWithOptions";
+    assertThat(configuration.hasStatement(id)).isTrue();
+    assertThat(configuration.getLazyStatement(id).isBuilt()).isFalse();
+    MappedStatement mappedStatement = configuration.getMappedStatement("selectWithOptions");
+    assertThat(mappedStatement.getFetchSize()).isEqualTo(200);
+    assertThat(configuration.getLazyStatement(id).isBuilt()).isTrue();
+    assertThat(configuration.getMappedStatement(id)).isSameAs(mappedStatement);
+  }
+
+  @Test
+  void shouldBuildLazyStatementsForTheCurrentDatabaseId() throws Exception {
+    Configuration configuration = new Configuration();
+    configuration.setLazyStatementCompilationEnabled(true);
+    configuration.setDatabaseId("hsql");
+    String resource = "org/apache/ibatis/submitted/multidb/MultiDbMapper.xml";
+    try (InputStream inputStream = Resources.getResourceAsStream(resource)) {
+      XMLMapperBuilder builder = new XMLMapperBuilder(inputStream, configuration, resource, configuration.getSqlFragments());
+      builder.parse();
+    }
+
+    String namespace = "org.apache.ibatis.submitted.multidb.MultiDbMapper.";
+    assertThat(configuration.getMappedStatement(namespace + "select1").getBoundSql(1).getSql()).contains("from hsql");
+    assertThat(configuration.getMappedStatement(namespace + "select2").getBoundSql(1).getSql()).contains("from common");
+    assertThat(configuration.getMappedStatement(namespace + "insert2!selectKey").getDatabaseId()).isEqualTo("hsql");
+    assertThat(configuration.getKeyGenerator(namespace + "insert2!selectKey"))
+      .isSameAs(configuration.getMappedStatement(namespace + "insert2").getKeyGenerator());
+  }
+
+  @Test
+  void shouldDetectDuplicatedLazyStatements() throws Exception {
+    Configuration configuration = new Configuration();
+    configuration.setLazyStatementCompilationEnabled(true);
+    String resource = "org/apache/ibatis/submitted/multidb/MultiDbMapper.xml";
+    try (InputStream inputStream = Resources.getResourceAsStream(resource)) {
+      new XMLMapperBuilder(inputStream, configuration, resource, configuration.getSqlFragments()).parse();
+    }
+    try (InputStream inputStream = Resources.getResourceAsStream(resource)) {
+      XMLMapperBuilder builder = new XMLMapperBuilder(inputStream, configuration, "other.xml", new HashMap<>());
+      Exception exception = Assertions.assertThrows(BuilderException.class, builder::parse);
+      assertThat(exception.getMessage()).contains(
+        "Mapped Statements collection already contains value for org.apache.ibatis.submitted.multidb.MultiDbMapper.select1");
+    }
+  }
+
+  @Test
+  void shouldReportLazyStatementErrorsOnFirstUse() throws Exception {
+    Configuration configuration = new Configuration();
+    configuration.setLazyStatementCompilationEnabled(true);
+    String resource = "org/apache/ibatis/builder/ProblemResultMapper.xml";
+    try (InputStream inputStream = Resources.getResourceAsStream(resource)) {
+      XMLMapperBuilder builder = new XMLMapperBuilder(inputStream, configuration, resource, configuration.getSqlFragments());
+      builder.parse();
+    }
+
+    BuilderException exception = Assertions.assertThrows(BuilderException.class,
+      () -> configuration.getMappedStatement("findProblemResultMapTest"));
+    assertThat(exception.getMessage()).contains("Could not find result map 'java.lang.String'");
+    assertThat(exception.getMessage()).contains(resource);
+  }
 }
@@ -0,0 +1,139 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder.snapshot;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.builder.xml.XMLConfigBuilder;
+import org.apache.ibatis.builder.xml.XMLMapperEntityResolver;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.parsing.XNode;
+import org.apache.ibatis.parsing.XPathParser;
+import org.apache.ibatis.scripting.xmltags.DynamicSqlSource;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Test;
+
+class MapperSnapshotTest {
+
+  private static final String MAPPERS = "<mapper resource=\"org/apache/ibatis/builder/BlogMapper.xml\"/>"
+      + "<mapper resource=\"org/apache/ibatis/builder/AuthorMapper.xml\"/>"
+      + "<mapper resource=\"org/apache/ibatis/builder/PostMapper.xml\"/>"
+      + "<mapper class=\"org.apache.ibatis.binding.BoundBlogMapper\"/>"
+      + "<mapper class=\"org.apache.ibatis.binding.BoundAuthorMapper\"/>"
+      + "<mapper class=\"org.apache.ibatis.builder.CachedAuthorMapper\"/>"
+      + "<package name=\"org.apache.ibatis.builder.mapper\"/>";
+
+  @Test
+  void shouldLoadTheSameMappersFromASnapshot() throws Exception {
+    String config = config("", MAPPERS);
+    Configuration original = new XMLConfigBuilder(new StringReader(config)).parse();
+    byte[] snapshot = write(original, config);
+
+    Configuration fresh = new Configuration();
+    fresh.getTypeAliasRegistry().registerAliases("org.apache.ibatis.domain.blog");
+    assertTrue(MapperSnapshot.read(fresh, root(config, fresh), new ByteArrayInputStream(snapshot)));
+
+    assertEquals(new TreeSet<>(original.getMappedStatementNames()), new TreeSet<>(fresh.getMappedStatementNames()));
+    assertEquals(new TreeSet<>(original.getResultMapNames()), new TreeSet<>(fresh.getResultMapNames()));
+    assertEquals(new TreeSet<>(original.getCacheNames()), new TreeSet<>(fresh.getCacheNames()));
+    assertEquals(new TreeSet<>(original.getKeyGeneratorNames()), new TreeSet<>(fresh.getKeyGeneratorNames()));
+    assertEquals(new HashSet<>(original.getMapperRegistry().getMappers()), new HashSet<>(fresh.getMapperRegistry().getMappers()));
+    assertArrayEquals(snapshot, write(fresh, config));
+
+    MappedStatement selectPostIn = fresh.getMappedStatement("org.apache.ibatis.domain.blog.mappers.PostMapper.selectPostIn");
+    assertEquals(DynamicSqlSource.class, selectPostIn.getSqlSource().getClass());
+    Map<String, Object> parameter = new HashMap<>();
+    parameter.put("list", Arrays.asList(1, 2));
+    assertEquals(
+        original.getMappedStatement(selectPostIn.getId()).getBoundSql(parameter).getSql(),
+        selectPostIn.getBoundSql(parameter).getSql());
+    assertEquals(StaticSqlSource.class,
+        fresh.getMappedStatement("org.apache.ibatis.domain.blog.mappers.AuthorMapper.selectAllAuthors").getSqlSource().getClass());
+  }
+
+  @Test
+  void shouldLoadTheSnapshotSetInTheConfiguration() throws Exception {
+    String config = config("", MAPPERS);
+    File file = File.createTempFile("mybatis-mappers", ".snapshot");
+    file.deleteOnExit();
+    Files.write(file.toPath(), write(new XMLConfigBuilder(new StringReader(config)).parse(), config));
+
+    Configuration configuration = new XMLConfigBuilder(new StringReader(
+        config("<setting name=\"mapperSnapshot\" value=\"" + file.toURI() + "\"/>", MAPPERS))).parse();
+
+    assertEquals("org/apache/ibatis/builder/AuthorMapper.xml",
+        configuration.getMappedStatement("org.apache.ibatis.domain.blog.mappers.AuthorMapper.selectAllAuthors").getResource());
+    assertTrue(configuration.getIncompleteStatements().isEmpty());
+  }
+
+  @Test
+  void shouldParseTheMappersWhenTheSnapshotIsOutOfDate() throws Exception {
+    String config = config("", MAPPERS);
+    byte[] snapshot = write(new XMLConfigBuilder(new StringReader(config)).parse(), config);
+
+    String otherConfig = config("", "<mapper resource=\"org/apache/ibatis/builder/AuthorMapper.xml\"/>");
+    Configuration configuration = new Configuration();
+    assertFalse(MapperSnapshot.read(configuration, root(otherConfig, configuration), new ByteArrayInputStream(snapshot)));
+    assertTrue(configuration.getMappedStatementNames().isEmpty());
+
+    snapshot[snapshot.length / 2] ^= 1;
+    configuration = new Configuration();
+    assertFalse(MapperSnapshot.read(configuration, root(config, configuration), new ByteArrayInputStream(snapshot)));
+    assertEquals(Collections.emptySet(), configuration.getLoadedResources());
+  }
+
+  @Test
+  void shouldParseTheMappersWhenTheSnapshotIsMissing() {
+    Configuration configuration = new XMLConfigBuilder(new StringReader(
+        config("<setting name=\"mapperSnapshot\" value=\"org/apache/ibatis/builder/snapshot/missing.snapshot\"/>",
+            "<mapper resource=\"org/apache/ibatis/builder/AuthorMapper.xml\"/>"))).parse();
+
+    assertTrue(configuration.hasStatement("org.apache.ibatis.domain.blog.mappers.AuthorMapper.selectAllAuthors"));
+  }
+
+  private static byte[] write(Configuration configuration, String config) throws Exception {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    MapperSnapshot.write(configuration, root(config, configuration), outputStream);
+    return outputStream.toByteArray();
+  }
+
+  private static XNode root(String config, Configuration configuration) {
+    return new XPathParser(new StringReader(config), true, configuration.getVariables(), new XMLMapperEntityResolver())
+        .evalNode("/configuration");
+  }
+
+  private static String config(String settings, String mappers) {
+    return "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n"
+        + "<!DOCTYPE configuration PUBLIC \"-//mybatis.org//DTD Config 3.0//EN\" \"http://mybatis.org/dtd/mybatis-3-config.dtd\">\n"
+        + "<configuration><settings><setting name=\"cacheEnabled\" value=\"true\"/>" + settings + "</settings>"
+        + "<typeAliases><package name=\"org.apache.ibatis.domain.blog\"/></typeAliases>"
+        + "<mappers>" + mappers + "</mappers></configuration>";
+  }
+
+}
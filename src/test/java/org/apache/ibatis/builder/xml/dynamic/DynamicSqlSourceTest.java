@@ -1,5 +1,5 @@
 /**
- *    Copyright 2009-2019 the original author or authors.
+ *    Copyright 2009-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -36,6 +36,7 @@ import org.apache.ibatis.scripting.xmltags.IfSqlNode;
 import org.apache.ibatis.scripting.xmltags.MixedSqlNode;
 import org.apache.ibatis.scripting.xmltags.SetSqlNode;
 import org.apache.ibatis.scripting.xmltags.SqlNode;
+import org.apache.ibatis.scripting.xmltags.StaticTextSqlNode;
 import org.apache.ibatis.scripting.xmltags.TextSqlNode;
 import org.apache.ibatis.scripting.xmltags.WhereSqlNode;
 import org.apache.ibatis.session.Configuration;
@@ -399,6 +400,74 @@ class DynamicSqlSourceTest extends BaseDataTest {
     Assertions.assertEquals("id=", sql);
   }
 
+  @Test
+  void shouldReuseParsedSqlForSameBranches() {
+    final Configuration configuration = new Configuration();
+    configuration.setDynamicSqlCacheSize(16);
+    final DynamicSqlSource source = new DynamicSqlSource(configuration, mixedContents(
+        new StaticTextSqlNode("SELECT * FROM BLOG"),
+        new WhereSqlNode(configuration, mixedContents(
+            new IfSqlNode(new StaticTextSqlNode("AND NAME = #{name} "), "name != null"),
+            new IfSqlNode(mixedContents(new StaticTextSqlNode("AND ID IN "),
+                new ForEachSqlNode(configuration, mixedContents(new StaticTextSqlNode("#{item}")), "ids", null, "item",
+                    "(", ")", ",")), "ids != null")))));
+
+    BoundSql first = source.getBoundSql(params("Bob", Arrays.asList(1, 2)));
+    BoundSql second = source.getBoundSql(params("Jim", Arrays.asList(3, 4)));
+    assertEquals("SELECT * FROM BLOG WHERE  NAME = ? AND ID IN (?,?)", second.getSql());
+    Assertions.assertSame(first.getParameterMappings(), second.getParameterMappings());
+    assertEquals(3, second.getAdditionalParameter("__frch_item_0"));
+    assertEquals(4, second.getAdditionalParameter("__frch_item_1"));
+
+    BoundSql otherBranch = source.getBoundSql(params(null, Arrays.asList(1, 2, 3)));
+    assertEquals("SELECT * FROM BLOG WHERE  ID IN (?,?,?)", otherBranch.getSql());
+    Assertions.assertNotSame(first.getParameterMappings(), otherBranch.getParameterMappings());
+
+    BoundSql otherTypes = source.getBoundSql(params("Bob", Arrays.asList(1L, 2L)));
+    assertEquals(Long.class, otherTypes.getParameterMappings().get(1).getJavaType());
+  }
+
+  @Test
+  void shouldNotCacheSqlWithTextSubstitution() {
+    final Configuration configuration = new Configuration();
+    configuration.setDynamicSqlCacheSize(16);
+    final DynamicSqlSource source = new DynamicSqlSource(configuration,
+        mixedContents(new TextSqlNode("SELECT * FROM ${table}")));
+    Map<String, Object> param = new HashMap<>();
+    param.put("table", "BLOG");
+    assertEquals("SELECT * FROM BLOG", source.getBoundSql(param).getSql());
+    param.put("table", "AUTHOR");
+    assertEquals("SELECT * FROM AUTHOR", source.getBoundSql(param).getSql());
+  }
+
+  @Test
+  void shouldOnlyStopCachingTheBranchesThatAreNotReusable() {
+    final Configuration configuration = new Configuration();
+    configuration.setDynamicSqlCacheSize(16);
+    final DynamicSqlSource source = new DynamicSqlSource(configuration, mixedContents(
+        new StaticTextSqlNode("SELECT * FROM BLOG"),
+        new WhereSqlNode(configuration, mixedContents(
+            new IfSqlNode(new StaticTextSqlNode("AND NAME = #{name} "), "name != null"),
+            new IfSqlNode(new StaticTextSqlNode("AND ID = #{ids[0]} "), "ids != null")))));
+
+    BoundSql indexed = source.getBoundSql(params(null, Arrays.asList(1)));
+    assertEquals("SELECT * FROM BLOG WHERE  ID = ?", indexed.getSql());
+    Assertions.assertNotSame(indexed.getParameterMappings(),
+        source.getBoundSql(params(null, Arrays.asList(2))).getParameterMappings());
+
+    BoundSql first = source.getBoundSql(params("Bob", null));
+    BoundSql second = source.getBoundSql(params("Jim", null));
+    assertEquals("SELECT * FROM BLOG WHERE  NAME = ?", second.getSql());
+    Assertions.assertSame(first.getParameterMappings(), second.getParameterMappings());
+  }
+
+  private Map<String, Object> params(String name, List<?> ids) {
+    Map<String, Object> param = new HashMap<>();
+    param.put("name", name);
+    param.put("ids", ids);
+    return param;
+  }
+
   public static class Bean {
     public String id;
     Bean(String property) {
@@ -0,0 +1,161 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.util.Date;
+
+import org.apache.ibatis.session.CacheKeyMode;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Test;
+
+class FingerprintCacheKeyTest {
+
+  @Test
+  void shouldTestCacheKeysEqual() {
+    Date date = new Date();
+    for (boolean verify : new boolean[] { false, true }) {
+      CacheKey key1 = key(verify, "select", 1, "hello", null, new Date(date.getTime()), new byte[] { 1, 2 });
+      CacheKey key2 = key(verify, "select", 1, "hello", null, new Date(date.getTime()), new byte[] { 1, 2 });
+      assertEquals(key1, key2);
+      assertEquals(key2, key1);
+      assertEquals(key1.hashCode(), key2.hashCode());
+      assertEquals(key1.toString(), key2.toString());
+      assertEquals(6, key1.getUpdateCount());
+    }
+  }
+
+  @Test
+  void shouldTestCacheKeysNotEqualDueToOrder() {
+    CacheKey key1 = key(false, 1, "hello", null);
+    CacheKey key2 = key(false, 1, null, "hello");
+    assertNotEquals(key1, key2);
+    assertNotEquals(key1.hashCode(), key2.hashCode());
+  }
+
+  @Test
+  void shouldHashStringsByContent() {
+    // "Aa" and "BB" share the same String.hashCode()
+    assertNotEquals(key(false, "Aa"), key(false, "BB"));
+    assertNotEquals(key(false, "AaBB"), key(false, "BBAa"));
+  }
+
+  @Test
+  void shouldDistinguishValuesOfDifferentTypes() {
+    assertNotEquals(key(false, 1), key(false, 1L));
+    assertNotEquals(key(false, new BigDecimal("1.0")), key(false, new BigDecimal("1.00")));
+    assertNotEquals(key(false, "1"), key(false, 1));
+  }
+
+  @Test
+  void shouldNotRetainComponentsUnlessVerifying() {
+    FingerprintCacheKey key = key(false, "statementId", "select * from blog where id = ?", 1);
+    assertFalse(key.toString().contains("select"));
+    assertTrue(key.toString().endsWith(":statementId"));
+
+    FingerprintCacheKey verifiedKey = key(true, "statementId", "select * from blog where id = ?", 1);
+    assertTrue(verifiedKey.toString().contains("select * from blog where id = ?"));
+  }
+
+  @Test
+  void shouldCompareValuesThatCannotBeHashedByContent() {
+    CollidingValue value1 = new CollidingValue(1);
+    CollidingValue value2 = new CollidingValue(2);
+    for (boolean verify : new boolean[] { false, true }) {
+      assertNotEquals(key(verify, value1), key(verify, value2));
+      assertNotEquals(key(verify, new Object[] { "a", value1 }), key(verify, new Object[] { "a", value2 }));
+      assertEquals(key(verify, value1), key(verify, new CollidingValue(1)));
+    }
+  }
+
+  @Test
+  void shouldHashPrimitiveArraysByContent() {
+    // both arrays have the same Arrays.hashCode()
+    assertNotEquals(key(false, new int[] { 0, 31 }), key(false, new int[] { 1, 0 }));
+    assertEquals(key(false, new int[] { 0, 31 }), key(false, new int[] { 0, 31 }));
+  }
+
+  @Test
+  void shouldNotEqualKeysOfOtherModes() {
+    assertNotEquals(key(false, "a"), key(true, "a"));
+    assertNotEquals(key(false, "a"), new CacheKey(new Object[] { "a" }));
+  }
+
+  @Test
+  void shouldCloneIndependently() throws Exception {
+    FingerprintCacheKey key = key(true, "a", 1);
+    CacheKey clone = key.clone();
+    assertEquals(key, clone);
+    clone.update(2);
+    assertNotEquals(key, clone);
+    assertEquals(2, key.getUpdateCount());
+  }
+
+  @Test
+  void serializationTest() throws Exception {
+    FingerprintCacheKey cacheKey = key(true, "serializable", 1);
+    assertEquals(cacheKey, serialize(cacheKey));
+  }
+
+  @Test
+  void shouldCreateKeysOfTheConfiguredMode() {
+    Configuration configuration = new Configuration();
+    assertEquals(CacheKey.class, configuration.newCacheKey().getClass());
+    configuration.setCacheKeyMode(CacheKeyMode.FINGERPRINT);
+    assertFalse(((FingerprintCacheKey) configuration.newCacheKey()).isVerify());
+    configuration.setCacheKeyMode(CacheKeyMode.VERIFIED_FINGERPRINT);
+    assertTrue(((FingerprintCacheKey) configuration.newCacheKey()).isVerify());
+  }
+
+  private static FingerprintCacheKey key(boolean verify, Object... objects) {
+    FingerprintCacheKey key = new FingerprintCacheKey(verify);
+    key.updateAll(objects);
+    return key;
+  }
+
+  private static <T> T serialize(T object) throws Exception {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    new ObjectOutputStream(baos).writeObject(object);
+
+    ByteArrayInputStream bais = new ByteArrayInputStream(baos.toByteArray());
+    return (T) new ObjectInputStream(bais).readObject();
+  }
+
+  private static class CollidingValue {
+    private final int value;
+
+    CollidingValue(int value) {
+      this.value = value;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof CollidingValue && ((CollidingValue) obj).value == value;
+    }
+
+    @Override
+    public int hashCode() {
+      return 42;
+    }
+  }
+
+}
@@ -0,0 +1,131 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.cache.impl.TinyLfuCache;
+import org.junit.jupiter.api.Test;
+
+class TinyLfuCacheTest {
+
+  @Test
+  void shouldNotExceedTheMaximumSize() {
+    TinyLfuCache cache = newCache(100, 0);
+    for (int i = 0; i < 1000; i++) {
+      cache.putObject(i, i);
+    }
+    assertEquals(100, cache.getSize());
+    assertEquals(100, cache.getWeightedSize());
+    assertEquals(900, cache.getEvictionCount());
+  }
+
+  @Test
+  void shouldKeepFrequentlyUsedItemsDuringAScan() {
+    TinyLfuCache cache = newCache(100, 0);
+    for (int i = 0; i < 50; i++) {
+      cache.putObject(i, i);
+    }
+    for (int round = 0; round < 5; round++) {
+      for (int i = 0; i < 50; i++) {
+        assertEquals(i, cache.getObject(i));
+      }
+    }
+    for (int i = 1000; i < 2000; i++) {
+      cache.putObject(i, i);
+    }
+    int retained = 0;
+    for (int i = 0; i < 50; i++) {
+      if (cache.getObject(i) != null) {
+        retained++;
+      }
+    }
+    assertEquals(50, retained);
+    assertEquals(100, cache.getSize());
+  }
+
+  @Test
+  void shouldBoundTheWeight() {
+    TinyLfuCache cache = newCache(100, 64 * 1024);
+    for (int i = 0; i < 100; i++) {
+      List<String> rows = new ArrayList<>();
+      for (int j = 0; j < 10; j++) {
+        rows.add("row " + i + "-" + j + " with some text to have a significant size");
+      }
+      cache.putObject(i, rows);
+    }
+    assertTrue(cache.getWeightedSize() <= 64 * 1024);
+    assertTrue(cache.getSize() < 100);
+    assertTrue(cache.getEvictionCount() > 0);
+  }
+
+  @Test
+  void shouldCountHitsAndMisses() {
+    TinyLfuCache cache = newCache(10, 0);
+    cache.putObject(0, 0);
+    assertEquals(0, cache.getObject(0));
+    assertEquals(0, cache.getObject(0));
+    assertNull(cache.getObject(1));
+    assertEquals(2, cache.getHitCount());
+    assertEquals(1, cache.getMissCount());
+    assertEquals(2.0 / 3, cache.getHitRatio(), 0.0001);
+  }
+
+  @Test
+  void shouldReplaceItem() {
+    TinyLfuCache cache = newCache(10, 0);
+    cache.putObject(0, "a");
+    cache.putObject(0, "b");
+    assertEquals("b", cache.getObject(0));
+    assertEquals(1, cache.getSize());
+    assertEquals(1, cache.getWeightedSize());
+  }
+
+  @Test
+  void shouldRemoveItemOnDemand() {
+    Cache cache = newCache(10, 0);
+    cache.putObject(0, 0);
+    assertNotNull(cache.getObject(0));
+    cache.removeObject(0);
+    assertNull(cache.getObject(0));
+  }
+
+  @Test
+  void shouldFlushAllItemsOnDemand() {
+    TinyLfuCache cache = newCache(10, 0);
+    for (int i = 0; i < 5; i++) {
+      cache.putObject(i, i);
+    }
+    assertNotNull(cache.getObject(0));
+    assertNotNull(cache.getObject(4));
+    cache.clear();
+    assertNull(cache.getObject(0));
+    assertNull(cache.getObject(4));
+    assertEquals(0, cache.getWeightedSize());
+  }
+
+  private TinyLfuCache newCache(int size, long maximumWeight) {
+    TinyLfuCache cache = new TinyLfuCache("default");
+    cache.setSize(size);
+    cache.setMaximumWeight(maximumWeight);
+    cache.initialize();
+    return cache;
+  }
+
+}
@@ -0,0 +1,225 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.columnar;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.executor.resultset.DefaultResultSetHandler;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.ObjectTypeHandler;
+import org.junit.jupiter.api.Test;
+
+class ColumnarResultTest {
+
+  private static final String[] LABELS = { "id", "views", "ratio", "category", "price" };
+  private static final int[] TYPES = { Types.INTEGER, Types.BIGINT, Types.DOUBLE, Types.VARCHAR, Types.DECIMAL };
+  private static final Class<?>[] CLASSES = { Integer.class, Long.class, Double.class, String.class, BigDecimal.class };
+
+  @Test
+  void shouldReadColumnsIntoPrimitiveArrays() throws Exception {
+    ColumnarResult result = select(RowBounds.DEFAULT, 40);
+
+    assertEquals(40, result.getRowCount());
+    assertEquals(5, result.getColumns().size());
+    int[] ids = result.getIntColumn("ID").getValues();
+    assertEquals(40, ids.length);
+    assertEquals(1, ids[0]);
+    assertEquals(40, ids[39]);
+    assertEquals(7000L, result.getLongColumn("views").getLong(6));
+    assertEquals(2.5, result.getDoubleColumn("ratio").getDouble(4));
+    assertEquals(new BigDecimal("9.99"), result.getObjectColumn("price").getObject(0));
+    assertEquals(JdbcType.DECIMAL, result.getColumn(4).getJdbcType());
+  }
+
+  @Test
+  void shouldMarkNullValues() throws Exception {
+    ColumnarResult result = select(RowBounds.DEFAULT, 10);
+
+    LongColumn views = result.getLongColumn("views");
+    assertTrue(views.isNull(2));
+    assertEquals(0L, views.getLong(2));
+    assertNull(views.getObject(2));
+    assertFalse(views.isNull(3));
+    assertEquals(4000L, views.getObject(3));
+    assertNull(result.getStringColumn("category").getString(2));
+    assertEquals(-1, result.getStringColumn("category").getCodes()[2]);
+  }
+
+  @Test
+  void shouldEncodeStringsWithDictionary() throws Exception {
+    StringColumn categories = select(RowBounds.DEFAULT, 10).getStringColumn("category");
+
+    assertEquals(Arrays.asList("odd", "even"), categories.getDictionary());
+    assertArrayEquals(new int[] { 0, 1, -1, 1, 0, 1, 0, 1, 0, 1 }, categories.getCodes());
+    assertEquals("even", categories.getString(3));
+  }
+
+  @Test
+  void shouldApplyRowBounds() throws Exception {
+    ColumnarResult result = select(new RowBounds(5, 3), 40);
+
+    assertArrayEquals(new int[] { 6, 7, 8 }, result.getIntColumn("id").getValues());
+  }
+
+  @Test
+  void shouldRejectColumnsOfAnotherType() throws Exception {
+    ColumnarResult result = select(RowBounds.DEFAULT, 1);
+
+    assertThrows(IllegalArgumentException.class, () -> result.getIntColumn("views"));
+    assertThrows(IllegalArgumentException.class, () -> result.getColumn("unknown"));
+  }
+
+  @Test
+  void shouldSerializeColumns() throws Exception {
+    ColumnarResult result = select(RowBounds.DEFAULT, 10);
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(result);
+    }
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      ColumnarResult copy = (ColumnarResult) in.readObject();
+      assertArrayEquals(result.getIntColumn("id").getValues(), copy.getIntColumn("id").getValues());
+      assertTrue(copy.getLongColumn("views").isNull(2));
+      assertEquals("even", copy.getStringColumn("category").getString(1));
+    }
+  }
+
+  @Test
+  void shouldRejectValuesThatAreNotSerializable() throws Exception {
+    ObjectColumn column = new ObjectColumn("payload", JdbcType.OTHER, new ObjectTypeHandler());
+    column.read((ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { ResultSet.class },
+        (proxy, method, args) -> "getObject".equals(method.getName()) ? new Object() : defaultValue(method)), 1, 0);
+
+    try (ObjectOutputStream out = new ObjectOutputStream(new ByteArrayOutputStream())) {
+      NotSerializableException e = assertThrows(NotSerializableException.class, () -> out.writeObject(column));
+      assertTrue(e.getMessage().contains("payload"));
+    }
+  }
+
+  @Test
+  void shouldRejectCursors() throws Exception {
+    DefaultResultSetHandler resultSetHandler = resultSetHandler(RowBounds.DEFAULT);
+    Statement statement = statement(resultSet(1));
+
+    ExecutorException e = assertThrows(ExecutorException.class, () -> resultSetHandler.handleCursorResultSets(statement));
+    assertTrue(e.getMessage().contains("Cursor"));
+  }
+
+  private ColumnarResult select(RowBounds rowBounds, int rowCount) throws Exception {
+    List<Object> results = resultSetHandler(rowBounds).handleResultSets(statement(resultSet(rowCount)));
+    assertEquals(1, results.size());
+    return (ColumnarResult) results.get(0);
+  }
+
+  private DefaultResultSetHandler resultSetHandler(RowBounds rowBounds) {
+    Configuration configuration = new Configuration();
+    ResultMap resultMap = new ResultMap.Builder(configuration, "selectPosts-Inline",
+        configuration.getTypeAliasRegistry().resolveAlias("columnar"), Collections.emptyList()).build();
+    MappedStatement ms = new MappedStatement.Builder(configuration, "selectPosts",
+        new StaticSqlSource(configuration, "select id, views, ratio, category, price from post"), SqlCommandType.SELECT)
+            .resultMaps(Collections.singletonList(resultMap)).build();
+    return new DefaultResultSetHandler(null, ms, null, null, null, rowBounds);
+  }
+
+  private Statement statement(ResultSet rs) {
+    return (Statement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Statement.class },
+        (proxy, method, args) -> "getResultSet".equals(method.getName()) ? rs : defaultValue(method));
+  }
+
+  private Object defaultValue(Method method) {
+    return method.getReturnType() == boolean.class ? Boolean.FALSE : null;
+  }
+
+  private ResultSet resultSet(int rowCount) {
+    ResultSetMetaData metaData = (ResultSetMetaData) Proxy.newProxyInstance(getClass().getClassLoader(),
+        new Class<?>[] { ResultSetMetaData.class }, (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "getColumnCount":
+              return LABELS.length;
+            case "getColumnLabel":
+              return LABELS[(Integer) args[0] - 1];
+            case "getColumnType":
+              return TYPES[(Integer) args[0] - 1];
+            default:
+              return CLASSES[(Integer) args[0] - 1].getName();
+          }
+        });
+    int[] row = { 0 };
+    boolean[] wasNull = { false };
+    return (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { ResultSet.class },
+        (proxy, method, args) -> {
+          // the third row has null views and category
+          boolean nullRow = row[0] == 3;
+          switch (method.getName()) {
+            case "getMetaData":
+              return metaData;
+            case "getType":
+              return ResultSet.TYPE_FORWARD_ONLY;
+            case "next":
+              return ++row[0] <= rowCount;
+            case "wasNull":
+              return wasNull[0];
+            case "getInt":
+              wasNull[0] = false;
+              return row[0];
+            case "getLong":
+              wasNull[0] = nullRow;
+              return nullRow ? 0L : row[0] * 1000L;
+            case "getDouble":
+              wasNull[0] = false;
+              return row[0] / 2.0;
+            case "getString":
+              wasNull[0] = nullRow;
+              return nullRow ? null : row[0] % 2 == 0 ? "even" : "odd";
+            case "getBigDecimal":
+              wasNull[0] = false;
+              return new BigDecimal("9.99");
+            default:
+              return defaultValue(method);
+          }
+        });
+  }
+
+}
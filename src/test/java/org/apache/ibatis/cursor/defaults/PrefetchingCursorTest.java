@@ -0,0 +1,209 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cursor.defaults;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.resultset.DefaultResultSetHandler;
+import org.apache.ibatis.executor.resultset.ResultSetWrapper;
+import org.apache.ibatis.mapping.Discriminator;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.type.TypeHandlerRegistry;
+import org.junit.jupiter.api.Test;
+
+class PrefetchingCursorTest {
+
+  private final Configuration configuration = new Configuration();
+  private volatile boolean closed;
+  private int failAtRow = -1;
+
+  @Test
+  void shouldMapAllRowsAheadOfTheConsumer() throws Exception {
+    MappedStatement ms = mappedStatement(2);
+    DefaultResultSetHandler resultSetHandler = new DefaultResultSetHandler(null, ms, null, null, null, RowBounds.DEFAULT);
+    try (Cursor<Map<String, Object>> cursor = resultSetHandler.handleCursorResultSets(statement(resultSet(10)))) {
+      assertTrue(cursor instanceof PrefetchingCursor);
+      assertFalse(cursor.isOpen());
+      List<Object> ids = new ArrayList<>();
+      for (Map<String, Object> row : cursor) {
+        assertTrue(cursor.isOpen());
+        ids.add(row.get("id"));
+        assertEquals("name" + row.get("id"), row.get("name"));
+        assertEquals(ids.size() - 1, cursor.getCurrentIndex());
+      }
+      assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10), ids);
+      assertTrue(cursor.isConsumed());
+      assertFalse(cursor.isOpen());
+      assertTrue(closed);
+    }
+  }
+
+  @Test
+  void shouldApplyRowBounds() throws Exception {
+    try (Cursor<Map<String, Object>> cursor = cursor(resultSet(10), new RowBounds(3, 4), 2)) {
+      Iterator<Map<String, Object>> iterator = cursor.iterator();
+      List<Object> ids = new ArrayList<>();
+      while (iterator.hasNext()) {
+        ids.add(iterator.next().get("id"));
+      }
+      assertEquals(Arrays.asList(4, 5, 6, 7), ids);
+      assertEquals(6, cursor.getCurrentIndex());
+      assertTrue(cursor.isConsumed());
+      assertThrows(NoSuchElementException.class, iterator::next);
+    }
+  }
+
+  @Test
+  void shouldStopMappingWhenClosed() throws Exception {
+    Cursor<Map<String, Object>> cursor = cursor(resultSet(1000), RowBounds.DEFAULT, 4);
+    Iterator<Map<String, Object>> iterator = cursor.iterator();
+    assertEquals(1, iterator.next().get("id"));
+    cursor.close();
+    assertTrue(closed);
+    assertFalse(cursor.isOpen());
+    assertFalse(cursor.isConsumed());
+    assertFalse(iterator.hasNext());
+  }
+
+  @Test
+  void shouldThrowMappingErrorsAfterThePreviousRows() throws Exception {
+    failAtRow = 3;
+    try (Cursor<Map<String, Object>> cursor = cursor(resultSet(10), RowBounds.DEFAULT, 8)) {
+      Iterator<Map<String, Object>> iterator = cursor.iterator();
+      assertEquals(1, iterator.next().get("id"));
+      assertEquals(2, iterator.next().get("id"));
+      RuntimeException e = assertThrows(RuntimeException.class, iterator::hasNext);
+      assertTrue(e.getCause() instanceof SQLException);
+      assertEquals("broken row", e.getCause().getMessage());
+      assertTrue(closed);
+      assertFalse(iterator.hasNext());
+    }
+  }
+
+  @Test
+  void shouldNotPrefetchWhenANestedResultMapHasNestedQueries() throws Exception {
+    TypeHandlerRegistry registry = configuration.getTypeHandlerRegistry();
+    ResultMapping books = new ResultMapping.Builder(configuration, "books", "id", Object.class)
+        .nestedQueryId("selectBooks").build();
+    configuration.addResultMap(new ResultMap.Builder(configuration, "bookMap", HashMap.class, Arrays.asList(books)).build());
+    configuration.addResultMap(new ResultMap.Builder(configuration, "caseMap", HashMap.class,
+        Arrays.asList(new ResultMapping.Builder(configuration, "details").nestedResultMapId("bookMap").build())).build());
+    ResultMapping id = new ResultMapping.Builder(configuration, "id", "id", registry.getTypeHandler(Integer.class)).build();
+    Map<String, String> cases = new HashMap<>();
+    cases.put("1", "caseMap");
+    ResultMap resultMap = new ResultMap.Builder(configuration, "authorMap", HashMap.class, Arrays.asList(id))
+        .discriminator(new Discriminator.Builder(configuration, id, cases).build()).build();
+    MappedStatement ms = new MappedStatement.Builder(configuration, "selectAuthors",
+        new StaticSqlSource(configuration, "select id, name from author"), SqlCommandType.SELECT)
+            .resultMaps(Arrays.asList(resultMap)).cursorPrefetchSize(2).build();
+    DefaultResultSetHandler resultSetHandler = new DefaultResultSetHandler(null, ms, null, null, null, RowBounds.DEFAULT);
+    try (Cursor<Map<String, Object>> cursor = resultSetHandler.handleCursorResultSets(statement(resultSet(10)))) {
+      assertFalse(cursor instanceof PrefetchingCursor);
+    }
+  }
+
+  private Cursor<Map<String, Object>> cursor(ResultSet rs, RowBounds rowBounds, int prefetchSize) throws SQLException {
+    MappedStatement ms = mappedStatement(prefetchSize);
+    DefaultResultSetHandler resultSetHandler = new DefaultResultSetHandler(null, ms, null, null, null, rowBounds);
+    ResultSetWrapper rsw = new ResultSetWrapper(rs, configuration);
+    return new PrefetchingCursor<>(resultSetHandler, ms.getResultMaps().get(0), rsw, rowBounds, prefetchSize);
+  }
+
+  private MappedStatement mappedStatement(int prefetchSize) {
+    TypeHandlerRegistry registry = configuration.getTypeHandlerRegistry();
+    List<ResultMapping> mappings = new ArrayList<>();
+    mappings.add(new ResultMapping.Builder(configuration, "id", "id", registry.getTypeHandler(Integer.class)).build());
+    mappings.add(new ResultMapping.Builder(configuration, "name", "name", registry.getTypeHandler(String.class)).build());
+    ResultMap resultMap = new ResultMap.Builder(configuration, "authorMap", HashMap.class, mappings).build();
+    return new MappedStatement.Builder(configuration, "selectAuthors",
+        new StaticSqlSource(configuration, "select id, name from author"), SqlCommandType.SELECT)
+            .resultMaps(Arrays.asList(resultMap)).cursorPrefetchSize(prefetchSize).build();
+  }
+
+  private Statement statement(ResultSet rs) {
+    return (Statement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Statement.class },
+        (proxy, method, args) -> "getResultSet".equals(method.getName()) ? rs : null);
+  }
+
+  private ResultSet resultSet(int rowCount) {
+    ResultSetMetaData metaData = (ResultSetMetaData) Proxy.newProxyInstance(getClass().getClassLoader(),
+        new Class<?>[] { ResultSetMetaData.class }, (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "getColumnCount":
+              return 2;
+            case "getColumnLabel":
+              return (Integer) args[0] == 1 ? "id" : "name";
+            case "getColumnType":
+              return (Integer) args[0] == 1 ? Types.INTEGER : Types.VARCHAR;
+            default:
+              return (Integer) args[0] == 1 ? Integer.class.getName() : String.class.getName();
+          }
+        });
+    int[] row = { 0 };
+    return (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { ResultSet.class },
+        (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "getMetaData":
+              return metaData;
+            case "getType":
+              return ResultSet.TYPE_FORWARD_ONLY;
+            case "next":
+              return ++row[0] <= rowCount;
+            case "isClosed":
+              return closed;
+            case "close":
+              closed = true;
+              return null;
+            case "wasNull":
+              return false;
+            case "getInt":
+              if (row[0] == failAtRow) {
+                throw new SQLException("broken row");
+              }
+              return row[0];
+            case "getString":
+              return "name" + row[0];
+            default:
+              return null;
+          }
+        });
+  }
+
+}
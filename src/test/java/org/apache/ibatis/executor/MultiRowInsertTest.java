@@ -0,0 +1,107 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.transaction.jdbc.JdbcTransaction;
+import org.junit.jupiter.api.Test;
+
+class MultiRowInsertTest {
+
+  @Test
+  void shouldRepeatValuesRow() {
+    MultiRowInsert insert = MultiRowInsert.parse("insert into users (id, name) values (?, ?)", 2);
+    assertEquals("insert into users (id, name) values (?, ?), (?, ?), (?, ?)", insert.getSql(3));
+    assertEquals(2, insert.getParameterCount());
+  }
+
+  @Test
+  void shouldHandleFunctionsAndLiterals() {
+    MultiRowInsert insert = MultiRowInsert.parse("INSERT INTO users VALUES (?, lower(?), 'it''s (values)?') ;", 2);
+    assertEquals("INSERT INTO users VALUES (?, lower(?), 'it''s (values)?'), (?, lower(?), 'it''s (values)?')",
+        insert.getSql(2));
+  }
+
+  @Test
+  void shouldNotRewriteOtherStatements() {
+    assertNull(MultiRowInsert.parse("update users set name = ?", 1));
+    assertNull(MultiRowInsert.parse("insert into users (name) select name from people where id = ?", 1));
+    assertNull(MultiRowInsert.parse("insert into users (name) values (?), (?)", 2));
+    assertNull(MultiRowInsert.parse("insert into users (name) values (?) on conflict do nothing", 1));
+    assertNull(MultiRowInsert.parse("insert into users (name) values (?) returning id", 1));
+    assertNull(MultiRowInsert.parse("insert into users_values (name) values ('?')", 1));
+  }
+
+  @Test
+  void shouldSkipComments() {
+    MultiRowInsert insert = MultiRowInsert.parse(
+        "insert into users /* no values here */ (id, name) -- nor (?) here\nvalues (?, /* ) */ ?) -- done;\n", 2);
+    assertEquals("insert into users /* no values here */ (id, name) -- nor (?) here\nvalues (?, /* ) */ ?), (?, /* ) */ ?)",
+        insert.getSql(2));
+    assertEquals("insert into users values /* row */ (?), (?)",
+        MultiRowInsert.parse("insert into users values /* row */ (?) ; -- end", 1).getSql(2));
+    assertNull(MultiRowInsert.parse("insert into users values (?) -- one row\n, (?)", 2));
+    assertNull(MultiRowInsert.parse("insert into users values (?) /* unterminated", 1));
+  }
+
+  @Test
+  void shouldBindTheValuesOfEachRowWhenItIsAdded() throws SQLException {
+    Configuration configuration = new Configuration();
+    configuration.setBatchInsertMaxRows(2);
+    MappedStatement ms = new MappedStatement.Builder(configuration, "insertUser",
+        new StaticSqlSource(configuration, "insert into users (id, name) values (?, ?)",
+            Arrays.asList(new ParameterMapping.Builder(configuration, "id", Integer.class).build(),
+                new ParameterMapping.Builder(configuration, "name", String.class).build())),
+        SqlCommandType.INSERT).build();
+    Connection connection = mock(Connection.class);
+    PreparedStatement ps = mock(PreparedStatement.class);
+    when(connection.prepareStatement("insert into users (id, name) values (?, ?), (?, ?)")).thenReturn(ps);
+    BatchExecutor executor = new BatchExecutor(configuration, new JdbcTransaction(connection));
+
+    // the same parameter object is reused for every row
+    Map<String, Object> user = new HashMap<>();
+    user.put("id", 1);
+    user.put("name", "one");
+    executor.update(ms, user);
+    user.put("id", 2);
+    user.put("name", "two");
+    executor.update(ms, user);
+
+    verify(ps).setInt(1, 1);
+    verify(ps).setString(2, "one");
+    verify(ps).setInt(3, 2);
+    verify(ps).setString(4, "two");
+    verify(ps).addBatch();
+  }
+
+}
@@ -0,0 +1,227 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.pagination;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.mapping.StatementType;
+import org.apache.ibatis.scripting.defaults.DefaultParameterHandler;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.KeysetRowBounds;
+import org.apache.ibatis.session.RowBounds;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PaginationTest {
+
+  private Configuration configuration;
+
+  @BeforeEach
+  void setUp() {
+    configuration = new Configuration();
+  }
+
+  @Test
+  void shouldPushRowBoundsDownToDatabase() throws SQLException {
+    configuration.setPaginationDialect(new LimitOffsetDialect());
+    MappedStatement ms = mappedStatement(StatementType.PREPARED);
+
+    Pagination pagination = Pagination.of(ms, ms.getBoundSql(7), new RowBounds(20, 10));
+
+    assertEquals("select * from blog where author_id = ? LIMIT ? OFFSET ?", pagination.getBoundSql().getSql());
+    assertSame(RowBounds.DEFAULT, pagination.getRowBounds());
+    PreparedStatement ps = setParameters(ms, pagination.getBoundSql());
+    verify(ps).setInt(1, 7);
+    verify(ps).setInt(2, 10);
+    verify(ps).setInt(3, 20);
+  }
+
+  @Test
+  void shouldSkipRowsInMemoryWithoutDialect() {
+    MappedStatement ms = mappedStatement(StatementType.PREPARED);
+    BoundSql boundSql = ms.getBoundSql(7);
+    RowBounds rowBounds = new RowBounds(20, 10);
+
+    Pagination pagination = Pagination.of(ms, boundSql, rowBounds);
+
+    assertSame(boundSql, pagination.getBoundSql());
+    assertSame(rowBounds, pagination.getRowBounds());
+  }
+
+  @Test
+  void shouldNotPageCallableStatements() {
+    configuration.setPaginationDialect(new LimitOffsetDialect());
+    MappedStatement ms = mappedStatement(StatementType.CALLABLE);
+    BoundSql boundSql = ms.getBoundSql(7);
+
+    assertSame(boundSql, Pagination.of(ms, boundSql, new RowBounds(20, 10)).getBoundSql());
+  }
+
+  @Test
+  void shouldSelectDialectByDatabaseId() {
+    configuration.setPaginationDialect(new VendorPaginationDialect());
+    MappedStatement ms = mappedStatement(StatementType.PREPARED);
+
+    configuration.setDatabaseId("PostgreSQL");
+    assertEquals("select * from blog where author_id = ? LIMIT ? OFFSET ?",
+        Pagination.of(ms, ms.getBoundSql(7), new RowBounds(20, 10)).getBoundSql().getSql());
+    configuration.setDatabaseId("Microsoft SQL Server");
+    assertEquals("select * from blog order by id OFFSET ? ROWS FETCH NEXT ? ROWS ONLY", new VendorPaginationDialect()
+        .getPageSql(ms, "select * from blog order by id", 20, 10, new ArrayList<>()));
+    // SQL Server only accepts OFFSET after an ORDER BY
+    assertEquals("select * from blog where author_id = ?",
+        Pagination.of(ms, ms.getBoundSql(7), new RowBounds(20, 10)).getBoundSql().getSql());
+    configuration.setDatabaseId("sybase");
+    assertEquals("select * from blog where author_id = ?",
+        Pagination.of(ms, ms.getBoundSql(7), new RowBounds(20, 10)).getBoundSql().getSql());
+  }
+
+  @Test
+  void shouldPageWithOffsetFetch() {
+    List<Object> parameters = new ArrayList<>();
+
+    assertEquals("select * from blog OFFSET ? ROWS", new OffsetFetchDialect().getPageSql(null, "select * from blog", 20,
+        RowBounds.NO_ROW_LIMIT, parameters));
+    assertEquals(Collections.singletonList(20), parameters);
+  }
+
+  @Test
+  void shouldLeaveSelectsThatCannotBeAppendedToMyBatis() {
+    List<PaginationDialect> dialects = Arrays.asList(new LimitOffsetDialect(), new OffsetFetchDialect(), new RownumDialect());
+    for (PaginationDialect dialect : dialects) {
+      assertNull(dialect.getPageSql(null, "select * from blog -- all the blogs", 20, 10, new ArrayList<>()));
+      assertNull(dialect.getPageSql(null, "select * from blog /* all the blogs */", 20, 10, new ArrayList<>()));
+      assertNull(dialect.getPageSql(null, "select * from blog;", 20, 10, new ArrayList<>()));
+      assertNull(dialect.getPageSql(null, "select * from blog where id > ? for update", 20, 10, new ArrayList<>()));
+    }
+    for (PaginationDialect dialect : dialects.subList(0, 2)) {
+      assertNull(dialect.getPageSql(null, "select * from blog limit 5", 20, 10, new ArrayList<>()));
+      assertNull(dialect.getPageSql(null, "select * from blog FETCH FIRST 5 ROWS ONLY", 20, 10, new ArrayList<>()));
+    }
+    assertNull(new OffsetFetchDialect(true).getPageSql(null, "select * from blog", 20, 10, new ArrayList<>()));
+  }
+
+  @Test
+  void shouldIgnoreKeywordsOutsideTheTopLevelOfTheSelect() {
+    List<Object> parameters = new ArrayList<>();
+
+    assertEquals("select * from (select * from blog limit 5) b -- no limit here\n where title <> '; for update' LIMIT ?",
+        new LimitOffsetDialect().getPageSql(null,
+            "select * from (select * from blog limit 5) b -- no limit here\n where title <> '; for update'", 0, 10,
+            parameters));
+    assertEquals(Collections.singletonList(10), parameters);
+    assertEquals("select b.limit from blog b order by id OFFSET ? ROWS", new OffsetFetchDialect(true)
+        .getPageSql(null, "select b.limit from blog b order by id", 20, RowBounds.NO_ROW_LIMIT, new ArrayList<>()));
+  }
+
+  @Test
+  void shouldPageWithRownum() {
+    List<Object> parameters = new ArrayList<>();
+
+    assertEquals("SELECT * FROM (SELECT PAGE_.*, ROWNUM PAGE_RN_ FROM (select * from blog) PAGE_"
+        + " WHERE ROWNUM <= ?) WHERE PAGE_RN_ > ?",
+        new RownumDialect().getPageSql(null, "select * from blog", 20, 10, parameters));
+    assertEquals(Arrays.asList(30L, 20), parameters);
+
+    parameters.clear();
+    assertEquals("SELECT * FROM (select * from blog) WHERE ROWNUM <= ?",
+        new RownumDialect().getPageSql(null, "select * from blog", 0, 10, parameters));
+    assertEquals(Collections.singletonList(10L), parameters);
+  }
+
+  @Test
+  void shouldSeekPageAfterLastKeys() throws SQLException {
+    configuration.setPaginationDialect(new LimitOffsetDialect());
+    MappedStatement ms = mappedStatement(StatementType.PREPARED);
+    KeysetRowBounds firstPage = new KeysetRowBounds(10, "created_on", "id").descending();
+
+    assertEquals("SELECT * FROM (select * from blog where author_id = ?) KEYSET_PAGE_ ORDER BY created_on DESC, id DESC"
+        + " LIMIT ?", Pagination.of(ms, ms.getBoundSql(7), firstPage).getBoundSql().getSql());
+
+    Pagination pagination = Pagination.of(ms, ms.getBoundSql(7), firstPage.after("2021-01-31", 42));
+    assertEquals("SELECT * FROM (select * from blog where author_id = ?) KEYSET_PAGE_"
+        + " WHERE (created_on < ?) OR (created_on = ? AND id < ?) ORDER BY created_on DESC, id DESC LIMIT ?",
+        pagination.getBoundSql().getSql());
+    assertSame(RowBounds.DEFAULT, pagination.getRowBounds());
+    PreparedStatement ps = setParameters(ms, pagination.getBoundSql());
+    verify(ps).setInt(1, 7);
+    verify(ps).setString(2, "2021-01-31");
+    verify(ps).setString(3, "2021-01-31");
+    verify(ps).setInt(4, 42);
+    verify(ps).setInt(5, 10);
+  }
+
+  @Test
+  void shouldSeekPageWithoutDialect() {
+    MappedStatement ms = mappedStatement(StatementType.PREPARED);
+    KeysetRowBounds rowBounds = new KeysetRowBounds(10, "id").after(42);
+
+    Pagination pagination = Pagination.of(ms, ms.getBoundSql(7), rowBounds);
+
+    assertEquals("SELECT * FROM (select * from blog where author_id = ?) KEYSET_PAGE_ WHERE (id > ?) ORDER BY id",
+        pagination.getBoundSql().getSql());
+    assertSame(rowBounds, pagination.getRowBounds());
+  }
+
+  @Test
+  void shouldRejectKeysetPaginationOfUnpreparedStatements() {
+    MappedStatement ms = mappedStatement(StatementType.STATEMENT);
+
+    assertThrows(ExecutorException.class, () -> Pagination.of(ms, ms.getBoundSql(7), new KeysetRowBounds(10, "id")));
+  }
+
+  @Test
+  void shouldRequireOneKeyPerKeyColumn() {
+    KeysetRowBounds rowBounds = new KeysetRowBounds(10, "created_on", "id");
+
+    assertNull(rowBounds.getLastKeys());
+    assertThrows(IllegalArgumentException.class, () -> rowBounds.after(42));
+    assertThrows(IllegalArgumentException.class, () -> rowBounds.after("2021-01-31", null));
+  }
+
+  private MappedStatement mappedStatement(StatementType statementType) {
+    List<ParameterMapping> parameterMappings = new ArrayList<>();
+    parameterMappings.add(new ParameterMapping.Builder(configuration, "id", Integer.class).build());
+    StaticSqlSource sqlSource = new StaticSqlSource(configuration, "select * from blog where author_id = ?", parameterMappings);
+    return new MappedStatement.Builder(configuration, "selectBlogs", sqlSource, SqlCommandType.SELECT)
+        .statementType(statementType).build();
+  }
+
+  private PreparedStatement setParameters(MappedStatement ms, BoundSql boundSql) {
+    PreparedStatement ps = mock(PreparedStatement.class);
+    new DefaultParameterHandler(ms, boundSql.getParameterObject(), boundSql).setParameters(ps);
+    return ps;
+  }
+
+}
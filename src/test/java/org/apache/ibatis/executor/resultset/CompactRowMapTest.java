@@ -0,0 +1,218 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.MapResultMode;
+import org.apache.ibatis.session.RowBounds;
+import org.junit.jupiter.api.Test;
+
+class CompactRowMapTest {
+
+  @Test
+  void shouldMapRowsToCompactMapsSharingTheirColumns() throws Exception {
+    List<Object> rows = selectRows(MapResultMode.COMPACT);
+
+    assertEquals(2, rows.size());
+    assertTrue(rows.get(0) instanceof CompactRowMap);
+    assertEquals(expectedRow(1), rows.get(0));
+    assertEquals(expectedRow(2), rows.get(1));
+    assertSame(((CompactRowMap) rows.get(0)).getColumns(), ((CompactRowMap) rows.get(1)).getColumns());
+    assertNull(((Map<?, ?>) rows.get(0)).get("ID"));
+  }
+
+  @Test
+  void shouldMapRowsToCaseInsensitiveMaps() throws Exception {
+    Map<?, ?> row = (Map<?, ?>) selectRows(MapResultMode.COMPACT_CASE_INSENSITIVE).get(0);
+
+    assertEquals(1, row.get("ID"));
+    assertEquals("name1", row.get("Name"));
+    assertEquals(Arrays.asList("id", "name"), new ArrayList<>(row.keySet()));
+  }
+
+  @Test
+  void shouldMapRowsToHashMapsByDefault() throws Exception {
+    Object row = selectRows(MapResultMode.HASH_MAP).get(0);
+
+    assertSame(HashMap.class, row.getClass());
+    assertEquals(expectedRow(1), row);
+  }
+
+  @Test
+  void shouldBehaveLikeHashMap() {
+    CompactRowMap row = new CompactRowMap(columns(false, "id", "name", "bio"));
+    row.setValue(0, 1);
+    row.setValue(2, null);
+    assertEquals(2, row.size());
+    assertTrue(row.containsKey("bio"));
+    assertFalse(row.containsKey("name"));
+
+    assertNull(row.put("name", "jim"));
+    assertNull(row.put("extra", true));
+    assertEquals("jim", row.put("name", "sally"));
+    Map<String, Object> expected = new HashMap<>();
+    expected.put("id", 1);
+    expected.put("name", "sally");
+    expected.put("bio", null);
+    expected.put("extra", true);
+    assertEquals(expected, row);
+    assertEquals(row, expected);
+    assertEquals(expected.hashCode(), row.hashCode());
+    assertEquals(Arrays.asList("id", "name", "bio", "extra"), new ArrayList<>(row.keySet()));
+
+    assertEquals("sally", row.remove("name"));
+    assertEquals(true, row.remove("extra"));
+    for (Iterator<Map.Entry<String, Object>> iterator = row.entrySet().iterator(); iterator.hasNext();) {
+      Map.Entry<String, Object> entry = iterator.next();
+      if (entry.getKey().equals("id")) {
+        entry.setValue(2);
+      } else {
+        iterator.remove();
+      }
+    }
+    assertEquals(Collections.singletonMap("id", 2), row);
+
+    row.clear();
+    assertTrue(row.isEmpty());
+  }
+
+  @Test
+  void shouldKeepOneValuePerDuplicatedColumn() {
+    CompactRowMap.Columns columns = columns(true, "id", "ID", "name");
+    CompactRowMap row = new CompactRowMap(columns);
+    row.setValue(columns.autoMappingSlots[0], 1);
+    row.setValue(columns.autoMappingSlots[1], 2);
+
+    assertEquals(1, row.size());
+    assertEquals(2, row.get("Id"));
+  }
+
+  @Test
+  void shouldSerializeValues() throws Exception {
+    CompactRowMap row = new CompactRowMap(columns(true, "id", "name"));
+    row.setValue(0, 1);
+    row.setValue(1, null);
+    row.put("extra", "value");
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(row);
+    }
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      CompactRowMap copy = (CompactRowMap) in.readObject();
+      assertEquals(row, copy);
+      assertTrue(copy.containsKey("NAME"));
+      assertEquals("value", copy.get("EXTRA"));
+    }
+  }
+
+  private CompactRowMap.Columns columns(boolean caseInsensitive, String... keys) {
+    int[] columnIndexes = new int[keys.length];
+    for (int i = 0; i < keys.length; i++) {
+      columnIndexes[i] = i + 1;
+    }
+    return new CompactRowMap.Columns(Arrays.asList(keys), columnIndexes, Collections.emptyList(), caseInsensitive);
+  }
+
+  private Map<String, Object> expectedRow(int id) {
+    Map<String, Object> row = new HashMap<>();
+    row.put("id", id);
+    row.put("name", "name" + id);
+    return row;
+  }
+
+  private List<Object> selectRows(MapResultMode mapResultMode) throws Exception {
+    Configuration configuration = new Configuration();
+    configuration.setMapResultMode(mapResultMode);
+    ResultMap resultMap = new ResultMap.Builder(configuration, "selectAuthors-Inline", Map.class, new ArrayList<>()).build();
+    MappedStatement ms = new MappedStatement.Builder(configuration, "selectAuthors",
+        new StaticSqlSource(configuration, "select id, name from author"), SqlCommandType.SELECT)
+            .resultMaps(Collections.singletonList(resultMap)).build();
+    DefaultResultSetHandler resultSetHandler = new DefaultResultSetHandler(null, ms, null, null, null, RowBounds.DEFAULT);
+    ResultSet rs = resultSet(2);
+    return resultSetHandler.handleResultSets((Statement) Proxy.newProxyInstance(getClass().getClassLoader(),
+        new Class<?>[] { Statement.class }, (proxy, method, args) -> "getResultSet".equals(method.getName()) ? rs : defaultValue(method)));
+  }
+
+  private Object defaultValue(Method method) {
+    return method.getReturnType() == boolean.class ? Boolean.FALSE : null;
+  }
+
+  private ResultSet resultSet(int rowCount) {
+    ResultSetMetaData metaData = (ResultSetMetaData) Proxy.newProxyInstance(getClass().getClassLoader(),
+        new Class<?>[] { ResultSetMetaData.class }, (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "getColumnCount":
+              return 2;
+            case "getColumnLabel":
+              return (Integer) args[0] == 1 ? "id" : "name";
+            case "getColumnType":
+              return (Integer) args[0] == 1 ? Types.INTEGER : Types.VARCHAR;
+            default:
+              return (Integer) args[0] == 1 ? Integer.class.getName() : String.class.getName();
+          }
+        });
+    int[] row = { 0 };
+    return (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { ResultSet.class },
+        (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "getMetaData":
+              return metaData;
+            case "getType":
+              return ResultSet.TYPE_FORWARD_ONLY;
+            case "next":
+              return ++row[0] <= rowCount;
+            case "wasNull":
+              return false;
+            case "getInt":
+              return row[0];
+            case "getString":
+              return "name" + row[0];
+            default:
+              return defaultValue(method);
+          }
+        });
+  }
+
+}
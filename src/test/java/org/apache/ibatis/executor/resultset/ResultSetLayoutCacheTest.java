@@ -0,0 +1,111 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.type.JdbcType;
+import org.junit.jupiter.api.Test;
+
+class ResultSetLayoutCacheTest {
+
+  @Test
+  void shouldShareTheLayoutOfResultSetsWithTheSameColumns() throws SQLException {
+    ResultSetLayoutCache cache = new ResultSetLayoutCache();
+    ResultSetMetaData metaData = metaData("ID", "NAME");
+    ResultSetLayout layout = cache.getLayout(metaData, true);
+    assertTrue(layout.isShared());
+    assertEquals(Arrays.asList("ID", "NAME"), layout.getColumnNames());
+    assertEquals(Arrays.asList(JdbcType.INTEGER, JdbcType.VARCHAR), layout.getJdbcTypes());
+    assertEquals(Arrays.asList("java.lang.Integer", "java.lang.String"), layout.getClassNames());
+
+    assertSame(layout, cache.getLayout(metaData, true));
+    assertSame(layout, cache.getLayout(metaData("ID", "NAME"), true));
+    verify(metaData, times(1)).getColumnClassName(1);
+
+    assertNotSame(layout, cache.getLayout(metaData("ID", "TITLE"), true));
+    assertEquals(2, cache.size());
+  }
+
+  @Test
+  void shouldNotShareMoreLayoutsThanTheLimit() throws SQLException {
+    ResultSetLayoutCache cache = new ResultSetLayoutCache();
+    for (int i = 0; i < ResultSetLayoutCache.MAX_LAYOUTS; i++) {
+      assertTrue(cache.getLayout(metaData("ID", "COLUMN" + i), true).isShared());
+    }
+    ResultSetLayout layout = cache.getLayout(metaData("ID", "OTHER"), true);
+    assertFalse(layout.isShared());
+    assertEquals(Arrays.asList("ID", "OTHER"), layout.getColumnNames());
+    assertEquals(ResultSetLayoutCache.MAX_LAYOUTS, cache.size());
+
+    cache.clear();
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void shouldShareResolvedTypeHandlersBetweenWrappers() throws SQLException {
+    Configuration configuration = new Configuration();
+    configuration.setResultSetLayoutCacheEnabled(true);
+    MappedStatement ms = new MappedStatement.Builder(configuration, "select",
+        new StaticSqlSource(configuration, "select id, name from author"), SqlCommandType.SELECT).build();
+
+    ResultSetWrapper first = new ResultSetWrapper(resultSet(metaData("ID", "NAME")), configuration, ms);
+    ResultSetWrapper second = new ResultSetWrapper(resultSet(metaData("ID", "NAME")), configuration, ms);
+    assertSame(first.getLayout(), second.getLayout());
+    assertSame(first.getTypeHandler(Object.class, "NAME"), second.getTypeHandler(Object.class, "NAME"));
+
+    configuration.setResultSetLayoutCacheEnabled(false);
+    ResultSetWrapper third = new ResultSetWrapper(resultSet(metaData("ID", "NAME")), configuration, ms);
+    assertFalse(third.getLayout().isShared());
+    assertNotSame(first.getLayout(), third.getLayout());
+  }
+
+  private ResultSet resultSet(ResultSetMetaData metaData) throws SQLException {
+    ResultSet rs = mock(ResultSet.class);
+    when(rs.getMetaData()).thenReturn(metaData);
+    return rs;
+  }
+
+  private ResultSetMetaData metaData(String... columns) throws SQLException {
+    ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+    when(metaData.getColumnCount()).thenReturn(columns.length);
+    for (int i = 0; i < columns.length; i++) {
+      when(metaData.getColumnLabel(i + 1)).thenReturn(columns[i]);
+      when(metaData.getColumnType(i + 1)).thenReturn(i == 0 ? Types.INTEGER : Types.VARCHAR);
+      when(metaData.getColumnClassName(i + 1)).thenReturn(i == 0 ? "java.lang.Integer" : "java.lang.String");
+    }
+    return metaData;
+  }
+
+}
@@ -0,0 +1,202 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.jdbc;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.datasource.pooled.ConcurrentPooledDataSource;
+import org.apache.ibatis.datasource.pooled.ConcurrentPooledDataSourceFactory;
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Test;
+
+class ConcurrentPooledDataSourceTest extends BaseDataTest {
+
+  @Test
+  void shouldProperlyMaintainPoolOf3ActiveAnd2IdleConnections() throws Exception {
+    PooledDataSource ds = createConcurrentPooledDataSource();
+    try {
+      runScript(ds, JPETSTORE_DDL);
+      ds.setDefaultAutoCommit(false);
+      ds.setPoolMaximumActiveConnections(3);
+      ds.setPoolMaximumIdleConnections(2);
+      ds.setPoolMaximumCheckoutTime(10000);
+      ds.setPoolPingConnectionsNotUsedFor(1);
+      ds.setPoolPingEnabled(true);
+      ds.setPoolPingQuery("SELECT * FROM PRODUCT");
+      ds.setPoolTimeToWait(10000);
+      List<Connection> connections = new ArrayList<>();
+      for (int i = 0; i < 3; i++) {
+        connections.add(ds.getConnection());
+      }
+      assertEquals(3, ds.getPoolState().getActiveConnectionCount());
+      for (Connection c : connections) {
+        c.close();
+      }
+      assertEquals(0, ds.getPoolState().getActiveConnectionCount());
+      assertEquals(2, ds.getPoolState().getIdleConnectionCount());
+      assertEquals(4, ds.getPoolState().getRequestCount());
+      assertEquals(0, ds.getPoolState().getBadConnectionCount());
+      assertEquals(0, ds.getPoolState().getHadToWaitCount());
+      assertEquals(0, ds.getPoolState().getClaimedOverdueConnectionCount());
+      assertNotNull(ds.getPoolState().toString());
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  void shouldReuseConnectionReturnedByTheSameThread() throws Exception {
+    PooledDataSource ds = createConcurrentPooledDataSource();
+    try {
+      Connection c1 = ds.getConnection();
+      Connection c2 = ds.getConnection();
+      Connection real2 = PooledDataSource.unwrapConnection(c2);
+      c1.close();
+      c2.close();
+      Connection c3 = ds.getConnection();
+      assertSame(real2, PooledDataSource.unwrapConnection(c3));
+      c3.close();
+      assertEquals(2, ds.getPoolState().getIdleConnectionCount());
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  void shouldHandConnectionOverToWaitingThread() throws Exception {
+    PooledDataSource ds = createConcurrentPooledDataSource();
+    ds.setPoolMaximumActiveConnections(1);
+    ds.setPoolTimeToWait(10000);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Connection c1 = ds.getConnection();
+      Connection real = PooledDataSource.unwrapConnection(c1);
+      Future<Connection> waiting = executor.submit(() -> {
+        try (Connection c2 = ds.getConnection()) {
+          return PooledDataSource.unwrapConnection(c2);
+        }
+      });
+      while (ds.getPoolState().getHadToWaitCount() == 0) {
+        Thread.sleep(10);
+      }
+      c1.close();
+      assertSame(real, waiting.get(5, TimeUnit.SECONDS));
+      assertEquals(1, ds.getPoolState().getHadToWaitCount());
+      assertEquals(0, ds.getPoolState().getBadConnectionCount());
+    } finally {
+      executor.shutdownNow();
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  void shouldClaimOverdueConnection() throws Exception {
+    PooledDataSource ds = createConcurrentPooledDataSource();
+    ds.setPoolMaximumActiveConnections(1);
+    ds.setPoolMaximumCheckoutTime(50);
+    ds.setPoolTimeToWait(100);
+    try {
+      Connection c1 = ds.getConnection();
+      Thread.sleep(100);
+      Connection c2 = ds.getConnection();
+      assertSame(PooledDataSource.unwrapConnection(c1), PooledDataSource.unwrapConnection(c2));
+      assertEquals(1, ds.getPoolState().getClaimedOverdueConnectionCount());
+      c1.close();
+      assertEquals(1, ds.getPoolState().getBadConnectionCount());
+      assertEquals(1, ds.getPoolState().getActiveConnectionCount());
+      c2.close();
+      assertEquals(0, ds.getPoolState().getActiveConnectionCount());
+      assertEquals(1, ds.getPoolState().getIdleConnectionCount());
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  void shouldNotExceedMaximumActiveConnectionsUnderContention() throws Exception {
+    PooledDataSource ds = createConcurrentPooledDataSource();
+    ds.setPoolMaximumActiveConnections(4);
+    ds.setPoolMaximumIdleConnections(2);
+    ExecutorService executor = Executors.newFixedThreadPool(16);
+    try {
+      List<Future<Integer>> futures = new ArrayList<>();
+      for (int i = 0; i < 16; i++) {
+        futures.add(executor.submit(() -> {
+          int maxActive = 0;
+          for (int j = 0; j < 200; j++) {
+            try (Connection c = ds.getConnection()) {
+              maxActive = Math.max(maxActive, ds.getPoolState().getActiveConnectionCount());
+            }
+          }
+          return maxActive;
+        }));
+      }
+      for (Future<Integer> future : futures) {
+        assertTrue(future.get(30, TimeUnit.SECONDS) <= 4);
+      }
+      assertEquals(0, ds.getPoolState().getActiveConnectionCount());
+      assertTrue(ds.getPoolState().getIdleConnectionCount() <= 2);
+      assertEquals(16 * 200, ds.getPoolState().getRequestCount());
+      assertEquals(0, ds.getPoolState().getBadConnectionCount());
+    } finally {
+      executor.shutdownNow();
+      ds.forceCloseAll();
+    }
+  }
+
+  @Test
+  void shouldBeConfiguredByDataSourceFactory() throws Exception {
+    Configuration configuration = new Configuration();
+    ConcurrentPooledDataSourceFactory factory = (ConcurrentPooledDataSourceFactory) configuration.getTypeAliasRegistry()
+        .resolveAlias("POOLED_CONCURRENT").getDeclaredConstructor().newInstance();
+    Properties props = Resources.getResourceAsProperties(JPETSTORE_PROPERTIES);
+    props.setProperty("poolMaximumActiveConnections", "7");
+    props.setProperty("poolTimeToWait", "500");
+    factory.setProperties(props);
+    ConcurrentPooledDataSource ds = (ConcurrentPooledDataSource) factory.getDataSource();
+    assertEquals(7, ds.getPoolMaximumActiveConnections());
+    assertEquals(500, ds.getPoolTimeToWait());
+    try (Connection c = ds.getConnection()) {
+      assertEquals(1, ds.getPoolState().getActiveConnectionCount());
+    } finally {
+      ds.forceCloseAll();
+    }
+  }
+
+  private static PooledDataSource createConcurrentPooledDataSource() throws IOException {
+    Properties props = Resources.getResourceAsProperties(JPETSTORE_PROPERTIES);
+    ConcurrentPooledDataSource ds = new ConcurrentPooledDataSource();
+    ds.setDriver(props.getProperty("driver"));
+    ds.setUrl(props.getProperty("url"));
+    ds.setUsername(props.getProperty("username"));
+    ds.setPassword(props.getProperty("password"));
+    return ds;
+  }
+
+}
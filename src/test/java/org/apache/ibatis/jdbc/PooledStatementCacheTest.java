@@ -0,0 +1,128 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.jdbc;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.datasource.pooled.StatementCacheStatistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PooledStatementCacheTest extends BaseDataTest {
+
+  private static final String SELECT_PRODUCT = "SELECT NAME FROM PRODUCT WHERE PRODUCTID = ?";
+  private static final String SELECT_ITEM = "SELECT ITEMID FROM ITEM WHERE PRODUCTID = ?";
+
+  private PooledDataSource ds;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    ds = createPooledDataSource(JPETSTORE_PROPERTIES);
+    runScript(ds, JPETSTORE_DDL);
+    runScript(ds, JPETSTORE_DATA);
+    ds.setPoolMaximumActiveConnections(1);
+    ds.setPoolMaximumIdleConnections(1);
+    ds.setPoolMaximumCachedStatements(1);
+  }
+
+  @AfterEach
+  void tearDown() {
+    ds.forceCloseAll();
+  }
+
+  @Test
+  void shouldReuseStatementAcrossConnectionCheckouts() throws Exception {
+    PreparedStatement first;
+    try (Connection conn = ds.getConnection(); PreparedStatement ps = conn.prepareStatement(SELECT_PRODUCT)) {
+      assertEquals("Angelfish", selectName(ps, "FI-SW-01"));
+      first = ps.unwrap(PreparedStatement.class);
+    }
+    try (Connection conn = ds.getConnection(); PreparedStatement ps = conn.prepareStatement(SELECT_PRODUCT)) {
+      assertSame(first, ps.unwrap(PreparedStatement.class));
+      assertEquals("Koi", selectName(ps, "FI-FW-01"));
+    }
+    StatementCacheStatistics statistics = ds.getStatementCacheStatistics().get(SELECT_PRODUCT);
+    assertEquals(1, statistics.getHitCount());
+    assertEquals(1, statistics.getMissCount());
+    assertEquals(0.5, statistics.getHitRatio(), 0.0001);
+  }
+
+  @Test
+  void shouldCloseLeastRecentlyUsedStatement() throws Exception {
+    try (Connection conn = ds.getConnection()) {
+      PreparedStatement product = conn.prepareStatement(SELECT_PRODUCT);
+      PreparedStatement realProduct = product.unwrap(PreparedStatement.class);
+      product.close();
+      assertTrue(product.isClosed());
+      assertFalse(realProduct.isClosed());
+
+      conn.prepareStatement(SELECT_ITEM).close();
+      assertTrue(realProduct.isClosed());
+      assertEquals(1, ds.getStatementCacheStatistics().get(SELECT_PRODUCT).getEvictionCount());
+    }
+  }
+
+  @Test
+  void shouldPrepareAnotherStatementWhileCachedOneIsInUse() throws Exception {
+    try (Connection conn = ds.getConnection();
+        PreparedStatement outer = conn.prepareStatement(SELECT_PRODUCT);
+        PreparedStatement inner = conn.prepareStatement(SELECT_PRODUCT)) {
+      assertNotSame(outer.unwrap(PreparedStatement.class), inner.unwrap(PreparedStatement.class));
+      assertEquals("Angelfish", selectName(outer, "FI-SW-01"));
+      assertEquals("Koi", selectName(inner, "FI-FW-01"));
+    }
+  }
+
+  @Test
+  void shouldNotLeakParametersToTheNextUser() throws Exception {
+    try (Connection conn = ds.getConnection()) {
+      try (PreparedStatement ps = conn.prepareStatement(SELECT_PRODUCT)) {
+        ps.setString(1, "FI-SW-01");
+        ps.setMaxRows(1);
+      }
+      try (PreparedStatement ps = conn.prepareStatement(SELECT_PRODUCT)) {
+        assertEquals(0, ps.getMaxRows());
+        assertThrows(SQLException.class, ps::executeQuery);
+      }
+    }
+  }
+
+  @Test
+  void shouldRejectUseOfClosedStatement() throws Exception {
+    try (Connection conn = ds.getConnection()) {
+      PreparedStatement ps = conn.prepareStatement(SELECT_PRODUCT);
+      ps.close();
+      assertThrows(SQLException.class, () -> ps.setString(1, "FI-SW-01"));
+    }
+  }
+
+  private static String selectName(PreparedStatement ps, String productId) throws SQLException {
+    ps.setString(1, productId);
+    try (ResultSet rs = ps.executeQuery()) {
+      assertTrue(rs.next());
+      return rs.getString(1);
+    }
+  }
+
+}
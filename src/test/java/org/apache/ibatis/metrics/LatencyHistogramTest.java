@@ -0,0 +1,68 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+  @Test
+  void shouldMapEveryValueToTheBucketContainingIt() {
+    for (long value = 0; value < 1 << 20; value += 7) {
+      int index = LatencyHistogram.indexOf(value);
+      assertTrue(LatencyHistogram.indexOf(value + 1) - index <= 1);
+      assertTrue(Math.abs(LatencyHistogram.valueOf(index) - value) <= Math.max(1, value / 32) + 1, "value " + value);
+    }
+  }
+
+  @Test
+  void shouldComputePercentilesWithinPrecision() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 1; i <= 1000; i++) {
+      histogram.record(i * 1000L);
+    }
+    assertEquals(1000, histogram.getCount());
+    assertEquals(500_500, histogram.getMeanNanos(), 0.001);
+    assertEquals(1_000_000, histogram.getMaxNanos());
+    assertEquals(500_000, histogram.getValueAtPercentile(50), 500_000 * 0.04);
+    assertEquals(990_000, histogram.getValueAtPercentile(99), 990_000 * 0.04);
+    assertEquals(1_000_000, histogram.getValueAtPercentile(100));
+  }
+
+  @Test
+  void shouldCountHugeAndNegativeValues() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(-5);
+    histogram.record(Long.MAX_VALUE);
+    assertEquals(2, histogram.getCount());
+    assertEquals(0, histogram.getValueAtPercentile(50));
+    assertEquals(Long.MAX_VALUE, histogram.getMaxNanos());
+    assertTrue(histogram.getValueAtPercentile(100) > 1L << 40);
+  }
+
+  @Test
+  void shouldReset() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(42);
+    histogram.reset();
+    assertEquals(0, histogram.getCount());
+    assertEquals(0, histogram.getMaxNanos());
+    assertEquals(0, histogram.getValueAtPercentile(99));
+  }
+
+}
@@ -0,0 +1,211 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.plugin;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class InterceptorChainTest {
+
+  private final List<String> calls = new ArrayList<>();
+
+  @Test
+  void shouldCallInterceptorsInTheOrderOfNestedPlugins() {
+    Map<String, String> map = new HashMap<>();
+    map.put("key", "value");
+    InterceptorChain chain = new InterceptorChain();
+    chain.addInterceptor(new GetInterceptor("first"));
+    chain.addInterceptor(new SizeInterceptor("second"));
+    chain.addInterceptor(new GetInterceptor("third"));
+    Map<?, ?> proxy = (Map<?, ?>) chain.pluginAll(map);
+    assertFalse(Proxy.getInvocationHandler(proxy) instanceof Plugin);
+    assertEquals("value", proxy.get("key"));
+    assertEquals(1, proxy.size());
+    assertEquals(map.toString(), proxy.toString());
+    List<String> dispatched = new ArrayList<>(calls);
+
+    calls.clear();
+    Map<?, ?> nested = (Map<?, ?>) new GetInterceptor("third").plugin(new SizeInterceptor("second")
+        .plugin(new GetInterceptor("first").plugin(map)));
+    assertEquals("value", nested.get("key"));
+    assertEquals(1, nested.size());
+    assertEquals(map.toString(), nested.toString());
+    assertEquals(calls, dispatched);
+    assertEquals("[third, first, second]", dispatched.toString());
+  }
+
+  @Test
+  void shouldCallInnerInterceptorsThroughTheTargetOfAnInvocation() {
+    InterceptorChain chain = new InterceptorChain();
+    chain.addInterceptor(new GetInterceptor("inner"));
+    chain.addInterceptor(new TargetInterceptor());
+    chain.addInterceptor(new GetInterceptor("outer"));
+    Map<?, ?> proxy = (Map<?, ?>) chain.pluginAll(new HashMap<>());
+    assertNull(proxy.get("key"));
+    assertEquals("[outer, target, inner]", calls.toString());
+  }
+
+  @Test
+  void shouldCallInnerInterceptorsOfInterfacesOuterInterceptorsDoNotWrap() {
+    InterceptorChain chain = new InterceptorChain();
+    chain.addInterceptor(new ClearInterceptor());
+    chain.addInterceptor(new TargetInterceptor());
+    Map<?, ?> proxy = (Map<?, ?>) chain.pluginAll(new CountingMap());
+    assertFalse(proxy instanceof Counter);
+    assertNull(proxy.get("key"));
+    assertEquals("[target, count]", calls.toString());
+  }
+
+  @Test
+  void shouldThrowTheExceptionsOfInterceptorsAndTargets() {
+    InterceptorChain chain = new InterceptorChain();
+    chain.addInterceptor(new GetInterceptor("inner"));
+    chain.addInterceptor(new FailingInterceptor());
+    chain.addInterceptor(new GetInterceptor("outer"));
+    Map<?, ?> proxy = (Map<?, ?>) chain.pluginAll(new HashMap<>());
+    IllegalStateException e = assertThrows(IllegalStateException.class, () -> proxy.get("key"));
+    assertEquals("failed", e.getMessage());
+    assertEquals("[outer]", calls.toString());
+
+    chain = new InterceptorChain();
+    chain.addInterceptor(new GetInterceptor("inner"));
+    chain.addInterceptor(new GetInterceptor("outer"));
+    Map<?, ?> failing = (Map<?, ?>) chain.pluginAll(new HashMap<Object, Object>() {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      public Object get(Object key) {
+        throw new UnsupportedOperationException();
+      }
+    });
+    assertThrows(UnsupportedOperationException.class, () -> failing.get("key"));
+  }
+
+  @Test
+  void shouldNotWrapTargetsNoInterceptorApplyTo() {
+    InterceptorChain chain = new InterceptorChain();
+    chain.addInterceptor(new GetInterceptor("map"));
+    List<String> list = new ArrayList<>();
+    assertSame(list, chain.pluginAll(list));
+  }
+
+  @Test
+  void shouldNestProxiesWhenAnInterceptorWrapsTargetsItself() {
+    InterceptorChain chain = new InterceptorChain();
+    chain.addInterceptor(new GetInterceptor("inner"));
+    chain.addInterceptor(new CustomPluginInterceptor());
+    Map<?, ?> proxy = (Map<?, ?>) chain.pluginAll(new HashMap<>());
+    assertTrue(Proxy.getInvocationHandler(proxy) instanceof Plugin);
+    proxy.get("key");
+    assertEquals("[custom, inner]", calls.toString());
+  }
+
+  @Intercepts(@Signature(type = Map.class, method = "get", args = Object.class))
+  class GetInterceptor implements Interceptor {
+    private final String name;
+
+    GetInterceptor(String name) {
+      this.name = name;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      calls.add(name);
+      return invocation.proceed();
+    }
+  }
+
+  @Intercepts(@Signature(type = Map.class, method = "size", args = {}))
+  class SizeInterceptor implements Interceptor {
+    private final String name;
+
+    SizeInterceptor(String name) {
+      this.name = name;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      calls.add(name);
+      return 1;
+    }
+  }
+
+  @Intercepts(@Signature(type = Map.class, method = "get", args = Object.class))
+  class TargetInterceptor implements Interceptor {
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      calls.add("target");
+      Object target = invocation.getTarget();
+      if (target instanceof Counter) {
+        ((Counter) target).count();
+      }
+      return ((Map<?, ?>) target).get(invocation.getArgs()[0]);
+    }
+  }
+
+  @Intercepts({ @Signature(type = Map.class, method = "clear", args = {}),
+      @Signature(type = Counter.class, method = "count", args = {}) })
+  class ClearInterceptor implements Interceptor {
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      calls.add(invocation.getMethod().getName());
+      return invocation.proceed();
+    }
+  }
+
+  interface Counter {
+    void count();
+  }
+
+  static class CountingMap extends HashMap<Object, Object> implements Counter {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public void count() {
+      // nothing to count
+    }
+  }
+
+  @Intercepts(@Signature(type = Map.class, method = "get", args = Object.class))
+  class FailingInterceptor implements Interceptor {
+    @Override
+    public Object intercept(Invocation invocation) {
+      throw new IllegalStateException("failed");
+    }
+  }
+
+  @Intercepts(@Signature(type = Map.class, method = "get", args = Object.class))
+  class CustomPluginInterceptor implements Interceptor {
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      calls.add("custom");
+      return invocation.proceed();
+    }
+
+    @Override
+    public Object plugin(Object target) {
+      return Plugin.wrap(target, this);
+    }
+  }
+
+}
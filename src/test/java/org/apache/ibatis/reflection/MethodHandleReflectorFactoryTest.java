@@ -0,0 +1,116 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.List;
+
+import org.apache.ibatis.reflection.invoker.Invoker;
+import org.apache.ibatis.reflection.invoker.MethodHandleInvoker;
+import org.junit.jupiter.api.Test;
+
+class MethodHandleReflectorFactoryTest {
+
+  private final ReflectorFactory reflectorFactory = new MethodHandleReflectorFactory();
+
+  @Test
+  void shouldReadAndWritePropertiesThroughMethodHandles() throws Exception {
+    Reflector reflector = reflectorFactory.findForClass(Bean.class);
+    Bean bean = new Bean();
+    Invoker setter = reflector.getSetInvoker("name");
+    assertTrue(setter instanceof MethodHandleInvoker);
+    setter.invoke(bean, new Object[] { "foo" });
+    assertEquals("foo", reflector.getGetInvoker("name").invoke(bean, null));
+    reflector.getSetInvoker("count").invoke(bean, new Object[] { 3 });
+    assertEquals(3, reflector.getGetInvoker("count").invoke(bean, null));
+    reflector.getSetInvoker("field").invoke(bean, new Object[] { "bar" });
+    assertEquals("bar", reflector.getGetInvoker("field").invoke(bean, null));
+    assertEquals(String.class, reflector.getGetInvoker("name").getType());
+    assertEquals(int.class, reflector.getSetInvoker("count").getType());
+  }
+
+  @Test
+  void shouldBehaveLikeReflectionForInvalidValues() throws Exception {
+    Reflector reflector = reflectorFactory.findForClass(Bean.class);
+    Bean bean = new Bean();
+    Invoker setter = reflector.getSetInvoker("count");
+    assertThrows(IllegalArgumentException.class, () -> setter.invoke(bean, new Object[] { null }));
+    assertThrows(IllegalArgumentException.class, () -> setter.invoke(bean, new Object[] { "3" }));
+    assertThrows(IllegalArgumentException.class, () -> setter.invoke(new Object(), new Object[] { 3 }));
+    assertEquals(0, bean.getCount());
+  }
+
+  @Test
+  void shouldWrapExceptionsThrownByTheAccessors() {
+    Reflector reflector = reflectorFactory.findForClass(Bean.class);
+    InvocationTargetException e = assertThrows(InvocationTargetException.class,
+        () -> reflector.getGetInvoker("broken").invoke(new Bean(), null));
+    assertEquals("broken", e.getTargetException().getMessage());
+  }
+
+  @Test
+  void shouldSetFinalFields() throws Exception {
+    Reflector reflector = reflectorFactory.findForClass(Bean.class);
+    Bean bean = new Bean();
+    reflector.getSetInvoker("constant").invoke(bean, new Object[] { "changed" });
+    assertEquals("changed", reflector.getGetInvoker("constant").invoke(bean, null));
+  }
+
+  @Test
+  void shouldResolveGenericGetterTypes() {
+    MetaClass metaClass = MetaClass.forClass(Bean.class, reflectorFactory);
+    assertEquals(String.class, metaClass.getGetterType("names[0]"));
+  }
+
+  static class Bean {
+    private final String constant = String.valueOf("constant");
+    private String name;
+    private int count;
+    private String field;
+    private List<String> names;
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+
+    public int getCount() {
+      return count;
+    }
+
+    public void setCount(int count) {
+      this.count = count;
+    }
+
+    public List<String> getNames() {
+      return names;
+    }
+
+    public void setNames(List<String> names) {
+      this.names = names;
+    }
+
+    public String getBroken() {
+      throw new IllegalStateException("broken");
+    }
+  }
+
+}
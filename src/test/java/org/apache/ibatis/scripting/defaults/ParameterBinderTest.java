@@ -0,0 +1,182 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.defaults;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.domain.blog.Blog;
+import org.apache.ibatis.domain.blog.Section;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.reflection.MethodHandleReflectorFactory;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ParameterBinderTest {
+
+  private Configuration configuration;
+
+  @BeforeEach
+  void setUp() {
+    configuration = new Configuration();
+    configuration.setCompiledParameterBindersEnabled(true);
+  }
+
+  @Test
+  void shouldBindNestedBeanProperties() throws SQLException {
+    StaticSqlSource sqlSource = sqlSource(mapping("id", Integer.class), mapping("author.username", String.class),
+        mapping("author.email", String.class));
+    Blog blog = new Blog(1, "title", new Author(2, "jim", "secret", "jim@example.com", "bio", Section.NEWS), null);
+
+    PreparedStatement ps = mock(PreparedStatement.class);
+    setParameters(sqlSource, blog, ps);
+
+    verify(ps).setInt(1, 1);
+    verify(ps).setString(2, "jim");
+    verify(ps).setString(3, "jim@example.com");
+  }
+
+  @Test
+  void shouldBindThroughMethodHandles() throws SQLException {
+    configuration.setReflectorFactory(new MethodHandleReflectorFactory());
+    StaticSqlSource sqlSource = sqlSource(mapping("id", Integer.class), mapping("author.username", String.class));
+    Blog blog = new Blog(1, "title", new Author(2, "jim", "secret", "jim@example.com", "bio", Section.NEWS), null);
+
+    PreparedStatement ps = mock(PreparedStatement.class);
+    setParameters(sqlSource, blog, ps);
+
+    verify(ps).setInt(1, 1);
+    verify(ps).setString(2, "jim");
+  }
+
+  @Test
+  void shouldBindNullIntermediateValueAsNull() throws SQLException {
+    StaticSqlSource sqlSource = sqlSource(mapping("author.username", String.class));
+
+    PreparedStatement ps = mock(PreparedStatement.class);
+    setParameters(sqlSource, new Blog(1, "title", null, null), ps);
+
+    verify(ps).setNull(1, Types.OTHER);
+  }
+
+  @Test
+  void shouldBindSimpleParameter() throws SQLException {
+    StaticSqlSource sqlSource = sqlSource(mapping("id", Integer.class), mapping("anything", Integer.class));
+
+    PreparedStatement ps = mock(PreparedStatement.class);
+    setParameters(sqlSource, 5, ps);
+
+    verify(ps).setInt(1, 5);
+    verify(ps).setInt(2, 5);
+  }
+
+  @Test
+  void shouldBindMapParameter() throws SQLException {
+    StaticSqlSource sqlSource = sqlSource(mapping("name", String.class), mapping("author.username", String.class));
+    Map<String, Object> parameter = new HashMap<>();
+    parameter.put("name", "blog");
+    parameter.put("author", new Author(2, "sally", "secret", "sally@example.com", "bio", Section.NEWS));
+
+    PreparedStatement ps = mock(PreparedStatement.class);
+    setParameters(sqlSource, parameter, ps);
+
+    verify(ps).setString(1, "blog");
+    verify(ps).setString(2, "sally");
+  }
+
+  @Test
+  void shouldBindAdditionalParametersFirst() throws SQLException {
+    StaticSqlSource sqlSource = sqlSource(mapping("__frch_item_0.username", String.class),
+        mapping("__frch_item_1.username", String.class), mapping("items[1].username", String.class), mapping("id", Integer.class));
+    List<Author> authors = Arrays.asList(new Author(1, "jim", null, null, null, null), new Author(2, "sally", null, null, null, null));
+    Blog blog = new Blog(3, "title", null, null);
+
+    BoundSql boundSql = sqlSource.getBoundSql(blog);
+    boundSql.setAdditionalParameter("__frch_item_0", authors.get(0));
+    boundSql.setAdditionalParameter("__frch_item_1", authors.get(1));
+    boundSql.setAdditionalParameter("items", authors);
+    PreparedStatement ps = mock(PreparedStatement.class);
+    new DefaultParameterHandler(mappedStatement(sqlSource), blog, boundSql).setParameters(ps);
+
+    verify(ps).setString(1, "jim");
+    verify(ps).setString(2, "sally");
+    verify(ps).setString(3, "sally");
+    verify(ps).setInt(4, 3);
+  }
+
+  @Test
+  void shouldShareBindersPerParameterType() {
+    StaticSqlSource sqlSource = sqlSource(mapping("id", Integer.class));
+    ParameterBinderCache cache = sqlSource.getBoundSql(null).getParameterBinderCache();
+
+    assertSame(cache, sqlSource.getBoundSql(1).getParameterBinderCache());
+    assertSame(cache.getParameterBinder(1), cache.getParameterBinder(2));
+    assertSame(cache.getParameterBinder(null), cache.getParameterBinder(null));
+    assertNotSame(cache.getParameterBinder(1), cache.getParameterBinder(new Blog(1, "title", null, null)));
+  }
+
+  @Test
+  void shouldShareBindersBetweenSourcesWithSameParameterMappings() {
+    ParameterBinderCache cache = sqlSource(mapping("id", Integer.class)).getBoundSql(1).getParameterBinderCache();
+
+    assertSame(cache, sqlSource(mapping("id", Integer.class)).getBoundSql(1).getParameterBinderCache());
+    assertNotSame(cache, sqlSource(mapping("id", String.class)).getBoundSql(1).getParameterBinderCache());
+    assertNotSame(cache, sqlSource(mapping("name", Integer.class)).getBoundSql(1).getParameterBinderCache());
+  }
+
+  @Test
+  void shouldNotCreateBindersWhenDisabled() {
+    configuration.setCompiledParameterBindersEnabled(false);
+
+    assertNull(sqlSource(mapping("id", Integer.class)).getBoundSql(1).getParameterBinderCache());
+  }
+
+  private void setParameters(StaticSqlSource sqlSource, Object parameterObject, PreparedStatement ps) {
+    BoundSql boundSql = sqlSource.getBoundSql(parameterObject);
+    new DefaultParameterHandler(mappedStatement(sqlSource), parameterObject, boundSql).setParameters(ps);
+  }
+
+  private StaticSqlSource sqlSource(ParameterMapping... parameterMappings) {
+    return new StaticSqlSource(configuration, "some statement", new ArrayList<>(Arrays.asList(parameterMappings)));
+  }
+
+  private ParameterMapping mapping(String property, Class<?> javaType) {
+    return new ParameterMapping.Builder(configuration, property, javaType).build();
+  }
+
+  private MappedStatement mappedStatement(StaticSqlSource sqlSource) {
+    return new MappedStatement.Builder(configuration, "statement", sqlSource, SqlCommandType.SELECT).build();
+  }
+
+}
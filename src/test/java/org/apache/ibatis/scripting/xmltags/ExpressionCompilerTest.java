@@ -0,0 +1,112 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.scripting.xmltags;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.ibatis.domain.blog.Author;
+import org.apache.ibatis.domain.blog.Section;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Test;
+
+class ExpressionCompilerTest {
+
+  private static final String[] EXPRESSIONS = {
+      "username", "username != null", "username == 'cbegin'", "username eq \"cbegin\"", "username != null and username != ''",
+      "password == null or password.length() == 0", "id", "id > 0", "id >= 1 && id lt 2", "id == 1.0", "!(id < 0)",
+      "not bio", "favouriteSection == null", "favouriteSection != null", "username.isEmpty()", "username > 'ab'",
+      "username and id", "username or id", "true", "null", "1", "0.0" };
+
+  private static final String[] MAP_EXPRESSIONS = {
+      "ids != null and ids.size() > 0", "ids.isEmpty()", "name != null and name.length() > 2", "nested.key == 10",
+      "nested.missing == null", "missing == null", "count != 0", "count == 3L", "enabled", "!enabled", "ids", "_parameter",
+      "_databaseId == null", "name == 'xy' or count > 2", "count == 3 and name", "ids.size", "name in {'ab'}" };
+
+  private final Configuration configuration = new Configuration();
+
+  @Test
+  void shouldCompileCommonExpressions() {
+    assertTrue(ExpressionCompiler.isCompilable("username != null and username != ''"));
+    assertTrue(ExpressionCompiler.isCompilable("ids != null && ids.size() > 0"));
+    assertTrue(ExpressionCompiler.isCompilable("not (a.b gte 1.5 or c == \"x\")"));
+    assertFalse(ExpressionCompiler.isCompilable("name in {'a'}"));
+    assertFalse(ExpressionCompiler.isCompilable("@java.lang.Math@max(1, 2)"));
+    assertFalse(ExpressionCompiler.isCompilable("name == 'x'.toString()"));
+    assertFalse(ExpressionCompiler.isCompilable("type == 'A'"));
+    assertFalse(ExpressionCompiler.isCompilable("list[0] == null"));
+    assertFalse(ExpressionCompiler.isCompilable("id == 1L"));
+    assertFalse(ExpressionCompiler.isCompilable("id > -1"));
+  }
+
+  @Test
+  void shouldEvaluateLikeOgnlForBean() {
+    Author author = new Author(1, "cbegin", "", "cbegin@apache.org", null, Section.NEWS);
+    assertSameAsOgnl(new DynamicContext(configuration, author).getBindings(), EXPRESSIONS);
+    Author empty = new Author(0, "", null, null, "bio", null);
+    assertSameAsOgnl(new DynamicContext(configuration, empty).getBindings(), EXPRESSIONS);
+  }
+
+  @Test
+  void shouldEvaluateLikeOgnlForMap() {
+    Map<String, Object> param = new HashMap<>();
+    param.put("ids", new ArrayList<>(Arrays.asList(1, 2, 3)));
+    param.put("name", "abc");
+    param.put("count", 3L);
+    param.put("enabled", "true");
+    param.put("nested", Collections.singletonMap("key", 10));
+    assertSameAsOgnl(new DynamicContext(configuration, param).getBindings(), MAP_EXPRESSIONS);
+    param.put("ids", new ArrayList<>());
+    param.put("count", 0);
+    param.put("enabled", Boolean.FALSE);
+    assertSameAsOgnl(new DynamicContext(configuration, param).getBindings(), MAP_EXPRESSIONS);
+  }
+
+  @Test
+  void shouldFallbackToOgnlForUnsupportedValues() {
+    Map<String, Object> param = new HashMap<>();
+    param.put("amount", new java.math.BigDecimal("1.0"));
+    param.put("name", "1");
+    Map<String, Object> bindings = new DynamicContext(configuration, param).getBindings();
+    assertEquals(Boolean.TRUE, ExpressionCompiler.getValue("amount == 1", bindings, configuration.getReflectorFactory()));
+    assertEquals(Boolean.TRUE, ExpressionCompiler.getValue("name == 1", bindings, configuration.getReflectorFactory()));
+  }
+
+  @Test
+  void shouldUseCompiledExpressionsWhenEnabled() {
+    configuration.setCompiledExpressionsEnabled(true);
+    ExpressionEvaluator evaluator = new ExpressionEvaluator();
+    Map<String, Object> param = new HashMap<>();
+    param.put("ids", new ArrayList<>(Arrays.asList(1, 2, 3)));
+    Map<String, Object> bindings = new DynamicContext(configuration, param).getBindings();
+    assertTrue(evaluator.evaluateBoolean("ids != null and ids.size() == 3", bindings));
+    assertFalse(evaluator.evaluateBoolean("ids.isEmpty()", bindings));
+    assertEquals(Arrays.asList(1, 2, 3), evaluator.evaluateIterable("ids", bindings));
+  }
+
+  private void assertSameAsOgnl(Map<String, Object> bindings, String... expressions) {
+    for (String expression : expressions) {
+      Object compiled = ExpressionCompiler.getValue(expression, bindings, configuration.getReflectorFactory());
+      assertEquals(OgnlCache.getValue(expression, bindings), compiled, expression);
+    }
+  }
+
+}
@@ -0,0 +1,159 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.batch_fetch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BatchFetchTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/batch_fetch/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/batch_fetch/CreateDB.sql");
+  }
+
+  @BeforeEach
+  void resetCounter() {
+    StatementCounter.count.set(0);
+  }
+
+  @Test
+  void shouldParseBatchFetchType() {
+    List<ResultMapping> mappings = sqlSessionFactory.getConfiguration()
+        .getResultMap("org.apache.ibatis.submitted.batch_fetch.Mapper.blogResult").getPropertyResultMappings();
+    assertEquals(0, findMapping(mappings, "title").getBatchSize());
+    assertEquals(100, findMapping(mappings, "author").getBatchSize());
+    assertEquals(4, findMapping(mappings, "posts").getBatchSize());
+    assertEquals("blog_id", findMapping(mappings, "posts").getForeignColumn());
+  }
+
+  @Test
+  void shouldLoadNestedSelectsInBatches() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Blog> blogs = sqlSession.getMapper(Mapper.class).selectBlogs();
+      // 1 for the blogs, 1 for the 3 authors, 3 for the 10 blogs' posts in batches of 4
+      assertEquals(5, StatementCounter.count.get());
+
+      assertEquals(10, blogs.size());
+      assertEquals("jim", blogs.get(0).getAuthor().getName());
+      assertEquals("sally", blogs.get(1).getAuthor().getName());
+      assertEquals("bob", blogs.get(3).getAuthor().getName());
+      assertSame(blogs.get(0).getAuthor(), blogs.get(2).getAuthor());
+      assertNull(blogs.get(4).getAuthor());
+
+      assertEquals(2, blogs.get(0).getPosts().size());
+      assertEquals("Post 2", blogs.get(0).getPosts().get(1).getSubject());
+      assertEquals(1, blogs.get(1).getPosts().size());
+      assertTrue(blogs.get(2).getPosts().isEmpty());
+      assertEquals(3, blogs.get(3).getPosts().size());
+      assertEquals("Post 8", blogs.get(9).getPosts().get(0).getSubject());
+    }
+  }
+
+  @Test
+  void shouldLoadNestedSelectsInBatchesFromAnnotation() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Blog> blogs = sqlSession.getMapper(Mapper.class).selectBlogsWithPosts();
+      // 1 for the blogs, 4 for the 10 blogs' posts in batches of 3
+      assertEquals(5, StatementCounter.count.get());
+      assertEquals(10, blogs.size());
+      assertEquals(3, blogs.get(3).getPosts().size());
+      assertEquals("Post 7", blogs.get(6).getPosts().get(0).getSubject());
+    }
+  }
+
+  @Test
+  void shouldUseBatchesAlreadyInLocalCache() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Post> posts = sqlSession.selectList("org.apache.ibatis.submitted.batch_fetch.Mapper.selectPosts", Arrays.asList(1, 2, 3));
+      assertEquals(3, posts.size());
+      StatementCounter.count.set(0);
+
+      List<Blog> blogs = sqlSession.getMapper(Mapper.class).selectBlogsWithPosts();
+      // 1 for the blogs, 3 for the blogs' posts not in the cached first batch
+      assertEquals(4, StatementCounter.count.get());
+      assertEquals(2, blogs.get(0).getPosts().size());
+      assertEquals(1, blogs.get(1).getPosts().size());
+      assertTrue(blogs.get(2).getPosts().isEmpty());
+      assertEquals(3, blogs.get(3).getPosts().size());
+    }
+  }
+
+  @Test
+  void shouldLoadEachRowGivenToResultHandler() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Blog> blogs = new ArrayList<>();
+      sqlSession.getMapper(Mapper.class).selectBlogsWithPostsToHandler(context -> {
+        // the row must be complete when it is handed over
+        assertTrue(context.getResultObject().getPosts() != null);
+        blogs.add(context.getResultObject());
+      });
+      assertEquals(11, StatementCounter.count.get());
+      assertEquals(2, blogs.get(0).getPosts().size());
+    }
+  }
+
+  @Test
+  void shouldLoadEachRowReadFromCursor() throws Exception {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Blog> blogs = new ArrayList<>();
+      try (Cursor<Blog> cursor = sqlSession.getMapper(Mapper.class).selectBlogsCursor()) {
+        cursor.forEach(blogs::add);
+      }
+      assertEquals(10, blogs.size());
+      assertEquals("jim", blogs.get(0).getAuthor().getName());
+      assertNull(blogs.get(4).getAuthor());
+      assertEquals(2, blogs.get(0).getPosts().size());
+      assertTrue(blogs.get(2).getPosts().isEmpty());
+      assertEquals("Post 8", blogs.get(9).getPosts().get(0).getSubject());
+    }
+  }
+
+  private ResultMapping findMapping(List<ResultMapping> mappings, String property) {
+    for (ResultMapping mapping : mappings) {
+      if (property.equals(mapping.getProperty())) {
+        return mapping;
+      }
+    }
+    throw new AssertionError("No mapping for " + property);
+  }
+
+}
@@ -0,0 +1,60 @@
+--
+--    Copyright 2009-2026 the original author or authors.
+--
+--    Licensed under the Apache License, Version 2.0 (the "License");
+--    you may not use this file except in compliance with the License.
+--    You may obtain a copy of the License at
+--
+--       http://www.apache.org/licenses/LICENSE-2.0
+--
+--    Unless required by applicable law or agreed to in writing, software
+--    distributed under the License is distributed on an "AS IS" BASIS,
+--    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--    See the License for the specific language governing permissions and
+--    limitations under the License.
+--
+
+drop table post if exists;
+drop table blog if exists;
+drop table author if exists;
+
+create table author (
+  id int,
+  name varchar(20)
+);
+
+create table blog (
+  id int,
+  title varchar(20),
+  author_id int
+);
+
+create table post (
+  id int,
+  blog_id int,
+  subject varchar(20)
+);
+
+insert into author (id, name) values (1, 'jim');
+insert into author (id, name) values (2, 'sally');
+insert into author (id, name) values (3, 'bob');
+
+insert into blog (id, title, author_id) values (1, 'Blog 1', 1);
+insert into blog (id, title, author_id) values (2, 'Blog 2', 2);
+insert into blog (id, title, author_id) values (3, 'Blog 3', 1);
+insert into blog (id, title, author_id) values (4, 'Blog 4', 3);
+insert into blog (id, title, author_id) values (5, 'Blog 5', null);
+insert into blog (id, title, author_id) values (6, 'Blog 6', 2);
+insert into blog (id, title, author_id) values (7, 'Blog 7', 3);
+insert into blog (id, title, author_id) values (8, 'Blog 8', 1);
+insert into blog (id, title, author_id) values (9, 'Blog 9', 2);
+insert into blog (id, title, author_id) values (10, 'Blog 10', 3);
+
+insert into post (id, blog_id, subject) values (1, 1, 'Post 1');
+insert into post (id, blog_id, subject) values (2, 1, 'Post 2');
+insert into post (id, blog_id, subject) values (3, 2, 'Post 3');
+insert into post (id, blog_id, subject) values (4, 4, 'Post 4');
+insert into post (id, blog_id, subject) values (5, 4, 'Post 5');
+insert into post (id, blog_id, subject) values (6, 4, 'Post 6');
+insert into post (id, blog_id, subject) values (7, 7, 'Post 7');
+insert into post (id, blog_id, subject) values (8, 10, 'Post 8');
@@ -0,0 +1,148 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.batch_insert_rewrite;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BatchInsertRewriteTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/batch_insert_rewrite/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/batch_insert_rewrite/CreateDB.sql");
+  }
+
+  @Test
+  void shouldCoalesceInsertsIntoMultiRowInserts() {
+    List<User> users = new ArrayList<>();
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      for (int i = 0; i < 25; i++) {
+        User user = new User("User" + i);
+        users.add(user);
+        mapper.insert(user);
+      }
+      List<BatchResult> results = sqlSession.flushStatements();
+      sqlSession.commit();
+
+      // 10 rows per statement, the last 5 rows in another statement
+      assertEquals(2, results.size());
+      assertTrue(results.get(0).getSql().contains("(?), (?)"));
+      assertEquals(20, results.get(0).getParameterObjects().size());
+      assertEquals(20, results.get(0).getUpdateCounts().length);
+      assertEquals(5, results.get(1).getParameterObjects().size());
+      int[] ones = new int[5];
+      Arrays.fill(ones, 1);
+      assertArrayEquals(ones, results.get(1).getUpdateCounts());
+    }
+    for (int i = 0; i < users.size(); i++) {
+      assertEquals(Integer.valueOf(i), users.get(i).getId());
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<User> inserted = sqlSession.getMapper(Mapper.class).selectAll();
+      assertEquals(25, inserted.size());
+      assertEquals("User24", inserted.get(24).getName());
+    }
+  }
+
+  @Test
+  void shouldLimitRowsByBindParameters() {
+    sqlSessionFactory.getConfiguration().setBatchInsertMaxParameters(4);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      for (int i = 0; i < 10; i++) {
+        mapper.insert(new User("User" + i));
+      }
+      List<BatchResult> results = sqlSession.flushStatements();
+      assertEquals(2, results.size());
+      assertEquals("insert into users (name) values (?), (?), (?), (?)", results.get(0).getSql());
+      assertEquals("insert into users (name) values (?), (?)", results.get(1).getSql());
+      sqlSession.commit();
+    }
+  }
+
+  @Test
+  void shouldKeepStatementOrder() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      mapper.insert(new User("User0"));
+      mapper.insert(new User("User1"));
+      User user = new User("Renamed");
+      user.setId(1);
+      mapper.update(user);
+      mapper.insert(new User("User2"));
+      List<BatchResult> results = sqlSession.flushStatements();
+      assertEquals(3, results.size());
+      assertEquals(1, results.get(1).getUpdateCounts()[0]);
+      sqlSession.commit();
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<User> users = sqlSession.getMapper(Mapper.class).selectAll();
+      assertEquals(3, users.size());
+      assertEquals("Renamed", users.get(1).getName());
+    }
+  }
+
+  @Test
+  void shouldNotRewriteInsertsWithSelectKey() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      mapper.insertWithSelectKey(new User("User0"));
+      mapper.insertWithSelectKey(new User("User1"));
+      List<BatchResult> results = sqlSession.flushStatements();
+      assertFalse(results.get(0).getSql().contains("), ("));
+      sqlSession.commit();
+    }
+  }
+
+  @Test
+  void shouldDiscardPendingRowsOnRollback() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      mapper.insert(new User("User0"));
+      mapper.insert(new User("User1"));
+      sqlSession.rollback();
+    }
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertTrue(sqlSession.getMapper(Mapper.class).selectAll().isEmpty());
+    }
+  }
+
+}
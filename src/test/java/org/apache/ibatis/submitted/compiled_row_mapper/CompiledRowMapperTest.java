@@ -0,0 +1,114 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.compiled_row_mapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.Reader;
+import java.sql.Timestamp;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class CompiledRowMapperTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    // create a SqlSessionFactory
+    try (Reader reader = Resources
+        .getResourceAsReader("org/apache/ibatis/submitted/compiled_row_mapper/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    // populate in-memory database
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/compiled_row_mapper/CreateDB.sql");
+  }
+
+  @Test
+  void shouldMapAutoMappedColumns() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertUsers(sqlSession.getMapper(Mapper.class).getUsersAutoMapped());
+    }
+  }
+
+  @Test
+  void shouldMapPropertyMappings() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertUsers(sqlSession.getMapper(Mapper.class).getUsersMapped());
+    }
+  }
+
+  @Test
+  void shouldMapSameResultTypeWithDifferentColumnLayout() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      mapper.getUsersAutoMapped();
+      User user = mapper.getUserWithReorderedColumns(1);
+      assertEquals(Integer.valueOf(1), user.getId());
+      assertEquals("User1", user.getName());
+      assertEquals(User.Status.ACTIVE, user.getStatus());
+      assertNull(user.getScore());
+    }
+  }
+
+  @Test
+  void shouldGiveSameResultsAsReflectiveMapping() {
+    sqlSessionFactory.getConfiguration().setCompiledRowMappersEnabled(false);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertUsers(sqlSession.getMapper(Mapper.class).getUsersAutoMapped());
+    } finally {
+      sqlSessionFactory.getConfiguration().setCompiledRowMappersEnabled(true);
+    }
+  }
+
+  private void assertUsers(List<User> users) {
+    assertEquals(3, users.size());
+
+    User user1 = users.get(0);
+    assertEquals(Integer.valueOf(1), user1.getId());
+    assertEquals("User1", user1.getName());
+    assertEquals(30, user1.getAge());
+    assertEquals(Double.valueOf(1.5), user1.getScore());
+    assertTrue(user1.isActive());
+    assertEquals(User.Status.ACTIVE, user1.getStatus());
+    assertEquals(Timestamp.valueOf("2021-01-02 03:04:05").getTime(), user1.getCreatedAt().getTime());
+
+    User user2 = users.get(1);
+    assertEquals("User2", user2.getName());
+    assertEquals(0, user2.getAge());
+    assertNull(user2.getScore());
+    assertFalse(user2.isActive());
+    assertNull(user2.getStatus());
+    assertNull(user2.getCreatedAt());
+
+    User user3 = users.get(2);
+    assertEquals(Integer.valueOf(3), user3.getId());
+    assertNull(user3.getName());
+  }
+
+}
@@ -0,0 +1,31 @@
+--
+--    Copyright 2009-2026 the original author or authors.
+--
+--    Licensed under the Apache License, Version 2.0 (the "License");
+--    you may not use this file except in compliance with the License.
+--    You may obtain a copy of the License at
+--
+--       http://www.apache.org/licenses/LICENSE-2.0
+--
+--    Unless required by applicable law or agreed to in writing, software
+--    distributed under the License is distributed on an "AS IS" BASIS,
+--    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--    See the License for the specific language governing permissions and
+--    limitations under the License.
+--
+
+drop table users if exists;
+
+create table users (
+  id int,
+  name varchar(20),
+  age int,
+  score double,
+  active boolean,
+  status varchar(10),
+  created_at timestamp
+);
+
+insert into users (id, name, age, score, active, status, created_at) values(1, 'User1', 30, 1.5, true, 'ACTIVE', '2021-01-02 03:04:05');
+insert into users (id, name, age, score, active, status, created_at) values(2, 'User2', null, null, null, null, null);
+insert into users (id, name, age, score, active, status, created_at) values(3, null, null, null, null, null, null);
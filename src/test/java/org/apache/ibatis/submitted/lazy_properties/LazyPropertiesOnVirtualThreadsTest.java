@@ -0,0 +1,26 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.lazy_properties;
+
+import org.apache.ibatis.submitted.virtual_threads.VirtualThreadExtension;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Runs the tests of {@link LazyPropertiesTest} on virtual threads.
+ */
+@ExtendWith(VirtualThreadExtension.class)
+class LazyPropertiesOnVirtualThreadsTest extends LazyPropertiesTest {
+}
@@ -0,0 +1,133 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.metrics.HistogramMetricsCollector;
+import org.apache.ibatis.metrics.MetricsReporter;
+import org.apache.ibatis.metrics.StatementMetrics;
+import org.apache.ibatis.metrics.StatementPhase;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MetricsTest {
+
+  private static final String GET_USER = "org.apache.ibatis.submitted.metrics.Mapper.getUser";
+  private static final String GET_USERS = "org.apache.ibatis.submitted.metrics.Mapper.getUsers";
+  private static final String INSERT_USER = "org.apache.ibatis.submitted.metrics.Mapper.insertUser";
+
+  private static SqlSessionFactory sqlSessionFactory;
+  private static HistogramMetricsCollector collector;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/metrics/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    collector = (HistogramMetricsCollector) sqlSessionFactory.getConfiguration().getMetricsCollector();
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/metrics/CreateDB.sql");
+  }
+
+  @BeforeEach
+  void resetCollector() {
+    collector.reset();
+  }
+
+  @Test
+  void shouldBindCollectorToPooledDataSource() {
+    PooledDataSource dataSource = (PooledDataSource) sqlSessionFactory.getConfiguration().getEnvironment()
+        .getDataSource();
+    assertSame(collector, dataSource.getMetricsCollector());
+  }
+
+  @Test
+  void shouldRecordEachPhaseOfAQuery() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertEquals("User1", mapper.getUser(1).getName());
+      assertEquals("User1", mapper.getUser(1).getName());
+    }
+    StatementMetrics metrics = collector.getStatementMetrics(GET_USER);
+    assertEquals(2, metrics.getHistogram(StatementPhase.TOTAL).getCount());
+    for (StatementPhase phase : new StatementPhase[] { StatementPhase.PREPARE, StatementPhase.PARAMETERIZE,
+        StatementPhase.EXECUTE, StatementPhase.MAPPING }) {
+      assertEquals(1, metrics.getHistogram(phase).getCount(), phase.name());
+    }
+    assertEquals(1, metrics.getRowsMapped());
+    assertEquals(1, metrics.getLocalCacheHits());
+    assertEquals(0, metrics.getSecondLevelCacheHits());
+    assertTrue(collector.getConnectionAcquisition().getCount() > 0);
+  }
+
+  @Test
+  void shouldRecordRowsMappedAndSecondLevelCacheHits() {
+    for (int i = 0; i < 2; i++) {
+      try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+        assertEquals(3, sqlSession.getMapper(Mapper.class).getUsers().size());
+      }
+    }
+    StatementMetrics metrics = collector.getStatementMetrics(GET_USERS);
+    assertEquals(3, metrics.getRowsMapped());
+    assertEquals(1, metrics.getSecondLevelCacheHits());
+    assertEquals(1, metrics.getHistogram(StatementPhase.TOTAL).getCount());
+  }
+
+  @Test
+  void shouldRecordUpdates() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      User user = new User();
+      user.setId(4);
+      user.setName("User4");
+      assertEquals(1, sqlSession.getMapper(Mapper.class).insertUser(user));
+      sqlSession.rollback(true);
+    }
+    StatementMetrics metrics = collector.getStatementMetrics(INSERT_USER);
+    assertEquals(1, metrics.getHistogram(StatementPhase.TOTAL).getCount());
+    assertEquals(1, metrics.getHistogram(StatementPhase.EXECUTE).getCount());
+    assertNull(metrics.getHistogram(StatementPhase.MAPPING));
+  }
+
+  @Test
+  void shouldWriteReport() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      sqlSession.getMapper(Mapper.class).getUser(2);
+    }
+    List<String> reports = new ArrayList<>();
+    try (MetricsReporter reporter = new MetricsReporter(collector, reports::add, true)) {
+      reporter.report();
+    }
+    assertEquals(1, reports.size());
+    assertTrue(reports.get(0).contains(GET_USER + " rows=1"));
+    assertTrue(reports.get(0).contains("  execute count=1"));
+    assertTrue(reports.get(0).contains("connection acquisition count="));
+    assertEquals(0, collector.getStatementMetrics(GET_USER).getHistogram(StatementPhase.TOTAL).getCount());
+  }
+
+}
@@ -0,0 +1,32 @@
+--
+--    Copyright 2009-2026 the original author or authors.
+--
+--    Licensed under the Apache License, Version 2.0 (the "License");
+--    you may not use this file except in compliance with the License.
+--    You may obtain a copy of the License at
+--
+--       http://www.apache.org/licenses/LICENSE-2.0
+--
+--    Unless required by applicable law or agreed to in writing, software
+--    distributed under the License is distributed on an "AS IS" BASIS,
+--    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--    See the License for the specific language governing permissions and
+--    limitations under the License.
+--
+
+drop table users if exists;
+
+create table users (
+  id int,
+  name varchar(20),
+  age int
+);
+
+insert into users (id, name, age)
+with recursive numbers (n) as (
+  values (1)
+  union all
+  select n + 1 from numbers where n < 3000
+)
+select n, case when mod(n, 7) = 0 then null else 'User' || n end, case when mod(n, 5) = 0 then null else n * 2 end
+from numbers;
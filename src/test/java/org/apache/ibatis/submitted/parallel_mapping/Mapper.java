@@ -0,0 +1,46 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.parallel_mapping;
+
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.ResultType;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+public interface Mapper {
+
+  List<User> getUsers(RowBounds rowBounds);
+
+  List<User> getUsersInParallel(RowBounds rowBounds);
+
+  @Select("select * from users order by id")
+  @Options(parallelMapping = true)
+  List<User> getAutoMappedUsersInParallel();
+
+  @Select("select * from users order by id")
+  @Options(parallelMapping = true)
+  @ResultType(User.class)
+  void getUsersInParallelWithHandler(ResultHandler<User> resultHandler);
+
+  @Select("select * from users order by id")
+  @Options(parallelMapping = true)
+  List<Map<String, Object>> getUserMapsInParallel();
+
+}
@@ -0,0 +1,117 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.parallel_mapping;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class ParallelMappingTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    // create a SqlSessionFactory
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/parallel_mapping/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    // populate in-memory database
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/parallel_mapping/CreateDB.sql");
+  }
+
+  @Test
+  void shouldEnableParallelMappingFromXmlAndAnnotation() {
+    assertTrue(sqlSessionFactory.getConfiguration()
+        .getMappedStatement("org.apache.ibatis.submitted.parallel_mapping.Mapper.getUsersInParallel").isParallelMapping());
+    assertTrue(sqlSessionFactory.getConfiguration()
+        .getMappedStatement("org.apache.ibatis.submitted.parallel_mapping.Mapper.getAutoMappedUsersInParallel").isParallelMapping());
+    assertFalse(sqlSessionFactory.getConfiguration()
+        .getMappedStatement("org.apache.ibatis.submitted.parallel_mapping.Mapper.getUsers").isParallelMapping());
+  }
+
+  @Test
+  void shouldMapSameResultsInSameOrder() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<User> expected = mapper.getUsers(RowBounds.DEFAULT);
+      List<User> users = mapper.getUsersInParallel(RowBounds.DEFAULT);
+      assertEquals(3000, users.size());
+      assertEquals(expected.toString(), users.toString());
+      assertNull(users.get(6).getName());
+      assertNull(users.get(4).getAge());
+      assertEquals(expected.toString(), mapper.getAutoMappedUsersInParallel().toString());
+    }
+  }
+
+  @Test
+  void shouldApplyRowBounds() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<User> users = mapper.getUsersInParallel(new RowBounds(100, 1000));
+      assertEquals(1000, users.size());
+      assertEquals(101, (int) users.get(0).getId());
+      assertEquals(1100, (int) users.get(999).getId());
+    }
+  }
+
+  @Test
+  void shouldStopWhenResultHandlerStops() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<User> users = new ArrayList<>();
+      mapper.getUsersInParallelWithHandler(context -> {
+        users.add(context.getResultObject());
+        if (context.getResultCount() == 777) {
+          context.stop();
+        }
+      });
+      assertEquals(777, users.size());
+      for (int i = 0; i < users.size(); i++) {
+        assertEquals(i + 1, (int) users.get(i).getId());
+      }
+    }
+  }
+
+  @Test
+  void shouldMapIntoMaps() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<Map<String, Object>> users = mapper.getUserMapsInParallel();
+      assertEquals(3000, users.size());
+      assertEquals("User1", users.get(0).get("NAME"));
+      assertFalse(users.get(6).containsKey("NAME"));
+    }
+  }
+
+}
@@ -0,0 +1,249 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.reactive;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.reactive.Publisher;
+import org.apache.ibatis.reactive.ReactiveSqlSession;
+import org.apache.ibatis.reactive.Subscriber;
+import org.apache.ibatis.reactive.Subscription;
+import org.apache.ibatis.reactive.defaults.DefaultReactiveSqlSession;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ReactiveSqlSessionTest {
+
+  private static final String GET_ALL_USERS = "org.apache.ibatis.submitted.reactive.Mapper.getAllUsers";
+
+  private static SqlSessionFactory sqlSessionFactory;
+  private static ReactiveSqlSession reactiveSqlSession;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    // create a SqlSessionFactory
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/reactive/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    reactiveSqlSession = new DefaultReactiveSqlSession(sqlSessionFactory);
+  }
+
+  @BeforeEach
+  void populate() throws Exception {
+    // populate in-memory database
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/reactive/CreateDB.sql");
+  }
+
+  @AfterAll
+  static void tearDown() {
+    reactiveSqlSession.close();
+  }
+
+  @Test
+  void shouldStreamAllRows() throws Exception {
+    TestSubscriber<User> subscriber = new TestSubscriber<>(Long.MAX_VALUE);
+    reactiveSqlSession.<User>selectMany(GET_ALL_USERS).subscribe(subscriber);
+    subscriber.await();
+
+    assertNull(subscriber.error);
+    assertTrue(subscriber.completed);
+    assertEquals(5, subscriber.items.size());
+    assertEquals("User1", subscriber.items.get(0).getName());
+    assertEquals("User5", subscriber.items.get(4).getName());
+    assertEquals(0, activeConnections());
+  }
+
+  @Test
+  void shouldHonorDemand() throws Exception {
+    TestSubscriber<User> subscriber = new TestSubscriber<>(2);
+    reactiveSqlSession.<User>selectMany(GET_ALL_USERS).subscribe(subscriber);
+    subscriber.awaitItems(2);
+    // no more rows than requested
+    Thread.sleep(100);
+    assertEquals(2, subscriber.items.size());
+    assertEquals(1, activeConnections());
+
+    subscriber.subscription.request(10);
+    subscriber.await();
+    assertEquals(5, subscriber.items.size());
+    assertTrue(subscriber.completed);
+    assertEquals(0, activeConnections());
+  }
+
+  @Test
+  void shouldReleaseConnectionOnCancel() throws Exception {
+    TestSubscriber<User> subscriber = new TestSubscriber<>(1);
+    reactiveSqlSession.<User>selectMany(GET_ALL_USERS).subscribe(subscriber);
+    subscriber.awaitItems(1);
+    assertEquals(1, activeConnections());
+
+    subscriber.subscription.cancel();
+    long deadline = System.currentTimeMillis() + 5000;
+    while (activeConnections() > 0 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(0, activeConnections());
+    assertEquals(1, subscriber.items.size());
+    assertTrue(!subscriber.completed);
+  }
+
+  @Test
+  void shouldApplyRowBounds() throws Exception {
+    TestSubscriber<User> subscriber = new TestSubscriber<>(Long.MAX_VALUE);
+    reactiveSqlSession.<User>selectMany(GET_ALL_USERS, null, new RowBounds(1, 2)).subscribe(subscriber);
+    subscriber.await();
+
+    assertEquals(2, subscriber.items.size());
+    assertEquals("User2", subscriber.items.get(0).getName());
+    assertEquals("User3", subscriber.items.get(1).getName());
+  }
+
+  @Test
+  void shouldSelectOne() throws Exception {
+    TestSubscriber<User> subscriber = new TestSubscriber<>(1);
+    reactiveSqlSession.<User>selectOne("org.apache.ibatis.submitted.reactive.Mapper.getUser", 3)
+        .subscribe(subscriber);
+    subscriber.await();
+
+    assertTrue(subscriber.completed);
+    assertEquals(1, subscriber.items.size());
+    assertEquals("User3", subscriber.items.get(0).getName());
+  }
+
+  @Test
+  void shouldCompleteEmptyWhenNoRow() throws Exception {
+    TestSubscriber<User> subscriber = new TestSubscriber<>(1);
+    reactiveSqlSession.<User>selectOne("org.apache.ibatis.submitted.reactive.Mapper.getNoUser").subscribe(subscriber);
+    subscriber.await();
+
+    assertTrue(subscriber.completed);
+    assertTrue(subscriber.items.isEmpty());
+  }
+
+  @Test
+  void shouldInsertAndCommit() throws Exception {
+    TestSubscriber<Integer> subscriber = new TestSubscriber<>(1);
+    reactiveSqlSession.insert("org.apache.ibatis.submitted.reactive.Mapper.insertUser", new User(6, "User6"))
+        .subscribe(subscriber);
+    subscriber.await();
+
+    assertEquals(Collections.singletonList(1), subscriber.items);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertEquals("User6", sqlSession.getMapper(Mapper.class).getUser(6).getName());
+    }
+  }
+
+  @Test
+  void shouldNotExecuteBeforeRequest() throws Exception {
+    Publisher<Integer> publisher = reactiveSqlSession
+        .insert("org.apache.ibatis.submitted.reactive.Mapper.insertUser", new User(7, "User7"));
+    TestSubscriber<Integer> subscriber = new TestSubscriber<>(0);
+    publisher.subscribe(subscriber);
+    Thread.sleep(100);
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      assertNull(sqlSession.getMapper(Mapper.class).getUser(7));
+    }
+    subscriber.subscription.cancel();
+  }
+
+  @Test
+  void shouldSignalErrorOnInvalidRequest() throws Exception {
+    TestSubscriber<User> subscriber = new TestSubscriber<>(0);
+    reactiveSqlSession.<User>selectMany(GET_ALL_USERS).subscribe(subscriber);
+    subscriber.subscription.request(-1);
+    subscriber.await();
+
+    assertTrue(subscriber.error instanceof IllegalArgumentException);
+    assertEquals(0, activeConnections());
+  }
+
+  private static int activeConnections() {
+    PooledDataSource dataSource = (PooledDataSource) sqlSessionFactory.getConfiguration().getEnvironment()
+        .getDataSource();
+    return dataSource.getPoolState().getActiveConnectionCount();
+  }
+
+  private static class TestSubscriber<T> implements Subscriber<T> {
+
+    private final long initialRequest;
+    private final List<T> items = Collections.synchronizedList(new ArrayList<>());
+    private final CountDownLatch terminated = new CountDownLatch(1);
+    private volatile Subscription subscription;
+    private volatile boolean completed;
+    private volatile Throwable error;
+
+    TestSubscriber(long initialRequest) {
+      this.initialRequest = initialRequest;
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+      this.subscription = subscription;
+      if (initialRequest > 0) {
+        subscription.request(initialRequest);
+      }
+    }
+
+    @Override
+    public void onNext(T item) {
+      items.add(item);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      error = throwable;
+      terminated.countDown();
+    }
+
+    @Override
+    public void onComplete() {
+      completed = true;
+      terminated.countDown();
+    }
+
+    void await() throws InterruptedException {
+      assertTrue(terminated.await(5, TimeUnit.SECONDS));
+    }
+
+    void awaitItems(int count) throws InterruptedException {
+      long deadline = System.currentTimeMillis() + 5000;
+      while (items.size() < count && System.currentTimeMillis() < deadline) {
+        Thread.sleep(10);
+      }
+      assertEquals(count, items.size());
+    }
+  }
+
+}
@@ -0,0 +1,74 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.virtual_threads;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.InvocationInterceptor;
+import org.junit.jupiter.api.extension.ReflectiveInvocationContext;
+
+/**
+ * Runs each test method of the test class on a virtual thread, so that existing test suites can be run again with
+ * {@code @ExtendWith(VirtualThreadExtension.class)} on a subclass. The tests are skipped on JVMs without virtual
+ * threads.
+ */
+public class VirtualThreadExtension implements InvocationInterceptor {
+
+  @Override
+  public void interceptTestMethod(Invocation<Void> invocation, ReflectiveInvocationContext<Method> invocationContext,
+      ExtensionContext extensionContext) throws Throwable {
+    ExecutorService executor = newVirtualThreadPerTaskExecutor();
+    assumeTrue(executor != null, "Virtual threads are not supported by this JVM");
+    Throwable[] failure = new Throwable[1];
+    try {
+      executor.submit(() -> {
+        try {
+          invocation.proceed();
+        } catch (Throwable t) {
+          failure[0] = t;
+        }
+      }).get();
+    } finally {
+      executor.shutdown();
+    }
+    if (failure[0] != null) {
+      throw failure[0];
+    }
+  }
+
+  /**
+   * Looked up reflectively because the build targets Java 8.
+   *
+   * @return a new executor that starts a virtual thread for each task, or {@code null} if the JVM does not support them
+   */
+  public static ExecutorService newVirtualThreadPerTaskExecutor() {
+    try {
+      return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (NoSuchMethodException | IllegalAccessException e) {
+      return null;
+    } catch (InvocationTargetException e) {
+      // virtual threads are a preview feature that has not been enabled
+      return null;
+    }
+  }
+
+}
@@ -0,0 +1,90 @@
+/**
+ *    Copyright 2009-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.virtual_threads;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Runs many sessions on virtual threads (when the JVM supports them) through the pooled data sources, the second level
+ * cache and lazy loading.
+ */
+class VirtualThreadsTest {
+
+  private static final int SESSIONS = 10_000;
+
+  @Test
+  void shouldRunSessionsOnVirtualThreadsWithPooledDataSource() throws Exception {
+    runSessions("pooled");
+  }
+
+  @Test
+  void shouldRunSessionsOnVirtualThreadsWithConcurrentPooledDataSource() throws Exception {
+    runSessions("pooled_concurrent");
+  }
+
+  private void runSessions(String environment) throws Exception {
+    ExecutorService executor = VirtualThreadExtension.newVirtualThreadPerTaskExecutor();
+    assumeTrue(executor != null, "Virtual threads are not supported by this JVM");
+    SqlSessionFactory sqlSessionFactory;
+    try (Reader reader = Resources
+        .getResourceAsReader("org/apache/ibatis/submitted/virtual_threads/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader, environment);
+    }
+    PooledDataSource dataSource = (PooledDataSource) sqlSessionFactory.getConfiguration().getEnvironment()
+        .getDataSource();
+    BaseDataTest.runScript(dataSource, "org/apache/ibatis/submitted/virtual_threads/CreateDB.sql");
+    try {
+      List<Future<String>> futures = new ArrayList<>();
+      for (int i = 0; i < SESSIONS; i++) {
+        int id = i % 6 + 1;
+        futures.add(executor.submit(() -> {
+          try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+            User user = sqlSession.getMapper(UserMapper.class).getUser(id);
+            return user.getName() + "/" + user.getGroup().getName();
+          }
+        }));
+      }
+      for (int i = 0; i < SESSIONS; i++) {
+        int id = i % 6 + 1;
+        assertEquals("User" + id + "/Group" + ((id - 1) % 3 + 1), futures.get(i).get(60, TimeUnit.SECONDS));
+      }
+    } finally {
+      executor.shutdown();
+      assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+    }
+    assertEquals(0, dataSource.getPoolState().getActiveConnectionCount());
+    assertEquals(0, dataSource.getPoolState().getBadConnectionCount());
+    assertEquals(SESSIONS + 1, dataSource.getPoolState().getRequestCount());
+    dataSource.forceCloseAll();
+  }
+
+}